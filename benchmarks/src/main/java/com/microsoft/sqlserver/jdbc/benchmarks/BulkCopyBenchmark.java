@@ -0,0 +1,107 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+
+
+/**
+ * Measures SQLServerBulkCopy row writing: copying generated rows matching the columns of {@link CannedResult} into a
+ * table. The server returns the destination metadata from the canned result and discards the bulk load data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkCopyBenchmark extends FakeServerState {
+    @Param({"1000", "100000"})
+    public int rowCount;
+
+    @Override
+    protected CannedResult createResult() {
+        // Bulk copy only reads the destination metadata
+        return new CannedResult(0);
+    }
+
+    @Benchmark
+    public void writeToServer() throws SQLException {
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection)) {
+            bulkCopy.setDestinationTableName("bench");
+            bulkCopy.writeToServer(new GeneratedRows(rowCount));
+        }
+    }
+
+    /**
+     * Generates the rows of a {@link CannedResult} of the same size.
+     */
+    static final class GeneratedRows implements ISQLServerBulkData {
+        private static final long serialVersionUID = 1L;
+
+        private static final int[] COLUMN_TYPES = {Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.NVARCHAR};
+        private static final Set<Integer> COLUMN_ORDINALS = new LinkedHashSet<>(Arrays.asList(1, 2, 3, 4));
+
+        private final int rowCount;
+        private int row = -1;
+
+        GeneratedRows(int rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return COLUMN_ORDINALS;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return CannedResult.COLUMN_NAMES[column - 1];
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return COLUMN_TYPES[column - 1];
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return (Types.NVARCHAR == COLUMN_TYPES[column - 1]) ? CannedResult.NAME_LENGTH : 0;
+        }
+
+        @Override
+        public int getScale(int column) {
+            return 0;
+        }
+
+        @Override
+        public Object[] getRowData() {
+            return new Object[] {CannedResult.id(row), CannedResult.amount(row), CannedResult.price(row),
+                    CannedResult.name(row)};
+        }
+
+        @Override
+        public boolean next() {
+            return ++row < rowCount;
+        }
+    }
+}
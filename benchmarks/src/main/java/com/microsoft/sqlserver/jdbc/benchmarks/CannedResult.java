@@ -0,0 +1,148 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+/**
+ * CannedResult is the result set returned by the fake server for every row returning request.
+ *
+ * The result has four columns, {@code id int}, {@code amount bigint}, {@code price float} and {@code name
+ * nvarchar(50)}. Each value is derived from the row number, so that every run produces the same TDS stream. Every tenth
+ * name is NULL.
+ *
+ * A wide result repeats these four columns in groups, e.g. 50 groups for 200 columns. The columns of group g, counting
+ * from 0, are named with the suffix "_g" except in the first group, and have the same values as those of the first
+ * group. Rows with NULL names are sent as NBCROW tokens, which leave NULL values out of the row, when the result has
+ * more than one group.
+ */
+public final class CannedResult {
+    /** Column names, in ordinal order */
+    public static final String[] COLUMN_NAMES = {"id", "amount", "price", "name"};
+
+    /** Maximum length, in characters, of the name column */
+    public static final int NAME_LENGTH = 50;
+
+    private final int rowCount;
+    private final int columnGroups;
+    private final byte[] metadata;
+    private final byte[] rows;
+
+    /**
+     * Encodes a result of the given number of rows.
+     *
+     * @param rowCount
+     *        the number of rows, may be 0 for a metadata only result
+     */
+    public CannedResult(int rowCount) {
+        this(rowCount, 1);
+    }
+
+    /**
+     * Encodes a result of the given number of rows and groups of columns.
+     *
+     * @param rowCount
+     *        the number of rows, may be 0 for a metadata only result
+     * @param columnGroups
+     *        the number of times the four columns are repeated
+     */
+    public CannedResult(int rowCount, int columnGroups) {
+        this.rowCount = rowCount;
+        this.columnGroups = columnGroups;
+        this.metadata = encodeMetadata(columnGroups);
+
+        int columnCount = COLUMN_NAMES.length * columnGroups;
+        TokenWriter writer = new TokenWriter();
+        for (int row = 0; row < rowCount; row++) {
+            boolean isNullName = (null == name(row));
+            if (isNullName && columnGroups > 1) {
+                // The name is the last column of each group
+                writer.writeByte(TokenWriter.TDS_NBCROW);
+                for (int column = 0; column < columnCount; column += 8) {
+                    int nullBits = 0;
+                    for (int bit = 0; bit < 8 && column + bit < columnCount; bit++) {
+                        if (3 == (column + bit) % COLUMN_NAMES.length)
+                            nullBits |= 1 << bit;
+                    }
+                    writer.writeByte(nullBits);
+                }
+            } else {
+                writer.writeByte(TokenWriter.TDS_ROW);
+            }
+
+            for (int group = 0; group < columnGroups; group++) {
+                writer.writeByte(4).writeInt(id(row));
+                writer.writeByte(8).writeLong(amount(row));
+                writer.writeByte(8).writeLong(Double.doubleToLongBits(price(row)));
+                if (!isNullName || 1 == columnGroups)
+                    writer.writeNVarcharValue(name(row));
+            }
+        }
+        this.rows = writer.toByteArray();
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return COLUMN_NAMES.length * columnGroups;
+    }
+
+    public static int id(int row) {
+        return row;
+    }
+
+    public static long amount(int row) {
+        return row * 1_000_003L;
+    }
+
+    public static double price(int row) {
+        return row * 0.25;
+    }
+
+    public static String name(int row) {
+        return (9 == row % 10) ? null : "row-" + row;
+    }
+
+    /** COLMETADATA token */
+    byte[] getMetadata() {
+        return metadata;
+    }
+
+    /** ROW tokens */
+    byte[] getRows() {
+        return rows;
+    }
+
+    private static byte[] encodeMetadata(int columnGroups) {
+        TokenWriter writer = new TokenWriter();
+        writer.writeByte(TokenWriter.TDS_COLMETADATA);
+        writer.writeShort(COLUMN_NAMES.length * columnGroups);
+
+        for (int group = 0; group < columnGroups; group++) {
+            String suffix = (0 == group) ? "" : "_" + group;
+
+            writeColumnHeader(writer).writeByte(TokenWriter.TYPE_INTN).writeByte(4);
+            writer.writeBVarchar(COLUMN_NAMES[0] + suffix);
+
+            writeColumnHeader(writer).writeByte(TokenWriter.TYPE_INTN).writeByte(8);
+            writer.writeBVarchar(COLUMN_NAMES[1] + suffix);
+
+            writeColumnHeader(writer).writeByte(TokenWriter.TYPE_FLTN).writeByte(8);
+            writer.writeBVarchar(COLUMN_NAMES[2] + suffix);
+
+            writeColumnHeader(writer).writeByte(TokenWriter.TYPE_NVARCHAR).writeShort(NAME_LENGTH * 2)
+                    .writeBytes(TokenWriter.COLLATION);
+            writer.writeBVarchar(COLUMN_NAMES[3] + suffix);
+        }
+
+        return writer.toByteArray();
+    }
+
+    private static TokenWriter writeColumnHeader(TokenWriter writer) {
+        writer.writeInt(0); // user type
+        return writer.writeShort(0x0009); // flags: nullable, updateable
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+
+/**
+ * FakeServerState starts a {@link FakeTDSServer} and opens a connection to it for the lifetime of a benchmark trial.
+ *
+ * Every benchmark runs with and without useDirectBuffers, so that the socket channel I/O path is compared against the
+ * socket stream path on the same workload.
+ */
+@State(Scope.Thread)
+public abstract class FakeServerState {
+    @Param({"false", "true"})
+    public boolean useDirectBuffers;
+
+    protected FakeTDSServer server;
+    protected Connection connection;
+
+    /**
+     * Returns the result the server returns to row returning requests, or null if it only returns update counts.
+     */
+    protected abstract CannedResult createResult();
+
+    /**
+     * Returns additional connection properties, each terminated by a semicolon.
+     */
+    protected String getConnectionProperties() {
+        return "";
+    }
+
+    /**
+     * Prepares the statements used by the benchmark once the connection is open.
+     */
+    protected void prepare() throws Exception {}
+
+    @Setup(Level.Trial)
+    public void openConnection() throws Exception {
+        server = new FakeTDSServer(createResult());
+        connection = DriverManager.getConnection(
+                server.getConnectionUrl() + "useDirectBuffers=" + useDirectBuffers + ";" + getConnectionProperties());
+        prepare();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeConnection() throws Exception {
+        try {
+            if (null != connection)
+                connection.close();
+        } catch (SQLException e) {
+            // The benchmark result does not depend on a clean close
+        } finally {
+            if (null != server)
+                server.close();
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * FakeTDSServer is a minimal in-process TDS responder listening on the loopback interface.
+ *
+ * It completes the prelogin handshake without encryption, acknowledges any login, and answers every request with a
+ * canned token stream, so that the driver's client side code paths can be measured without a real SQL Server:
+ * <ul>
+ * <li>SQL batches containing SELECT return the {@link CannedResult}. Batches asking for metadata only (SET FMTONLY ON
+ * or sys.columns, as issued by bulk copy) return just its column metadata. Other batches return an update count of 1,
+ * except INSERT BULK, which returns no count.</li>
+ * <li>RPC requests (sp_executesql, sp_prepexec, sp_execute, ...) return the {@link CannedResult}, or an update count of
+ * 1 when the server has no result, followed by a return status. sp_prepare and sp_prepexec also return a new prepared
+ * statement handle.</li>
+ * <li>Bulk load data is discarded and acknowledged.</li>
+ * </ul>
+ * The server does not validate requests beyond what it needs to frame them, and it does not support batched RPCs,
+ * MARS, or encryption. Connections must therefore use encrypt=false.
+ */
+public final class FakeTDSServer implements AutoCloseable {
+    // Packet types
+    private static final int PKT_QUERY = 1;
+    private static final int PKT_RPC = 3;
+    private static final int PKT_REPLY = 4;
+    private static final int PKT_CANCEL_REQ = 6;
+    private static final int PKT_BULK = 7;
+    private static final int PKT_DTC = 14;
+    private static final int PKT_LOGON70 = 16;
+    private static final int PKT_PRELOGIN = 18;
+
+    private static final int PACKET_HEADER_SIZE = 8;
+    private static final int STATUS_BIT_EOM = 0x01;
+    private static final int INITIAL_PACKET_SIZE = 4096;
+    private static final int MAX_PACKET_SIZE = 32767;
+
+    // RPC procedure IDs
+    private static final int PROCID_SP_PREPARE = 11;
+    private static final int PROCID_SP_PREPEXEC = 13;
+    private static final int PROCID_SP_UNPREPARE = 15;
+
+    private static final int SERVER_MAJOR_VERSION = 16;
+    private static final int TDS_VERSION_DENALI = 0x74000004;
+    private static final int SPID = 51;
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final CannedResult result;
+
+    // Canned responses, encoded once and shared by all sessions
+    private final byte[] preloginResponse;
+    private final byte[] doneResponse;
+    private final byte[] updateCountResponse;
+    private final byte[] attentionResponse;
+    private final byte[] bulkLoadResponse;
+    private final byte[] metadataResponse;
+    private final byte[] queryResponse;
+    private final byte[] rpcResponse;
+
+    /**
+     * Starts a server on an ephemeral loopback port.
+     *
+     * @param result
+     *        the result returned by row returning requests, or null if requests only return update counts
+     * @throws IOException
+     *         if the server socket cannot be opened
+     */
+    public FakeTDSServer(CannedResult result) throws IOException {
+        this.result = result;
+
+        preloginResponse = encodePreloginResponse();
+        doneResponse = new TokenWriter()
+                .writeDone(TokenWriter.TDS_DONE, TokenWriter.DONE_FINAL, TokenWriter.CMD_NONE, 0).toByteArray();
+        updateCountResponse = new TokenWriter()
+                .writeDone(TokenWriter.TDS_DONE, TokenWriter.DONE_COUNT, TokenWriter.CMD_INSERT, 1).toByteArray();
+        attentionResponse = new TokenWriter()
+                .writeDone(TokenWriter.TDS_DONE, TokenWriter.DONE_ATTN, TokenWriter.CMD_NONE, 0).toByteArray();
+        bulkLoadResponse = new TokenWriter()
+                .writeDone(TokenWriter.TDS_DONE, TokenWriter.DONE_FINAL, TokenWriter.CMD_BULKINSERT, 0).toByteArray();
+
+        if (null != result) {
+            metadataResponse = new TokenWriter().writeBytes(result.getMetadata())
+                    .writeDone(TokenWriter.TDS_DONE, TokenWriter.DONE_COUNT, TokenWriter.CMD_SELECT, 0).toByteArray();
+            queryResponse = new TokenWriter().writeBytes(result.getMetadata()).writeBytes(result.getRows())
+                    .writeDone(TokenWriter.TDS_DONE, TokenWriter.DONE_COUNT, TokenWriter.CMD_SELECT,
+                            result.getRowCount())
+                    .toByteArray();
+            rpcResponse = new TokenWriter().writeBytes(result.getMetadata()).writeBytes(result.getRows())
+                    .writeDone(TokenWriter.TDS_DONEINPROC, TokenWriter.DONE_MORE | TokenWriter.DONE_COUNT,
+                            TokenWriter.CMD_SELECT, result.getRowCount())
+                    .toByteArray();
+        } else {
+            metadataResponse = doneResponse;
+            queryResponse = updateCountResponse;
+            rpcResponse = new TokenWriter().writeDone(TokenWriter.TDS_DONEINPROC,
+                    TokenWriter.DONE_MORE | TokenWriter.DONE_COUNT, TokenWriter.CMD_INSERT, 1).toByteArray();
+        }
+
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptThread = new Thread(this::acceptConnections, "FakeTDSServer-" + serverSocket.getLocalPort());
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns a connection URL for this server. Additional connection properties may be appended to it.
+     *
+     * @return the connection URL
+     */
+    public String getConnectionUrl() {
+        return "jdbc:sqlserver://" + serverSocket.getInetAddress().getHostAddress() + ":" + getPort()
+                + ";user=bench;password=bench;encrypt=false;connectRetryCount=0;";
+    }
+
+    public CannedResult getResult() {
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                // Server socket was closed
+                return;
+            }
+
+            Thread sessionThread = new Thread(new Session(socket), "FakeTDSSession-" + socket.getPort());
+            sessionThread.setDaemon(true);
+            sessionThread.start();
+        }
+    }
+
+    private static byte[] encodePreloginResponse() {
+        // Option headers are followed by the option data; offsets are relative to the start of the message payload.
+        final int versionOffset = 2 * 5 + 1;
+        final int versionLength = 6;
+
+        TokenWriter writer = new TokenWriter();
+        writer.writeByte(0x00).writeShortBigEndian(versionOffset).writeShortBigEndian(versionLength); // VERSION
+        writer.writeByte(0x01).writeShortBigEndian(versionOffset + versionLength).writeShortBigEndian(1); // ENCRYPTION
+        writer.writeByte(0xFF); // terminator
+        writer.writeByte(SERVER_MAJOR_VERSION).writeByte(0).writeShortBigEndian(1000).writeShort(0);
+        writer.writeByte(0x02); // ENCRYPT_NOT_SUP
+        return writer.toByteArray();
+    }
+
+    private static byte[] encodeLoginResponse(int packetSize) {
+        TokenWriter writer = new TokenWriter();
+        writer.writeEnvChange(TokenWriter.ENVCHANGE_DATABASE, "master", "master");
+        writer.writeCollationChange();
+        writer.writeEnvChange(TokenWriter.ENVCHANGE_PACKETSIZE, Integer.toString(packetSize),
+                Integer.toString(INITIAL_PACKET_SIZE));
+
+        String programName = "Microsoft SQL Server";
+        writer.writeByte(TokenWriter.TDS_LOGIN_ACK);
+        writer.writeShort(1 + 4 + 1 + 2 * programName.length() + 4);
+        writer.writeByte(1); // SQL interface
+        writer.writeIntBigEndian(TDS_VERSION_DENALI);
+        writer.writeBVarchar(programName);
+        writer.writeByte(SERVER_MAJOR_VERSION).writeByte(0).writeShortBigEndian(1000);
+
+        writer.writeDone(TokenWriter.TDS_DONE, TokenWriter.DONE_FINAL, TokenWriter.CMD_NONE, 0);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Session serves the requests of one client connection.
+     */
+    private final class Session implements Runnable {
+        private final Socket socket;
+        private DataInputStream in;
+        private OutputStream out;
+
+        private int packetSize = INITIAL_PACKET_SIZE;
+        private int nextHandle = 1;
+
+        // Current request message
+        private int messageType;
+        private byte[] message = new byte[INITIAL_PACKET_SIZE];
+        private int messageLength;
+
+        // Canned responses already split into packets of the negotiated size
+        private final Map<byte[], byte[]> packetizedResponses = new IdentityHashMap<>();
+
+        Session(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (Socket s = socket) {
+                s.setTcpNoDelay(true);
+                in = new DataInputStream(s.getInputStream());
+                out = new BufferedOutputStream(s.getOutputStream(), MAX_PACKET_SIZE);
+
+                while (readMessage()) {
+                    serve();
+                }
+            } catch (EOFException | SocketException e) {
+                // Client disconnected
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        private void serve() throws IOException {
+            switch (messageType) {
+                case PKT_PRELOGIN:
+                    send(preloginResponse);
+                    break;
+
+                case PKT_LOGON70:
+                    // LOGIN7 packet size follows the length and TDS version fields. 0 means "server default".
+                    int requestedPacketSize = readInt(8);
+                    int negotiatedPacketSize = (0 == requestedPacketSize) ? INITIAL_PACKET_SIZE
+                                                                          : Math.min(requestedPacketSize,
+                                                                                  MAX_PACKET_SIZE);
+                    sendOnce(encodeLoginResponse(negotiatedPacketSize));
+                    packetSize = negotiatedPacketSize;
+                    packetizedResponses.clear();
+                    break;
+
+                case PKT_QUERY:
+                    serveQuery(readSqlText());
+                    break;
+
+                case PKT_RPC:
+                    serveRpc();
+                    break;
+
+                case PKT_BULK:
+                    send(bulkLoadResponse);
+                    break;
+
+                case PKT_CANCEL_REQ:
+                    send(attentionResponse);
+                    break;
+
+                case PKT_DTC:
+                    send(doneResponse);
+                    break;
+
+                default:
+                    throw new IOException("Unsupported TDS message type " + messageType);
+            }
+        }
+
+        private void serveQuery(String sql) throws IOException {
+            String upperSql = sql.toUpperCase(Locale.ROOT);
+            if (upperSql.contains("FMTONLY") || upperSql.contains("SYS.COLUMNS")) {
+                send(metadataResponse);
+            } else if (upperSql.contains("SELECT")) {
+                send(queryResponse);
+            } else if (upperSql.startsWith("INSERT BULK")) {
+                send(doneResponse);
+            } else {
+                send(updateCountResponse);
+            }
+        }
+
+        private void serveRpc() throws IOException {
+            // ALL_HEADERS is followed by the procedure name length, or 0xFFFF and a procedure ID.
+            int offset = readInt(0);
+            int procId = -1;
+            if (0xFFFF == readUnsignedShort(offset))
+                procId = readUnsignedShort(offset + 2);
+
+            TokenWriter writer = new TokenWriter();
+            if (PROCID_SP_PREPARE != procId && PROCID_SP_UNPREPARE != procId)
+                writer.writeBytes(rpcResponse);
+
+            writer.writeReturnStatus(0);
+            if (PROCID_SP_PREPARE == procId || PROCID_SP_PREPEXEC == procId)
+                writer.writeReturnValue(0, nextHandle++);
+            writer.writeDone(TokenWriter.TDS_DONEPROC, TokenWriter.DONE_FINAL, TokenWriter.CMD_EXECUTE, 0);
+
+            sendOnce(writer.toByteArray());
+        }
+
+        private String readSqlText() {
+            int offset = readInt(0); // skip ALL_HEADERS
+            return new String(message, offset, messageLength - offset, StandardCharsets.UTF_16LE);
+        }
+
+        private int readUnsignedShort(int offset) {
+            return (message[offset] & 0xFF) | (message[offset + 1] & 0xFF) << 8;
+        }
+
+        private int readInt(int offset) {
+            return readUnsignedShort(offset) | readUnsignedShort(offset + 2) << 16;
+        }
+
+        /**
+         * Reads the packets of the next request message into the message buffer.
+         *
+         * @return false if the client closed the connection
+         */
+        private boolean readMessage() throws IOException {
+            byte[] header = new byte[PACKET_HEADER_SIZE];
+            messageLength = 0;
+
+            while (true) {
+                int firstByte = in.read();
+                if (firstByte < 0)
+                    return false;
+
+                header[0] = (byte) firstByte;
+                in.readFully(header, 1, PACKET_HEADER_SIZE - 1);
+
+                int payloadLength = ((header[2] & 0xFF) << 8 | (header[3] & 0xFF)) - PACKET_HEADER_SIZE;
+                if (messageLength + payloadLength > message.length) {
+                    message = Arrays.copyOf(message,
+                            Math.max(2 * message.length, messageLength + payloadLength));
+                }
+
+                in.readFully(message, messageLength, payloadLength);
+                messageLength += payloadLength;
+                messageType = header[0] & 0xFF;
+
+                if (0 != (header[1] & STATUS_BIT_EOM))
+                    return true;
+            }
+        }
+
+        /**
+         * Sends a shared canned response, splitting it into packets only the first time it is sent.
+         */
+        private void send(byte[] tokens) throws IOException {
+            byte[] packets = packetizedResponses.get(tokens);
+            if (null == packets) {
+                packets = packetize(tokens);
+                packetizedResponses.put(tokens, packets);
+            }
+
+            out.write(packets);
+            out.flush();
+        }
+
+        /**
+         * Sends a response that is not reused.
+         */
+        private void sendOnce(byte[] tokens) throws IOException {
+            out.write(packetize(tokens));
+            out.flush();
+        }
+
+        private byte[] packetize(byte[] tokens) {
+            int maxPayload = packetSize - PACKET_HEADER_SIZE;
+            int packetCount = Math.max(1, (tokens.length + maxPayload - 1) / maxPayload);
+
+            TokenWriter writer = new TokenWriter();
+            for (int i = 0, offset = 0; i < packetCount; i++) {
+                int payloadLength = Math.min(maxPayload, tokens.length - offset);
+                writer.writeByte(PKT_REPLY);
+                writer.writeByte((i == packetCount - 1) ? STATUS_BIT_EOM : 0);
+                writer.writeShortBigEndian(PACKET_HEADER_SIZE + payloadLength);
+                writer.writeShortBigEndian(SPID);
+                writer.writeByte(i + 1); // packet ID
+                writer.writeByte(0); // window
+                writer.writeBytes(Arrays.copyOfRange(tokens, offset, offset + payloadLength));
+                offset += payloadLength;
+            }
+            return writer.toByteArray();
+        }
+    }
+}
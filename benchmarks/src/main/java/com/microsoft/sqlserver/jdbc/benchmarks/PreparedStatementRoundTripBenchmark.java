@@ -0,0 +1,63 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures SQLServerPreparedStatement execute round trips for a single row lookup. The statement is prepared once, so
+ * after the first executions the driver reuses the prepared handle through sp_execute. A plain Statement executing the
+ * same query is measured for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreparedStatementRoundTripBenchmark extends FakeServerState {
+    private PreparedStatement preparedStatement;
+    private Statement statement;
+    private int id;
+
+    @Override
+    protected CannedResult createResult() {
+        return new CannedResult(1);
+    }
+
+    @Override
+    protected void prepare() throws Exception {
+        preparedStatement = connection.prepareStatement("SELECT id, amount, price, name FROM bench WHERE id = ?");
+        statement = connection.createStatement();
+    }
+
+    @Benchmark
+    public long preparedQuery() throws SQLException {
+        preparedStatement.setInt(1, id++);
+        try (ResultSet rs = preparedStatement.executeQuery()) {
+            return rs.next() ? rs.getLong(2) : -1;
+        }
+    }
+
+    @Benchmark
+    public long statementQuery() throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT id, amount, price, name FROM bench WHERE id = 0")) {
+            return rs.next() ? rs.getLong(2) : -1;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerResultSet;
+import com.microsoft.sqlserver.jdbc.SQLServerColumnBatch;
+
+
+/**
+ * Measures SQLServerResultSet getters: reading every column of a 1000 row result set by index, by label, as objects
+ * and in column batches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetGetterBenchmark extends FakeServerState {
+    private static final int ROW_COUNT = 1000;
+    private static final String QUERY = "SELECT id, amount, price, name FROM bench";
+
+    private static final int BATCH_SIZE = 256;
+
+    private Statement statement;
+    private SQLServerColumnBatch batch;
+
+    @Override
+    protected CannedResult createResult() {
+        return new CannedResult(ROW_COUNT);
+    }
+
+    @Override
+    protected void prepare() throws Exception {
+        statement = connection.createStatement();
+        batch = new SQLServerColumnBatch(BATCH_SIZE);
+        batch.bindInts(1, new int[BATCH_SIZE]);
+        batch.bindLongs(2, new long[BATCH_SIZE]);
+        batch.bindDoubles(3, new double[BATCH_SIZE]);
+        batch.bindStrings(4, new String[BATCH_SIZE]);
+    }
+
+    @Benchmark
+    public void getByIndex(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(QUERY)) {
+            while (rs.next()) {
+                blackhole.consume(rs.getInt(1));
+                blackhole.consume(rs.getLong(2));
+                blackhole.consume(rs.getDouble(3));
+                blackhole.consume(rs.getString(4));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getByLabel(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(QUERY)) {
+            while (rs.next()) {
+                blackhole.consume(rs.getInt("id"));
+                blackhole.consume(rs.getLong("amount"));
+                blackhole.consume(rs.getDouble("price"));
+                blackhole.consume(rs.getString("name"));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getObject(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(QUERY)) {
+            while (rs.next()) {
+                for (int column = 1; column <= CannedResult.COLUMN_NAMES.length; column++)
+                    blackhole.consume(rs.getObject(column));
+            }
+        }
+    }
+
+    @Benchmark
+    public void fetchColumns(Blackhole blackhole) throws SQLException {
+        try (ISQLServerResultSet rs = (ISQLServerResultSet) statement.executeQuery(QUERY)) {
+            while (rs.fetchColumns(batch) > 0)
+                blackhole.consume(batch);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures TDSReader row decoding: reading a result set to the end without calling any getters, so that each row is
+ * parsed from the TDS stream and skipped.
+ *
+ * With adaptive response buffering the rows are decoded as they are read from the socket; with full response buffering
+ * the whole response is read and buffered before the first row is returned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowDecodingBenchmark extends FakeServerState {
+    @Param({"100", "10000"})
+    public int rowCount;
+
+    @Param({"adaptive", "full"})
+    public String responseBuffering;
+
+    private Statement statement;
+
+    @Override
+    protected CannedResult createResult() {
+        return new CannedResult(rowCount);
+    }
+
+    @Override
+    protected String getConnectionProperties() {
+        return "responseBuffering=" + responseBuffering + ";";
+    }
+
+    @Override
+    protected void prepare() throws Exception {
+        statement = connection.createStatement();
+    }
+
+    @Benchmark
+    public int skipRows() throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = statement.executeQuery("SELECT id, amount, price, name FROM bench")) {
+            while (rs.next())
+                ++rows;
+        }
+        return rows;
+    }
+}
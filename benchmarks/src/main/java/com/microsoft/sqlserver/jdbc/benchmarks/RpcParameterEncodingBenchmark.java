@@ -0,0 +1,84 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures TDSWriter RPC parameter encoding: executing an INSERT with a mix of int, bigint, float, nvarchar, decimal and
+ * datetime2 parameters. The server only returns an update count, so the time is dominated by building and sending the
+ * RPC request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RpcParameterEncodingBenchmark extends FakeServerState {
+    private static final int PARAMETER_TYPES = 6;
+
+    @Param({"6", "60"})
+    public int parameterCount;
+
+    private PreparedStatement statement;
+
+    @Override
+    protected CannedResult createResult() {
+        return null;
+    }
+
+    @Override
+    protected void prepare() throws Exception {
+        StringBuilder sql = new StringBuilder("INSERT INTO bench VALUES (");
+        for (int i = 0; i < parameterCount; i++)
+            sql.append((0 == i) ? "?" : ", ?");
+        statement = connection.prepareStatement(sql.append(")").toString());
+
+        Timestamp timestamp = Timestamp.valueOf("2024-01-31 12:34:56.789");
+        for (int i = 0; i < parameterCount; i++) {
+            int parameter = i + 1;
+            switch (i % PARAMETER_TYPES) {
+                case 0:
+                    statement.setInt(parameter, i);
+                    break;
+                case 1:
+                    statement.setLong(parameter, i * 1_000_003L);
+                    break;
+                case 2:
+                    statement.setDouble(parameter, i * 0.25);
+                    break;
+                case 3:
+                    statement.setString(parameter, "parameter value " + i);
+                    break;
+                case 4:
+                    statement.setBigDecimal(parameter, new BigDecimal("12345.6789").add(BigDecimal.valueOf(i)));
+                    break;
+                default:
+                    statement.setTimestamp(parameter, timestamp);
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public int executeUpdate() throws SQLException {
+        return statement.executeUpdate();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * TokenWriter builds the TDS token streams returned by the fake server. Values are little-endian unless the method name
+ * says otherwise.
+ */
+final class TokenWriter {
+    // Token types
+    static final int TDS_RET_STAT = 0x79;
+    static final int TDS_COLMETADATA = 0x81;
+    static final int TDS_RETURN_VALUE = 0xAC;
+    static final int TDS_LOGIN_ACK = 0xAD;
+    static final int TDS_ROW = 0xD1;
+    static final int TDS_NBCROW = 0xD2;
+    static final int TDS_ENV_CHANGE = 0xE3;
+    static final int TDS_DONE = 0xFD;
+    static final int TDS_DONEPROC = 0xFE;
+    static final int TDS_DONEINPROC = 0xFF;
+
+    // DONE token status bits
+    static final int DONE_FINAL = 0x00;
+    static final int DONE_MORE = 0x01;
+    static final int DONE_COUNT = 0x10;
+    static final int DONE_ATTN = 0x20;
+
+    // DONE token current command
+    static final int CMD_NONE = 0x00;
+    static final int CMD_SELECT = 0xC1;
+    static final int CMD_INSERT = 0xC3;
+    static final int CMD_EXECUTE = 0xE0;
+    static final int CMD_BULKINSERT = 0xF0;
+
+    // ENVCHANGE types
+    static final int ENVCHANGE_DATABASE = 1;
+    static final int ENVCHANGE_PACKETSIZE = 4;
+    static final int ENVCHANGE_SQLCOLLATION = 7;
+
+    // TYPE_INFO types
+    static final int TYPE_INTN = 0x26;
+    static final int TYPE_FLTN = 0x6D;
+    static final int TYPE_NVARCHAR = 0xE7;
+
+    /** SQL_Latin1_General_CP1_CI_AS */
+    static final byte[] COLLATION = {0x09, 0x04, (byte) 0xD0, 0x00, 0x34};
+
+    private byte[] bytes = new byte[256];
+    private int length;
+
+    int length() {
+        return length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    TokenWriter writeByte(int value) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    TokenWriter writeShort(int value) {
+        ensureCapacity(2);
+        bytes[length++] = (byte) value;
+        bytes[length++] = (byte) (value >>> 8);
+        return this;
+    }
+
+    TokenWriter writeShortBigEndian(int value) {
+        ensureCapacity(2);
+        bytes[length++] = (byte) (value >>> 8);
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    TokenWriter writeInt(int value) {
+        writeShort(value);
+        return writeShort(value >>> 16);
+    }
+
+    TokenWriter writeIntBigEndian(int value) {
+        writeShortBigEndian(value >>> 16);
+        return writeShortBigEndian(value);
+    }
+
+    TokenWriter writeLong(long value) {
+        writeInt((int) value);
+        return writeInt((int) (value >>> 32));
+    }
+
+    TokenWriter writeBytes(byte[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, bytes, length, value.length);
+        length += value.length;
+        return this;
+    }
+
+    /**
+     * Writes a B_VARCHAR: a one byte character count followed by UTF-16LE characters.
+     */
+    TokenWriter writeBVarchar(String value) {
+        writeByte(value.length());
+        return writeBytes(value.getBytes(StandardCharsets.UTF_16LE));
+    }
+
+    /**
+     * Writes an NVARCHAR column value: a two byte length in bytes followed by UTF-16LE characters. A null value is
+     * written as the 0xFFFF null marker.
+     */
+    TokenWriter writeNVarcharValue(String value) {
+        if (null == value)
+            return writeShort(0xFFFF);
+
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_16LE);
+        writeShort(encoded.length);
+        return writeBytes(encoded);
+    }
+
+    /**
+     * Overwrites a two byte value at the given offset, e.g. to fill in a token length once the token is written.
+     */
+    void setShort(int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+    }
+
+    TokenWriter writeDone(int tokenType, int status, int curCmd, long rowCount) {
+        writeByte(tokenType);
+        writeShort(status);
+        writeShort(curCmd);
+        return writeLong(rowCount);
+    }
+
+    TokenWriter writeEnvChange(int type, String newValue, String oldValue) {
+        writeByte(TDS_ENV_CHANGE);
+        int lengthOffset = length;
+        writeShort(0);
+        writeByte(type);
+        writeBVarchar(newValue);
+        writeBVarchar(oldValue);
+        setShort(lengthOffset, length - lengthOffset - 2);
+        return this;
+    }
+
+    TokenWriter writeCollationChange() {
+        writeByte(TDS_ENV_CHANGE);
+        writeShort(3 + COLLATION.length);
+        writeByte(ENVCHANGE_SQLCOLLATION);
+        writeByte(COLLATION.length);
+        writeBytes(COLLATION);
+        return writeByte(0);
+    }
+
+    TokenWriter writeReturnStatus(int status) {
+        writeByte(TDS_RET_STAT);
+        return writeInt(status);
+    }
+
+    /**
+     * Writes an int OUTPUT parameter, e.g. the prepared statement handle returned by sp_prepexec.
+     */
+    TokenWriter writeReturnValue(int ordinal, int value) {
+        writeByte(TDS_RETURN_VALUE);
+        writeShort(ordinal);
+        writeBVarchar("");
+        writeByte(0x01); // OUTPUT parameter of a stored procedure
+        writeInt(0); // user type
+        writeShort(0); // flags
+        writeByte(TYPE_INTN);
+        writeByte(4);
+        writeByte(4);
+        return writeInt(value);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+    }
+}
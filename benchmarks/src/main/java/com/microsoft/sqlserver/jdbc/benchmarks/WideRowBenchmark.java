@@ -0,0 +1,91 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc.benchmarks;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Measures reading a few columns of a 1000 row, 200 column result set, some of whose rows are NBCROW rows, compared
+ * with reading every column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WideRowBenchmark extends FakeServerState {
+    private static final int ROW_COUNT = 1000;
+    private static final int COLUMN_GROUPS = 50;
+    private static final String QUERY = "SELECT * FROM bench";
+
+    @Param({"adaptive", "full"})
+    public String responseBuffering;
+
+    private Statement statement;
+    private int columnCount;
+
+    @Override
+    protected CannedResult createResult() {
+        return new CannedResult(ROW_COUNT, COLUMN_GROUPS);
+    }
+
+    @Override
+    protected String getConnectionProperties() {
+        return "responseBuffering=" + responseBuffering + ";";
+    }
+
+    @Override
+    protected void prepare() throws Exception {
+        statement = connection.createStatement();
+        columnCount = server.getResult().getColumnCount();
+    }
+
+    @Benchmark
+    public void getFewColumns(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(QUERY)) {
+            while (rs.next()) {
+                blackhole.consume(rs.getInt(1));
+                blackhole.consume(rs.getDouble(columnCount / 2 - 1));
+                blackhole.consume(rs.getString(columnCount));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getFewColumnsOutOfOrder(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(QUERY)) {
+            while (rs.next()) {
+                blackhole.consume(rs.getString(columnCount));
+                blackhole.consume(rs.getDouble(columnCount / 2 - 1));
+                blackhole.consume(rs.getInt(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getAllColumns(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(QUERY)) {
+            while (rs.next()) {
+                for (int column = 1; column <= columnCount; column++)
+                    blackhole.consume(rs.getObject(column));
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+
+/**
+ * Provides the default executor for the asynchronous execution methods of {@link SQLServerStatement} and
+ * {@link SQLServerPreparedStatement}.
+ *
+ * On Java 21 and later, each execution runs on its own virtual thread. A virtual thread blocked reading a TDS response
+ * releases its carrier thread, so in-flight executions are multiplexed over a small number of platform threads. On
+ * earlier versions, executions run on a cached pool of daemon threads.
+ *
+ * Either way, asynchronous executions on the same connection run one at a time, in the order they were submitted (see
+ * SQLServerConnection.executeAsync), so each connection uses at most one thread at a time.
+ */
+final class AsyncExecutor {
+    static final String THREAD_PREFIX = "mssql-jdbc-async-";
+
+    private static final java.util.logging.Logger logger = java.util.logging.Logger
+            .getLogger("com.microsoft.sqlserver.jdbc.AsyncExecutor");
+
+    private static final AtomicLong THREAD_COUNTER = new AtomicLong();
+
+    /**
+     * An execution that returns a result and may throw an SQLException.
+     *
+     * @param <T>
+     *        the type of the result
+     */
+    @FunctionalInterface
+    interface Task<T> {
+        T call() throws SQLException;
+    }
+
+    /** Creates the default executor on first use */
+    private static final class Holder {
+        static final Executor DEFAULT = createDefault();
+    }
+
+    private AsyncExecutor() {
+        throw new UnsupportedOperationException(SQLServerException.getErrString("R_notSupported"));
+    }
+
+    static Executor getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    private static Executor createDefault() {
+        try {
+            Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) newVirtualThreadPerTaskExecutor.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Virtual threads are not available before Java 21
+            if (logger.isLoggable(Level.FINER))
+                logger.finer("Virtual threads are not available, using platform threads: " + e);
+        }
+
+        return Executors.newCachedThreadPool(task -> {
+            Thread t = new Thread(task, THREAD_PREFIX + THREAD_COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
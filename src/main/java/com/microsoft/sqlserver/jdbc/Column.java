@@ -152,11 +152,21 @@ final class Column {
         getterDTV.skipValue(typeInfo, tdsReader, isDiscard);
     }
 
+    /**
+     * Skip this column's value without reading it into the column.
+     *
+     * The column's value must not be marked yet, and is located at the current position in the response.
+     */
+    final void skipUnreadValue(TDSReader tdsReader, boolean isDiscard) throws SQLServerException {
+        assert !isInitialized();
+        ServerDTVImpl.skipUnreadValue(typeInfo, tdsReader, isDiscard);
+    }
+
     /**
      * Sets Null value on the getterDTV of a column
      */
     final void initFromCompressedNull() {
-        getterDTV.initFromCompressedNull();
+        getterDTV.initFromCompressedNull(typeInfo);
     }
 
     void setFilter(ColumnFilter filter) {
@@ -197,6 +207,39 @@ final class Column {
         return (Integer) getValue(JDBCType.INTEGER, null, null, tdsReader, statement);
     }
 
+    /**
+     * Returns whether this column's value can be retrieved with the primitive getters, which decode fixed-length
+     * numeric values from the response without boxing them. After a primitive getter, isNull() tells whether the value
+     * was NULL.
+     */
+    final boolean hasPrimitiveValue() {
+        return null == filter && null == cryptoMetadata && ServerDTVImpl.isPrimitive(typeInfo.getSSType());
+    }
+
+    final boolean getBoolean(TDSReader tdsReader) throws SQLServerException {
+        return getterDTV.getBoolean(typeInfo, tdsReader);
+    }
+
+    final short getShort(TDSReader tdsReader) throws SQLServerException {
+        return getterDTV.getShort(typeInfo, tdsReader);
+    }
+
+    final int getInt(TDSReader tdsReader) throws SQLServerException {
+        return getterDTV.getInt(typeInfo, tdsReader);
+    }
+
+    final long getLong(TDSReader tdsReader) throws SQLServerException {
+        return getterDTV.getLong(typeInfo, tdsReader);
+    }
+
+    final float getFloat(TDSReader tdsReader) throws SQLServerException {
+        return getterDTV.getFloat(typeInfo, tdsReader);
+    }
+
+    final double getDouble(TDSReader tdsReader) throws SQLServerException {
+        return getterDTV.getDouble(typeInfo, tdsReader);
+    }
+
     void updateValue(JDBCType jdbcType, Object value, JavaType javaType, StreamSetterArgs streamSetterArgs,
             Calendar cal, Integer scale, SQLServerConnection con,
             SQLServerStatementColumnEncryptionSetting stmtColumnEncriptionSetting, Integer precision,
@@ -7,6 +7,7 @@ package com.microsoft.sqlserver.jdbc;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -27,6 +28,7 @@ import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -34,7 +36,10 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.KeyStore;
+import java.security.MessageDigest;
 import java.security.Provider;
 import java.security.Security;
 import java.sql.Timestamp;
@@ -45,6 +50,7 @@ import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
@@ -58,6 +64,7 @@ import java.util.Set;
 import java.util.SimpleTimeZone;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -630,6 +637,13 @@ final class TDSChannel implements Serializable {
         return new TDSReader(this, con, command);
     }
 
+    // Pool of response packets shared by all readers of this channel
+    private final transient TDSPacketPool packetPool;
+
+    final TDSPacketPool getPacketPool() {
+        return packetPool;
+    }
+
     // Socket for raw TCP/IP communications with SQL Server
     private transient Socket tcpSocket;
 
@@ -661,6 +675,16 @@ final class TDSChannel implements Serializable {
     private transient OutputStream outputStream;
     private final transient Lock outputStreamLock = new ReentrantLock();
 
+    // Direct buffer I/O over the TCP socket's channel, when enabled with the useDirectBuffers connection property.
+    private transient SocketChannelStreams socketChannelStreams = null;
+
+    // Scratch array for writing direct buffers to streams that only accept byte arrays (e.g. the SSL socket)
+    private transient byte[] directWriteBytes = null;
+
+    final boolean isUsingDirectBuffers() {
+        return null != socketChannelStreams;
+    }
+
     /** TDS packet payload logger */
     private static Logger packetLogger = Logger.getLogger("com.microsoft.sqlserver.jdbc.internals.TDS.DATA");
     private final boolean isLoggingPackets = packetLogger.isLoggable(Level.FINEST);
@@ -693,6 +717,7 @@ final class TDSChannel implements Serializable {
 
     TDSChannel(SQLServerConnection con) {
         this.con = con;
+        this.packetPool = new TDSPacketPool(TDSPacketPool.DEFAULT_MAX_IDLE_PACKETS, con.getMetrics());
         traceID = "TDSChannel (" + con.toString() + ")";
         this.tcpSocket = null;
         this.sslSocket = null;
@@ -736,8 +761,23 @@ final class TDSChannel implements Serializable {
 
             tcpSocket.setSoTimeout(socketTimeout);
 
-            inputStream = tcpInputStream = new ProxyInputStream(tcpSocket.getInputStream());
-            outputStream = tcpOutputStream = tcpSocket.getOutputStream();
+            // Strict (TDS 8) encryption layers the SSL socket directly over the TCP socket, bypassing the socket
+            // streams, so direct buffers are only used when the driver owns the socket streams.
+            if (con.getUseDirectBuffers() && !con.isTDS8() && null != tcpSocket.getChannel()) {
+                if (logger.isLoggable(Level.FINER)) {
+                    logger.finer(this.toString() + ": Using direct buffers over the socket channel");
+                    // Blocking channel reads cannot time out, see SocketChannelStreams
+                    if (0 < con.getSocketTimeoutMilliseconds())
+                        logger.finer(this.toString() + ": socketTimeout is set, reads go through the socket stream");
+                }
+
+                socketChannelStreams = new SocketChannelStreams(tcpSocket.getChannel());
+                inputStream = tcpInputStream = new ProxyInputStream(socketChannelStreams.getInputStream());
+                outputStream = tcpOutputStream = socketChannelStreams.getOutputStream();
+            } else {
+                inputStream = tcpInputStream = new ProxyInputStream(tcpSocket.getInputStream());
+                outputStream = tcpOutputStream = tcpSocket.getOutputStream();
+            }
         } catch (IOException ex) {
             SQLServerException.convertConnectExceptionToSQLServerException(host, port, con, ex);
         }
@@ -1612,6 +1652,12 @@ final class TDSChannel implements Serializable {
         }
     }
 
+    /** SSL contexts shared by connections with the cacheSSLContext property, see getSSLContextCacheKey */
+    private static final Map<String, SSLContext> sslContextCache = new ConcurrentHashMap<>();
+
+    /** Maximum number of SSL contexts in sslContextCache, the cache is cleared when it is full */
+    private static final int MAX_CACHED_SSL_CONTEXTS = 256;
+
     enum SSLHandhsakeState {
         SSL_HANDHSAKE_NOT_STARTED,
         SSL_HANDHSAKE_STARTED,
@@ -1683,15 +1729,31 @@ final class TDSChannel implements Serializable {
                     TDS.ENCRYPT_REQ == requestedEncryptLevel || // Full SSL
                     (isTDS8 && TDS.ENCRYPT_NOT_SUP == requestedEncryptLevel); // TDS 8
 
+            // An SSL context of another connection with the same settings already holds the trust and key
+            // material, and its session cache lets the handshake resume a session with the same server.
+            SSLContext sslContext = null;
+            String sslContextCacheKey = null;
+            if (con.getCacheSSLContext()) {
+                sslContextCacheKey = getSSLContextCacheKey(host, isTDS8, sslProtocol, clientCertificate, clientKey,
+                        clientKeyPassword);
+                sslContext = sslContextCache.get(sslContextCacheKey);
+            }
+            // The trust managers of a shared SSL context check the certificates of every connection that uses it, so
+            // they do not log under the connection that creates them.
+            final boolean isSharedContext = (null != sslContextCacheKey);
+
             // If encryption wasn't negotiated or trust server certificate is specified,
             // then we'll "validate" the server certificate using a naive TrustManager that trusts
             // everything it sees.
             TrustManager[] tm = null;
-            if (TDS.ENCRYPT_OFF == con.getNegotiatedEncryptionLevel() || con.getTrustServerCertificate()) {
+            if (null != sslContext) {
+                if (logger.isLoggable(Level.FINER))
+                    logger.finer(toString() + " Using cached SSL context");
+            } else if (TDS.ENCRYPT_OFF == con.getNegotiatedEncryptionLevel() || con.getTrustServerCertificate()) {
                 if (logger.isLoggable(Level.FINER))
                     logger.finer(toString() + " SSL handshake will trust any certificate");
 
-                tm = new TrustManager[] {new PermissiveX509TrustManager(this)};
+                tm = new TrustManager[] {new PermissiveX509TrustManager(this, isSharedContext)};
             }
             // Otherwise, we'll check if a specific TrustManager implementation has been requested and
             // if so instantiate it, optionally specifying a constructor argument to customize it.
@@ -1708,10 +1770,11 @@ final class TDSChannel implements Serializable {
                         logger.finest(toString() + " Verify server certificate for TDS 8");
 
                     if (null != hostNameInCertificate) {
-                        tm = new TrustManager[] {
-                                new ServerCertificateX509TrustManager(this, serverCert, hostNameInCertificate)};
+                        tm = new TrustManager[] {new ServerCertificateX509TrustManager(this, isSharedContext,
+                                serverCert, hostNameInCertificate)};
                     } else {
-                        tm = new TrustManager[] {new ServerCertificateX509TrustManager(this, serverCert, host)};
+                        tm = new TrustManager[] {
+                                new ServerCertificateX509TrustManager(this, isSharedContext, serverCert, host)};
                     }
                 } else {
                     if (logger.isLoggable(Level.FINER))
@@ -1796,11 +1859,11 @@ final class TDSChannel implements Serializable {
                     // if the host name in cert provided use it or use the host name Only if it is not FIPS
                     if (!isFips) {
                         if (null != hostNameInCertificate) {
-                            tm = new TrustManager[] {new HostNameOverrideX509TrustManager(this,
+                            tm = new TrustManager[] {new HostNameOverrideX509TrustManager(this, isSharedContext,
                                     (X509TrustManager) tm[0], hostNameInCertificate)};
                         } else {
-                            tm = new TrustManager[] {
-                                    new HostNameOverrideX509TrustManager(this, (X509TrustManager) tm[0], host)};
+                            tm = new TrustManager[] {new HostNameOverrideX509TrustManager(this, isSharedContext,
+                                    (X509TrustManager) tm[0], host)};
                         }
                     }
                 }
@@ -1808,23 +1871,36 @@ final class TDSChannel implements Serializable {
 
             // Now, with a real or fake TrustManager in hand, get a context for creating a
             // SSL sockets through a SSL socket factory. We require at least TLS support.
-            SSLContext sslContext = null;
+            if (null == sslContext) {
+                if (logger.isLoggable(Level.FINEST))
+                    logger.finest(toString() + " Getting TLS or better SSL context");
 
-            if (logger.isLoggable(Level.FINEST))
-                logger.finest(toString() + " Getting TLS or better SSL context");
+                KeyManager[] km = null;
+                if (null != clientCertificate && !clientCertificate.isEmpty()) {
+                    km = SQLServerCertificateUtils.getKeyManagerFromFile(clientCertificate, clientKey,
+                            clientKeyPassword);
+                }
 
-            KeyManager[] km = (null != clientCertificate && !clientCertificate.isEmpty()) ? SQLServerCertificateUtils
-                    .getKeyManagerFromFile(clientCertificate, clientKey, clientKeyPassword) : null;
+                sslContext = SSLContext.getInstance(sslProtocol);
 
-            sslContext = SSLContext.getInstance(sslProtocol);
-            sslContextProvider = sslContext.getProvider();
+                if (logger.isLoggable(Level.FINEST))
+                    logger.finest(toString() + " Initializing SSL context");
 
-            if (logger.isLoggable(Level.FINEST))
-                logger.finest(toString() + " Initializing SSL context");
+                sslContext.init(km, tm, null); // CodeQL [SM03853] Potential all-accepting TrustManager is by design
+                // Permissive trust manager allows minimum encryption of credentials even when trusted certificates
+                // aren't provisioned on the server.
 
-            sslContext.init(km, tm, null); // CodeQL [SM03853] Potential all-accepting TrustManager is by design
-            // Permissive trust manager allows minimum encryption of credentials even when trusted certificates
-            // aren't provisioned on the server.
+                if (null != sslContextCacheKey) {
+                    if (sslContextCache.size() >= MAX_CACHED_SSL_CONTEXTS) {
+                        sslContextCache.clear();
+                    }
+                    SSLContext cachedContext = sslContextCache.putIfAbsent(sslContextCacheKey, sslContext);
+                    if (null != cachedContext) {
+                        sslContext = cachedContext;
+                    }
+                }
+            }
+            sslContextProvider = sslContext.getProvider();
 
             // Got the SSL context. Now create an SSL socket over our own proxy socket
             // which we can toggle between TDS-encapsulated and raw communications.
@@ -1968,6 +2044,53 @@ final class TDSChannel implements Serializable {
         }
     }
 
+    /**
+     * Returns the key of the SSL context of this connection in sslContextCache. The key holds every setting that the
+     * trust and key managers of the context depend on, including the host name that the server certificate is
+     * validated against. Passwords are part of it as digests, and files as their modification times, so that a changed
+     * trust store or client certificate gets a new context.
+     */
+    private String getSSLContextCacheKey(String host, boolean isTDS8, String sslProtocol, String clientCertificate,
+            String clientKey, String clientKeyPassword) throws GeneralSecurityException, SQLServerException {
+        Properties props = con.activeConnectionProperties;
+        String trustStoreFileName = props.getProperty(SQLServerDriverStringProperty.TRUST_STORE.toString());
+        if (null == trustStoreFileName) {
+            trustStoreFileName = System.getProperty("javax.net.ssl.trustStore");
+        }
+        String serverCert = props.getProperty(SQLServerDriverStringProperty.SERVER_CERTIFICATE.toString());
+
+        MessageDigest trustStorePasswordDigest = MessageDigest.getInstance("SHA-256");
+        char[] trustStorePassword = SecureStringUtil.getInstance().getDecryptedChars(con.encryptedTrustStorePassword);
+        if (null != trustStorePassword) {
+            for (char c : trustStorePassword) {
+                trustStorePasswordDigest.update((byte) (c >> 8));
+                trustStorePasswordDigest.update((byte) c);
+            }
+            Arrays.fill(trustStorePassword, ' ');
+        }
+        String clientKeyPasswordDigest = null;
+        if (null != clientKeyPassword) {
+            clientKeyPasswordDigest = Base64.getEncoder().encodeToString(
+                    MessageDigest.getInstance("SHA-256").digest(clientKeyPassword.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        return String.join("\0", host, Boolean.toString(isTDS8), sslProtocol,
+                Boolean.toString(TDS.ENCRYPT_OFF == con.getNegotiatedEncryptionLevel()),
+                Boolean.toString(con.getTrustServerCertificate()), con.getTrustManagerClass(),
+                con.getTrustManagerConstructorArg(),
+                props.getProperty(SQLServerDriverStringProperty.HOSTNAME_IN_CERTIFICATE.toString()),
+                props.getProperty(SQLServerDriverStringProperty.TRUST_STORE_TYPE.toString()),
+                props.getProperty(SQLServerDriverBooleanProperty.FIPS.toString()), trustStoreFileName,
+                getLastModified(trustStoreFileName),
+                Base64.getEncoder().encodeToString(trustStorePasswordDigest.digest()), serverCert,
+                getLastModified(serverCert), clientCertificate, getLastModified(clientCertificate), clientKey,
+                getLastModified(clientKey), clientKeyPasswordDigest);
+    }
+
+    private static String getLastModified(String fileName) {
+        return (null == fileName) ? null : Long.toString(new File(fileName).lastModified());
+    }
+
     /**
      * Validate FIPS if fips set as true
      * 
@@ -2199,6 +2322,48 @@ final class TDSChannel implements Serializable {
         }
     }
 
+    /**
+     * Writes the remaining bytes of a buffer, advancing its position to its limit.
+     *
+     * Direct buffers go straight to the socket channel when no SSL socket sits in between. Otherwise the buffer
+     * contents are written to the current output stream.
+     */
+    final void write(ByteBuffer data) throws SQLServerException {
+        if (data.hasArray() && null == socketChannelStreams) {
+            write(data.array(), data.arrayOffset() + ((Buffer) data).position(), data.remaining());
+            ((Buffer) data).position(((Buffer) data).limit());
+            return;
+        }
+
+        try {
+            outputStreamLock.lock();
+            try {
+                con.idleNetworkTracker.markNetworkActivity();
+                if (null != socketChannelStreams && outputStream == tcpOutputStream) {
+                    socketChannelStreams.write(data);
+                } else if (data.hasArray()) {
+                    outputStream.write(data.array(), data.arrayOffset() + ((Buffer) data).position(),
+                            data.remaining());
+                    ((Buffer) data).position(((Buffer) data).limit());
+                } else {
+                    if (null == directWriteBytes || directWriteBytes.length < data.remaining())
+                        directWriteBytes = new byte[data.capacity()];
+
+                    int length = data.remaining();
+                    data.get(directWriteBytes, 0, length);
+                    outputStream.write(directWriteBytes, 0, length);
+                }
+            } finally {
+                outputStreamLock.unlock();
+            }
+        } catch (IOException e) {
+            if (logger.isLoggable(Level.FINER))
+                logger.finer(toString() + " write failed:" + e.getMessage());
+
+            con.terminate(SQLServerException.DRIVER_ERROR_IO_FAILED, e.getMessage(), e);
+        }
+    }
+
     final void flush() throws SQLServerException {
         try {
             con.idleNetworkTracker.markNetworkActivity();
@@ -2215,6 +2380,11 @@ final class TDSChannel implements Serializable {
         if (null != sslSocket)
             disableSSL();
 
+        if (logger.isLoggable(Level.FINER))
+            logger.finer(this.toString() + ": " + packetPool.toString());
+
+        packetPool.clear();
+
         if (null != inputStream) {
             if (logger.isLoggable(Level.FINEST))
                 logger.finest(this.toString() + ": Closing inputStream...");
@@ -2457,6 +2627,15 @@ final class SocketFinder {
         conn = sqlServerConnection;
     }
 
+    /**
+     * Resolves the host name, or uses the addresses resolved for the connections opened together with this one.
+     */
+    private InetAddress[] getAllByName(String hostName) throws UnknownHostException {
+        SharedLoginState sharedLoginState = conn.getSharedLoginState();
+        return (null != sharedLoginState) ? sharedLoginState.getAllByName(hostName)
+                                          : InetAddress.getAllByName(hostName);
+    }
+
     /**
      * Used to find a socket to which a connection can be made
      * 
@@ -2490,7 +2669,7 @@ final class SocketFinder {
             // case.
             if (useParallel || useTnir) {
                 // Ignore TNIR if host resolves to more than 64 IPs. Make sure we are using original timeout for this.
-                inetAddrs = InetAddress.getAllByName(hostName);
+                inetAddrs = getAllByName(hostName);
 
                 if ((useTnir) && (inetAddrs.length > IP_ADDRESS_LIMIT)) {
                     useTnir = false;
@@ -2820,7 +2999,7 @@ final class SocketFinder {
     private Socket getSocketByIPPreference(String hostName, int portNumber, int timeoutInMilliSeconds,
             String iPAddressPreference) throws IOException, SQLServerException {
         InetSocketAddress addr = null;
-        InetAddress[] addresses = InetAddress.getAllByName(hostName);
+        InetAddress[] addresses = getAllByName(hostName);
         IPAddressPreference pref = IPAddressPreference.valueOfString(iPAddressPreference);
         switch (pref) {
             case IPV6_FIRST:
@@ -2905,7 +3084,14 @@ final class SocketFinder {
         assert timeoutInMilliSeconds != 0 : "timeout cannot be zero";
         if (addr.isUnresolved())
             throw new java.net.UnknownHostException();
-        selectedSocket = getSocketFactory().createSocket();
+
+        // Direct buffer I/O needs a socket that is backed by a channel. Sockets from a custom socket factory are used
+        // as they are, in which case the channel will fall back to stream I/O.
+        if (conn.getUseDirectBuffers() && null == conn.getSocketFactoryClass()) {
+            selectedSocket = SocketChannel.open().socket();
+        } else {
+            selectedSocket = getSocketFactory().createSocket();
+        }
         if (!selectedSocket.isConnected()) {
             selectedSocket.connect(addr, timeoutInMilliSeconds);
         }
@@ -3461,8 +3647,13 @@ final class TDSWriter {
         // then allocate new buffers that are the correct size.
         int negotiatedPacketSize = con.getTDSPacketSize();
         if (currentPacketSize != negotiatedPacketSize) {
-            socketBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
-            stagingBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+            if (tdsChannel.isUsingDirectBuffers()) {
+                socketBuffer = ByteBuffer.allocateDirect(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+                stagingBuffer = ByteBuffer.allocateDirect(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+            } else {
+                socketBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+                stagingBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
+            }
             logBuffer = ByteBuffer.allocate(negotiatedPacketSize).order(ByteOrder.LITTLE_ENDIAN);
             currentPacketSize = negotiatedPacketSize;
             streamCharBuffer = new char[2 * currentPacketSize];
@@ -3476,6 +3667,13 @@ final class TDSWriter {
         writeMessageHeader();
     }
 
+    /**
+     * Returns the number of bytes of the current message written so far, including the packet headers.
+     */
+    final long getMessageLength() {
+        return (long) packetNum * currentPacketSize + ((Buffer) stagingBuffer).position();
+    }
+
     final void endMessage() throws SQLServerException {
         if (logger.isLoggable(Level.FINEST))
             logger.finest(toString() + " Finishing TDS message");
@@ -4460,11 +4658,16 @@ final class TDSWriter {
         if (null != command && (!isCancelled))
             command.checkForInterrupt();
 
+        int packetLength = ((Buffer) stagingBuffer).position();
         writePacketHeader(tdsMessageStatus | sendResetConnection);
         sendResetConnection = 0;
 
         flush(atEOM);
 
+        SQLServerMetrics metrics = con.getMetrics();
+        metrics.increment(SQLServerMetrics.Counter.PACKETS_SENT, 1);
+        metrics.increment(SQLServerMetrics.Counter.BYTES_SENT, packetLength);
+
         // If this is the last packet then flush the remainder of the request
         // through the socket. The first flush() call ensured that data currently
         // waiting in the socket buffer was sent, flipped the buffers, and started
@@ -4528,8 +4731,7 @@ final class TDSWriter {
 
     void flush(boolean atEOM) throws SQLServerException {
         // First, flush any data left in the socket buffer.
-        tdsChannel.write(socketBuffer.array(), ((Buffer) socketBuffer).position(), socketBuffer.remaining());
-        ((Buffer) socketBuffer).position(((Buffer) socketBuffer).limit());
+        tdsChannel.write(socketBuffer);
 
         // If there is data in the staging buffer that needs to be written
         // to the socket, the socket buffer is now empty, so swap buffers
@@ -4561,8 +4763,7 @@ final class TDSWriter {
                 preparePacket();
 
             // Finally, start sending data from the new socket buffer.
-            tdsChannel.write(socketBuffer.array(), ((Buffer) socketBuffer).position(), socketBuffer.remaining());
-            ((Buffer) socketBuffer).position(((Buffer) socketBuffer).limit());
+            tdsChannel.write(socketBuffer);
         }
     }
 
@@ -4996,7 +5197,9 @@ final class TDSWriter {
 
                 if (con.equals(srcStmt.getConnection()) && 0 != resultSetServerCursorId) {
                     cachedTVPHeaders = ByteBuffer.allocate(stagingBuffer.capacity()).order(stagingBuffer.order());
-                    cachedTVPHeaders.put(stagingBuffer.array(), 0, ((Buffer) stagingBuffer).position());
+                    ByteBuffer stagedHeaders = stagingBuffer.duplicate();
+                    ((Buffer) stagedHeaders).flip();
+                    cachedTVPHeaders.put(stagedHeaders);
 
                     cachedCommand = this.command;
 
@@ -5013,7 +5216,11 @@ final class TDSWriter {
             }
 
             Map<Integer, SQLServerMetaData> columnMetadata = value.getColumnMetadata();
-            Iterator<Entry<Integer, SQLServerMetaData>> columnsIterator;
+
+            // The columns and their types are the same for every row, look them up once
+            @SuppressWarnings("unchecked")
+            Map.Entry<Integer, SQLServerMetaData>[] columns = columnMetadata.entrySet().toArray(new Map.Entry[0]);
+            JDBCType[] columnTypes = null;
 
             while (value.next()) {
 
@@ -5028,20 +5235,26 @@ final class TDSWriter {
 
                 Object[] rowData = value.getRowData();
 
+                if (null == columnTypes) {
+                    columnTypes = new JDBCType[columns.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        if (!columns[i].getValue().useServerDefault) {
+                            columnTypes[i] = JDBCType.of(columns[i].getValue().javaSqlType);
+                        }
+                    }
+                }
+
                 // ROW
                 writeByte((byte) TDS.TVP_ROW);
-                columnsIterator = columnMetadata.entrySet().iterator();
-                int currentColumn = 0;
-                while (columnsIterator.hasNext()) {
-                    Map.Entry<Integer, SQLServerMetaData> columnPair = columnsIterator.next();
+                for (int currentColumn = 0; currentColumn < columns.length; currentColumn++) {
+                    Map.Entry<Integer, SQLServerMetaData> columnPair = columns[currentColumn];
 
                     // If useServerDefault is set, client MUST NOT emit TvpColumnData for the associated column
                     if (columnPair.getValue().useServerDefault) {
-                        currentColumn++;
                         continue;
                     }
 
-                    JDBCType jdbcType = JDBCType.of(columnPair.getValue().javaSqlType);
+                    JDBCType jdbcType = columnTypes[currentColumn];
                     String currentColumnStringValue = null;
 
                     Object currentObject = null;
@@ -5050,12 +5263,14 @@ final class TDSWriter {
                     if ((null != rowData) && (rowData.length > currentColumn)) {
                         currentObject = rowData[currentColumn];
                         if (null != currentObject) {
+                            if (writeTVPRowValueWithoutConversion(jdbcType, currentObject)) {
+                                continue;
+                            }
                             currentColumnStringValue = String.valueOf(currentObject);
                         }
                     }
 
                     writeInternalTVPRowValues(jdbcType, currentColumnStringValue, currentObject, columnPair, false);
-                    currentColumn++;
                 }
 
                 // send this row, read its response (throw exception in case of errors) and reset command status
@@ -5093,6 +5308,62 @@ final class TDSWriter {
         }
     }
 
+    /**
+     * Writes a value of a numeric TVP column that already has the Java type of the column, as writeInternalTVPRowValues
+     * would, without converting it to a String and parsing it back. Returns false if the value has another type.
+     */
+    private boolean writeTVPRowValueWithoutConversion(JDBCType jdbcType,
+            Object currentObject) throws SQLServerException {
+        switch (jdbcType) {
+            case BIGINT:
+                if (!(currentObject instanceof Long))
+                    return false;
+                writeByte((byte) 8);
+                writeLong((Long) currentObject);
+                return true;
+
+            case BIT:
+                if (!(currentObject instanceof Boolean))
+                    return false;
+                writeByte((byte) 1);
+                writeByte((byte) ((Boolean) currentObject ? 1 : 0));
+                return true;
+
+            case INTEGER:
+                if (!(currentObject instanceof Integer))
+                    return false;
+                writeByte((byte) 4);
+                writeInt((Integer) currentObject);
+                return true;
+
+            case SMALLINT:
+            case TINYINT:
+                if (!(currentObject instanceof Short))
+                    return false;
+                writeByte((byte) 2);
+                writeShort((Short) currentObject);
+                return true;
+
+            case DOUBLE:
+                if (!(currentObject instanceof Double))
+                    return false;
+                writeByte((byte) 8);
+                writeLong(Double.doubleToLongBits((Double) currentObject));
+                return true;
+
+            case FLOAT:
+            case REAL:
+                if (!(currentObject instanceof Float))
+                    return false;
+                writeByte((byte) 4);
+                writeReal((Float) currentObject);
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
     private void writeInternalTVPRowValues(JDBCType jdbcType, String currentColumnStringValue, Object currentObject,
             Map.Entry<Integer, SQLServerMetaData> columnPair,
             boolean isSqlVariant) throws SQLServerException, IllegalArgumentException {
@@ -6670,6 +6941,10 @@ final class TDSPacket {
     int payloadLength;
     volatile TDSPacket next;
 
+    // Number of times this packet has been returned to a TDSPacketPool. Marks remember the value at the time they are
+    // taken so that a reset to a packet that has since been recycled can be detected.
+    int generation;
+
     final public String toString() {
         return "TDSPacket(SPID:" + Util.readUnsignedShortBigEndian(header, TDS.PACKET_HEADER_SPID) + " Seq:"
                 + header[TDS.PACKET_HEADER_SEQUENCE_NUM] + ")";
@@ -6687,20 +6962,204 @@ final class TDSPacket {
 }
 
 
+/**
+ * TDSPacketPool recycles the response packets of a TDS channel.
+ *
+ * Without pooling, every packet read from the server allocates a new payload buffer of the negotiated packet size that
+ * becomes garbage as soon as the reader moves past it. TDSReader returns packets to the pool only when it can prove
+ * that no live TDSReaderMark can reach them anymore, so a packet taken from the pool may be overwritten freely. The pool
+ * is bounded; packets released while it is full, or whose payload no longer matches the negotiated packet size, are
+ * left to GC.
+ */
+final class TDSPacketPool {
+    /** Default maximum number of idle packets retained per channel */
+    static final int DEFAULT_MAX_IDLE_PACKETS = 8;
+
+    private final int maxIdlePackets;
+    private final TDSPacket[] idlePackets;
+    private int numIdlePackets = 0;
+    private final Lock poolLock = new ReentrantLock();
+    private final SQLServerMetrics metrics;
+
+    // Statistics
+    private long numAllocated = 0;
+    private long numReused = 0;
+    private long numRecycled = 0;
+    private long numDiscarded = 0;
+
+    TDSPacketPool(int maxIdlePackets) {
+        this(maxIdlePackets, SQLServerMetrics.NO_OP);
+    }
+
+    TDSPacketPool(int maxIdlePackets, SQLServerMetrics metrics) {
+        this.maxIdlePackets = maxIdlePackets;
+        this.idlePackets = new TDSPacket[maxIdlePackets];
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns a packet whose payload can hold packetSize bytes, reusing an idle packet when one is available.
+     *
+     * @param packetSize
+     *        the negotiated TDS packet size
+     * @return an empty, unlinked packet
+     */
+    TDSPacket acquire(int packetSize) {
+        TDSPacket packet = null;
+        poolLock.lock();
+        try {
+            while (numIdlePackets > 0 && null == packet) {
+                TDSPacket candidate = idlePackets[--numIdlePackets];
+                idlePackets[numIdlePackets] = null;
+
+                // Packet size may have been renegotiated (ENVCHANGE) since the packet was pooled.
+                if (candidate.payload.length == packetSize)
+                    packet = candidate;
+                else
+                    ++numDiscarded;
+            }
+
+            if (null == packet) {
+                ++numAllocated;
+            } else {
+                ++numReused;
+            }
+        } finally {
+            poolLock.unlock();
+        }
+
+        if (null == packet) {
+            metrics.increment(SQLServerMetrics.Counter.PACKET_BUFFERS_ALLOCATED, 1);
+            return new TDSPacket(packetSize);
+        }
+
+        metrics.increment(SQLServerMetrics.Counter.PACKET_BUFFERS_REUSED, 1);
+        packet.payloadLength = 0;
+        packet.next = null;
+        return packet;
+    }
+
+    /**
+     * Returns a consumed packet to the pool. The caller guarantees that no mark in use references the packet, a reset
+     * to a mark taken on it before fails.
+     *
+     * @param packet
+     *        the packet to recycle
+     */
+    void release(TDSPacket packet) {
+        packet.next = null;
+        ++packet.generation;
+        poolLock.lock();
+        try {
+            if (numIdlePackets < maxIdlePackets) {
+                idlePackets[numIdlePackets++] = packet;
+                ++numRecycled;
+            } else {
+                ++numDiscarded;
+            }
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    /**
+     * Drops all idle packets.
+     */
+    void clear() {
+        poolLock.lock();
+        try {
+            Arrays.fill(idlePackets, 0, numIdlePackets, null);
+            numIdlePackets = 0;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    int getMaxIdlePackets() {
+        return maxIdlePackets;
+    }
+
+    int getIdlePacketCount() {
+        poolLock.lock();
+        try {
+            return numIdlePackets;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    long getAllocatedPacketCount() {
+        poolLock.lock();
+        try {
+            return numAllocated;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    long getReusedPacketCount() {
+        poolLock.lock();
+        try {
+            return numReused;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    long getRecycledPacketCount() {
+        poolLock.lock();
+        try {
+            return numRecycled;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    long getDiscardedPacketCount() {
+        poolLock.lock();
+        try {
+            return numDiscarded;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        poolLock.lock();
+        try {
+            return "TDSPacketPool(idle:" + numIdlePackets + "/" + maxIdlePackets + " allocated:" + numAllocated
+                    + " reused:" + numReused + " recycled:" + numRecycled + " discarded:" + numDiscarded + ")";
+        } finally {
+            poolLock.unlock();
+        }
+    }
+}
+
+
 /**
  * TDSReaderMark encapsulates a fixed position in the response data stream.
  *
  * Response data is quantized into a linked chain of packets. A mark refers to a specific location in a specific packet
  * and relies on Java's reference semantics to automatically keep all subsequent packets accessible until the mark is
  * destroyed.
+ *
+ * A mark owned by a single value can be moved to a new position with TDSReader.mark(TDSReaderMark) instead of
+ * allocating a new one for every row.
  */
 final class TDSReaderMark {
-    final TDSPacket packet;
-    final int payloadOffset;
+    TDSPacket packet;
+    int payloadOffset;
+    int packetGeneration;
 
     TDSReaderMark(TDSPacket packet, int payloadOffset) {
+        set(packet, payloadOffset);
+    }
+
+    void set(TDSPacket packet, int payloadOffset) {
         this.packet = packet;
         this.payloadOffset = payloadOffset;
+        this.packetGeneration = packet.generation;
     }
 }
 
@@ -6745,6 +7204,10 @@ final class TDSReader implements Serializable {
     private int packetNum = 0;
 
     private boolean isStreaming = true;
+
+    // First packet that may still be reachable from a live mark, or null if no mark has been taken since the reader
+    // last started streaming. Packets consumed while this is null can be returned to the channel's packet pool.
+    private transient TDSPacket firstMarkedPacket = null;
     private boolean useColumnEncryption = false;
     private boolean serverSupportsColumnEncryption = false;
     private boolean serverSupportsDataClassification = false;
@@ -6856,6 +7319,13 @@ final class TDSReader implements Serializable {
                 logger.finest(toString() + " Moving to next packet -- unlinking consumed packet");
 
             consumedPacket.next = null;
+
+            // Marks taken before streaming resumed may still refer to the consumed packet, but not to any packet after
+            // it now that it has been unlinked. So the consumed packet can be reused only if there were no such marks.
+            if (null == firstMarkedPacket)
+                recyclePacket(consumedPacket);
+            else
+                firstMarkedPacket = null;
         }
         currentPacket = nextPacket;
         payloadOffset = 0;
@@ -6880,7 +7350,7 @@ final class TDSReader implements Serializable {
             assert tdsChannel.numMsgsRcvd < tdsChannel.numMsgsSent : "numMsgsRcvd:" + tdsChannel.numMsgsRcvd
                     + " should be less than numMsgsSent:" + tdsChannel.numMsgsSent;
 
-            TDSPacket newPacket = new TDSPacket(con.getTDSPacketSize());
+            TDSPacket newPacket = tdsChannel.getPacketPool().acquire(con.getTDSPacketSize());
             if ((null != command) &&
             // if cancelQueryTimeout is set, we should wait for the total amount of
             // queryTimeout + cancelQueryTimeout to
@@ -6964,6 +7434,10 @@ final class TDSReader implements Serializable {
 
             ++packetNum;
 
+            SQLServerMetrics metrics = con.getMetrics();
+            metrics.increment(SQLServerMetrics.Counter.PACKETS_RECEIVED, 1);
+            metrics.increment(SQLServerMetrics.Counter.BYTES_RECEIVED, packetLength);
+
             lastPacket.next = newPacket;
             lastPacket = newPacket;
 
@@ -6992,8 +7466,22 @@ final class TDSReader implements Serializable {
     }
 
     final TDSReaderMark mark() {
-        TDSReaderMark mark = new TDSReaderMark(currentPacket, payloadOffset);
+        return mark(null);
+    }
+
+    /**
+     * Marks the current position, moving the given mark rather than allocating a new one if it is not null.
+     */
+    final TDSReaderMark mark(TDSReaderMark reusableMark) {
+        TDSReaderMark mark = reusableMark;
+        if (null == mark)
+            mark = new TDSReaderMark(currentPacket, payloadOffset);
+        else
+            mark.set(currentPacket, payloadOffset);
+
         isStreaming = false;
+        if (null == firstMarkedPacket)
+            firstMarkedPacket = currentPacket;
 
         if (logger.isLoggable(Level.FINEST))
             logger.finest(this.toString() + ": Buffering from: " + mark.toString());
@@ -7005,6 +7493,10 @@ final class TDSReader implements Serializable {
         if (logger.isLoggable(Level.FINEST))
             logger.finest(this.toString() + ": Resetting to: " + mark.toString());
 
+        // The packet of a released mark may have been recycled for another response since.
+        if (mark.packetGeneration != mark.packet.generation)
+            throw new IllegalStateException("Reset to a mark of a recycled packet");
+
         currentPacket = mark.packet;
         payloadOffset = mark.payloadOffset;
     }
@@ -7013,6 +7505,30 @@ final class TDSReader implements Serializable {
         isStreaming = true;
     }
 
+    /**
+     * Releases all marks taken before the current position and resumes streaming.
+     *
+     * Callers use this when they know that none of those marks will be reset to again, such as when a forward-only
+     * result set discards its current row. The consumed packets that only those marks could reach are returned to the
+     * channel's packet pool.
+     */
+    final void releaseMarks() {
+        for (TDSPacket packet = firstMarkedPacket; null != packet && packet != currentPacket;) {
+            TDSPacket nextPacket = packet.next;
+            recyclePacket(packet);
+            packet = nextPacket;
+        }
+
+        firstMarkedPacket = null;
+        isStreaming = true;
+    }
+
+    private void recyclePacket(TDSPacket packet) {
+        // The initial empty packet of each reader is not worth pooling.
+        if (0 != packet.payload.length)
+            tdsChannel.getPacketPool().release(packet);
+    }
+
     /**
      * Returns the number of bytes that can be read (or skipped over) from this TDSReader without blocking by the next
      * caller of a method for this TDSReader.
@@ -7827,7 +8343,10 @@ abstract class TDSCommand implements Serializable {
 
         // Read any remaining response packets from the server.
         // This operation may be timed out or cancelled from another thread.
-        while (tdsReader.readPacket());
+        if (tdsReader.readPacket()) {
+            tdsReader.getConnection().getMetrics().increment(SQLServerMetrics.Counter.RESPONSES_BUFFERED, 1);
+            while (tdsReader.readPacket());
+        }
 
         // Postcondition: the entire response has been read
         assert !readingResponse;
@@ -8130,17 +8649,15 @@ abstract class TDSCommand implements Serializable {
     }
 
     /**
-     * Finishes the TDS request and then starts reading the TDS response from the server.
+     * Finishes the TDS request without reading the response.
+     *
+     * Used to pipeline requests: the requests of further commands may be sent before the response to this one is read
+     * through startResponse, which then does not finish the request again.
      *
-     * @return the TDS reader used to read the response.
      * @throws SQLServerException
      *         if there is any kind of error.
      */
-    final TDSReader startResponse() throws SQLServerException {
-        return startResponse(false);
-    }
-
-    final TDSReader startResponse(boolean isAdaptive) throws SQLServerException {
+    final void endRequest() throws SQLServerException {
         // Finish sending the request message. If this command was interrupted
         // at any point before endMessage() returns, then endMessage() throws an
         // exception with the reason for the interrupt. Request interrupts
@@ -8156,6 +8673,23 @@ abstract class TDSCommand implements Serializable {
 
             throw e;
         }
+    }
+
+    /**
+     * Finishes the TDS request and then starts reading the TDS response from the server.
+     *
+     * @return the TDS reader used to read the response.
+     * @throws SQLServerException
+     *         if there is any kind of error.
+     */
+    final TDSReader startResponse() throws SQLServerException {
+        return startResponse(false);
+    }
+
+    final TDSReader startResponse(boolean isAdaptive) throws SQLServerException {
+        // The request has already been finished if it was pipelined
+        if (!requestComplete)
+            endRequest();
 
         // If command execution is subject to timeout then start timing until
         // the server returns the first response packet.
@@ -0,0 +1,105 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.sql.SQLException;
+
+
+/**
+ * Provides an interface used to create classes that supply data a batch of rows at a time, as a vector of values per
+ * column, so that SQLServerBulkCopy can write numeric values to SQL Server tables without boxing them.
+ *
+ * SQLServerBulkCopy reads the data with {@link #nextBatch()} and the column getters below instead of
+ * {@link #next()} and {@link #getRowData()}. The values of each column are read from the vector for its JDBC data type:
+ * <ul>
+ * <li>BIT and TINYINT from {@link #getByteColumn(int)}, where any value other than 0 is true for BIT</li>
+ * <li>SMALLINT and INTEGER from {@link #getIntColumn(int)}</li>
+ * <li>BIGINT from {@link #getLongColumn(int)}</li>
+ * <li>REAL, FLOAT and DOUBLE from {@link #getDoubleColumn(int)}</li>
+ * <li>all other types from {@link #getObjectColumn(int)}, with the Java types of {@link #getRowData()}</li>
+ * </ul>
+ * The vectors must hold at least as many values as there are rows in the batch, and are read until the next call to
+ * nextBatch(), so they may be reused for every batch. next() and getRowData() are still used by consumers that read
+ * rows, such as SQLServerParallelBulkCopy.
+ */
+public interface ISQLServerBulkColumnarData extends ISQLServerBulkData {
+
+    /**
+     * Advances to the next batch of rows.
+     *
+     * @return Number of rows in the batch, or 0 if there are no more rows
+     * @throws SQLException
+     *         If there are any errors in advancing to the next batch.
+     */
+    int nextBatch() throws SQLException;
+
+    /**
+     * Returns the values of a BIT or TINYINT column in the current batch.
+     *
+     * @param column
+     *        Column ordinal
+     * @return Values of the column
+     * @throws SQLException
+     *         If there are any errors in obtaining the data.
+     */
+    byte[] getByteColumn(int column) throws SQLException;
+
+    /**
+     * Returns the values of a SMALLINT or INTEGER column in the current batch.
+     *
+     * @param column
+     *        Column ordinal
+     * @return Values of the column
+     * @throws SQLException
+     *         If there are any errors in obtaining the data.
+     */
+    int[] getIntColumn(int column) throws SQLException;
+
+    /**
+     * Returns the values of a BIGINT column in the current batch.
+     *
+     * @param column
+     *        Column ordinal
+     * @return Values of the column
+     * @throws SQLException
+     *         If there are any errors in obtaining the data.
+     */
+    long[] getLongColumn(int column) throws SQLException;
+
+    /**
+     * Returns the values of a REAL, FLOAT or DOUBLE column in the current batch.
+     *
+     * @param column
+     *        Column ordinal
+     * @return Values of the column
+     * @throws SQLException
+     *         If there are any errors in obtaining the data.
+     */
+    double[] getDoubleColumn(int column) throws SQLException;
+
+    /**
+     * Returns the values of a column of any other type in the current batch, where null is a NULL value.
+     *
+     * @param column
+     *        Column ordinal
+     * @return Values of the column
+     * @throws SQLException
+     *         If there are any errors in obtaining the data.
+     */
+    Object[] getObjectColumn(int column) throws SQLException;
+
+    /**
+     * Returns which values of a column in the current batch are NULL. The values of the primitive vectors at those rows
+     * are ignored.
+     *
+     * @param column
+     *        Column ordinal
+     * @return An array where true marks a NULL value, or null if no value of the column in the batch is NULL
+     * @throws SQLException
+     *         If there are any errors in obtaining the data.
+     */
+    boolean[] getNulls(int column) throws SQLException;
+}
@@ -532,4 +532,28 @@ public interface ISQLServerConnection extends java.sql.Connection {
      * @return flag for using Bulk Copy API for batch insert operations.
      */
     boolean getUseBulkCopyForBatchInsert();
+
+    /**
+     * Executes prepared statements of this connection as a pipeline: the request of every statement is sent to the
+     * server as a separate TDS message before the response to the first one is read, so that the statements cost a
+     * single network round trip instead of one each. The responses are then read in order.
+     *
+     * Each statement is executed as by {@link PreparedStatement#execute()}, and its results are available through the
+     * statement afterwards. If statements fail on the server, the responses to the rest of the pipeline are still read
+     * and the first error is thrown, with the errors of later statements chained to it. A statement whose request
+     * cannot be sent, for example because a parameter is not set, ends the pipeline.
+     *
+     * The connection must be in auto-commit mode. Callable statements, statements using Always Encrypted and
+     * prepareMethod=prepare are not supported, and all statements must have the same maxRows and maxFieldSize. Query
+     * timeouts and {@link java.sql.Statement#cancel()} do not apply to pipelined execution. Since responses are not
+     * read while requests are sent, pipelines are best suited to statements with small parameters and results.
+     *
+     * @param statements
+     *        the statements to execute, in order
+     * @return for each statement, true if its first result is a ResultSet; false if it is an update count or there
+     *         are no results
+     * @throws SQLServerException
+     *         if a statement cannot be pipelined, or if the execution of any statement fails
+     */
+    boolean[] executePipelined(PreparedStatement... statements) throws SQLServerException;
 }
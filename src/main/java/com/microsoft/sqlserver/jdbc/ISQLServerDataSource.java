@@ -804,6 +804,62 @@ public interface ISQLServerDataSource extends javax.sql.CommonDataSource {
      */
     int getStatementPoolingCacheSize();
 
+    /**
+     * Sets the number of seconds that the parameter metadata of stored procedures and parameterized SQL is cached for.
+     * The cache is shared by all connections to the same server and database with the same user, and saves the round
+     * trip to the server to resolve named parameters of a CallableStatement or to return getParameterMetaData. A value
+     * of 0 disables the cache.
+     * 
+     * @param procedureMetadataCacheTtl
+     *        Changes the setting per the description.
+     */
+    void setProcedureMetadataCacheTtl(int procedureMetadataCacheTtl);
+
+    /**
+     * Returns the number of seconds that the parameter metadata of stored procedures and parameterized SQL is cached
+     * for. A value of 0 means no cache.
+     * 
+     * @return Returns the current setting per the description.
+     */
+    int getProcedureMetadataCacheTtl();
+
+    /**
+     * Sets the maximum number of bytes of parameter sets that PreparedStatement.executeBatch sends in one request. A
+     * larger batch is split into several requests, each sent after the response to the previous one is read, and the
+     * update counts are returned in the order of the batch. A request always holds at least one parameter set. A value
+     * of 0 means no limit.
+     * 
+     * @param maxBatchRequestSize
+     *        Changes the setting per the description.
+     */
+    void setMaxBatchRequestSize(int maxBatchRequestSize);
+
+    /**
+     * Returns the maximum number of bytes of parameter sets that PreparedStatement.executeBatch sends in one request.
+     * A value of 0 means no limit.
+     * 
+     * @return Returns the current setting per the description.
+     */
+    int getMaxBatchRequestSize();
+
+    /**
+     * Sets the maximum number of parameter values that PreparedStatement.executeBatch sends in one request, counting
+     * every parameter of every parameter set. A larger batch is split into several requests like with
+     * {@link #setMaxBatchRequestSize(int)}. A value of 0 means no limit.
+     * 
+     * @param maxBatchRequestParameters
+     *        Changes the setting per the description.
+     */
+    void setMaxBatchRequestParameters(int maxBatchRequestParameters);
+
+    /**
+     * Returns the maximum number of parameter values that PreparedStatement.executeBatch sends in one request. A value
+     * of 0 means no limit.
+     * 
+     * @return Returns the current setting per the description.
+     */
+    int getMaxBatchRequestParameters();
+
     /**
      * Sets the value to disable/enable statement pooling.
      * 
@@ -1350,4 +1406,163 @@ public interface ISQLServerDataSource extends javax.sql.CommonDataSource {
      * @return calcBigDecimalPrecision boolean value
      */
     boolean getCalcBigDecimalPrecision();
+
+    /**
+     * Sets the 'useDirectBuffers' setting.
+     *
+     * @param useDirectBuffers
+     *        if true, the driver reads and writes TDS packets through a socket channel using direct (off-heap) buffers.
+     *        Reads from the channel cannot time out, so while a socket timeout applies, which is always the case during
+     *        login and with a socketTimeout greater than 0, the driver reads through the socket stream of the channel
+     *        and only writes use direct buffers.
+     */
+    void setUseDirectBuffers(boolean useDirectBuffers);
+
+    /**
+     * Returns the value for 'useDirectBuffers'.
+     *
+     * @return useDirectBuffers boolean value
+     */
+    boolean getUseDirectBuffers();
+
+    /**
+     * Sets the 'cacheBulkCopyMetadata' setting.
+     *
+     * @param cacheBulkCopyMetadata
+     *        if true, bulk copy caches the metadata of the 100 most recently used destination tables on the connection
+     */
+    void setCacheBulkCopyMetadata(boolean cacheBulkCopyMetadata);
+
+    /**
+     * Returns the value for 'cacheBulkCopyMetadata'.
+     *
+     * @return cacheBulkCopyMetadata boolean value
+     */
+    boolean getCacheBulkCopyMetadata();
+
+    /**
+     * Sets the 'useMultiRowValuesForBatchInsert' setting.
+     *
+     * @param useMultiRowValuesForBatchInsert
+     *        if true, PreparedStatement.executeBatch sends a batched INSERT ... VALUES of a single row as INSERT
+     *        statements of up to 1000 rows each. Each of them fires triggers and checks constraints once for all its
+     *        rows, and fails or succeeds as a whole. The batch is executed one parameter set at a time if the
+     *        parameters of the rows of an INSERT have different SQL Server types, e.g. decimals of different scales.
+     */
+    void setUseMultiRowValuesForBatchInsert(boolean useMultiRowValuesForBatchInsert);
+
+    /**
+     * Returns the value for 'useMultiRowValuesForBatchInsert'.
+     *
+     * @return useMultiRowValuesForBatchInsert boolean value
+     */
+    boolean getUseMultiRowValuesForBatchInsert();
+
+    /**
+     * Sets the 'useBulkCopyForBatchUpdate' setting.
+     *
+     * @param useBulkCopyForBatchUpdate
+     *        if true, PreparedStatement.executeBatch bulk copies the parameters of a batched UPDATE ... SET column = ?
+     *        WHERE key = ? or DELETE ... WHERE key = ? into a temporary table, and executes the batch as a single
+     *        UPDATE or DELETE joined to it on the key columns. The statement fires triggers and checks constraints once
+     *        for all the rows of the batch, and fails or succeeds as a whole.
+     */
+    void setUseBulkCopyForBatchUpdate(boolean useBulkCopyForBatchUpdate);
+
+    /**
+     * Returns the value for 'useBulkCopyForBatchUpdate'.
+     *
+     * @return useBulkCopyForBatchUpdate boolean value
+     */
+    boolean getUseBulkCopyForBatchUpdate();
+
+    /**
+     * Sets the 'cacheSSLContext' setting.
+     *
+     * @param cacheSSLContext
+     *        if true, connections with the same encryption settings share an SSL context, so that the trust store and
+     *        client certificate are loaded once, and a connection can resume the TLS session of an earlier connection
+     *        to the same server instead of a full handshake. A changed trust store or client certificate file gets a
+     *        new context. The certificate checks of a shared context are logged without a connection ID.
+     */
+    void setCacheSSLContext(boolean cacheSSLContext);
+
+    /**
+     * Returns the value for 'cacheSSLContext'.
+     *
+     * @return cacheSSLContext boolean value
+     */
+    boolean getCacheSSLContext();
+
+    /**
+     * Sets the 'prepareHotStatements' setting.
+     *
+     * @param prepareHotStatements
+     *        if true, the driver records the statements that connections prepare, for each server, database and user.
+     *        The statements that several connections prepared are prepared on the connections that
+     *        {@link SQLServerPoolingDataSource} opens ahead of demand, and on its idle connections when it does not
+     *        reset connections on borrow, so that the first execution on such a connection reuses a prepared handle.
+     *        Requires statement pooling.
+     */
+    void setPrepareHotStatements(boolean prepareHotStatements);
+
+    /**
+     * Returns the value for 'prepareHotStatements'.
+     *
+     * @return prepareHotStatements boolean value
+     */
+    boolean getPrepareHotStatements();
+
+    /**
+     * Sets the 'adaptivePrepare' setting.
+     *
+     * @param adaptivePrepare
+     *        if true, the connection counts the executions of each prepared statement SQL and their latency in its
+     *        statement pool. A statement is executed with sp_executesql until it is executed a second time, and then
+     *        prepared. When the handle of a statement is evicted from the statement pool without having been reused,
+     *        the statement needs twice as many executions before it is prepared again, up to 64, and when a reused
+     *        handle is evicted it needs half as many. Statements that take a second or more are prepared after 8
+     *        executions, latency does not otherwise demote a prepared handle. Overrides
+     *        enablePrepareOnFirstPreparedStatementCall for statements that are not batched, and requires statement
+     *        pooling.
+     */
+    void setAdaptivePrepare(boolean adaptivePrepare);
+
+    /**
+     * Returns the value for 'adaptivePrepare'.
+     *
+     * @return adaptivePrepare boolean value
+     */
+    boolean getAdaptivePrepare();
+
+    /**
+     * Sets the {@link SQLServerMetrics} that receives the counters and latencies of the connection.
+     *
+     * @param metrics
+     *        the metrics
+     */
+    void setMetrics(SQLServerMetrics metrics);
+
+    /**
+     * Returns the {@link SQLServerMetrics} that receives the counters and latencies of the connection.
+     *
+     * @return the metrics
+     */
+    SQLServerMetrics getMetrics();
+
+    /**
+     * Sets 'metricsClass' to the fully qualified class name of the implementing class for {@link SQLServerMetrics}.
+     * Connections with the same metricsClass share one instance of the class.
+     *
+     * @param metricsClass
+     *        metrics class
+     */
+    void setMetricsClass(String metricsClass);
+
+    /**
+     * Returns the fully qualified class name of the implementing class for {@link SQLServerMetrics}.
+     *
+     * @return metricsClass
+     */
+    String getMetricsClass();
 }
@@ -9,6 +9,8 @@ import java.math.BigDecimal;
 import java.sql.ParameterMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLType;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -776,4 +778,54 @@ public interface ISQLServerPreparedStatement extends java.sql.PreparedStatement,
      *         when the connection is closed.
      */
     public void setUseFmtOnly(boolean useFmtOnly) throws SQLServerException;
+
+    /**
+     * Executes this PreparedStatement asynchronously, as by {@link #executeQuery()}, on the driver's default executor.
+     * On Java 21 and later, the default executor runs each execution on a virtual thread.
+     * <p>
+     * Asynchronous executions on the same connection run one at a time, in the order they were submitted. The
+     * parameters are read when the execution starts, so this PreparedStatement must not be used again until the
+     * returned future completes. Cancelling the future cancels the execution, or skips it if it has not started yet.
+     * 
+     * @return a future completed with the ResultSet, or exceptionally with the SQLException thrown by the execution
+     * @throws SQLServerException
+     *         if this PreparedStatement is closed
+     */
+    CompletableFuture<ResultSet> executeQueryAsync() throws SQLServerException;
+
+    /**
+     * Executes this PreparedStatement asynchronously, as by {@link #executeQuery()}, on the given executor. See
+     * {@link #executeQueryAsync()}.
+     * 
+     * @param executor
+     *        the executor that runs the execution
+     * @return a future completed with the ResultSet, or exceptionally with the SQLException thrown by the execution
+     * @throws SQLServerException
+     *         if this PreparedStatement is closed or the executor is null
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(Executor executor) throws SQLServerException;
+
+    /**
+     * Executes this PreparedStatement asynchronously, as by {@link #executeUpdate()}, on the driver's default
+     * executor. See {@link #executeQueryAsync()}.
+     * 
+     * @return a future completed with the update count, or exceptionally with the SQLException thrown by the
+     *         execution
+     * @throws SQLServerException
+     *         if this PreparedStatement is closed
+     */
+    CompletableFuture<Integer> executeUpdateAsync() throws SQLServerException;
+
+    /**
+     * Executes this PreparedStatement asynchronously, as by {@link #executeUpdate()}, on the given executor. See
+     * {@link #executeQueryAsync()}.
+     * 
+     * @param executor
+     *        the executor that runs the execution
+     * @return a future completed with the update count, or exceptionally with the SQLException thrown by the
+     *         execution
+     * @throws SQLServerException
+     *         if this PreparedStatement is closed or the executor is null
+     */
+    CompletableFuture<Integer> executeUpdateAsync(Executor executor) throws SQLServerException;
 }
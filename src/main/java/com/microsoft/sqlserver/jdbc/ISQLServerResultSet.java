@@ -1595,4 +1595,21 @@ public interface ISQLServerResultSet extends java.sql.ResultSet {
      * @return SensitivityClassification
      */
     SensitivityClassification getSensitivityClassification();
+
+    /**
+     * Reads the next rows of this ResultSet into the arrays bound to a column batch, up to the capacity of the batch.
+     * The values of columns that are not bound are skipped.
+     *
+     * This moves the cursor as by calling next for each row read, so that the cursor is positioned on the last row read
+     * into the batch, or after the last row when fewer rows than the capacity of the batch are left. Reading a batch
+     * with fewer rows than its capacity, or no rows, means that the end of the ResultSet was reached.
+     *
+     * @param batch
+     *        the column batch to read the rows into
+     * @return the number of rows read into the batch
+     * @throws SQLServerException
+     *         if a bound column index is not valid, a value cannot be converted to the type of its array, or any other
+     *         error occurs
+     */
+    int fetchColumns(SQLServerColumnBatch batch) throws SQLServerException;
 }
@@ -6,6 +6,9 @@
 package com.microsoft.sqlserver.jdbc;
 
 import java.io.Serializable;
+import java.sql.ResultSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -59,4 +62,62 @@ public interface ISQLServerStatement extends java.sql.Statement, Serializable {
      *         if any error occurs
      */
     void setCancelQueryTimeout(int seconds) throws SQLServerException;
+
+    /**
+     * Executes the given SQL statement asynchronously, as by {@link #executeQuery(String)}, on the driver's default
+     * executor. On Java 21 and later, the default executor runs each execution on a virtual thread.
+     * <p>
+     * Asynchronous executions on the same connection run one at a time, in the order they were submitted. This
+     * Statement must not be used again until the returned future completes. Cancelling the future cancels the
+     * execution, or skips it if it has not started yet.
+     * 
+     * @param sql
+     *        an SQL statement to be sent to the database, typically a static SQL SELECT statement
+     * @return a future completed with the ResultSet, or exceptionally with the SQLException thrown by the execution
+     * @throws SQLServerException
+     *         if this Statement is closed
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLServerException;
+
+    /**
+     * Executes the given SQL statement asynchronously, as by {@link #executeQuery(String)}, on the given executor. See
+     * {@link #executeQueryAsync(String)}.
+     * 
+     * @param sql
+     *        an SQL statement to be sent to the database, typically a static SQL SELECT statement
+     * @param executor
+     *        the executor that runs the execution
+     * @return a future completed with the ResultSet, or exceptionally with the SQLException thrown by the execution
+     * @throws SQLServerException
+     *         if this Statement is closed or the executor is null
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(String sql, Executor executor) throws SQLServerException;
+
+    /**
+     * Executes the given SQL statement asynchronously, as by {@link #executeUpdate(String)}, on the driver's default
+     * executor. See {@link #executeQueryAsync(String)}.
+     * 
+     * @param sql
+     *        an SQL Data Manipulation Language (DML) statement, or an SQL statement that returns nothing
+     * @return a future completed with the update count, or exceptionally with the SQLException thrown by the
+     *         execution
+     * @throws SQLServerException
+     *         if this Statement is closed
+     */
+    CompletableFuture<Integer> executeUpdateAsync(String sql) throws SQLServerException;
+
+    /**
+     * Executes the given SQL statement asynchronously, as by {@link #executeUpdate(String)}, on the given executor.
+     * See {@link #executeQueryAsync(String)}.
+     * 
+     * @param sql
+     *        an SQL Data Manipulation Language (DML) statement, or an SQL statement that returns nothing
+     * @param executor
+     *        the executor that runs the execution
+     * @return a future completed with the update count, or exceptionally with the SQLException thrown by the
+     *         execution
+     * @throws SQLServerException
+     *         if this Statement is closed or the executor is null
+     */
+    CompletableFuture<Integer> executeUpdateAsync(String sql, Executor executor) throws SQLServerException;
 }
@@ -462,6 +462,7 @@ final class ReconnectThread extends Thread {
 
             try {
                 eReceived = null;
+                con.getMetrics().increment(SQLServerMetrics.Counter.RECONNECT_ATTEMPTS, 1);
                 con.connect(null, con.getPooledConnectionParent());
                 keepRetrying = false;
 
@@ -472,6 +473,7 @@ final class ReconnectThread extends Thread {
                 }
 
             } catch (SQLServerException e) {
+                con.getMetrics().increment(SQLServerMetrics.Counter.RECONNECT_FAILURES, 1);
 
                 if (loggerResiliency.isLoggable(Level.FINE)) {
                     loggerResiliency.fine("Idle connection resiliency - reconnect attempt failed ; connectRetryCount = "
@@ -0,0 +1,143 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Tracks the executions of a prepared statement SQL on a connection with adaptivePrepare, with the same key as the
+ * prepared statement handle cache, to decide whether an execution without a handle prepares the statement or executes
+ * it directly with sp_executesql.
+ *
+ * A statement is prepared on the execution that reaches its prepare threshold, the second by default. When its handle
+ * is evicted from the handle cache without having been reused, preparing it only cost a round trip and a server plan,
+ * so the threshold is doubled and the count starts over. When a reused handle is evicted, the threshold is halved.
+ * Statements that run long gain little from a handle, so they are prepared after at least
+ * LONG_RUNNING_PREPARE_THRESHOLD executions.
+ *
+ * Latency only delays the preparation of long running statements. Handles are demoted by their reuse alone: a handle
+ * is never unprepared because of the latency of its executions, and a statement is only executed directly again once
+ * its handle was evicted from the handle cache.
+ *
+ * The statistics are shared by the statements of a connection, and guarded by a lock rather than by synchronized
+ * methods, so that a virtual thread does not pin its carrier while it updates them.
+ */
+final class PrepareStatistics {
+
+    /** Initial and minimum number of executions before a statement is prepared */
+    static final int MIN_PREPARE_THRESHOLD = 2;
+
+    /** Maximum number of executions before a statement is prepared */
+    static final int MAX_PREPARE_THRESHOLD = 64;
+
+    /** Average latency from which a statement is considered long running */
+    static final long LONG_RUNNING_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Number of executions before a long running statement is prepared */
+    static final int LONG_RUNNING_PREPARE_THRESHOLD = 8;
+
+    private int prepareThreshold = MIN_PREPARE_THRESHOLD;
+
+    /** Executions since the threshold last changed */
+    private int executionCount;
+
+    /** Executions with the current handle, including the one that prepared it */
+    private int handleExecutionCount;
+
+    private int timedExecutionCount;
+    private long totalNanos;
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Returns whether the next execution without a handle should prepare the statement.
+     */
+    boolean shouldPrepare() {
+        lock.lock();
+        try {
+            int threshold = prepareThreshold;
+            if (0 < timedExecutionCount && totalNanos / timedExecutionCount >= LONG_RUNNING_NANOS) {
+                threshold = Math.max(threshold, LONG_RUNNING_PREPARE_THRESHOLD);
+            }
+            return executionCount + 1 >= threshold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records an execution that prepared the statement, used its handle, or executed it directly.
+     */
+    void onExecution(boolean prepared, boolean withHandle) {
+        recordExecution(prepared, withHandle, true);
+    }
+
+    /**
+     * Records the retry of an execution whose cached handle could not be reused, which is not counted again.
+     */
+    void onRetry(boolean prepared, boolean withHandle) {
+        recordExecution(prepared, withHandle, false);
+    }
+
+    private void recordExecution(boolean prepared, boolean withHandle, boolean isNewExecution) {
+        lock.lock();
+        try {
+            if (isNewExecution) {
+                executionCount++;
+            }
+            if (prepared) {
+                handleExecutionCount = 1;
+            } else if (withHandle && isNewExecution) {
+                handleExecutionCount++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the time from sending an execution to its first result.
+     */
+    void onLatency(long nanos) {
+        lock.lock();
+        try {
+            timedExecutionCount++;
+            totalNanos += nanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adapts the prepare threshold when the handle of the statement is evicted from the handle cache.
+     */
+    void onHandleEvicted() {
+        lock.lock();
+        try {
+            if (1 >= handleExecutionCount) {
+                prepareThreshold = Math.min(2 * prepareThreshold, MAX_PREPARE_THRESHOLD);
+            } else {
+                prepareThreshold = Math.max(prepareThreshold / 2, MIN_PREPARE_THRESHOLD);
+            }
+            executionCount = 0;
+            handleExecutionCount = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getPrepareThreshold() {
+        lock.lock();
+        try {
+            return prepareThreshold;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
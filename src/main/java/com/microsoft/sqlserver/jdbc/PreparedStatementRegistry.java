@@ -0,0 +1,109 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.microsoft.sqlserver.jdbc.SQLServerConnection.CityHash128Key;
+
+import mssql.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import mssql.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap.Builder;
+
+
+/**
+ * Records the statements that connections with prepareHotStatements prepare, with the same keys as the prepared
+ * statement handle caches of the connections. There is a registry for each server, database, authentication method and
+ * principal, and a statement prepared by at least HOT_PREPARE_COUNT connections of a registry is hot, so that it is
+ * prepared ahead on other connections.
+ */
+final class PreparedStatementRegistry {
+
+    /** Number of times a statement is prepared before it is prepared ahead */
+    static final int HOT_PREPARE_COUNT = 2;
+
+    /** Maximum number of statements of a registry, the least recently prepared statements are dropped */
+    private static final int MAX_STATEMENTS = 1000;
+
+    /** Maximum number of registries, they are all dropped when it is reached */
+    private static final int MAX_REGISTRIES = 256;
+
+    private static final Map<String, PreparedStatementRegistry> registries = new ConcurrentHashMap<>();
+
+    /**
+     * A prepared statement and the number of times it was prepared.
+     */
+    static final class PreparedStatement {
+        final CityHash128Key key;
+        final String sql;
+        final String typeDefinitions;
+        final AtomicInteger prepareCount = new AtomicInteger();
+
+        PreparedStatement(CityHash128Key key, String sql, String typeDefinitions) {
+            this.key = key;
+            this.sql = sql;
+            this.typeDefinitions = typeDefinitions;
+        }
+    }
+
+    private final ConcurrentLinkedHashMap<CityHash128Key, PreparedStatement> statements = new Builder<
+            CityHash128Key, PreparedStatement>().maximumWeightedCapacity(MAX_STATEMENTS).build();
+
+    /**
+     * Returns the registry of the server, database, authentication method and principal that scope identifies.
+     */
+    static PreparedStatementRegistry getRegistry(String scope) {
+        PreparedStatementRegistry registry = registries.get(scope);
+        if (null == registry) {
+            if (registries.size() >= MAX_REGISTRIES) {
+                registries.clear();
+            }
+            registry = registries.computeIfAbsent(scope, s -> new PreparedStatementRegistry());
+        }
+        return registry;
+    }
+
+    /**
+     * Records that a connection prepared the statement.
+     */
+    void record(CityHash128Key key, String sql, String typeDefinitions) {
+        PreparedStatement statement = statements.get(key);
+        if (null == statement) {
+            statement = new PreparedStatement(key, sql, typeDefinitions);
+            PreparedStatement existing = statements.putIfAbsent(key, statement);
+            if (null != existing) {
+                statement = existing;
+            }
+        }
+        statement.prepareCount.incrementAndGet();
+    }
+
+    /**
+     * Returns up to maxCount hot statements, the most often prepared first.
+     */
+    List<PreparedStatement> getHotStatements(int maxCount) {
+        // Sort by a snapshot of the counts, which other connections change meanwhile
+        List<SimpleImmutableEntry<PreparedStatement, Integer>> counts = new ArrayList<>();
+        for (PreparedStatement statement : statements.values()) {
+            int prepareCount = statement.prepareCount.get();
+            if (prepareCount >= HOT_PREPARE_COUNT) {
+                counts.add(new SimpleImmutableEntry<>(statement, prepareCount));
+            }
+        }
+        counts.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+
+        List<PreparedStatement> hotStatements = new ArrayList<>(Math.min(maxCount, counts.size()));
+        for (int i = 0; i < counts.size() && i < maxCount; i++) {
+            hotStatements.add(counts.get(i).getKey());
+        }
+        return hotStatements;
+    }
+}
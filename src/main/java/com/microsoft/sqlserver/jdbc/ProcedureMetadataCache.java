@@ -0,0 +1,169 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+import mssql.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import mssql.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap.Builder;
+
+
+/**
+ * Implements a driver-wide cache for the parameter metadata of stored procedures and parameterized SQL, as returned by
+ * sp_sproc_columns and sp_describe_undeclared_parameters. Caching is enabled per connection by the
+ * procedureMetadataCacheTtl property.
+ *
+ * Entries are keyed by server, database, authentication method and principal as well as procedure name or SQL text,
+ * since unqualified names resolve against the current database and the default schema of the principal. Connections
+ * whose principal is not known on the client, such as with an access token, do not cache metadata. An entry expires
+ * procedureMetadataCacheTtl seconds after it was read, as seen by the connection that looks it up, and is removed when
+ * an execution, including one of a batch, fails with an error that indicates that the parameters or objects it
+ * describes have changed.
+ */
+final class ProcedureMetadataCache {
+
+    private ProcedureMetadataCache() {
+        throw new UnsupportedOperationException(SQLServerException.getErrString("R_notSupported"));
+    }
+
+    /** Maximum number of entries in the cache */
+    static final int CACHE_SIZE = 1000;
+
+    /** Kinds of cached metadata, each read by a different query */
+    enum Kind {
+        /** Parameter names of a procedure in ordinal order, from sp_sproc_columns, as a String[] */
+        PARAMETER_NAMES,
+
+        /** Parameter metadata of a procedure, from sp_sproc_columns or sp_sproc_columns_100 */
+        PROCEDURE_PARAMETERS,
+
+        /** Parameter metadata of parameterized SQL, from sp_describe_undeclared_parameters */
+        QUERY_PARAMETERS
+    }
+
+    /**
+     * Errors after which the metadata of the executed procedure or SQL is removed from the cache:
+     * 201: Procedure or function expects parameter, which was not supplied.
+     * 206: Operand type clash.
+     * 207: Invalid column name.
+     * 208: Invalid object name.
+     * 2812: Could not find stored procedure.
+     * 8144: Procedure or function has too many arguments specified.
+     * 8145: Is not a parameter for procedure.
+     * 8178: The parameterized query expects a parameter, which was not supplied.
+     */
+    private static final int[] SCHEMA_CHANGE_ERRORS = {201, 206, 207, 208, 2812, 8144, 8145, 8178};
+
+    private static final class CacheItem {
+        final Object metadata;
+        final long createdNanos;
+
+        CacheItem(Object metadata) {
+            this.metadata = metadata;
+            this.createdNanos = System.nanoTime();
+        }
+    }
+
+    private static final ConcurrentLinkedHashMap<String, CacheItem> cache = new Builder<String, CacheItem>()
+            .maximumWeightedCapacity(CACHE_SIZE).build();
+
+    private static final java.util.logging.Logger logger = java.util.logging.Logger
+            .getLogger("com.microsoft.sqlserver.jdbc.ProcedureMetadataCache");
+
+    /**
+     * Returns the cached metadata, or null if caching is disabled on the connection or no unexpired entry exists.
+     */
+    static Object get(SQLServerConnection connection, Kind kind, String name) {
+        int ttlSeconds = connection.getProcedureMetadataCacheTtl();
+        if (0 == ttlSeconds || null == name)
+            return null;
+
+        String key = getCacheLookupKey(connection, kind, name);
+        if (null == key)
+            return null;
+
+        CacheItem item = cache.get(key);
+        if (null != item && System.nanoTime() - item.createdNanos > TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+            cache.remove(key, item);
+            item = null;
+        }
+
+        if (logger.isLoggable(java.util.logging.Level.FINEST)) {
+            logger.finest((null != item ? "Cache hit: " : "Cache miss: ") + kind + " " + name);
+        }
+        return null != item ? item.metadata : null;
+    }
+
+    /**
+     * Adds metadata to the cache if caching is enabled on the connection. The metadata must not be modified afterwards,
+     * since it is shared by all connections that look it up.
+     */
+    static void put(SQLServerConnection connection, Kind kind, String name, Object metadata) {
+        if (0 == connection.getProcedureMetadataCacheTtl() || null == name || null == metadata)
+            return;
+
+        String key = getCacheLookupKey(connection, kind, name);
+        if (null != key) {
+            cache.put(key, new CacheItem(metadata));
+        }
+    }
+
+    /**
+     * Removes the cached metadata of the procedure or SQL of a statement if its execution failed with an error that
+     * indicates a schema change.
+     */
+    static void invalidateOnError(SQLServerConnection connection, String procedureName, String sql,
+            int errorCode) {
+        if (0 == connection.getProcedureMetadataCacheTtl() || !isSchemaChangeError(errorCode)
+                || null == connection.getPrincipalScope())
+            return;
+
+        if (null != procedureName) {
+            cache.remove(getCacheLookupKey(connection, Kind.PARAMETER_NAMES, procedureName));
+            cache.remove(getCacheLookupKey(connection, Kind.PROCEDURE_PARAMETERS, procedureName));
+        }
+        if (null != sql) {
+            cache.remove(getCacheLookupKey(connection, Kind.QUERY_PARAMETERS, sql));
+        }
+
+        if (logger.isLoggable(java.util.logging.Level.FINER)) {
+            logger.finer("Removed cached metadata of " + (null != procedureName ? procedureName : sql)
+                    + " after error " + errorCode);
+        }
+    }
+
+    private static boolean isSchemaChangeError(int errorCode) {
+        for (int schemaChangeError : SCHEMA_CHANGE_ERRORS) {
+            if (schemaChangeError == errorCode)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the key of the metadata in the cache, or null if the principal of the connection is not known.
+     */
+    private static String getCacheLookupKey(SQLServerConnection connection, Kind kind, String name) {
+        String principalScope = connection.getPrincipalScope();
+        if (null == principalScope)
+            return null;
+
+        StringBuilder cacheLookupKeyBuilder = new StringBuilder();
+        if (null != connection.currentConnectPlaceHolder) {
+            cacheLookupKeyBuilder.append(connection.currentConnectPlaceHolder.getFullServerName());
+            cacheLookupKeyBuilder.append(':');
+            cacheLookupKeyBuilder.append(connection.currentConnectPlaceHolder.getPortNumber());
+        }
+        cacheLookupKeyBuilder.append(":::");
+        cacheLookupKeyBuilder.append(connection.getCurrentCatalog());
+        cacheLookupKeyBuilder.append(":::");
+        cacheLookupKeyBuilder.append(principalScope);
+        cacheLookupKeyBuilder.append(":::");
+        cacheLookupKeyBuilder.append(kind);
+        cacheLookupKeyBuilder.append(":::");
+        cacheLookupKeyBuilder.append(name);
+        return cacheLookupKeyBuilder.toString();
+    }
+}
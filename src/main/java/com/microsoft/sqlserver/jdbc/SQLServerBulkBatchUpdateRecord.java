@@ -0,0 +1,53 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.ArrayList;
+
+
+/**
+ * Provides the parameter sets of a batched UPDATE or DELETE as rows of all their parameters, followed by the number of
+ * the parameter set in the batch, starting from 1.
+ */
+class SQLServerBulkBatchUpdateRecord extends SQLServerBulkBatchInsertRecord {
+
+    /**
+     * Update serialVersionUID when making changes to this file
+     */
+    private static final long serialVersionUID = 2858362367427291436L;
+
+    private int rowNumber;
+
+    /*
+     * Constructs a SQLServerBulkBatchUpdateRecord with the batch parameter and the number of parameters of each set
+     */
+    SQLServerBulkBatchUpdateRecord(ArrayList<Parameter[]> batchParam, int numParams) throws SQLServerException {
+        super(batchParam, null, valueList(numParams), null);
+    }
+
+    private static ArrayList<String> valueList(int numParams) {
+        ArrayList<String> valueList = new ArrayList<>(numParams + 1);
+        for (int i = 0; i < numParams; i++) {
+            valueList.add("?");
+        }
+        // The row number is set by getRowData
+        valueList.add("null");
+        return valueList;
+    }
+
+    @Override
+    public Object[] getRowData() throws SQLServerException {
+        Object[] data = super.getRowData();
+        data[data.length - 1] = rowNumber;
+        return data;
+    }
+
+    @Override
+    public boolean next() throws SQLServerException {
+        rowNumber++;
+        return super.next();
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Reads the basic Java data types from a delimited file, like {@link SQLServerBulkCSVStreamRecord}, parsing parts of
+ * the file on several threads at once.
+ *
+ * The file is split into ranges of bytes that start and end at record boundaries, and the ranges are parsed on a
+ * fork/join pool of the given parallelism. Only a few ranges per thread are parsed ahead of the rows returned by
+ * {@link #next()}, so the memory used does not grow with the size of the file. Rows are returned in the order of the
+ * file, unless {@link #setOrdered(boolean)} is set to false, in which case the rows of each range are returned as
+ * soon as the range is parsed.
+ *
+ * Records are split at line feeds, so files with carriage returns alone as line ends are parsed on a single thread.
+ * With {@link #setEscapeColumnDelimitersCSV(boolean)} on, a line feed within double quotes does not end a record, and
+ * finding where each range ends takes a scan of the bytes of the range on the thread calling next(). The encoding of
+ * the file must encode line feeds and double quotes as the single bytes of ASCII, as UTF-8 and the ISO 8859 encodings
+ * do.
+ *
+ * Columns, formats and options must be set before the first call to next(). Values are converted by the same rules as
+ * in SQLServerBulkCSVFileRecord.
+ */
+public class SQLServerBulkCSVParallelRecord extends SQLServerBulkRecord implements java.lang.AutoCloseable {
+    /**
+     * Update serialVersionUID when making changes to this file
+     */
+    private static final long serialVersionUID = 2604981539426117251L;
+
+    /** Number of bytes of the file in a range, not counting the rest of the record the range ends in */
+    static final int RANGE_SIZE = 8 * 1024 * 1024;
+
+    /** Number of bytes read at a time to find where a range ends */
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    /*
+     * Class names for logging.
+     */
+    private static final String loggerClassName = "SQLServerBulkCSVParallelRecord";
+
+    private transient FileChannel channel;
+    private final long fileSize;
+    private final transient Charset charset;
+    private final char delimiter;
+    private final int parallelism;
+
+    private boolean escapeDelimiters;
+    private boolean ordered = true;
+
+    /** parses the header and holds the column metadata shared with the records of each range */
+    private transient SQLServerBulkCSVStreamRecord template;
+
+    private transient ForkJoinPool pool;
+
+    /** start of the next range to parse */
+    private long nextRangeStart;
+
+    /** ranges being parsed, in the order of the file */
+    private transient ArrayDeque<RangeTask> pending;
+
+    /** parsed ranges, in the order they were parsed */
+    private transient BlockingQueue<RangeTask> completed;
+    private int rangesInFlight;
+
+    private transient List<Object[]> rangeRows;
+    private int rowIndex;
+    private transient Object[] currentRow;
+
+    private transient ByteBuffer scanBuffer;
+
+    /**
+     * Constructs a reader to parse data from a delimited file with the given encoding, on the given number of threads.
+     *
+     * @param fileToParse
+     *        File to parse data from.
+     * @param encoding
+     *        Charset encoding to use for reading the file, or NULL for the default encoding.
+     * @param delimiter
+     *        Character used to separate each column, as for {@link SQLServerBulkCSVStreamRecord}.
+     * @param firstLineIsColumnNames
+     *        True if the first line of the file should be parsed as column names; false otherwise
+     * @param parallelism
+     *        Number of threads to parse the file on.
+     * @throws SQLServerException
+     *         If the arguments are invalid, or there are any errors in reading the file
+     */
+    public SQLServerBulkCSVParallelRecord(String fileToParse, String encoding, String delimiter,
+            boolean firstLineIsColumnNames, int parallelism) throws SQLServerException {
+        initLoggerResources();
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER)) {
+            loggerExternal.entering(loggerPackageName, loggerClassName,
+                    new Object[] {fileToParse, encoding, delimiter, firstLineIsColumnNames, parallelism});
+        }
+
+        if (null == fileToParse) {
+            throwInvalidArgument("fileToParse");
+        }
+        if (parallelism < 1) {
+            throwInvalidArgument("parallelism");
+        }
+        this.delimiter = SQLServerBulkCSVStreamRecord.toDelimiterChar(delimiter);
+        this.parallelism = parallelism;
+
+        try {
+            charset = (null == encoding || 0 == encoding.length()) ? Charset.defaultCharset()
+                                                                   : Charset.forName(encoding);
+        } catch (IllegalArgumentException unsupportedEncoding) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unsupportedEncoding"));
+            throw new SQLServerException(form.format(new Object[] {encoding}), null, 0, unsupportedEncoding);
+        }
+        if (!Arrays.equals(new byte[] {'\n', '"'}, "\n\"".getBytes(charset))) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unsupportedEncoding"));
+            throw new SQLServerException(form.format(new Object[] {encoding}), null, 0, null);
+        }
+
+        try {
+            channel = FileChannel.open(Paths.get(fileToParse), StandardOpenOption.READ);
+            fileSize = channel.size();
+            // The header is parsed like the first line of SQLServerBulkCSVStreamRecord, before quotes can be escaped
+            nextRangeStart = (firstLineIsColumnNames && 0 < fileSize) ? findRangeEnd(0, 1, false) : 0;
+            template = new SQLServerBulkCSVStreamRecord(openRange(0, nextRangeStart), this.delimiter, false,
+                    firstLineIsColumnNames);
+            template.close();
+        } catch (SQLServerException e) {
+            close();
+            throw e;
+        } catch (IOException e) {
+            close();
+            throw new SQLServerException(null, e.getMessage(), null, 0, false);
+        }
+        columnNames = template.columnNames;
+        columnMetadata = template.columnMetadata;
+
+        loggerExternal.exiting(loggerPackageName, loggerClassName);
+    }
+
+    /**
+     * Constructs a reader to parse data from a delimited file with the given encoding, on as many threads as there are
+     * processors.
+     *
+     * @param fileToParse
+     *        File to parse data from.
+     * @param encoding
+     *        Charset encoding to use for reading the file, or NULL for the default encoding.
+     * @param delimiter
+     *        Character used to separate each column, as for {@link SQLServerBulkCSVStreamRecord}.
+     * @param firstLineIsColumnNames
+     *        True if the first line of the file should be parsed as column names; false otherwise
+     * @throws SQLServerException
+     *         If the arguments are invalid, or there are any errors in reading the file
+     */
+    public SQLServerBulkCSVParallelRecord(String fileToParse, String encoding, String delimiter,
+            boolean firstLineIsColumnNames) throws SQLServerException {
+        this(fileToParse, encoding, delimiter, firstLineIsColumnNames, Runtime.getRuntime().availableProcessors());
+    }
+
+    private void initLoggerResources() {
+        super.loggerPackageName = "com.microsoft.sqlserver.jdbc.SQLServerBulkCSVParallelRecord";
+    }
+
+    /**
+     * Releases the file and stops parsing.
+     *
+     * @throws SQLServerException
+     *         when an error occurs
+     */
+    @Override
+    public void close() throws SQLServerException {
+        loggerExternal.entering(loggerPackageName, "close");
+
+        // Ignore errors since we are only cleaning up here
+        if (null != pool) {
+            pool.shutdownNow();
+        }
+        if (channel != null)
+            try {
+                channel.close();
+            } catch (Exception e) {}
+
+        loggerExternal.exiting(loggerPackageName, "close");
+    }
+
+    /**
+     * Returns whether the rules to escape delimiters are used.
+     *
+     * @return true if the rules are used, false otherwise.
+     */
+    public boolean isEscapeColumnDelimitersCSV() {
+        return escapeDelimiters;
+    }
+
+    /**
+     * When set to true, fields are parsed by the rules of RFC 4180, as described for
+     * {@link SQLServerBulkCSVFileRecord#setEscapeColumnDelimitersCSV(boolean)}.
+     *
+     * @param escapeDelimiters
+     *        true if the rules above to be used.
+     */
+    public void setEscapeColumnDelimitersCSV(boolean escapeDelimiters) {
+        this.escapeDelimiters = escapeDelimiters;
+    }
+
+    /**
+     * Returns whether rows are returned in the order of the file.
+     *
+     * @return true if rows are returned in the order of the file, false otherwise.
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Sets whether rows are returned in the order of the file. When set to false, the rows of each range of the file
+     * are returned as soon as the range is parsed, so that a range that is slow to parse does not hold up the rest.
+     * The default is true.
+     *
+     * @param ordered
+     *        true if rows are returned in the order of the file, false otherwise.
+     */
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    @Override
+    void addColumnMetadataInternal(int positionInSource, String name, int jdbcType, int precision, int scale,
+            DateTimeFormatter dateTimeFormatter) throws SQLServerException {
+        template.addColumnMetadataInternal(positionInSource, name, jdbcType, precision, scale, dateTimeFormatter);
+    }
+
+    @Override
+    public boolean next() throws SQLServerException {
+        if (null == pool) {
+            pool = new ForkJoinPool(parallelism);
+            pending = new ArrayDeque<>();
+            completed = new LinkedBlockingQueue<>();
+        }
+
+        while (null == rangeRows || rowIndex == rangeRows.size()) {
+            rangeRows = null;
+            try {
+                submitRanges();
+            } catch (IOException e) {
+                throw new SQLServerException(e.getMessage(), null, 0, e);
+            }
+            if (0 == rangesInFlight) {
+                currentRow = null;
+                return false;
+            }
+
+            RangeTask task;
+            if (ordered) {
+                task = pending.poll();
+                task.join();
+            } else {
+                try {
+                    task = completed.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLServerException(e.getMessage(), null, 0, e);
+                }
+            }
+            rangesInFlight--;
+
+            if (null != task.error) {
+                if (task.error instanceof SQLServerException) {
+                    throw (SQLServerException) task.error;
+                }
+                throw new SQLServerException(task.error.getMessage(), null, 0, task.error);
+            }
+            rangeRows = task.rows;
+            rowIndex = 0;
+        }
+
+        currentRow = rangeRows.get(rowIndex);
+        // Let the row go with the caller rather than with the range
+        rangeRows.set(rowIndex++, null);
+        return true;
+    }
+
+    /**
+     * Returns the data of the current record. Unlike SQLServerBulkCSVStreamRecord, a new array is returned for every
+     * record.
+     */
+    @Override
+    public Object[] getRowData() throws SQLServerException {
+        return currentRow;
+    }
+
+    /**
+     * Starts parsing ranges of the file until two ranges per thread are parsed or being parsed.
+     */
+    private void submitRanges() throws IOException {
+        while (rangesInFlight < 2 * parallelism && nextRangeStart < fileSize) {
+            long end = (fileSize - nextRangeStart <= RANGE_SIZE) ? fileSize
+                                                                 : findRangeEnd(nextRangeStart,
+                                                                         nextRangeStart + RANGE_SIZE,
+                                                                         escapeDelimiters);
+            RangeTask task = new RangeTask(nextRangeStart, end);
+            if (ordered) {
+                pending.add(task);
+            }
+            pool.execute(task);
+            rangesInFlight++;
+            nextRangeStart = end;
+        }
+    }
+
+    /**
+     * Returns the first record boundary at or after minEnd, where a range that starts at the record boundary start can
+     * end. With quoted fields, line feeds within quotes do not end a record, so the bytes are scanned from start to
+     * tell.
+     */
+    private long findRangeEnd(long start, long minEnd, boolean quoted) throws IOException {
+        long position = quoted ? start : minEnd - 1;
+        boolean inQuotes = false;
+        while (position < fileSize) {
+            if (null == scanBuffer) {
+                scanBuffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            }
+            scanBuffer.clear();
+            int read = channel.read(scanBuffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = scanBuffer.array();
+            for (int i = 0; i < read; i++, position++) {
+                if ('"' == bytes[i] && quoted) {
+                    inQuotes = !inQuotes;
+                } else if ('\n' == bytes[i] && !inQuotes && position >= minEnd - 1) {
+                    return position + 1;
+                }
+            }
+        }
+        return fileSize;
+    }
+
+    private Reader openRange(long start, long end) {
+        return (start == end) ? new StringReader("")
+                              : new InputStreamReader(new RangeInputStream(channel, start, end), charset);
+    }
+
+    /**
+     * Parses a range of the file, with the columns of this record.
+     */
+    private List<Object[]> parseRange(long start, long end) throws SQLServerException, IOException {
+        List<Object[]> rows = new ArrayList<>();
+        try (SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(openRange(start, end), delimiter,
+                escapeDelimiters, false)) {
+            record.columnNames = columnNames;
+            record.columnMetadata = columnMetadata;
+            record.dateTimeFormatter = dateTimeFormatter;
+            record.timeFormatter = timeFormatter;
+            while (record.next()) {
+                // The stream record reuses its row
+                rows.add(record.getRowData().clone());
+            }
+        }
+        return rows;
+    }
+
+    private final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 6373451780432263465L;
+
+        private final long start;
+        private final long end;
+        private transient List<Object[]> rows;
+        private transient Exception error;
+
+        RangeTask(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                rows = parseRange(start, end);
+            } catch (SQLServerException | IOException | RuntimeException e) {
+                error = e;
+            } finally {
+                if (!ordered) {
+                    completed.add(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a range of a file channel with positional reads, so that ranges can be read on several threads at once.
+     */
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return (-1 == read(b, 0, 1)) ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (read < 0) {
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+    }
+}
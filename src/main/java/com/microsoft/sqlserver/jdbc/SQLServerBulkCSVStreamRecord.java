@@ -0,0 +1,660 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Types;
+import java.text.MessageFormat;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map.Entry;
+
+
+/**
+ * Reads the basic Java data types from a delimited file where each record represents a row of data, like
+ * {@link SQLServerBulkCSVFileRecord}, for files large enough that parsing them is the bottleneck of a bulk copy.
+ *
+ * The file is decoded into a large buffer and parsed by a state machine in a single pass, without regular expressions
+ * or intermediate lines. Fields are kept as ranges of a buffer that is reused for every record, and numeric columns
+ * are parsed directly from that buffer, so that only the values returned by {@link #getRowData()} are allocated. The
+ * row array returned by getRowData is reused as well, and is only valid until the next call to {@link #next()}.
+ *
+ * The delimiter is a single character rather than a regular expression. With
+ * {@link #setEscapeColumnDelimitersCSV(boolean)} on, fields are parsed by the rules of RFC 4180, as in
+ * SQLServerBulkCSVFileRecord, including quoted fields that span lines. Values are converted by the same rules as in
+ * SQLServerBulkCSVFileRecord.
+ */
+public class SQLServerBulkCSVStreamRecord extends SQLServerBulkRecord implements java.lang.AutoCloseable {
+    /**
+     * Update serialVersionUID when making changes to this file
+     */
+    private static final long serialVersionUID = -3180384621398640137L;
+
+    /** Number of chars decoded from the file at a time */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /*
+     * Class names for logging.
+     */
+    private static final String loggerClassName = "SQLServerBulkCSVStreamRecord";
+
+    /** reader of the decoded file */
+    private transient Reader reader;
+
+    /** file input stream, if the record opened the file */
+    private transient FileInputStream fis;
+
+    /** decoded chars of the file, from position to limit not parsed yet */
+    private transient char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfFile;
+
+    /** unescaped chars of the current record, with the start and end of each field */
+    private transient char[] record = new char[256];
+    private int recordLength;
+    private transient int[] fieldStarts = new int[16];
+    private transient int[] fieldEnds = new int[16];
+    private int fieldCount;
+
+    /** whether there is a current record */
+    private boolean hasRecord;
+
+    private final char delimiter;
+
+    private boolean escapeDelimiters;
+
+    /** column metadata as arrays, rebuilt when columns are added */
+    private transient int[] ordinals;
+    private transient ColumnMetadata[] metadata;
+
+    /** row returned by getRowData, reused for every record */
+    private transient Object[] dataRow;
+
+    /** the value parsed by parseLong */
+    private long parsedLong;
+
+    /**
+     * Constructs a reader to parse data from a delimited file with the given encoding.
+     *
+     * @param fileToParse
+     *        File to parse data from.
+     * @param encoding
+     *        Charset encoding to use for reading the file, or NULL for the default encoding.
+     * @param delimiter
+     *        Character used to separate each column. A character escaped with a backslash, as for the regular
+     *        expressions of SQLServerBulkCSVFileRecord, is accepted as well.
+     * @param firstLineIsColumnNames
+     *        True if the first line of the file should be parsed as column names; false otherwise
+     * @throws SQLServerException
+     *         If the arguments are invalid, there are any errors in reading the file, or the file is empty
+     */
+    public SQLServerBulkCSVStreamRecord(String fileToParse, String encoding, String delimiter,
+            boolean firstLineIsColumnNames) throws SQLServerException {
+        initLoggerResources();
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER)) {
+            loggerExternal.entering(loggerPackageName, loggerClassName,
+                    new Object[] {fileToParse, encoding, delimiter, firstLineIsColumnNames});
+        }
+
+        if (null == fileToParse) {
+            throwInvalidArgument("fileToParse");
+        }
+        this.delimiter = toDelimiterChar(delimiter);
+        try {
+            fis = new FileInputStream(fileToParse);
+            initReader(fis, encoding, firstLineIsColumnNames);
+        } catch (UnsupportedEncodingException unsupportedEncoding) {
+            close();
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unsupportedEncoding"));
+            throw new SQLServerException(form.format(new Object[] {encoding}), null, 0, unsupportedEncoding);
+        } catch (IOException e) {
+            close();
+            throw new SQLServerException(null, e.getMessage(), null, 0, false);
+        }
+
+        loggerExternal.exiting(loggerPackageName, loggerClassName);
+    }
+
+    /**
+     * Constructs a reader to parse data from a delimited stream with the given encoding.
+     *
+     * @param fileToParse
+     *        InputStream to parse data from.
+     * @param encoding
+     *        Charset encoding to use for reading the stream, or NULL for the default encoding.
+     * @param delimiter
+     *        Character used to separate each column. A character escaped with a backslash, as for the regular
+     *        expressions of SQLServerBulkCSVFileRecord, is accepted as well.
+     * @param firstLineIsColumnNames
+     *        True if the first line of the stream should be parsed as column names; false otherwise
+     * @throws SQLServerException
+     *         If the arguments are invalid, there are any errors in reading the stream, or the stream is empty
+     */
+    public SQLServerBulkCSVStreamRecord(InputStream fileToParse, String encoding, String delimiter,
+            boolean firstLineIsColumnNames) throws SQLServerException {
+        initLoggerResources();
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER)) {
+            loggerExternal.entering(loggerPackageName, loggerClassName,
+                    new Object[] {fileToParse, encoding, delimiter, firstLineIsColumnNames});
+        }
+
+        if (null == fileToParse) {
+            throwInvalidArgument("fileToParse");
+        }
+        this.delimiter = toDelimiterChar(delimiter);
+        try {
+            initReader(fileToParse, encoding, firstLineIsColumnNames);
+        } catch (UnsupportedEncodingException unsupportedEncoding) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unsupportedEncoding"));
+            throw new SQLServerException(form.format(new Object[] {encoding}), null, 0, unsupportedEncoding);
+        } catch (IOException e) {
+            throw new SQLServerException(null, e.getMessage(), null, 0, false);
+        }
+
+        loggerExternal.exiting(loggerPackageName, loggerClassName);
+    }
+
+    /**
+     * Constructs a reader to parse data from a CSV file with the given encoding.
+     *
+     * @param fileToParse
+     *        File to parse data from
+     * @param encoding
+     *        Charset encoding to use for reading the file, or NULL for the default encoding.
+     * @param firstLineIsColumnNames
+     *        True if the first line of the file should be parsed as column names; false otherwise
+     * @throws SQLServerException
+     *         If the arguments are invalid, there are any errors in reading the file, or the file is empty
+     */
+    public SQLServerBulkCSVStreamRecord(String fileToParse, String encoding,
+            boolean firstLineIsColumnNames) throws SQLServerException {
+        this(fileToParse, encoding, ",", firstLineIsColumnNames);
+    }
+
+    /**
+     * Constructs a reader to parse data from an already decoded part of a delimited file. The reader is closed with the
+     * record.
+     */
+    SQLServerBulkCSVStreamRecord(Reader reader, char delimiter, boolean escapeDelimiters,
+            boolean firstLineIsColumnNames) throws SQLServerException, IOException {
+        initLoggerResources();
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.escapeDelimiters = escapeDelimiters;
+        readColumnNames(firstLineIsColumnNames);
+    }
+
+    private void initReader(InputStream in, String encoding,
+            boolean firstLineIsColumnNames) throws SQLServerException, IOException {
+        reader = (null == encoding || 0 == encoding.length()) ? new InputStreamReader(in)
+                                                              : new InputStreamReader(in, encoding);
+        readColumnNames(firstLineIsColumnNames);
+    }
+
+    private void readColumnNames(boolean firstLineIsColumnNames) throws SQLServerException, IOException {
+        columnMetadata = new HashMap<>();
+        if (firstLineIsColumnNames && readRecord()) {
+            columnNames = new String[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                columnNames[i] = getField(i);
+            }
+        }
+    }
+
+    static char toDelimiterChar(String delimiter) throws SQLServerException {
+        if (null != delimiter) {
+            if (1 == delimiter.length()) {
+                return delimiter.charAt(0);
+            } else if (2 == delimiter.length() && '\\' == delimiter.charAt(0)) {
+                return delimiter.charAt(1);
+            }
+        }
+        MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+        SQLServerException.makeFromDriverError(null, null, form.format(new Object[] {"delimiter"}), null, false);
+        return 0;
+    }
+
+    private void initLoggerResources() {
+        super.loggerPackageName = "com.microsoft.sqlserver.jdbc.SQLServerBulkCSVStreamRecord";
+    }
+
+    /**
+     * Releases any resources associated with the file reader.
+     *
+     * @throws SQLServerException
+     *         when an error occurs
+     */
+    @Override
+    public void close() throws SQLServerException {
+        loggerExternal.entering(loggerPackageName, "close");
+
+        // Ignore errors since we are only cleaning up here
+        if (reader != null)
+            try {
+                reader.close();
+            } catch (Exception e) {}
+        if (fis != null)
+            try {
+                fis.close();
+            } catch (Exception e) {}
+
+        loggerExternal.exiting(loggerPackageName, "close");
+    }
+
+    /**
+     * Returns whether the rules to escape delimiters are used.
+     *
+     * @return true if the rules are used, false otherwise.
+     */
+    public boolean isEscapeColumnDelimitersCSV() {
+        return escapeDelimiters;
+    }
+
+    /**
+     * When set to true, fields are parsed by the rules of RFC 4180, as described for
+     * {@link SQLServerBulkCSVFileRecord#setEscapeColumnDelimitersCSV(boolean)}. Quoted fields may contain delimiters,
+     * newlines and double quotes escaped by another double quote.
+     *
+     * @param escapeDelimiters
+     *        true if the rules above to be used.
+     */
+    public void setEscapeColumnDelimitersCSV(boolean escapeDelimiters) {
+        this.escapeDelimiters = escapeDelimiters;
+    }
+
+    @Override
+    public boolean next() throws SQLServerException {
+        try {
+            hasRecord = readRecord();
+        } catch (IOException e) {
+            throw new SQLServerException(e.getMessage(), null, 0, e);
+        }
+        return hasRecord;
+    }
+
+    /**
+     * Refills the buffer from the reader. Returns false at the end of the file.
+     */
+    private boolean fill() throws IOException {
+        if (endOfFile)
+            return false;
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (0 == read);
+        if (-1 == read) {
+            endOfFile = true;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    /**
+     * Reads the next record into the record buffer. Returns false if there are no more records.
+     */
+    private boolean readRecord() throws IOException, SQLServerException {
+        recordLength = 0;
+        fieldCount = 0;
+        if (position == limit && !fill())
+            return false;
+
+        char[] buf = buffer;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+        boolean afterQuotes = false;
+        boolean fieldIsBlank = true;
+
+        while (true) {
+            if (position == limit) {
+                if (!fill()) {
+                    if (inQuotes) {
+                        // stream ended, but we are within quotes -- data problem
+                        throw new SQLServerException(SQLServerException.getErrString("R_InvalidCSVQuotes"), null, 0,
+                                null);
+                    }
+                    endField(fieldStart);
+                    return true;
+                }
+                buf = buffer;
+            }
+
+            char c = buf[position++];
+            if (inQuotes) {
+                if ('"' == c) {
+                    // A double quote either escapes the next one or ends the quoted part of the field
+                    if ((position < limit || fill()) && '"' == buffer[position]) {
+                        append('"');
+                        position++;
+                    } else {
+                        inQuotes = false;
+                        afterQuotes = true;
+                    }
+                    buf = buffer;
+                } else {
+                    append(c);
+                }
+            } else if (delimiter == c) {
+                endField(fieldStart);
+                fieldStart = recordLength;
+                afterQuotes = false;
+                fieldIsBlank = true;
+            } else if ('\n' == c || '\r' == c) {
+                // we might have read \r of a \r\n, if so we need to read the \n as well
+                if ('\r' == c && (position < limit || fill()) && '\n' == buffer[position]) {
+                    position++;
+                }
+                endField(fieldStart);
+                return true;
+            } else if (afterQuotes) {
+                // Spaces after the enclosing double quotes are ignored, anything else is an error
+                if (' ' != c) {
+                    throw new SQLServerException(SQLServerException.getErrString("R_InvalidCSVQuotes"), null, 0,
+                            null);
+                }
+            } else if (escapeDelimiters && '"' == c) {
+                if (!fieldIsBlank) {
+                    throw new SQLServerException(SQLServerException.getErrString("R_InvalidCSVQuotes"), null, 0,
+                            null);
+                }
+                // Spaces before the enclosing double quotes are ignored
+                recordLength = fieldStart;
+                inQuotes = true;
+            } else {
+                if (' ' != c)
+                    fieldIsBlank = false;
+                append(c);
+            }
+        }
+    }
+
+    private void append(char c) {
+        if (recordLength == record.length)
+            record = Arrays.copyOf(record, 2 * record.length);
+        record[recordLength++] = c;
+    }
+
+    private void endField(int fieldStart) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, 2 * fieldCount);
+            fieldEnds = Arrays.copyOf(fieldEnds, 2 * fieldCount);
+        }
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+    private String getField(int field) {
+        return new String(record, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+    }
+
+    @Override
+    void addColumnMetadataInternal(int positionInSource, String name, int jdbcType, int precision, int scale,
+            DateTimeFormatter dateTimeFormatter) throws SQLServerException {
+        loggerExternal.entering(loggerPackageName, "addColumnMetadata",
+                new Object[] {positionInSource, name, jdbcType, precision, scale});
+
+        String colName = "";
+
+        if (0 >= positionInSource) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidColumnOrdinal"));
+            Object[] msgArgs = {positionInSource};
+            throw new SQLServerException(form.format(msgArgs), SQLState.COL_NOT_FOUND, DriverError.NOT_SET, null);
+        }
+
+        if (null != name)
+            colName = name.trim();
+        else if ((null != columnNames) && (columnNames.length >= positionInSource))
+            colName = columnNames[positionInSource - 1];
+
+        if ((null != columnNames) && (positionInSource > columnNames.length)) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidColumn"));
+            Object[] msgArgs = {positionInSource};
+            throw new SQLServerException(form.format(msgArgs), SQLState.COL_NOT_FOUND, DriverError.NOT_SET, null);
+        }
+
+        checkDuplicateColumnName(positionInSource, name);
+        switch (jdbcType) {
+            /*
+             * SQL Server supports numerous string literal formats for temporal types, hence sending them as varchar
+             * with approximate precision(length) needed to send supported string literals.
+             */
+            case java.sql.Types.DATE:
+            case java.sql.Types.TIME:
+            case java.sql.Types.TIMESTAMP:
+            case microsoft.sql.Types.DATETIMEOFFSET:
+                columnMetadata.put(positionInSource,
+                        new ColumnMetadata(colName, jdbcType, 50, scale, dateTimeFormatter));
+                break;
+
+            // Redirect SQLXML as LONGNVARCHAR, SQLXML is not valid type in TDS
+            case java.sql.Types.SQLXML:
+                columnMetadata.put(positionInSource,
+                        new ColumnMetadata(colName, java.sql.Types.LONGNVARCHAR, precision, scale, dateTimeFormatter));
+                break;
+
+            // Redirecting Float as Double based on data type mapping
+            case java.sql.Types.FLOAT:
+                columnMetadata.put(positionInSource,
+                        new ColumnMetadata(colName, java.sql.Types.DOUBLE, precision, scale, dateTimeFormatter));
+                break;
+
+            // redirecting BOOLEAN as BIT
+            case java.sql.Types.BOOLEAN:
+                columnMetadata.put(positionInSource,
+                        new ColumnMetadata(colName, java.sql.Types.BIT, precision, scale, dateTimeFormatter));
+                break;
+
+            default:
+                columnMetadata.put(positionInSource,
+                        new ColumnMetadata(colName, jdbcType, precision, scale, dateTimeFormatter));
+        }
+        ordinals = null;
+
+        loggerExternal.exiting(loggerPackageName, "addColumnMetadata");
+    }
+
+    /**
+     * Returns the data of the current record. The returned array is reused for every record.
+     */
+    @Override
+    public Object[] getRowData() throws SQLServerException {
+        if (!hasRecord)
+            return null;
+
+        if (null == ordinals) {
+            ordinals = new int[columnMetadata.size()];
+            metadata = new ColumnMetadata[columnMetadata.size()];
+            int i = 0;
+            int rowLength = (null != columnNames) ? columnNames.length : 0;
+            for (Entry<Integer, ColumnMetadata> pair : columnMetadata.entrySet()) {
+                ordinals[i] = pair.getKey();
+                metadata[i++] = pair.getValue();
+                rowLength = Math.max(rowLength, pair.getKey());
+            }
+            dataRow = new Object[rowLength];
+        }
+
+        // Source header has more columns than current record, or a column is not in the current record
+        if (null != columnNames && columnNames.length > fieldCount) {
+            throw new SQLServerException(SQLServerException.getErrString("R_DataSchemaMismatch"),
+                    SQLState.COL_NOT_FOUND, DriverError.NOT_SET, null);
+        }
+
+        for (int i = 0; i < ordinals.length; i++) {
+            int field = ordinals[i] - 1;
+            if (field >= fieldCount) {
+                throw new SQLServerException(SQLServerException.getErrString("R_DataSchemaMismatch"), null);
+            }
+            dataRow[field] = convert(field, metadata[i]);
+        }
+        return dataRow;
+    }
+
+    /**
+     * Converts a field to the type of its column, by the rules of SQLServerBulkCSVFileRecord.getRowData.
+     */
+    private Object convert(int field, ColumnMetadata cm) throws SQLServerException {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        if (start == end)
+            return null;
+
+        try {
+            switch (cm.columnType) {
+                case Types.INTEGER:
+                    if (parseLong(start, end) && parsedLong >= Integer.MIN_VALUE && parsedLong <= Integer.MAX_VALUE)
+                        return Integer.valueOf((int) parsedLong);
+                    return Integer.valueOf(truncateToInteger(getField(field)).toString());
+
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                    if (parseLong(start, end) && parsedLong >= Short.MIN_VALUE && parsedLong <= Short.MAX_VALUE)
+                        return Short.valueOf((short) parsedLong);
+                    return Short.valueOf(truncateToInteger(getField(field)).toString());
+
+                case Types.BIGINT: {
+                    if (parseLong(start, end))
+                        return Long.valueOf(parsedLong);
+                    BigDecimal bd = new BigDecimal(getField(field).trim());
+                    try {
+                        return bd.setScale(0, RoundingMode.DOWN).longValueExact();
+                    } catch (ArithmeticException ex) {
+                        String value = "'" + getField(field) + "'";
+                        MessageFormat form = new MessageFormat(
+                                SQLServerException.getErrString("R_errorConvertingValue"));
+                        throw new SQLServerException(form.format(new Object[] {value, JDBCType.of(cm.columnType)}),
+                                null, 0, ex);
+                    }
+                }
+
+                case microsoft.sql.Types.MONEY:
+                case microsoft.sql.Types.SMALLMONEY:
+                case Types.DECIMAL:
+                case Types.NUMERIC: {
+                    while (start < end && record[start] <= ' ')
+                        start++;
+                    while (end > start && record[end - 1] <= ' ')
+                        end--;
+                    return new BigDecimal(record, start, end - start).setScale(cm.scale, RoundingMode.HALF_UP);
+                }
+
+                case Types.BIT:
+                    // "true" => 1, "false" => 0. Any non-zero value (integer/double) => 1, 0/0.0 => 0
+                    if (parseLong(start, end))
+                        return (0 == parsedLong) ? Boolean.FALSE : Boolean.TRUE;
+                    try {
+                        return (0 == Double.parseDouble(getField(field))) ? Boolean.FALSE : Boolean.TRUE;
+                    } catch (NumberFormatException e) {
+                        return Boolean.parseBoolean(getField(field));
+                    }
+
+                case Types.REAL:
+                    return Float.parseFloat(getField(field));
+
+                case Types.DOUBLE:
+                    return Double.parseDouble(getField(field));
+
+                case Types.BINARY:
+                case Types.VARBINARY:
+                case Types.LONGVARBINARY:
+                case Types.BLOB: {
+                    // Strip off 0x if present, as for SQLServerBulkCSVFileRecord
+                    while (start < end && record[start] <= ' ')
+                        start++;
+                    while (end > start && record[end - 1] <= ' ')
+                        end--;
+                    if (end - start >= 2 && '0' == record[start] && ('x' == record[start + 1]
+                            || 'X' == record[start + 1]))
+                        start += 2;
+                    return new String(record, start, end - start);
+                }
+
+                case java.sql.Types.TIME_WITH_TIMEZONE:
+                    // The per-column DateTimeFormatter gets priority.
+                    if (null != cm.dateTimeFormatter)
+                        return OffsetTime.parse(getField(field), cm.dateTimeFormatter);
+                    else if (timeFormatter != null)
+                        return OffsetTime.parse(getField(field), timeFormatter);
+                    else
+                        return OffsetTime.parse(getField(field));
+
+                case java.sql.Types.TIMESTAMP_WITH_TIMEZONE:
+                    // The per-column DateTimeFormatter gets priority.
+                    if (null != cm.dateTimeFormatter)
+                        return OffsetDateTime.parse(getField(field), cm.dateTimeFormatter);
+                    else if (dateTimeFormatter != null)
+                        return OffsetDateTime.parse(getField(field), dateTimeFormatter);
+                    else
+                        return OffsetDateTime.parse(getField(field));
+
+                case Types.NULL:
+                    return null;
+
+                default:
+                    // The string is copied as is, see SQLServerBulkCSVFileRecord.getRowData
+                    return getField(field);
+            }
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            String value = "'" + getField(field) + "'";
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_errorConvertingValue"));
+            throw new SQLServerException(form.format(new Object[] {value, JDBCType.of(cm.columnType)}), null, 0, e);
+        }
+    }
+
+    /**
+     * Parses a field of an optional sign and decimal digits, surrounded by optional whitespace, into parsedLong.
+     * Returns false if the field has any other characters or does not fit in a long, so that it is converted the slow
+     * way.
+     */
+    private boolean parseLong(int start, int end) {
+        while (start < end && record[start] <= ' ')
+            start++;
+        while (end > start && record[end - 1] <= ' ')
+            end--;
+        if (start == end)
+            return false;
+
+        boolean negative = false;
+        if ('-' == record[start] || '+' == record[start]) {
+            negative = '-' == record[start];
+            if (++start == end)
+                return false;
+        }
+        // 18 digits always fit in a long
+        if (end - start > 18)
+            return false;
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9)
+                return false;
+            value = value * 10 + digit;
+        }
+        parsedLong = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * Removes the decimal part of a number, as SQL Server floors the decimal in integer types.
+     */
+    private static BigDecimal truncateToInteger(String value) {
+        return new BigDecimal(Double.parseDouble(value)).setScale(0, RoundingMode.DOWN);
+    }
+}
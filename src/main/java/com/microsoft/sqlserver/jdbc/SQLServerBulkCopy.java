@@ -152,6 +152,15 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
      */
     private ISQLServerBulkData serverBulkData;
 
+    /**
+     * Current batch of a columnar source: its number of rows, the next row to write, and for each column mapping the
+     * vector of values and the NULL mask of the source column.
+     */
+    private int columnarRowCount;
+    private int columnarRow;
+    private transient Object[] columnarValues;
+    private transient boolean[][] columnarNulls;
+
     /**
      * Source data (from ResultSet). Is null unless the corresponding version of writeToServer is called.
      */
@@ -180,7 +189,7 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
     /**
      * Metadata for the destination table columns
      */
-    class BulkColumnMetaData {
+    static class BulkColumnMetaData {
         String columnName;
         SSType ssType = null;
         int jdbcType;
@@ -238,6 +247,35 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         }
     }
 
+    /**
+     * Metadata of a destination table, as cached on the connection when cacheBulkCopyMetadata is on. Its column
+     * metadata is shared by all bulk copies to the table and must not be modified.
+     */
+    static final class DestinationTableMetadata {
+        final Map<Integer, BulkColumnMetaData> columnMetadata;
+        final int columnCount;
+        final CekTable cekTable;
+
+        DestinationTableMetadata(Map<Integer, BulkColumnMetaData> columnMetadata, int columnCount,
+                CekTable cekTable) {
+            this.columnMetadata = columnMetadata;
+            this.columnCount = columnCount;
+            this.cekTable = cekTable;
+        }
+    }
+
+    /**
+     * Errors after which the cached metadata of the destination table is removed, since they indicate that the table
+     * was changed:
+     * 207: Invalid column name.
+     * 208: Invalid object name.
+     * 213: Column name or number of supplied values does not match table definition.
+     * 4815: Received an invalid column length from the bcp client.
+     * 4816: Invalid column type from bcp client.
+     * 4891: Insert bulk failed due to a schema change of the target table.
+     */
+    private static final int[] SCHEMA_CHANGE_ERRORS = {207, 208, 213, 4815, 4816, 4891};
+
     /**
      * A map to store the metadata information for the destination table.
      */
@@ -626,6 +664,8 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
 
         serverBulkData = sourceData;
         sourceResultSet = null;
+        columnarRowCount = 0;
+        columnarRow = 0;
 
         writeToServer();
 
@@ -1665,9 +1705,17 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         // from the same object for both ResultSet and File.
         getSourceMetadata();
 
-        validateColumnMappings();
+        try {
+            validateColumnMappings();
 
-        sendBulkLoadBCP();
+            sendBulkLoadBCP();
+        } catch (SQLServerException e) {
+            // The destination table may have changed since its metadata was cached, read it again next time
+            if (connection.getCacheBulkCopyMetadata() && isSchemaChangeError(e)) {
+                invalidateDestinationMetadata();
+            }
+            throw e;
+        }
 
         long end = System.currentTimeMillis();
         if (loggerExternal.isLoggable(Level.FINER)) {
@@ -1709,6 +1757,48 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         }
     }
 
+    /**
+     * Removes the metadata of the destination table from the cache of the connection, so that the next bulk copy to
+     * the table reads it from the server again. Call this after altering the table when the cacheBulkCopyMetadata
+     * connection property is on. Bulk copies that fail because the table was changed remove it automatically.
+     *
+     * @throws SQLServerException
+     *         If the destination table name was not set
+     */
+    public void invalidateDestinationMetadata() throws SQLServerException {
+        if (null == destinationTableName) {
+            SQLServerException.makeFromDriverError(null, null,
+                    SQLServerException.getErrString("R_invalidDestinationTable"), null, false);
+        }
+
+        connection.getBulkCopyMetadataCache().remove(getDestinationMetadataCacheKey());
+        destColumnMetadata = null;
+        destColumnCount = 0;
+        destCekTable = null;
+    }
+
+    /**
+     * Returns the key of the destination table in the metadata cache of the connection. The table name may be
+     * unqualified and the column encryption setting decides whether encryption metadata is read, so both are part of
+     * the key with the current database.
+     */
+    private String getDestinationMetadataCacheKey() {
+        return connection.getCurrentCatalog() + ":::" + stmtColumnEncriptionSetting + ":::" + destinationTableName;
+    }
+
+    private static boolean isSchemaChangeError(SQLServerException e) {
+        // The driver reports a destination column that it did not find in the metadata as COL_NOT_FOUND
+        if (SQLState.COL_NOT_FOUND.getSQLStateCode().equals(e.getSQLState())) {
+            return true;
+        }
+        for (int schemaChangeError : SCHEMA_CHANGE_ERRORS) {
+            if (schemaChangeError == e.getErrorCode()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns the column metadata for the destination table (and saves it for later)
      */
@@ -1718,6 +1808,20 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
                     SQLServerException.getErrString("R_invalidDestinationTable"), null, false);
         }
 
+        if (connection.getCacheBulkCopyMetadata() && (null == destColumnMetadata || destColumnMetadata.isEmpty())) {
+            DestinationTableMetadata cachedMetadata = connection.getBulkCopyMetadataCache()
+                    .get(getDestinationMetadataCacheKey());
+            if (null != cachedMetadata) {
+                destColumnMetadata = cachedMetadata.columnMetadata;
+                destColumnCount = cachedMetadata.columnCount;
+                destCekTable = cachedMetadata.cekTable;
+                if (null != destinationTableMetadata) {
+                    ((SQLServerResultSet) destinationTableMetadata).close();
+                }
+                return;
+            }
+        }
+
         String escapedDestinationTableName = Util.escapeSingleQuotes(destinationTableName);
 
         SQLServerResultSet rs = null;
@@ -1763,6 +1867,11 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
                     }
                     destColumnCount = destColumnMetadata.size();
                 }
+
+                if (connection.getCacheBulkCopyMetadata()) {
+                    connection.getBulkCopyMetadataCache().put(getDestinationMetadataCacheKey(),
+                            new DestinationTableMetadata(destColumnMetadata, destColumnCount, destCekTable));
+                }
             } catch (SQLException e) {
                 // Unable to retrieve metadata for destination
                 throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveColMeta"), e);
@@ -1811,8 +1920,7 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
                                 serverBulkData.getColumnName(currentColumn), true,
                                 serverBulkData.getPrecision(currentColumn), serverBulkData.getScale(currentColumn),
                                 serverBulkData.getColumnType(currentColumn),
-                                ((serverBulkData instanceof SQLServerBulkCSVFileRecord) ? ((SQLServerBulkCSVFileRecord) serverBulkData)
-                                        .getColumnDateTimeFormatter(currentColumn) : null)));
+                                getColumnDateTimeFormatter(serverBulkData, currentColumn)));
                     }
                 }
             } else {
@@ -1822,6 +1930,19 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         }
     }
 
+    /**
+     * Returns the formatter of a column of the source, as set on bulk records, or null if there is none.
+     */
+    @SuppressWarnings("deprecation")
+    static DateTimeFormatter getColumnDateTimeFormatter(ISQLServerBulkData bulkData, int column) {
+        if (bulkData instanceof ISQLServerBulkRecord) {
+            return ((ISQLServerBulkRecord) bulkData).getColumnDateTimeFormatter(column);
+        } else if (bulkData instanceof SQLServerParallelBulkCopy.StreamData) {
+            return ((SQLServerParallelBulkCopy.StreamData) bulkData).getColumnDateTimeFormatter(column);
+        }
+        return null;
+    }
+
     /**
      * Oracle 12c database returns precision = 0 for char/varchar data types.
      */
@@ -3607,6 +3728,10 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
      */
     private boolean writeBatchData(TDSWriter tdsWriter, TDSCommand command,
             boolean insertRowByRow) throws SQLServerException {
+        if (serverBulkData instanceof ISQLServerBulkColumnarData) {
+            return writeColumnarBatchData(tdsWriter, (ISQLServerBulkColumnarData) serverBulkData);
+        }
+
         int batchsize = copyOptions.getBatchSize();
         int row = 0;
         while (true) {
@@ -3689,6 +3814,193 @@ public class SQLServerBulkCopy implements java.lang.AutoCloseable, java.io.Seria
         }
     }
 
+    /**
+     * Writes data for a batch of rows from a columnar source to the TDSWriter object, like writeBatchData. Batches of
+     * the source are read as needed and may span batches of the bulk copy.
+     */
+    private boolean writeColumnarBatchData(TDSWriter tdsWriter,
+            ISQLServerBulkColumnarData columnarData) throws SQLServerException {
+        int batchsize = copyOptions.getBatchSize();
+        int row = 0;
+        while (true) {
+            if (0 != batchsize && row >= batchsize)
+                return true;
+
+            if (columnarRow == columnarRowCount && !readColumnarBatch(columnarData))
+                return false;
+
+            // Write row header for each row.
+            tdsWriter.writeByte((byte) TDS.TDS_ROW);
+
+            for (int i = 0; i < columnMappings.size(); i++) {
+                ColumnMapping columnMapping = columnMappings.get(i);
+                writeColumnarValue(tdsWriter, columnMapping.sourceColumnOrdinal,
+                        columnMapping.destinationColumnOrdinal, columnarValues[i],
+                        (null != columnarNulls[i]) && columnarNulls[i][columnarRow]);
+            }
+            columnarRow++;
+            row++;
+        }
+    }
+
+    /**
+     * Reads the next batch of a columnar source with the vector of each mapped column. Returns false if there are no
+     * more rows.
+     */
+    private boolean readColumnarBatch(ISQLServerBulkColumnarData columnarData) throws SQLServerException {
+        try {
+            columnarRowCount = Math.max(columnarData.nextBatch(), 0);
+            columnarRow = 0;
+            if (0 == columnarRowCount)
+                return false;
+
+            columnarValues = new Object[columnMappings.size()];
+            columnarNulls = new boolean[columnMappings.size()][];
+            for (int i = 0; i < columnMappings.size(); i++) {
+                int srcColOrdinal = columnMappings.get(i).sourceColumnOrdinal;
+                Object values;
+                int length;
+                switch (srcColumnMetadata.get(srcColOrdinal).jdbcType) {
+                    case java.sql.Types.BIT:
+                    case java.sql.Types.TINYINT:
+                        values = columnarData.getByteColumn(srcColOrdinal);
+                        length = ((byte[]) values).length;
+                        break;
+                    case java.sql.Types.SMALLINT:
+                    case java.sql.Types.INTEGER:
+                        values = columnarData.getIntColumn(srcColOrdinal);
+                        length = ((int[]) values).length;
+                        break;
+                    case java.sql.Types.BIGINT:
+                        values = columnarData.getLongColumn(srcColOrdinal);
+                        length = ((long[]) values).length;
+                        break;
+                    case java.sql.Types.REAL:
+                    case java.sql.Types.FLOAT:
+                    case java.sql.Types.DOUBLE:
+                        values = columnarData.getDoubleColumn(srcColOrdinal);
+                        length = ((double[]) values).length;
+                        break;
+                    default:
+                        values = columnarData.getObjectColumn(srcColOrdinal);
+                        length = ((Object[]) values).length;
+                        break;
+                }
+                boolean[] nulls = columnarData.getNulls(srcColOrdinal);
+                if (length < columnarRowCount || (null != nulls && nulls.length < columnarRowCount)) {
+                    MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidColumn"));
+                    throw new IllegalArgumentException(form.format(new Object[] {srcColOrdinal}));
+                }
+                columnarValues[i] = values;
+                columnarNulls[i] = nulls;
+            }
+            return true;
+        } catch (Exception ex) {
+            throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveSourceData"), ex);
+        }
+    }
+
+    /**
+     * Writes the value of the current row of a columnar source. Numeric values of unencrypted columns are written from
+     * their vectors as writeColumnToTdsWriter writes them. Numeric values of encrypted columns are boxed as the
+     * encryption in writeColumn expects them, and other values are written by writeColumn as they are.
+     */
+    private void writeColumnarValue(TDSWriter tdsWriter, int srcColOrdinal, int destColOrdinal, Object values,
+            boolean isNull) throws SQLServerException {
+        BulkColumnMetaData srcMeta = srcColumnMetadata.get(srcColOrdinal);
+        BulkColumnMetaData destMeta = destColumnMetadata.get(destColOrdinal);
+        int srcJdbcType = srcMeta.jdbcType;
+        int row = columnarRow;
+
+        boolean isPrimitive = !(values instanceof Object[]);
+        if (isPrimitive && null == destMeta.cryptoMeta
+                && !(null != destMeta.encryptionType && copyOptions.isAllowEncryptedValueModifications())) {
+            if (isNull) {
+                writeNullToTdsWriter(tdsWriter, srcJdbcType, false);
+                return;
+            }
+            switch (srcJdbcType) {
+                case java.sql.Types.INTEGER:
+                    if (srcMeta.isNullable) {
+                        tdsWriter.writeByte((byte) 0x04);
+                    }
+                    tdsWriter.writeInt(((int[]) values)[row]);
+                    return;
+                case java.sql.Types.SMALLINT:
+                    if (srcMeta.isNullable) {
+                        tdsWriter.writeByte((byte) 0x02);
+                    }
+                    tdsWriter.writeShort((short) ((int[]) values)[row]);
+                    return;
+                case java.sql.Types.BIGINT:
+                    if (srcMeta.isNullable) {
+                        tdsWriter.writeByte((byte) 0x08);
+                    }
+                    tdsWriter.writeLong(((long[]) values)[row]);
+                    return;
+                case java.sql.Types.BIT:
+                    if (srcMeta.isNullable) {
+                        tdsWriter.writeByte((byte) 0x01);
+                    }
+                    tdsWriter.writeByte((byte) ((0 != ((byte[]) values)[row]) ? 1 : 0));
+                    return;
+                case java.sql.Types.TINYINT:
+                    if (srcMeta.isNullable) {
+                        tdsWriter.writeByte((byte) 0x01);
+                    }
+                    tdsWriter.writeByte(((byte[]) values)[row]);
+                    return;
+                case java.sql.Types.REAL:
+                    if (srcMeta.isNullable) {
+                        tdsWriter.writeByte((byte) 0x04);
+                    }
+                    tdsWriter.writeReal((float) ((double[]) values)[row]);
+                    return;
+                default:
+                    // FLOAT and DOUBLE
+                    if (srcMeta.isNullable) {
+                        tdsWriter.writeByte((byte) 0x08);
+                    }
+                    tdsWriter.writeDouble(((double[]) values)[row]);
+                    return;
+            }
+        }
+
+        Object colValue = null;
+        if (isNull) {
+            // write NULL
+        } else if (!isPrimitive) {
+            colValue = ((Object[]) values)[row];
+        } else {
+            // Box the value as the Java type writeColumn expects for the JDBC type
+            switch (srcJdbcType) {
+                case java.sql.Types.BIT:
+                    colValue = 0 != ((byte[]) values)[row];
+                    break;
+                case java.sql.Types.TINYINT:
+                    colValue = (short) (((byte[]) values)[row] & 0xFF);
+                    break;
+                case java.sql.Types.SMALLINT:
+                    colValue = (short) ((int[]) values)[row];
+                    break;
+                case java.sql.Types.INTEGER:
+                    colValue = ((int[]) values)[row];
+                    break;
+                case java.sql.Types.BIGINT:
+                    colValue = ((long[]) values)[row];
+                    break;
+                case java.sql.Types.REAL:
+                    colValue = (float) ((double[]) values)[row];
+                    break;
+                default:
+                    // FLOAT and DOUBLE
+                    colValue = ((double[]) values)[row];
+                    break;
+            }
+        }
+        writeColumn(tdsWriter, srcColOrdinal, destColOrdinal, colValue, null);
+    }
+
     void setStmtColumnEncriptionSetting(SQLServerStatementColumnEncryptionSetting stmtColumnEncriptionSetting) {
         this.stmtColumnEncriptionSetting = stmtColumnEncriptionSetting;
     }
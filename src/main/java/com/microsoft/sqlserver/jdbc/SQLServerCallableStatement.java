@@ -25,6 +25,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.text.MessageFormat;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.TreeMap;
@@ -1457,6 +1458,19 @@ public class SQLServerCallableStatement extends SQLServerPreparedStatement imple
     }
 
     /* JDBC 3.0 */
+    /**
+     * Sets the parameter names of the procedure in ordinal order, as returned by sp_sproc_columns.
+     */
+    private void setParameterNames(String[] names) {
+        parameterNames = new HashMap<>();
+        insensitiveParameterNames = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int columnIndex = 0;
+        for (String p : names) {
+            parameterNames.put(p, columnIndex);
+            insensitiveParameterNames.put(p, columnIndex++);
+        }
+    }
+
     /**
      * Find a column's index given its name.
      *
@@ -1481,6 +1495,13 @@ public class SQLServerCallableStatement extends SQLServerPreparedStatement imple
 
         if (connection.getUseFlexibleCallableStatements() || isCursorable(executeMethod)) {
             // Stored procedures with cursorable methods are not called directly, so we have to get the metadata
+            if (parameterNames == null) {
+                String[] cachedParameterNames = (String[]) ProcedureMetadataCache.get(connection,
+                        ProcedureMetadataCache.Kind.PARAMETER_NAMES, procedureName);
+                if (null != cachedParameterNames) {
+                    setParameterNames(cachedParameterNames);
+                }
+            }
             if (parameterNames == null) {
                 try (SQLServerStatement s = (SQLServerStatement) connection.createStatement()) {
                     // Note we are concatenating the information from the passed in sql, not any arguments provided by the
@@ -1516,13 +1537,17 @@ public class SQLServerCallableStatement extends SQLServerPreparedStatement imple
                     }
 
                     try (ResultSet rs = s.executeQueryInternal(metaQuery.toString())) {
-                        parameterNames = new HashMap<>();
-                        insensitiveParameterNames = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-                        int columnIndex = 0;
+                        ArrayList<String> names = new ArrayList<>();
                         while (rs.next()) {
-                            String p = rs.getString(4).trim();
-                            parameterNames.put(p, columnIndex);
-                            insensitiveParameterNames.put(p, columnIndex++);
+                            names.add(rs.getString(4).trim());
+                        }
+                        String[] procedureParameterNames = names.toArray(new String[0]);
+                        setParameterNames(procedureParameterNames);
+
+                        // Do not cache a missing procedure or one whose parameters the user is not allowed to see
+                        if (procedureParameterNames.length > 1) {
+                            ProcedureMetadataCache.put(connection, ProcedureMetadataCache.Kind.PARAMETER_NAMES,
+                                    procedureName, procedureParameterNames);
                         }
                     }
                 } catch (SQLException e) {
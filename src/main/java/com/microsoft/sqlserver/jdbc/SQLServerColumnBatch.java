@@ -0,0 +1,251 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+
+/**
+ * Holds the values of a batch of rows in column arrays, as filled by {@link ISQLServerResultSet#fetchColumns}.
+ *
+ * The arrays are supplied by the caller with the bind methods and are reused by every fetch, so a result set can be
+ * read into a fixed set of buffers, e.g. those of a columnar format such as Apache Arrow. Only bound columns are read;
+ * the values of the other columns are skipped. Each bound column also has a null bitmap, in which bit {@code row % 64}
+ * of word {@code row / 64} is set when the value in that row is SQL NULL. The array element of a NULL value is 0, or
+ * null for the object arrays.
+ *
+ * Values are converted as by the corresponding getter of the result set: int arrays as by getInt, long arrays as by
+ * getLong, double arrays as by getDouble, byte[] arrays as by getBytes and String arrays as by getString.
+ */
+public final class SQLServerColumnBatch {
+    private final int capacity;
+
+    // Bound arrays and null bitmaps, by column index
+    private Object[] values = new Object[0];
+    private long[][] nulls = new long[0][];
+
+    // Indexes of the bound columns in ascending order, or null if a column was bound since the last fetch
+    private int[] boundColumns;
+
+    private int rowCount;
+
+    /**
+     * Constructs a batch of the given number of rows.
+     *
+     * @param capacity
+     *        the maximum number of rows that a fetch reads into the batch
+     * @throws SQLServerException
+     *         if capacity is not positive
+     */
+    public SQLServerColumnBatch(int capacity) throws SQLServerException {
+        if (capacity <= 0) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"capacity"};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the maximum number of rows that a fetch reads into the batch.
+     *
+     * @return the capacity of the batch
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of rows read by the last fetch. Elements past this row in the bound arrays are left unchanged.
+     *
+     * @return the number of rows in the batch
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Binds an int array to a column.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     * @param columnValues
+     *        the array to read the values of the column into, of at least the capacity of the batch
+     * @throws SQLServerException
+     *         if the column index or array is not valid
+     */
+    public void bindInts(int columnIndex, int[] columnValues) throws SQLServerException {
+        bind(columnIndex, columnValues, null != columnValues ? columnValues.length : 0);
+    }
+
+    /**
+     * Binds a long array to a column.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     * @param columnValues
+     *        the array to read the values of the column into, of at least the capacity of the batch
+     * @throws SQLServerException
+     *         if the column index or array is not valid
+     */
+    public void bindLongs(int columnIndex, long[] columnValues) throws SQLServerException {
+        bind(columnIndex, columnValues, null != columnValues ? columnValues.length : 0);
+    }
+
+    /**
+     * Binds a double array to a column.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     * @param columnValues
+     *        the array to read the values of the column into, of at least the capacity of the batch
+     * @throws SQLServerException
+     *         if the column index or array is not valid
+     */
+    public void bindDoubles(int columnIndex, double[] columnValues) throws SQLServerException {
+        bind(columnIndex, columnValues, null != columnValues ? columnValues.length : 0);
+    }
+
+    /**
+     * Binds a byte array array to a column.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     * @param columnValues
+     *        the array to read the values of the column into, of at least the capacity of the batch
+     * @throws SQLServerException
+     *         if the column index or array is not valid
+     */
+    public void bindBytes(int columnIndex, byte[][] columnValues) throws SQLServerException {
+        bind(columnIndex, columnValues, null != columnValues ? columnValues.length : 0);
+    }
+
+    /**
+     * Binds a String array to a column.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     * @param columnValues
+     *        the array to read the values of the column into, of at least the capacity of the batch
+     * @throws SQLServerException
+     *         if the column index or array is not valid
+     */
+    public void bindStrings(int columnIndex, String[] columnValues) throws SQLServerException {
+        bind(columnIndex, columnValues, null != columnValues ? columnValues.length : 0);
+    }
+
+    /**
+     * Removes the binding of a column, so that its values are skipped.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     */
+    public void unbind(int columnIndex) {
+        if (columnIndex >= 1 && columnIndex <= values.length && null != values[columnIndex - 1]) {
+            values[columnIndex - 1] = null;
+            nulls[columnIndex - 1] = null;
+            boundColumns = null;
+        }
+    }
+
+    /**
+     * Returns whether the value of a column in a row of the batch is SQL NULL.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     * @param row
+     *        the row in the batch, starting at 0
+     * @return true if the value is SQL NULL
+     * @throws SQLServerException
+     *         if the column is not bound or the row is not in the batch
+     */
+    public boolean isNull(int columnIndex, int row) throws SQLServerException {
+        if (row < 0 || row >= rowCount) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_indexOutOfRange"));
+            Object[] msgArgs = {row};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        }
+        return 0 != (getNulls(columnIndex)[row >>> 6] & (1L << row));
+    }
+
+    /**
+     * Returns the null bitmap of a column. Bit {@code row % 64} of word {@code row / 64} is set when the value in that
+     * row is SQL NULL. The bitmap is reused by every fetch.
+     *
+     * @param columnIndex
+     *        the first column is 1, the second is 2, ...
+     * @return the null bitmap of the column
+     * @throws SQLServerException
+     *         if the column is not bound
+     */
+    public long[] getNulls(int columnIndex) throws SQLServerException {
+        if (columnIndex < 1 || columnIndex > values.length || null == values[columnIndex - 1]) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_indexOutOfRange"));
+            Object[] msgArgs = {columnIndex};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        }
+        return nulls[columnIndex - 1];
+    }
+
+    private void bind(int columnIndex, Object columnValues, int length) throws SQLServerException {
+        if (columnIndex < 1) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_indexOutOfRange"));
+            Object[] msgArgs = {columnIndex};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        }
+        if (length < capacity) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"columnValues"};
+            SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+        }
+
+        if (columnIndex > values.length) {
+            values = Arrays.copyOf(values, columnIndex);
+            nulls = Arrays.copyOf(nulls, columnIndex);
+        }
+        if (null == nulls[columnIndex - 1])
+            nulls[columnIndex - 1] = new long[(capacity + 63) >>> 6];
+        values[columnIndex - 1] = columnValues;
+        boundColumns = null;
+    }
+
+    /**
+     * Returns the indexes of the bound columns in ascending order and clears the batch for a fetch.
+     */
+    int[] startFetch() {
+        if (null == boundColumns) {
+            int count = 0;
+            for (Object columnValues : values) {
+                if (null != columnValues)
+                    count++;
+            }
+            boundColumns = new int[count];
+            count = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (null != values[i])
+                    boundColumns[count++] = i + 1;
+            }
+        }
+
+        for (int columnIndex : boundColumns)
+            Arrays.fill(nulls[columnIndex - 1], 0L);
+        rowCount = 0;
+        return boundColumns;
+    }
+
+    Object getValues(int columnIndex) {
+        return values[columnIndex - 1];
+    }
+
+    void setNull(int columnIndex, int row) {
+        nulls[columnIndex - 1][row >>> 6] |= 1L << row;
+    }
+
+    void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+}
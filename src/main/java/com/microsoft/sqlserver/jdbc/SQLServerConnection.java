@@ -32,19 +32,24 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
@@ -56,6 +61,7 @@ import javax.sql.XAConnection;
 import org.ietf.jgss.GSSCredential;
 
 import com.microsoft.sqlserver.jdbc.SQLServerError.TransientError;
+import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement.PrepStmtPipelineCmd;
 
 import mssql.googlecode.cityhash.CityHash;
 import mssql.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
@@ -164,6 +170,33 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
     /** Flag that determines whether the accessToken callback was set **/
     private transient SQLServerAccessTokenCallback accessTokenCallback = null;
 
+    /** Metrics of this connection, NO_OP unless the metrics or metricsClass property is set */
+    private transient SQLServerMetrics metrics = SQLServerMetrics.NO_OP;
+
+    /**
+     * Metrics instantiated from the metricsClass property, shared by all connections with the same class. The instance
+     * is held by its class, so that it is released when the class loader of the class is.
+     */
+    private static final ClassValue<SQLServerMetrics> sharedMetrics = new ClassValue<SQLServerMetrics>() {
+        @Override
+        protected SQLServerMetrics computeValue(Class<?> metricsClass) {
+            try {
+                return (SQLServerMetrics) metricsClass.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+    };
+
+    final SQLServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Returns whether metrics are set, so that durations need to be measured */
+    final boolean isMetricsEnabled() {
+        return SQLServerMetrics.NO_OP != metrics;
+    }
+
     /** Flag indicating whether to use sp_sproc_columns for parameter name lookup */
     private boolean useFlexibleCallableStatements = SQLServerDriverBooleanProperty.USE_FLEXIBLE_CALLABLE_STATEMENTS
             .getDefaultValue();
@@ -300,6 +333,82 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
     /** flag indicating whether prelogin TLS handshake is required */
     private boolean isTDS8 = false;
 
+    final boolean isTDS8() {
+        return isTDS8;
+    }
+
+    /** flag indicating whether socket I/O goes through a socket channel with direct buffers */
+    private boolean useDirectBuffers = SQLServerDriverBooleanProperty.USE_DIRECT_BUFFERS.getDefaultValue();
+
+    final boolean getUseDirectBuffers() {
+        return useDirectBuffers;
+    }
+
+    /** flag indicating whether bulk copy caches the metadata of destination tables on this connection */
+    private boolean cacheBulkCopyMetadata = SQLServerDriverBooleanProperty.CACHE_BULK_COPY_METADATA.getDefaultValue();
+
+    final boolean getCacheBulkCopyMetadata() {
+        return cacheBulkCopyMetadata;
+    }
+
+    /** flag indicating whether batched single row INSERT statements are sent as multi-row INSERT statements */
+    private boolean useMultiRowValuesForBatchInsert = SQLServerDriverBooleanProperty
+            .USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT.getDefaultValue();
+
+    final boolean getUseMultiRowValuesForBatchInsert() {
+        return useMultiRowValuesForBatchInsert;
+    }
+
+    /** flag indicating whether batched UPDATE and DELETE statements by key are executed through a temporary table */
+    private boolean useBulkCopyForBatchUpdate = SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_UPDATE
+            .getDefaultValue();
+
+    final boolean getUseBulkCopyForBatchUpdate() {
+        return useBulkCopyForBatchUpdate;
+    }
+
+    /** flag indicating whether connections with the same encryption settings share an SSL context */
+    private boolean cacheSSLContext = SQLServerDriverBooleanProperty.CACHE_SSL_CONTEXT.getDefaultValue();
+
+    final boolean getCacheSSLContext() {
+        return cacheSSLContext;
+    }
+
+    /** flag indicating whether the prepared statements are recorded in the driver-level registry */
+    private boolean prepareHotStatements = SQLServerDriverBooleanProperty.PREPARE_HOT_STATEMENTS.getDefaultValue();
+
+    final boolean getPrepareHotStatements() {
+        return prepareHotStatements;
+    }
+
+    /** Hot statements take up to this fraction of the prepared statement handle cache, as its denominator */
+    static final int HOT_STATEMENTS_CACHE_FRACTION = 2;
+
+    /** Query timeout in seconds of the request that prepares the hot statements */
+    static final int HOT_STATEMENTS_QUERY_TIMEOUT = 5;
+
+    /** registry of the statements prepared by connections to the same server, database and principal */
+    private PreparedStatementRegistry preparedStatementRegistry;
+
+    /** flag indicating whether the executions of prepared statements decide when they are prepared */
+    private boolean adaptivePrepare = SQLServerDriverBooleanProperty.ADAPTIVE_PREPARE.getDefaultValue();
+
+    final boolean getAdaptivePrepare() {
+        return adaptivePrepare;
+    }
+
+    /** Maximum number of destination tables whose metadata bulk copy caches on the connection */
+    static final int BULK_COPY_METADATA_CACHE_SIZE = 100;
+
+    /** destination table metadata cached by bulk copy, see SQLServerBulkCopy.getDestinationMetadataCacheKey */
+    private final Map<String, SQLServerBulkCopy.DestinationTableMetadata> bulkCopyMetadata = new Builder<String,
+            SQLServerBulkCopy.DestinationTableMetadata>().maximumWeightedCapacity(BULK_COPY_METADATA_CACHE_SIZE)
+                    .build();
+
+    final Map<String, SQLServerBulkCopy.DestinationTableMetadata> getBulkCopyMetadataCache() {
+        return bulkCopyMetadata;
+    }
+
     /** encrypted truststore password */
     byte[] encryptedTrustStorePassword = null;
 
@@ -569,10 +678,35 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
     /** Size of the prepared statement handle cache */
     private int statementPoolingCacheSize = DEFAULT_STATEMENT_POOLING_CACHE_SIZE;
 
+    /** Seconds to cache procedure parameter metadata across connections, 0 if it is not cached */
+    private int procedureMetadataCacheTtl = SQLServerDriverIntProperty.PROCEDURE_METADATA_CACHE_TTL.getDefaultValue();
+
+    final int getProcedureMetadataCacheTtl() {
+        return procedureMetadataCacheTtl;
+    }
+
+    /** Maximum bytes of parameter sets in one request of a batch, 0 if not limited */
+    private int maxBatchRequestSize = SQLServerDriverIntProperty.MAX_BATCH_REQUEST_SIZE.getDefaultValue();
+
+    final int getMaxBatchRequestSize() {
+        return maxBatchRequestSize;
+    }
+
+    /** Maximum parameter values in one request of a batch, 0 if not limited */
+    private int maxBatchRequestParameters = SQLServerDriverIntProperty.MAX_BATCH_REQUEST_PARAMETERS.getDefaultValue();
+
+    final int getMaxBatchRequestParameters() {
+        return maxBatchRequestParameters;
+    }
+
     /** Cache of prepared statement handles */
     private ConcurrentLinkedHashMap<CityHash128Key, PreparedStatementHandle> preparedStatementHandleCache;
     /** Cache of prepared statement parameter metadata */
     private ConcurrentLinkedHashMap<CityHash128Key, SQLServerParameterMetaData> parameterMetadataCache;
+    /** Executions of prepared statements with adaptivePrepare, including the statements without a handle */
+    private ConcurrentLinkedHashMap<CityHash128Key, PrepareStatistics> prepareStatisticsCache;
+    /** Number of statements tracked by prepareStatisticsCache for each statement of the handle cache */
+    private static final int PREPARE_STATISTICS_PER_HANDLE = 4;
     /**
      * Checks whether statement pooling is enabled or disabled. The default is set to true;
      */
@@ -1759,6 +1893,13 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         return pooledConnectionParent;
     }
 
+    /**
+     * Returns the login state shared with the connections that a pool opens together with this one, or null.
+     */
+    SharedLoginState getSharedLoginState() {
+        return (null != pooledConnectionParent) ? pooledConnectionParent.getSharedLoginState() : null;
+    }
+
     /**
      * List of listeners which are called before reconnecting.
      */
@@ -2351,6 +2492,73 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
 
                 calcBigDecimalPrecision = isBooleanPropertyOn(sPropKey, sPropValue);
 
+                sPropKey = SQLServerDriverBooleanProperty.USE_DIRECT_BUFFERS.toString();
+                sPropValue = activeConnectionProperties.getProperty(sPropKey);
+                if (null == sPropValue) {
+                    sPropValue = Boolean.toString(SQLServerDriverBooleanProperty.USE_DIRECT_BUFFERS.getDefaultValue());
+                    activeConnectionProperties.setProperty(sPropKey, sPropValue);
+                }
+
+                useDirectBuffers = isBooleanPropertyOn(sPropKey, sPropValue);
+
+                sPropKey = SQLServerDriverBooleanProperty.CACHE_BULK_COPY_METADATA.toString();
+                sPropValue = activeConnectionProperties.getProperty(sPropKey);
+                if (null == sPropValue) {
+                    sPropValue = Boolean
+                            .toString(SQLServerDriverBooleanProperty.CACHE_BULK_COPY_METADATA.getDefaultValue());
+                    activeConnectionProperties.setProperty(sPropKey, sPropValue);
+                }
+
+                cacheBulkCopyMetadata = isBooleanPropertyOn(sPropKey, sPropValue);
+
+                sPropKey = SQLServerDriverBooleanProperty.USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT.toString();
+                sPropValue = activeConnectionProperties.getProperty(sPropKey);
+                if (null == sPropValue) {
+                    sPropValue = Boolean.toString(
+                            SQLServerDriverBooleanProperty.USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT.getDefaultValue());
+                    activeConnectionProperties.setProperty(sPropKey, sPropValue);
+                }
+
+                useMultiRowValuesForBatchInsert = isBooleanPropertyOn(sPropKey, sPropValue);
+
+                sPropKey = SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_UPDATE.toString();
+                sPropValue = activeConnectionProperties.getProperty(sPropKey);
+                if (null == sPropValue) {
+                    sPropValue = Boolean
+                            .toString(SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_UPDATE.getDefaultValue());
+                    activeConnectionProperties.setProperty(sPropKey, sPropValue);
+                }
+
+                useBulkCopyForBatchUpdate = isBooleanPropertyOn(sPropKey, sPropValue);
+
+                sPropKey = SQLServerDriverBooleanProperty.CACHE_SSL_CONTEXT.toString();
+                sPropValue = activeConnectionProperties.getProperty(sPropKey);
+                if (null == sPropValue) {
+                    sPropValue = Boolean.toString(SQLServerDriverBooleanProperty.CACHE_SSL_CONTEXT.getDefaultValue());
+                    activeConnectionProperties.setProperty(sPropKey, sPropValue);
+                }
+
+                cacheSSLContext = isBooleanPropertyOn(sPropKey, sPropValue);
+
+                sPropKey = SQLServerDriverBooleanProperty.PREPARE_HOT_STATEMENTS.toString();
+                sPropValue = activeConnectionProperties.getProperty(sPropKey);
+                if (null == sPropValue) {
+                    sPropValue = Boolean
+                            .toString(SQLServerDriverBooleanProperty.PREPARE_HOT_STATEMENTS.getDefaultValue());
+                    activeConnectionProperties.setProperty(sPropKey, sPropValue);
+                }
+
+                prepareHotStatements = isBooleanPropertyOn(sPropKey, sPropValue);
+
+                sPropKey = SQLServerDriverBooleanProperty.ADAPTIVE_PREPARE.toString();
+                sPropValue = activeConnectionProperties.getProperty(sPropKey);
+                if (null == sPropValue) {
+                    sPropValue = Boolean.toString(SQLServerDriverBooleanProperty.ADAPTIVE_PREPARE.getDefaultValue());
+                    activeConnectionProperties.setProperty(sPropKey, sPropValue);
+                }
+
+                adaptivePrepare = isBooleanPropertyOn(sPropKey, sPropValue);
+
                 sPropKey = SQLServerDriverStringProperty.APPLICATION_NAME.toString();
                 sPropValue = activeConnectionProperties.getProperty(sPropKey);
                 if (null != sPropValue)
@@ -2646,6 +2854,69 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                     }
                 }
 
+                sPropKey = SQLServerDriverIntProperty.PROCEDURE_METADATA_CACHE_TTL.toString();
+                if (activeConnectionProperties.getProperty(sPropKey) != null
+                        && activeConnectionProperties.getProperty(sPropKey).length() > 0) {
+                    try {
+                        int n = Integer.parseInt(activeConnectionProperties.getProperty(sPropKey));
+                        if (n >= 0) {
+                            procedureMetadataCacheTtl = n;
+                        } else {
+                            MessageFormat form = new MessageFormat(
+                                    SQLServerException.getErrString("R_procedureMetadataCacheTtl"));
+                            Object[] msgArgs = {activeConnectionProperties.getProperty(sPropKey)};
+                            SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+                        }
+                    } catch (NumberFormatException e) {
+                        MessageFormat form = new MessageFormat(
+                                SQLServerException.getErrString("R_procedureMetadataCacheTtl"));
+                        Object[] msgArgs = {activeConnectionProperties.getProperty(sPropKey)};
+                        SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+                    }
+                }
+
+                sPropKey = SQLServerDriverIntProperty.MAX_BATCH_REQUEST_SIZE.toString();
+                if (activeConnectionProperties.getProperty(sPropKey) != null
+                        && activeConnectionProperties.getProperty(sPropKey).length() > 0) {
+                    try {
+                        int n = Integer.parseInt(activeConnectionProperties.getProperty(sPropKey));
+                        if (n >= 0) {
+                            maxBatchRequestSize = n;
+                        } else {
+                            MessageFormat form = new MessageFormat(
+                                    SQLServerException.getErrString("R_maxBatchRequestSize"));
+                            Object[] msgArgs = {activeConnectionProperties.getProperty(sPropKey)};
+                            SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+                        }
+                    } catch (NumberFormatException e) {
+                        MessageFormat form = new MessageFormat(
+                                SQLServerException.getErrString("R_maxBatchRequestSize"));
+                        Object[] msgArgs = {activeConnectionProperties.getProperty(sPropKey)};
+                        SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+                    }
+                }
+
+                sPropKey = SQLServerDriverIntProperty.MAX_BATCH_REQUEST_PARAMETERS.toString();
+                if (activeConnectionProperties.getProperty(sPropKey) != null
+                        && activeConnectionProperties.getProperty(sPropKey).length() > 0) {
+                    try {
+                        int n = Integer.parseInt(activeConnectionProperties.getProperty(sPropKey));
+                        if (n >= 0) {
+                            maxBatchRequestParameters = n;
+                        } else {
+                            MessageFormat form = new MessageFormat(
+                                    SQLServerException.getErrString("R_maxBatchRequestParameters"));
+                            Object[] msgArgs = {activeConnectionProperties.getProperty(sPropKey)};
+                            SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+                        }
+                    } catch (NumberFormatException e) {
+                        MessageFormat form = new MessageFormat(
+                                SQLServerException.getErrString("R_maxBatchRequestParameters"));
+                        Object[] msgArgs = {activeConnectionProperties.getProperty(sPropKey)};
+                        SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+                    }
+                }
+
                 sPropKey = SQLServerDriverStringProperty.AAD_SECURE_PRINCIPAL_ID.toString();
                 sPropValue = activeConnectionProperties.getProperty(sPropKey);
                 if (null == sPropValue) {
@@ -2737,6 +3008,28 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                 }
                 setAccessTokenCallbackClass(sPropValue);
 
+                Object metricsProperty = activeConnectionProperties
+                        .get(SQLServerDriverObjectProperty.METRICS.toString());
+                if (null != metricsProperty && !(metricsProperty instanceof SQLServerMetrics)) {
+                    MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidMetrics"));
+                    throw new SQLServerException(form.format(new Object[] {metricsProperty.getClass().getName()}),
+                            null);
+                }
+                metrics = (SQLServerMetrics) metricsProperty;
+
+                sPropKey = SQLServerDriverStringProperty.METRICS_CLASS.toString();
+                sPropValue = activeConnectionProperties.getProperty(sPropKey);
+                if (null == sPropValue) {
+                    sPropValue = SQLServerDriverStringProperty.METRICS_CLASS.getDefaultValue();
+                    activeConnectionProperties.setProperty(sPropKey, sPropValue);
+                }
+                if (null == metrics && !sPropValue.isEmpty()) {
+                    metrics = getSharedMetrics(sPropValue);
+                }
+                if (null == metrics) {
+                    metrics = SQLServerMetrics.NO_OP;
+                }
+
                 sPropKey = SQLServerDriverStringProperty.AUTHENTICATION.toString();
                 sPropValue = activeConnectionProperties.getProperty(sPropKey);
                 if (null == sPropValue) {
@@ -3771,9 +4064,11 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         String iPAddressPreference = activeConnectionProperties
                 .getProperty(SQLServerDriverStringProperty.IPADDRESS_PREFERENCE.toString());
 
+        long phaseStartNanos = isMetricsEnabled() ? System.nanoTime() : 0;
         InetSocketAddress inetSocketAddress = tdsChannel.open(serverInfo.getParsedServerName(),
                 serverInfo.getPortNumber(), (0 == timeOutFullInSeconds) ? 0 : timeOutSliceInMillis, useParallel,
                 useTnir, isTnirFirstAttempt, timeOutsliceInMillisForFullTimeout, iPAddressPreference);
+        recordNanosSince(SQLServerMetrics.Histogram.LOGIN_SOCKET_NANOS, phaseStartNanos);
 
         setState(State.CONNECTED);
 
@@ -3791,18 +4086,24 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         assert null != clientConnectionId;
 
         if (isTDS8) {
+            phaseStartNanos = isMetricsEnabled() ? System.nanoTime() : 0;
             tdsChannel.enableSSL(serverInfo.getParsedServerName(), serverInfo.getPortNumber(), clientCertificate,
                     clientKey, clientKeyPassword, isTDS8);
             clientKeyPassword = "";
+            recordNanosSince(SQLServerMetrics.Histogram.LOGIN_TLS_NANOS, phaseStartNanos);
         }
 
+        phaseStartNanos = isMetricsEnabled() ? System.nanoTime() : 0;
         prelogin(serverInfo.getServerName(), serverInfo.getPortNumber());
+        recordNanosSince(SQLServerMetrics.Histogram.LOGIN_PRELOGIN_NANOS, phaseStartNanos);
 
         // If not enabled already and prelogin negotiated SSL encryption then, enable it on the TDS channel.
         if (!isTDS8 && TDS.ENCRYPT_NOT_SUP != negotiatedEncryptionLevel) {
+            phaseStartNanos = isMetricsEnabled() ? System.nanoTime() : 0;
             tdsChannel.enableSSL(serverInfo.getParsedServerName(), serverInfo.getPortNumber(), clientCertificate,
                     clientKey, clientKeyPassword, false);
             clientKeyPassword = "";
+            recordNanosSince(SQLServerMetrics.Histogram.LOGIN_TLS_NANOS, phaseStartNanos);
         }
 
         activeConnectionProperties.remove(SQLServerDriverStringProperty.CLIENT_KEY_PASSWORD.toString());
@@ -3819,7 +4120,9 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                 // fails fast similar to pre-login errors.
             }
             try {
+                phaseStartNanos = isMetricsEnabled() ? System.nanoTime() : 0;
                 executeReconnect(new LogonCommand());
+                recordNanosSince(SQLServerMetrics.Histogram.LOGIN_LOGIN7_NANOS, phaseStartNanos);
             } catch (SQLServerException e) {
                 // Won't fail fast. Back-off reconnection attempts in effect.
                 throw new SQLServerException(SQLServerException.getErrString("R_crServerSessionStateNotRecoverable"),
@@ -3831,12 +4134,20 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                 sessionRecovery.setSessionStateTable(new SessionStateTable());
                 sessionRecovery.getSessionStateTable().setOriginalNegotiatedEncryptionLevel(negotiatedEncryptionLevel);
             }
+            phaseStartNanos = isMetricsEnabled() ? System.nanoTime() : 0;
             executeCommand(new LogonCommand());
+            recordNanosSince(SQLServerMetrics.Histogram.LOGIN_LOGIN7_NANOS, phaseStartNanos);
         }
 
         return inetSocketAddress;
     }
 
+    /** Records the nanoseconds elapsed since startNanos in histogram, if metrics are enabled */
+    private void recordNanosSince(SQLServerMetrics.Histogram histogram, long startNanos) {
+        if (isMetricsEnabled())
+            metrics.record(histogram, System.nanoTime() - startNanos);
+    }
+
     private void executeReconnect(LogonCommand logonCommand) throws SQLServerException {
         logonCommand.execute(tdsChannel.getWriter(), tdsChannel.getReader(logonCommand));
     }
@@ -4301,6 +4612,7 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
      */
     boolean executeCommand(TDSCommand newCommand) throws SQLServerException {
         schedulerLock.lock();
+        final long startNanos = isMetricsEnabled() ? System.nanoTime() : 0;
         try {
             ICounter previousCounter = null;
             /*
@@ -4412,7 +4724,180 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
             return commandComplete;
         } finally {
             schedulerLock.unlock();
+            recordNanosSince(SQLServerMetrics.Histogram.EXECUTE_NANOS, startNanos);
+        }
+    }
+
+    /** Lock guarding the tail of the chain of asynchronous executions on this connection */
+    private final transient Lock asyncExecutionLock = new ReentrantLock();
+
+    /** The last asynchronous execution submitted on this connection */
+    private transient CompletableFuture<?> lastAsyncExecution = CompletableFuture.completedFuture(null);
+
+    /**
+     * Runs task asynchronously on executor, after every asynchronous execution previously submitted on this connection
+     * has completed.
+     *
+     * Executions on a connection are serialized by the scheduler anyway. Chaining them instead of submitting them all
+     * at once keeps pending executions from each blocking a thread on the scheduler lock.
+     *
+     * @return a future completed with the result of task, or exceptionally with the exception it throws. If the future
+     *         is cancelled before task has started, task does not run.
+     */
+    final <T> CompletableFuture<T> executeAsync(AsyncExecutor.Task<T> task, Executor executor) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        asyncExecutionLock.lock();
+        try {
+            // The chain itself never completes exceptionally, so a failed execution does not stop the next one
+            CompletableFuture<Void> execution = lastAsyncExecution.handleAsync((previousResult, previousException) -> {
+                if (!future.isDone()) {
+                    try {
+                        future.complete(task.call());
+                    } catch (SQLException | RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+                return null;
+            }, executor);
+
+            // Fail the execution if executor rejected it
+            execution.whenComplete((result, e) -> {
+                if (null != e)
+                    future.completeExceptionally(e);
+            });
+            lastAsyncExecution = execution;
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        } finally {
+            asyncExecutionLock.unlock();
+        }
+        return future;
+    }
+
+    @Override
+    public boolean[] executePipelined(PreparedStatement... statements) throws SQLServerException {
+        loggerExternal.entering(loggingClassName, "executePipelined");
+        checkClosed();
+
+        if (!databaseAutoCommitMode || inXATransaction) {
+            SQLServerException.makeFromDriverError(this, this,
+                    SQLServerException.getErrString("R_pipelineRequiresAutoCommit"), null, false);
+        }
+        if (PrepareMethod.PREPARE.toString().equalsIgnoreCase(getPrepareMethod())) {
+            SQLServerException.makeFromDriverError(this, this,
+                    SQLServerException.getErrString("R_pipelineNotSupportedWithPrepare"), null, false);
         }
+
+        SQLServerPreparedStatement[] pipeline = new SQLServerPreparedStatement[statements.length];
+        Set<SQLServerPreparedStatement> pipelined = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < statements.length; i++) {
+            // Callable statements process OUT parameters, and statements using Always Encrypted may need to query
+            // encryption metadata before their request can be sent.
+            if (!(statements[i] instanceof SQLServerPreparedStatement)
+                    || statements[i] instanceof SQLServerCallableStatement
+                    || this != ((SQLServerPreparedStatement) statements[i]).connection || isAEv2()
+                    || Util.shouldHonorAEForParameters(
+                            ((SQLServerPreparedStatement) statements[i]).stmtColumnEncriptionSetting, this)) {
+                throwPipelineError("R_pipelineUnsupportedStatement", i);
+            }
+            pipeline[i] = (SQLServerPreparedStatement) statements[i];
+            if (!pipelined.add(pipeline[i])) {
+                throwPipelineError("R_pipelineDuplicateStatement", i);
+            }
+            // Row and field size limits are session settings, so all statements of a pipeline must share them.
+            if (pipeline[i].maxRows != pipeline[0].maxRows || pipeline[i].maxFieldSize != pipeline[0].maxFieldSize) {
+                throwPipelineError("R_pipelineLimitsMismatch", i);
+            }
+        }
+
+        boolean[] results = new boolean[pipeline.length];
+        if (0 < pipeline.length) {
+            unprepareUnreferencedPreparedStatementHandles(false);
+
+            schedulerLock.lock();
+            try {
+                executePipeline(pipeline, results);
+            } finally {
+                schedulerLock.unlock();
+            }
+        }
+
+        loggerExternal.exiting(loggingClassName, "executePipelined", results);
+        return results;
+    }
+
+    private void throwPipelineError(String errorKey, int index) throws SQLServerException {
+        MessageFormat form = new MessageFormat(SQLServerException.getErrString(errorKey));
+        Object[] msgArgs = {index};
+        SQLServerException.makeFromDriverError(this, this, form.format(msgArgs), null, false);
+    }
+
+    /**
+     * Sends the requests of all statements in a pipeline back to back, then reads the responses in order.
+     *
+     * The caller must hold the scheduler lock for the whole pipeline.
+     */
+    private void executePipeline(SQLServerPreparedStatement[] pipeline, boolean[] results) throws SQLServerException {
+        PrepStmtPipelineCmd[] commands = new PrepStmtPipelineCmd[pipeline.length];
+        for (int i = 0; i < pipeline.length; i++) {
+            pipeline[i].startPipelinedExecution();
+            commands[i] = pipeline[i].new PrepStmtPipelineCmd((0 == i) ? null : commands[i - 1]);
+        }
+
+        // Apply the limits shared by all statements once, before any request is sent
+        pipeline[0].setMaxRowsAndMaxFieldSize();
+
+        SQLServerException pipelineException = null;
+        int numSent = 0;
+        try {
+            /*
+             * The first command goes through executeCommand, which detaches the response of the current command and
+             * recovers a broken idle connection. It then stays the current command while the rest of the requests are
+             * sent behind it without detaching its response.
+             */
+            executeCommand(commands[0]);
+            for (numSent = 1; numSent < commands.length; ++numSent) {
+                commands[numSent].createCounter(commands[0].getCounter(), activeConnectionProperties);
+                commands[numSent].execute(tdsChannel.getWriter(), tdsChannel.getReader(commands[numSent]));
+            }
+        } catch (SQLServerException e) {
+            // A request that failed to send has been closed out along with any response to it. The responses to the
+            // requests sent before it are still read below.
+            pipelineException = e;
+        }
+
+        try {
+            for (int i = 0; i < numSent; i++) {
+                if (0 < i) {
+                    // Buffer the rest of the previous response to get to this one
+                    commands[i - 1].getCounter().resetCounter();
+                    commands[i - 1].detach();
+                    currentCommand = commands[i];
+                }
+
+                try {
+                    results[i] = pipeline[i].readPipelinedResponse(commands[i]);
+                } catch (SQLServerException e) {
+                    if (isSessionUnAvailable())
+                        throw e;
+
+                    // Report errors from the database after reading the rest of the responses
+                    if (null == pipelineException)
+                        pipelineException = e;
+                    else
+                        pipelineException.setNextException(e);
+                }
+            }
+        } finally {
+            for (int i = 0; i < pipeline.length; i++)
+                pipeline[i].endPipelinedExecution(commands[i]);
+
+            if (isSessionUnAvailable())
+                currentCommand = null;
+        }
+
+        if (null != pipelineException)
+            throw pipelineException;
     }
 
     void resetCurrentCommand() throws SQLServerException {
@@ -4900,6 +5385,11 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         return sCatalog;
     }
 
+    /** Returns the current database of the session, as last reported by the server */
+    final String getCurrentCatalog() {
+        return sCatalog;
+    }
+
     @Override
     public void setTransactionIsolation(int level) throws SQLServerException {
         if (loggerExternal.isLoggable(Level.FINER)) {
@@ -5981,6 +6471,24 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
 
         attemptRefreshTokenLocked = true;
 
+        // Connections opened together by a pool acquire one token
+        SharedLoginState sharedLoginState = getSharedLoginState();
+        if (null != sharedLoginState) {
+            fedAuthToken = sharedLoginState.getFedAuthToken(fedAuthInfo, this::acquireFedAuthToken);
+        } else {
+            fedAuthToken = acquireFedAuthToken(fedAuthInfo);
+        }
+
+        attemptRefreshTokenLocked = false;
+
+        // fedAuthToken cannot be null.
+        assert null != fedAuthToken;
+
+        TDSCommand fedAuthCommand = new FedAuthTokenCommand(fedAuthToken, tdsTokenHandler);
+        fedAuthCommand.execute(tdsChannel.getWriter(), tdsChannel.getReader(fedAuthCommand));
+    }
+
+    private SqlAuthenticationToken acquireFedAuthToken(SqlFedAuthInfo fedAuthInfo) throws SQLServerException {
         if (authenticationString.equals(SqlAuthentication.NOT_SPECIFIED.toString()) && null != accessTokenCallbackClass
                 && !accessTokenCallbackClass.isEmpty()) {
             try {
@@ -5988,7 +6496,7 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                         "com.microsoft.sqlserver.jdbc.SQLServerAccessTokenCallback"};
                 SQLServerAccessTokenCallback callbackInstance = Util.newInstance(SQLServerAccessTokenCallback.class,
                         accessTokenCallbackClass, null, msgArgs);
-                fedAuthToken = callbackInstance.getAccessToken(fedAuthInfo.spn, fedAuthInfo.stsurl);
+                return callbackInstance.getAccessToken(fedAuthInfo.spn, fedAuthInfo.stsurl);
             } catch (Exception e) {
                 MessageFormat form = new MessageFormat(
                         SQLServerException.getErrString("R_InvalidAccessTokenCallbackClass"));
@@ -5996,18 +6504,10 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
             }
         } else if (authenticationString.equals(SqlAuthentication.NOT_SPECIFIED.toString())
                 && null != accessTokenCallback) {
-            fedAuthToken = accessTokenCallback.getAccessToken(fedAuthInfo.spn, fedAuthInfo.stsurl);
+            return accessTokenCallback.getAccessToken(fedAuthInfo.spn, fedAuthInfo.stsurl);
         } else {
-            fedAuthToken = getFedAuthToken(fedAuthInfo);
+            return getFedAuthToken(fedAuthInfo);
         }
-
-        attemptRefreshTokenLocked = false;
-
-        // fedAuthToken cannot be null.
-        assert null != fedAuthToken;
-
-        TDSCommand fedAuthCommand = new FedAuthTokenCommand(fedAuthToken, tdsTokenHandler);
-        fedAuthCommand.execute(tdsChannel.getWriter(), tdsChannel.getReader(fedAuthCommand));
     }
 
     private SqlAuthenticationToken getFedAuthToken(SqlFedAuthInfo fedAuthInfo) throws SQLServerException {
@@ -8105,6 +8605,24 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         this.accessTokenCallbackClass = accessTokenCallbackClass;
     }
 
+    /**
+     * Returns the instance of metricsClass shared by all connections with that class name, instantiating it if needed.
+     */
+    private static SQLServerMetrics getSharedMetrics(String metricsClass) throws SQLServerException {
+        try {
+            Class<?> clazz = Class.forName(metricsClass);
+            if (!SQLServerMetrics.class.isAssignableFrom(clazz)) {
+                MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_unassignableError"));
+                Object[] msgArgs = {"metricsClass", "com.microsoft.sqlserver.jdbc.SQLServerMetrics"};
+                throw new IllegalArgumentException(form.format(msgArgs));
+            }
+            return sharedMetrics.get(clazz);
+        } catch (ClassNotFoundException | RuntimeException e) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_InvalidMetricsClass"));
+            throw new SQLServerException(form.format(new Object[] {metricsClass}), e);
+        }
+    }
+
     /**
      * Returns whether or not sp_sproc_columns is being used for parameter name lookup.
      *
@@ -8170,6 +8688,8 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
                     stmt.execute(sql.toString());
                 }
 
+                metrics.record(SQLServerMetrics.Histogram.UNPREPARE_BATCH_SIZE, handlesRemoved);
+
                 if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
                     loggerExternal.finer(this + ": Finished un-preparing handle count:" + handlesRemoved);
             } catch (SQLException e) {
@@ -8227,6 +8747,9 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
 
         if (null != parameterMetadataCache)
             parameterMetadataCache.setCapacity(value);
+
+        if (null != prepareStatisticsCache)
+            prepareStatisticsCache.setCapacity((long) value * PREPARE_STATISTICS_PER_HANDLE);
     }
 
     /**
@@ -8251,6 +8774,10 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
      * Prepares the cache handle.
      */
     private void prepareCache() {
+        prepareStatisticsCache = new Builder<CityHash128Key, PrepareStatistics>()
+                .maximumWeightedCapacity((long) getStatementPoolingCacheSize() * PREPARE_STATISTICS_PER_HANDLE)
+                .build();
+
         preparedStatementHandleCache = new Builder<CityHash128Key, PreparedStatementHandle>()
                 .maximumWeightedCapacity(getStatementPoolingCacheSize())
                 .listener(new PreparedStatementCacheEvictionListener()).build();
@@ -8280,7 +8807,10 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         if (!isStatementPoolingEnabled())
             return null;
 
-        return preparedStatementHandleCache.get(key);
+        PreparedStatementHandle handle = preparedStatementHandleCache.get(key);
+        metrics.increment(null != handle ? SQLServerMetrics.Counter.PREPARED_HANDLE_CACHE_HITS
+                                         : SQLServerMetrics.Counter.PREPARED_HANDLE_CACHE_MISSES, 1);
+        return handle;
     }
 
     /** Gets or creates prepared statement handle cache entry if statement pooling is enabled */
@@ -8294,6 +8824,178 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         return cacheItem;
     }
 
+    /**
+     * Returns the execution statistics of a prepared statement, creating them on its first execution, or null if
+     * adaptivePrepare is off or statement pooling is disabled.
+     */
+    final PrepareStatistics getPrepareStatistics(CityHash128Key key) {
+        if (!adaptivePrepare || !isStatementPoolingEnabled())
+            return null;
+
+        PrepareStatistics statistics = prepareStatisticsCache.get(key);
+        if (null == statistics) {
+            statistics = new PrepareStatistics();
+            PrepareStatistics existing = prepareStatisticsCache.putIfAbsent(key, statistics);
+            if (null != existing) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the authentication method and principal of the login, which scope what connections share about the
+     * objects they resolve, or null if the principal is not known on the client. Without a user name, the principal of
+     * integrated, managed identity and default authentication is the identity of the process; it is not known with an
+     * access token, an access token callback, a GSS credential or interactive authentication.
+     */
+    final String getPrincipalScope() {
+        if (null != accessTokenInByte || null != accessTokenCallback || hasAccessTokenCallbackClass
+                || null != impersonatedUserCred) {
+            return null;
+        }
+        String user = activeConnectionProperties.getProperty(SQLServerDriverStringProperty.USER.toString());
+        if (null == user || user.isEmpty()) {
+            if (!integratedSecurity
+                    && !SqlAuthentication.ACTIVE_DIRECTORY_INTEGRATED.toString().equalsIgnoreCase(authenticationString)
+                    && !SqlAuthentication.ACTIVE_DIRECTORY_MANAGED_IDENTITY.toString()
+                            .equalsIgnoreCase(authenticationString)
+                    && !SqlAuthentication.ACTIVE_DIRECTORY_DEFAULT.toString().equalsIgnoreCase(authenticationString)) {
+                return null;
+            }
+            user = "";
+        }
+        return authenticationString + "/" + (integratedSecurity ? intAuthScheme : "") + "/" + user;
+    }
+
+    /**
+     * Returns the registry of the statements prepared by the connections to the server and database of this connection
+     * with the same authentication method and principal, or null if prepareHotStatements is off, statement pooling is
+     * disabled, the principal is not known on the client, or the connection uses another database than the one it
+     * connected to.
+     */
+    final PreparedStatementRegistry getPreparedStatementRegistry() {
+        if (!prepareHotStatements || !isStatementPoolingEnabled() || isColumnEncryptionSettingEnabled()
+                || !originalCatalog.equals(sCatalog)) {
+            return null;
+        }
+        if (null == preparedStatementRegistry && null != currentConnectPlaceHolder) {
+            String principalScope = getPrincipalScope();
+            if (null == principalScope) {
+                return null;
+            }
+            preparedStatementRegistry = PreparedStatementRegistry.getRegistry(currentConnectPlaceHolder
+                    .getFullServerName() + ":" + currentConnectPlaceHolder.getPortNumber() + "/" + originalCatalog
+                    + "/" + principalScope);
+        }
+        return preparedStatementRegistry;
+    }
+
+    /** Records a statement that this connection prepared in the registry, if prepareHotStatements is on */
+    final void recordPreparedStatement(CityHash128Key key, String sql, String typeDefinitions) {
+        PreparedStatementRegistry registry = getPreparedStatementRegistry();
+        if (null != registry) {
+            registry.record(key, sql, typeDefinitions);
+        }
+    }
+
+    /**
+     * Returns the hot statements of the registry that are not in the prepared statement handle cache. They are taken
+     * from the hottest statements that fill the HOT_STATEMENTS_CACHE_FRACTION of the cache, so that the statements
+     * that this connection prepares itself keep the rest of it.
+     */
+    private List<PreparedStatementRegistry.PreparedStatement> getUnpreparedHotStatements() {
+        PreparedStatementRegistry registry = getPreparedStatementRegistry();
+        if (null == registry) {
+            return Collections.emptyList();
+        }
+        List<PreparedStatementRegistry.PreparedStatement> statements = new ArrayList<>();
+        for (PreparedStatementRegistry.PreparedStatement statement : registry
+                .getHotStatements(getStatementPoolingCacheSize() / HOT_STATEMENTS_CACHE_FRACTION)) {
+            if (null == preparedStatementHandleCache.getQuietly(statement.key)) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Returns whether prepareHotStatements would prepare any statement.
+     */
+    final boolean hasUnpreparedHotStatements() {
+        return !getUnpreparedHotStatements().isEmpty();
+    }
+
+    /**
+     * Prepares the hot statements of the registry that are not in the prepared statement handle cache, in one request
+     * with a query timeout of HOT_STATEMENTS_QUERY_TIMEOUT seconds, so that their first execution on this connection
+     * reuses a handle. A statement that fails to prepare is skipped.
+     *
+     * @return the number of statements prepared
+     */
+    final int prepareHotStatements() throws SQLServerException {
+        List<PreparedStatementRegistry.PreparedStatement> statements = getUnpreparedHotStatements();
+        if (statements.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder("DECLARE ");
+        StringBuilder select = new StringBuilder("SELECT ");
+        for (int i = 0; i < statements.size(); i++) {
+            sql.append((0 < i) ? ", " : "").append("@h").append(i).append(" int");
+            select.append((0 < i) ? ", " : "").append("@h").append(i);
+        }
+        sql.append(';');
+        for (int i = 0; i < statements.size(); i++) {
+            PreparedStatementRegistry.PreparedStatement statement = statements.get(i);
+            sql.append(" BEGIN TRY EXEC sp_prepare @h").append(i).append(" OUTPUT, ");
+            if (statement.typeDefinitions.isEmpty()) {
+                sql.append("NULL");
+            } else {
+                sql.append("N'").append(Util.escapeSingleQuotes(statement.typeDefinitions)).append('\'');
+            }
+            sql.append(", N'").append(Util.escapeSingleQuotes(statement.sql))
+                    .append("' END TRY BEGIN CATCH END CATCH;");
+        }
+        sql.append(' ').append(select);
+
+        int prepared = 0;
+        try (Statement stmt = createStatement()) {
+            stmt.setQueryTimeout(HOT_STATEMENTS_QUERY_TIMEOUT);
+            // sp_prepare returns the metadata of a query as an empty result, the handles are in the last result
+            int[] handles = null;
+            boolean isResultSet = stmt.execute(sql.toString());
+            while (isResultSet || -1 != stmt.getUpdateCount()) {
+                if (isResultSet) {
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        if (rs.getMetaData().getColumnCount() == statements.size() && rs.next()) {
+                            handles = new int[statements.size()];
+                            for (int i = 0; i < handles.length; i++) {
+                                handles[i] = rs.getInt(i + 1);
+                            }
+                        }
+                    }
+                }
+                isResultSet = stmt.getMoreResults();
+            }
+
+            for (int i = 0; null != handles && i < handles.length; i++) {
+                if (0 != handles[i]) {
+                    PreparedStatementHandle handle = registerCachedPreparedStatementHandle(statements.get(i).key,
+                            handles[i], true);
+                    // No statement references the handle yet
+                    returnCachedPreparedStatementHandle(handle);
+                    prepared++;
+                }
+            }
+        } catch (SQLServerException e) {
+            throw e;
+        } catch (SQLException e) {
+            throw new SQLServerException(e.getMessage(), e);
+        }
+        return prepared;
+    }
+
     /** Returns prepared statement handle cache entry so it can be un-prepared. */
     final void returnCachedPreparedStatementHandle(PreparedStatementHandle handle) {
         handle.removeReference();
@@ -8307,7 +9009,8 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
         if (null == handle || null == handle.getKey())
             return;
 
-        preparedStatementHandleCache.remove(handle.getKey());
+        if (null != preparedStatementHandleCache.remove(handle.getKey()))
+            metrics.increment(SQLServerMetrics.Counter.PREPARED_HANDLE_CACHE_EVICTIONS, 1);
     }
 
     /**
@@ -8317,8 +9020,16 @@ public class SQLServerConnection implements ISQLServerConnection, java.io.Serial
             implements EvictionListener<CityHash128Key, PreparedStatementHandle> {
         public void onEviction(CityHash128Key key, PreparedStatementHandle handle) {
             if (null != handle) {
+                metrics.increment(SQLServerMetrics.Counter.PREPARED_HANDLE_CACHE_EVICTIONS, 1);
                 handle.setIsEvictedFromCache(true); // Mark as evicted from cache.
 
+                if (null != prepareStatisticsCache) {
+                    PrepareStatistics statistics = prepareStatisticsCache.getQuietly(key);
+                    if (null != statistics) {
+                        statistics.onHandleEvicted();
+                    }
+                }
+
                 // Only discard if not referenced.
                 if (handle.tryDiscardHandle()) {
                     enqueueUnprepareStatementHandle(handle);
@@ -0,0 +1,662 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+
+
+/**
+ * Pools the physical connections of a {@link SQLServerPoolingDataSource}.
+ *
+ * Borrowing and returning a connection does not take a lock, unless a borrower waits for a connection that the pool
+ * holds for itself. A semaphore bounds the number of connections in use, idle connections are kept in a deque that is
+ * used as a stack so the most recently returned connections are reused first, and each thread first tries the
+ * connection it returned last. A connection is not validated with a query when it is
+ * borrowed, the session is reset with the RESET_CONNECTION bit of the first request sent on it instead. A housekeeping
+ * thread closes connections that are idle or open for too long and opens connections up to the minimum number of idle
+ * connections.
+ */
+final class SQLServerConnectionPool implements ConnectionEventListener {
+    private static final java.util.logging.Logger logger = java.util.logging.Logger
+            .getLogger("com.microsoft.sqlserver.jdbc.internals.SQLServerConnectionPool");
+
+    static final String HOUSEKEEPER_THREAD_PREFIX = "mssql-jdbc-pool-housekeeper-";
+    private static final AtomicLong HOUSEKEEPER_THREAD_COUNTER = new AtomicLong();
+
+    static final String WARM_UP_THREAD_PREFIX = "mssql-jdbc-pool-warm-up-";
+    private static final AtomicLong WARM_UP_THREAD_COUNTER = new AtomicLong();
+
+    /** Maximum number of connections opened concurrently by warmUp */
+    private static final int MAX_WARM_UP_THREADS = 16;
+
+    /** Period of the housekeeping task in milliseconds */
+    private static final long HOUSEKEEPING_PERIOD = 30000;
+
+    /**
+     * A physical connection of the pool and its state.
+     */
+    static final class PoolEntry {
+        static final int IDLE = 0;
+        static final int IN_USE = 1;
+        static final int REMOVED = 2;
+        // Used by the pool itself, while it is opened or its hot statements are prepared
+        static final int RESERVED = 3;
+
+        final SQLServerPooledConnection pooledConnection;
+        final long creationTime = System.nanoTime();
+        volatile long lastReturnTime = creationTime;
+        final AtomicInteger state;
+
+        // Whether the entry is in the deque of idle entries, which holds each entry at most once
+        final AtomicBoolean isQueued = new AtomicBoolean();
+        final WeakReference<PoolEntry> reference = new WeakReference<>(this);
+
+        // Session state that is restored when the connection is returned without a reset
+        final int transactionIsolation;
+        final String catalog;
+
+        PoolEntry(SQLServerPooledConnection pooledConnection, int state) throws SQLServerException {
+            this.pooledConnection = pooledConnection;
+            this.state = new AtomicInteger(state);
+            SQLServerConnection con = pooledConnection.getPhysicalConnection();
+            transactionIsolation = con.getTransactionIsolation();
+            catalog = con.getCatalog();
+        }
+    }
+
+    private final SQLServerPoolingDataSource dataSource;
+    private final String traceID;
+
+    private final int maxPoolSize;
+    private final int minIdle;
+    private final int maxIdle;
+    private final long maxLifetime;
+    private final long idleTimeout;
+    private final long borrowTimeout;
+    private final boolean resetConnectionOnBorrow;
+
+    // One permit for each connection that can be in use
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PoolEntry> idleEntries = new ConcurrentLinkedDeque<>();
+    private final Map<SQLServerPooledConnection, PoolEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger idleConnections = new AtomicInteger();
+    private final ThreadLocal<WeakReference<PoolEntry>> lastEntry = new ThreadLocal<>();
+    private final ScheduledThreadPoolExecutor housekeeper;
+
+    // Wakes up the borrowers that wait in createEntry for an entry to become idle or be removed, the lock is only
+    // taken when there are such borrowers
+    private final Lock entryLock = new ReentrantLock();
+    private final Condition entryChanged = entryLock.newCondition();
+    private final AtomicInteger entryWaiters = new AtomicInteger();
+    private volatile long entryChangeCount;
+    private volatile boolean isClosed;
+
+    SQLServerConnectionPool(SQLServerPoolingDataSource dataSource) throws SQLServerException {
+        this.dataSource = dataSource;
+        traceID = "SQLServerConnectionPool:" + dataSource.toString();
+        maxPoolSize = dataSource.getMaxPoolSize();
+        minIdle = dataSource.getMinIdle();
+        maxIdle = (0 > dataSource.getMaxIdle()) ? maxPoolSize : dataSource.getMaxIdle();
+        maxLifetime = TimeUnit.MILLISECONDS.toNanos(dataSource.getMaxLifetime());
+        idleTimeout = TimeUnit.MILLISECONDS.toNanos(dataSource.getIdleTimeout());
+        borrowTimeout = dataSource.getBorrowTimeout();
+        resetConnectionOnBorrow = dataSource.getResetConnectionOnBorrow();
+
+        checkPoolProperty("maxPoolSize", maxPoolSize, 1 <= maxPoolSize);
+        checkPoolProperty("minIdle", minIdle, 0 <= minIdle && minIdle <= maxPoolSize);
+        checkPoolProperty("maxIdle", maxIdle, minIdle <= maxIdle);
+        checkPoolProperty("maxLifetime", dataSource.getMaxLifetime(), 0 <= maxLifetime);
+        checkPoolProperty("idleTimeout", dataSource.getIdleTimeout(), 0 <= idleTimeout);
+        checkPoolProperty("borrowTimeout", borrowTimeout, 0 <= borrowTimeout);
+
+        permits = new Semaphore(maxPoolSize);
+        long id = HOUSEKEEPER_THREAD_COUNTER.getAndIncrement();
+        housekeeper = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread t = new Thread(task, HOUSEKEEPER_THREAD_PREFIX + id);
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, 0, HOUSEKEEPING_PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    private static void checkPoolProperty(String name, long value, boolean isValid) throws SQLServerException {
+        if (!isValid) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidPoolPropertyValue"));
+            Object[] msgArgs = {name, value};
+            throw new SQLServerException(form.format(msgArgs), null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return traceID;
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new physical connection when no idle connection is available and
+     * the pool is not full.
+     */
+    Connection getConnection() throws SQLException {
+        checkClosed();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeout);
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw newTimeoutException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLServerException(e.getMessage(), null, 0, e);
+        }
+
+        PoolEntry entry = null;
+        try {
+            checkClosed();
+            entry = claimIdleEntry();
+            if (null == entry) {
+                entry = createEntry(deadline);
+            }
+            return entry.pooledConnection.getConnection(resetConnectionOnBorrow);
+        } catch (SQLException | RuntimeException e) {
+            if (null != entry) {
+                remove(entry);
+            }
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void checkClosed() throws SQLServerException {
+        if (isClosed) {
+            throw new SQLServerException(SQLServerException.getErrString("R_connectionPoolClosed"), null);
+        }
+    }
+
+    private SQLServerException newTimeoutException() {
+        MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_connectionPoolTimeout"));
+        Object[] msgArgs = {borrowTimeout};
+        return new SQLServerException(form.format(msgArgs), null);
+    }
+
+    /**
+     * Claims the idle connection that the current thread returned last, or else the most recently returned idle
+     * connection. Returns null when there is no idle connection.
+     */
+    private PoolEntry claimIdleEntry() {
+        WeakReference<PoolEntry> reference = lastEntry.get();
+        PoolEntry entry = (null != reference) ? reference.get() : null;
+        if (null != entry && claim(entry)) {
+            return entry;
+        }
+
+        List<PoolEntry> reservedEntries = null;
+        while (null != (entry = idleEntries.pollFirst())) {
+            // Clear the flag before claiming, so that an entry returned meanwhile is queued again
+            entry.isQueued.set(false);
+            if (claim(entry)) {
+                break;
+            }
+            if (PoolEntry.RESERVED == entry.state.get()) {
+                if (null == reservedEntries) {
+                    reservedEntries = new ArrayList<>();
+                }
+                reservedEntries.add(entry);
+            }
+        }
+
+        // The entries that the housekeeping thread reserved keep their place, they are idle again soon
+        for (int i = (null != reservedEntries) ? reservedEntries.size() - 1 : -1; 0 <= i; i--) {
+            PoolEntry reservedEntry = reservedEntries.get(i);
+            if (reservedEntry.isQueued.compareAndSet(false, true)) {
+                idleEntries.offerFirst(reservedEntry);
+            }
+        }
+        return entry;
+    }
+
+    private boolean claim(PoolEntry entry) {
+        if (!entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.IN_USE)) {
+            return false;
+        }
+        idleConnections.decrementAndGet();
+        SQLServerConnection con = entry.pooledConnection.getPhysicalConnection();
+        if (isExpired(entry, System.nanoTime()) || null == con || con.isSessionUnAvailable()) {
+            remove(entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Opens a new physical connection for the caller, which holds a permit. When the pool is full, the idle connections
+     * that the pool holds beyond the permits in use are claimed instead. While the pool holds them as reserved
+     * connections, or they are being removed, the caller waits until one is idle or removed, or the deadline of the
+     * borrow is reached.
+     */
+    private PoolEntry createEntry(long deadline) throws SQLException {
+        boolean isWaiting = false;
+        try {
+            while (true) {
+                long changeCount = entryChangeCount;
+                int total = totalConnections.get();
+                if (total < maxPoolSize) {
+                    if (totalConnections.compareAndSet(total, total + 1)) {
+                        break;
+                    }
+                } else {
+                    PoolEntry entry = claimIdleEntry();
+                    if (null != entry) {
+                        return entry;
+                    }
+                    if (isWaiting) {
+                        awaitEntryChange(changeCount, deadline);
+                    } else {
+                        // Look again once counted as waiting, so that an entry made idle meanwhile is not missed
+                        isWaiting = true;
+                        entryWaiters.incrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            if (isWaiting) {
+                entryWaiters.decrementAndGet();
+            }
+        }
+        return newEntry(PoolEntry.IN_USE, null);
+    }
+
+    /**
+     * Waits until an entry became idle or was removed since changeCount was read.
+     */
+    private void awaitEntryChange(long changeCount, long deadline) throws SQLServerException {
+        entryLock.lock();
+        try {
+            while (changeCount == entryChangeCount) {
+                checkClosed();
+                long remaining = deadline - System.nanoTime();
+                if (0 >= remaining) {
+                    throw newTimeoutException();
+                }
+                entryChanged.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLServerException(e.getMessage(), null, 0, e);
+        } finally {
+            entryLock.unlock();
+        }
+    }
+
+    /**
+     * Wakes up the borrowers that wait in createEntry, after an entry became idle or was removed.
+     */
+    private void signalEntryChange() {
+        if (0 < entryWaiters.get()) {
+            entryLock.lock();
+            try {
+                entryChangeCount++;
+                entryChanged.signalAll();
+            } finally {
+                entryLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Opens a new physical connection, which has been counted in totalConnections.
+     */
+    private PoolEntry newEntry(int state, SharedLoginState sharedLoginState) throws SQLException {
+        SQLServerPooledConnection pooledConnection = null;
+        try {
+            pooledConnection = new SQLServerPooledConnection(dataSource, dataSource.getUser(),
+                    dataSource.getPassword(), sharedLoginState);
+            PoolEntry entry = new PoolEntry(pooledConnection, state);
+            entries.put(pooledConnection, entry);
+            pooledConnection.addConnectionEventListener(this);
+            if (logger.isLoggable(Level.FINER)) {
+                logger.finer(toString() + " opened " + pooledConnection.toString());
+            }
+            return entry;
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            if (null != pooledConnection) {
+                closeQuietly(pooledConnection);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the connection to the pool when the application closes its handle.
+     */
+    @Override
+    public void connectionClosed(ConnectionEvent event) {
+        PoolEntry entry = entries.get(event.getSource());
+        if (null == entry || PoolEntry.IN_USE != entry.state.get()) {
+            return;
+        }
+
+        try {
+            if (isClosed || isExpired(entry, System.nanoTime()) || idleConnections.get() >= maxIdle
+                    || !resetConnectionOnBorrow && !restoreSessionState(entry)) {
+                remove(entry);
+            } else {
+                entry.lastReturnTime = System.nanoTime();
+                entry.state.set(PoolEntry.IDLE);
+                idleConnections.incrementAndGet();
+                if (entry.isQueued.compareAndSet(false, true)) {
+                    idleEntries.offerFirst(entry);
+                }
+                lastEntry.set(entry.reference);
+                signalEntryChange();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Removes the connection from the pool when a fatal error occurs on it.
+     */
+    @Override
+    public void connectionErrorOccurred(ConnectionEvent event) {
+        PoolEntry entry = entries.get(event.getSource());
+        if (null != entry && PoolEntry.IN_USE == entry.state.get()) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine(toString() + " removing " + entry.pooledConnection.toString() + " after error: "
+                        + event.getSQLException());
+            }
+            remove(entry);
+            permits.release();
+        }
+    }
+
+    /**
+     * Restores the session state that the next borrower expects when the session is not reset, and returns whether
+     * the connection can be reused. An open transaction has already been rolled back by the connection.
+     */
+    private boolean restoreSessionState(PoolEntry entry) {
+        SQLServerConnection con = entry.pooledConnection.getPhysicalConnection();
+        try {
+            if (null == con || con.isSessionUnAvailable()) {
+                return false;
+            }
+            if (!con.getAutoCommit()) {
+                con.setAutoCommit(true);
+            }
+            if (con.getTransactionIsolation() != entry.transactionIsolation) {
+                con.setTransactionIsolation(entry.transactionIsolation);
+            }
+            if (!Objects.equals(con.getCatalog(), entry.catalog)) {
+                con.setCatalog(entry.catalog);
+            }
+            con.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine(toString() + " could not restore " + entry.pooledConnection.toString() + ": " + e);
+            }
+            return false;
+        }
+    }
+
+    private boolean isExpired(PoolEntry entry, long now) {
+        return 0 < maxLifetime && now - entry.creationTime >= maxLifetime;
+    }
+
+    /**
+     * Removes an entry that has been claimed or is in use, and closes its connection on the housekeeping thread.
+     */
+    private void remove(PoolEntry entry) {
+        entry.state.set(PoolEntry.REMOVED);
+        if (null != entries.remove(entry.pooledConnection)) {
+            totalConnections.decrementAndGet();
+            signalEntryChange();
+            if (!isClosed) {
+                try {
+                    housekeeper.execute(() -> closeQuietly(entry.pooledConnection));
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // The pool is being closed
+                }
+            }
+            closeQuietly(entry.pooledConnection);
+        }
+    }
+
+    private void closeQuietly(SQLServerPooledConnection pooledConnection) {
+        try {
+            pooledConnection.close();
+        } catch (SQLException e) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine(toString() + " error closing " + pooledConnection.toString() + ": " + e);
+            }
+        }
+    }
+
+    /**
+     * Closes the idle connections that are past their lifetime or idle timeout, and opens connections up to the minimum
+     * number of idle connections.
+     */
+    private void houseKeep() {
+        long now = System.nanoTime();
+        for (PoolEntry entry : entries.values()) {
+            if (PoolEntry.IDLE == entry.state.get() && (isExpired(entry, now) || 0 < idleTimeout
+                    && now - entry.lastReturnTime >= idleTimeout && idleConnections.get() > minIdle)) {
+                if (entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.REMOVED)) {
+                    idleConnections.decrementAndGet();
+                    remove(entry);
+                }
+            }
+        }
+
+        // A session that is not reset keeps its prepared handles. An idle connection is only reserved to prepare the
+        // hot statements that it does not hold yet, and stays in its place among the idle connections meanwhile.
+        if (!resetConnectionOnBorrow) {
+            for (PoolEntry entry : entries.values()) {
+                if (isClosed) {
+                    break;
+                }
+                SQLServerConnection con = entry.pooledConnection.getPhysicalConnection();
+                if (PoolEntry.IDLE != entry.state.get() || null == con || !con.getPrepareHotStatements()
+                        || !con.hasUnpreparedHotStatements()) {
+                    continue;
+                }
+                if (entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.RESERVED)) {
+                    idleConnections.decrementAndGet();
+                    if (prepareHotStatements(entry)) {
+                        addIdleEntry(entry);
+                    } else {
+                        remove(entry);
+                    }
+                }
+            }
+        }
+
+        if (!isClosed && idleConnections.get() < minIdle) {
+            try {
+                warmUp(minIdle);
+            } catch (SQLException e) {
+                if (logger.isLoggable(Level.WARNING)) {
+                    logger.warning(toString() + " could not open an idle connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens connections until the pool holds count idle connections or is full, and returns the number of connections
+     * opened. The connections are opened concurrently by up to MAX_WARM_UP_THREADS threads, and share the resolved
+     * addresses of the server and the federated authentication access token, so that the first of them resolves and
+     * acquires them while the others wait. An opened connection is idle at once, before the others are open.
+     */
+    int warmUp(int count) throws SQLException {
+        checkClosed();
+        int reserved = 0;
+        while (idleConnections.get() + reserved < count) {
+            int total = totalConnections.get();
+            if (total >= maxPoolSize) {
+                break;
+            }
+            if (totalConnections.compareAndSet(total, total + 1)) {
+                reserved++;
+            }
+        }
+        if (0 == reserved) {
+            return 0;
+        }
+
+        SharedLoginState sharedLoginState = new SharedLoginState();
+        if (1 == reserved) {
+            openIdleEntry(sharedLoginState);
+            return 1;
+        }
+
+        long id = WARM_UP_THREAD_COUNTER.getAndIncrement();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(reserved, MAX_WARM_UP_THREADS), task -> {
+            Thread t = new Thread(task, WARM_UP_THREAD_PREFIX + id + "-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<?>> futures = new ArrayList<>(reserved);
+        try {
+            for (int i = 0; i < reserved; i++) {
+                futures.add(executor.submit(() -> {
+                    openIdleEntry(sharedLoginState);
+                    return null;
+                }));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int opened = 0;
+        SQLException exception = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+                opened++;
+            } catch (InterruptedException e) {
+                // The connections that are being opened are added to the pool
+                Thread.currentThread().interrupt();
+                throw new SQLServerException(e.getMessage(), null, 0, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (null == exception) {
+                    exception = (cause instanceof SQLException) ? (SQLException) cause
+                                                                : new SQLServerException(cause.getMessage(), cause);
+                }
+            }
+        }
+        if (null != exception) {
+            throw exception;
+        }
+        return opened;
+    }
+
+    /**
+     * Opens a connection, which has been counted in totalConnections, and adds it to the idle connections after
+     * preparing the hot statements on it.
+     */
+    private void openIdleEntry(SharedLoginState sharedLoginState) throws SQLException {
+        PoolEntry entry = newEntry(PoolEntry.RESERVED, sharedLoginState);
+        if (prepareHotStatements(entry)) {
+            addIdleEntry(entry);
+        } else {
+            remove(entry);
+        }
+    }
+
+    /**
+     * Prepares the hot statements of the registry of the connection, if prepareHotStatements is on, on a reserved
+     * entry. Returns false if the connection is broken.
+     */
+    private boolean prepareHotStatements(PoolEntry entry) {
+        SQLServerConnection con = entry.pooledConnection.getPhysicalConnection();
+        try {
+            int prepared = con.prepareHotStatements();
+            if (0 < prepared && logger.isLoggable(Level.FINER)) {
+                logger.finer(toString() + " prepared " + prepared + " statements on " + entry.pooledConnection);
+            }
+            return true;
+        } catch (SQLServerException e) {
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine(toString() + " could not prepare statements on " + entry.pooledConnection + ": " + e);
+            }
+            return !con.isSessionUnAvailable();
+        }
+    }
+
+    /**
+     * Makes a reserved entry idle, at the end of the deque so that it is borrowed after the connections returned
+     * recently.
+     */
+    private void addIdleEntry(PoolEntry entry) {
+        idleConnections.incrementAndGet();
+        entry.state.set(PoolEntry.IDLE);
+        if (entry.isQueued.compareAndSet(false, true)) {
+            idleEntries.offerLast(entry);
+        }
+        signalEntryChange();
+        if (isClosed && entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.REMOVED)) {
+            idleConnections.decrementAndGet();
+            remove(entry);
+        }
+    }
+
+    int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    int getIdleConnections() {
+        return idleConnections.get();
+    }
+
+    /**
+     * Closes the idle connections and stops the housekeeping thread. Connections in use are closed when they are
+     * returned.
+     */
+    void close() {
+        isClosed = true;
+        housekeeper.shutdownNow();
+        PoolEntry entry;
+        while (null != (entry = idleEntries.pollFirst())) {
+            if (entry.state.compareAndSet(PoolEntry.IDLE, PoolEntry.REMOVED)) {
+                idleConnections.decrementAndGet();
+                remove(entry);
+            }
+        }
+        signalEntryChange();
+    }
+}
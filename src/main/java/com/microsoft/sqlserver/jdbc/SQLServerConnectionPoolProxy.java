@@ -743,4 +743,10 @@ class SQLServerConnectionPoolProxy implements ISQLServerConnection, java.io.Seri
     public void setUseBulkCopyForBatchInsert(boolean useBulkCopyForBatchInsert) {
         wrappedConnection.setUseBulkCopyForBatchInsert(useBulkCopyForBatchInsert);
     }
+
+    @Override
+    public boolean[] executePipelined(PreparedStatement... statements) throws SQLServerException {
+        checkClosed();
+        return wrappedConnection.executePipelined(statements);
+    }
 }
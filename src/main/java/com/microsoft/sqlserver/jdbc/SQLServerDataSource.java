@@ -986,6 +986,42 @@ public class SQLServerDataSource
                 defaultSize);
     }
 
+    @Override
+    public void setProcedureMetadataCacheTtl(int procedureMetadataCacheTtl) {
+        setIntProperty(connectionProps, SQLServerDriverIntProperty.PROCEDURE_METADATA_CACHE_TTL.toString(),
+                procedureMetadataCacheTtl);
+    }
+
+    @Override
+    public int getProcedureMetadataCacheTtl() {
+        return getIntProperty(connectionProps, SQLServerDriverIntProperty.PROCEDURE_METADATA_CACHE_TTL.toString(),
+                SQLServerDriverIntProperty.PROCEDURE_METADATA_CACHE_TTL.getDefaultValue());
+    }
+
+    @Override
+    public void setMaxBatchRequestSize(int maxBatchRequestSize) {
+        setIntProperty(connectionProps, SQLServerDriverIntProperty.MAX_BATCH_REQUEST_SIZE.toString(),
+                maxBatchRequestSize);
+    }
+
+    @Override
+    public int getMaxBatchRequestSize() {
+        return getIntProperty(connectionProps, SQLServerDriverIntProperty.MAX_BATCH_REQUEST_SIZE.toString(),
+                SQLServerDriverIntProperty.MAX_BATCH_REQUEST_SIZE.getDefaultValue());
+    }
+
+    @Override
+    public void setMaxBatchRequestParameters(int maxBatchRequestParameters) {
+        setIntProperty(connectionProps, SQLServerDriverIntProperty.MAX_BATCH_REQUEST_PARAMETERS.toString(),
+                maxBatchRequestParameters);
+    }
+
+    @Override
+    public int getMaxBatchRequestParameters() {
+        return getIntProperty(connectionProps, SQLServerDriverIntProperty.MAX_BATCH_REQUEST_PARAMETERS.toString(),
+                SQLServerDriverIntProperty.MAX_BATCH_REQUEST_PARAMETERS.getDefaultValue());
+    }
+
     @Override
     public void setDisableStatementPooling(boolean disableStatementPooling) {
         setBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.DISABLE_STATEMENT_POOLING.toString(),
@@ -1364,6 +1400,218 @@ public class SQLServerDataSource
                 SQLServerDriverBooleanProperty.CALC_BIG_DECIMAL_PRECISION.getDefaultValue());
     }
 
+    /**
+     * Sets the 'useDirectBuffers' setting.
+     *
+     * @param useDirectBuffers
+     *        if true, the driver reads and writes TDS packets through a socket channel using direct (off-heap) buffers
+     */
+    @Override
+    public void setUseDirectBuffers(boolean useDirectBuffers) {
+        setBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.USE_DIRECT_BUFFERS.toString(),
+                useDirectBuffers);
+    }
+
+    /**
+     * Returns the value for 'useDirectBuffers'.
+     *
+     * @return useDirectBuffers boolean value
+     */
+    @Override
+    public boolean getUseDirectBuffers() {
+        return getBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.USE_DIRECT_BUFFERS.toString(),
+                SQLServerDriverBooleanProperty.USE_DIRECT_BUFFERS.getDefaultValue());
+    }
+
+    /**
+     * Sets the 'cacheBulkCopyMetadata' setting.
+     *
+     * @param cacheBulkCopyMetadata
+     *        if true, bulk copy caches the metadata of destination tables on the connection
+     */
+    @Override
+    public void setCacheBulkCopyMetadata(boolean cacheBulkCopyMetadata) {
+        setBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.CACHE_BULK_COPY_METADATA.toString(),
+                cacheBulkCopyMetadata);
+    }
+
+    /**
+     * Returns the value for 'cacheBulkCopyMetadata'.
+     *
+     * @return cacheBulkCopyMetadata boolean value
+     */
+    @Override
+    public boolean getCacheBulkCopyMetadata() {
+        return getBooleanProperty(connectionProps,
+                SQLServerDriverBooleanProperty.CACHE_BULK_COPY_METADATA.toString(),
+                SQLServerDriverBooleanProperty.CACHE_BULK_COPY_METADATA.getDefaultValue());
+    }
+
+    /**
+     * Sets the 'useMultiRowValuesForBatchInsert' setting.
+     *
+     * @param useMultiRowValuesForBatchInsert
+     *        if true, PreparedStatement.executeBatch sends a batched INSERT ... VALUES of a single row as multi-row
+     *        INSERT statements
+     */
+    @Override
+    public void setUseMultiRowValuesForBatchInsert(boolean useMultiRowValuesForBatchInsert) {
+        setBooleanProperty(connectionProps,
+                SQLServerDriverBooleanProperty.USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT.toString(),
+                useMultiRowValuesForBatchInsert);
+    }
+
+    /**
+     * Returns the value for 'useMultiRowValuesForBatchInsert'.
+     *
+     * @return useMultiRowValuesForBatchInsert boolean value
+     */
+    @Override
+    public boolean getUseMultiRowValuesForBatchInsert() {
+        return getBooleanProperty(connectionProps,
+                SQLServerDriverBooleanProperty.USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT.toString(),
+                SQLServerDriverBooleanProperty.USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT.getDefaultValue());
+    }
+
+    /**
+     * Sets the 'useBulkCopyForBatchUpdate' setting.
+     *
+     * @param useBulkCopyForBatchUpdate
+     *        if true, PreparedStatement.executeBatch executes a batched UPDATE or DELETE by key as a single statement
+     *        joined to a temporary table of the batch parameters
+     */
+    @Override
+    public void setUseBulkCopyForBatchUpdate(boolean useBulkCopyForBatchUpdate) {
+        setBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_UPDATE.toString(),
+                useBulkCopyForBatchUpdate);
+    }
+
+    /**
+     * Returns the value for 'useBulkCopyForBatchUpdate'.
+     *
+     * @return useBulkCopyForBatchUpdate boolean value
+     */
+    @Override
+    public boolean getUseBulkCopyForBatchUpdate() {
+        return getBooleanProperty(connectionProps,
+                SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_UPDATE.toString(),
+                SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_UPDATE.getDefaultValue());
+    }
+
+    /**
+     * Sets the 'cacheSSLContext' setting.
+     *
+     * @param cacheSSLContext
+     *        if true, connections with the same encryption settings share an SSL context and its TLS sessions
+     */
+    @Override
+    public void setCacheSSLContext(boolean cacheSSLContext) {
+        setBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.CACHE_SSL_CONTEXT.toString(),
+                cacheSSLContext);
+    }
+
+    /**
+     * Returns the value for 'cacheSSLContext'.
+     *
+     * @return cacheSSLContext boolean value
+     */
+    @Override
+    public boolean getCacheSSLContext() {
+        return getBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.CACHE_SSL_CONTEXT.toString(),
+                SQLServerDriverBooleanProperty.CACHE_SSL_CONTEXT.getDefaultValue());
+    }
+
+    /**
+     * Sets the 'prepareHotStatements' setting.
+     *
+     * @param prepareHotStatements
+     *        if true, the statements prepared by several connections are prepared on the idle connections of a pool
+     */
+    @Override
+    public void setPrepareHotStatements(boolean prepareHotStatements) {
+        setBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.PREPARE_HOT_STATEMENTS.toString(),
+                prepareHotStatements);
+    }
+
+    /**
+     * Returns the value for 'prepareHotStatements'.
+     *
+     * @return prepareHotStatements boolean value
+     */
+    @Override
+    public boolean getPrepareHotStatements() {
+        return getBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.PREPARE_HOT_STATEMENTS.toString(),
+                SQLServerDriverBooleanProperty.PREPARE_HOT_STATEMENTS.getDefaultValue());
+    }
+
+    /**
+     * Sets the 'adaptivePrepare' setting.
+     *
+     * @param adaptivePrepare
+     *        if true, the connection decides when to prepare a statement from its executions in the statement pool
+     */
+    @Override
+    public void setAdaptivePrepare(boolean adaptivePrepare) {
+        setBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.ADAPTIVE_PREPARE.toString(),
+                adaptivePrepare);
+    }
+
+    /**
+     * Returns the value for 'adaptivePrepare'.
+     *
+     * @return adaptivePrepare boolean value
+     */
+    @Override
+    public boolean getAdaptivePrepare() {
+        return getBooleanProperty(connectionProps, SQLServerDriverBooleanProperty.ADAPTIVE_PREPARE.toString(),
+                SQLServerDriverBooleanProperty.ADAPTIVE_PREPARE.getDefaultValue());
+    }
+
+    /**
+     * Sets the {@link SQLServerMetrics} that receives the counters and latencies of the connection.
+     *
+     * @param metrics
+     *        the metrics
+     */
+    @Override
+    public void setMetrics(SQLServerMetrics metrics) {
+        setObjectProperty(connectionProps, SQLServerDriverObjectProperty.METRICS.toString(), metrics);
+    }
+
+    /**
+     * Returns the {@link SQLServerMetrics} that receives the counters and latencies of the connection.
+     *
+     * @return the metrics
+     */
+    @Override
+    public SQLServerMetrics getMetrics() {
+        return (SQLServerMetrics) getObjectProperty(connectionProps, SQLServerDriverObjectProperty.METRICS.toString(),
+                SQLServerDriverObjectProperty.METRICS.getDefaultValue());
+    }
+
+    /**
+     * Sets 'metricsClass' to the fully qualified class name of the implementing class for {@link SQLServerMetrics}.
+     * Connections with the same metricsClass share one instance of the class.
+     *
+     * @param metricsClass
+     *        metrics class
+     */
+    @Override
+    public void setMetricsClass(String metricsClass) {
+        setStringProperty(connectionProps, SQLServerDriverStringProperty.METRICS_CLASS.toString(), metricsClass);
+    }
+
+    /**
+     * Returns the fully qualified class name of the implementing class for {@link SQLServerMetrics}.
+     *
+     * @return metricsClass
+     */
+    @Override
+    public String getMetricsClass() {
+        return getStringProperty(connectionProps, SQLServerDriverStringProperty.METRICS_CLASS.toString(),
+                SQLServerDriverStringProperty.METRICS_CLASS.getDefaultValue());
+    }
+
     /**
      * Sets a property string value.
      *
@@ -54,7 +54,8 @@ public final class SQLServerDataSourceObjectFactory implements ObjectFactory {
             // Check that we have the expected class name inside our reference.
             if (("com.microsoft.sqlserver.jdbc.SQLServerDataSource").equals(className)
                     || ("com.microsoft.sqlserver.jdbc.SQLServerConnectionPoolDataSource").equals(className)
-                    || ("com.microsoft.sqlserver.jdbc.SQLServerXADataSource").equals(className)) {
+                    || ("com.microsoft.sqlserver.jdbc.SQLServerXADataSource").equals(className)
+                    || ("com.microsoft.sqlserver.jdbc.SQLServerPoolingDataSource").equals(className)) {
 
                 // Create class instance and initialize using reference.
                 Class<?> dataSourceClass = Class.forName(className);
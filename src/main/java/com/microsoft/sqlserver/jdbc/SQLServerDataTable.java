@@ -9,13 +9,16 @@ import java.math.BigDecimal;
 import java.text.MessageFormat;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.locks.Lock;
@@ -31,7 +34,8 @@ public final class SQLServerDataTable {
     int columnCount = 0;
     Map<Integer, SQLServerDataColumn> columnMetadata = null;
     Set<String> columnNames = null;
-    Map<Integer, Object[]> rows = null;
+    // rows in the order they were added, the index of a row is its key in getIterator()
+    List<Object[]> rows = null;
     private String tvpName = null;
     private final Lock lock = new ReentrantLock();
 
@@ -46,7 +50,7 @@ public final class SQLServerDataTable {
     public SQLServerDataTable() throws SQLServerException {
         columnMetadata = new LinkedHashMap<>();
         columnNames = new HashSet<>();
-        rows = new HashMap<>();
+        rows = new ArrayList<>();
     }
 
     /**
@@ -74,7 +78,23 @@ public final class SQLServerDataTable {
         lock.lock();
         try {
             if (null != rows) {
-                return rows.entrySet().iterator();
+                return new Iterator<Entry<Integer, Object[]>>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < rows.size();
+                    }
+
+                    @Override
+                    public Entry<Integer, Object[]> next() {
+                        if (index >= rows.size()) {
+                            throw new NoSuchElementException();
+                        }
+                        Object[] row = rows.get(index);
+                        return new AbstractMap.SimpleImmutableEntry<>(index++, row);
+                    }
+                };
             }
             return null;
         } finally {
@@ -155,7 +175,8 @@ public final class SQLServerDataTable {
                 JDBCType jdbcType = JDBCType.of(pair.getValue().javaSqlType);
                 internalAddrow(jdbcType, val, rowValues, pair);
             }
-            rows.put(rowCount++, rowValues);
+            rows.add(rowValues);
+            rowCount++;
         } catch (NumberFormatException e) {
             throw new SQLServerException(SQLServerException.getErrString("R_TVPInvalidColumnValue"), e);
         } catch (ClassCastException e) {
@@ -406,37 +427,23 @@ public final class SQLServerDataTable {
             return 0;
         }
         int h = 0;
-        for (Entry<Integer, Object[]> entry : rows.entrySet()) {
-            h += entry.getKey() ^ Arrays.hashCode(entry.getValue());
+        for (int i = 0; i < rows.size(); i++) {
+            h += i ^ Arrays.hashCode(rows.get(i));
         }
         return h;
     }
 
-    private boolean compareRows(Map<Integer, Object[]> otherRows) {
+    private boolean compareRows(List<Object[]> otherRows) {
         if (rows == otherRows) {
             return true;
         }
         if (rows.size() != otherRows.size()) {
             return false;
         }
-        try {
-            for (Entry<Integer, Object[]> e : rows.entrySet()) {
-                Integer key = e.getKey();
-                Object[] value = e.getValue();
-                if (null == value) {
-                    if (!(null == otherRows.get(key) && otherRows.containsKey(key))) {
-                        return false;
-                    }
-                } else {
-                    if (!Arrays.equals(value, otherRows.get(key))) {
-                        return false;
-                    }
-                }
+        for (int i = 0; i < rows.size(); i++) {
+            if (!Arrays.equals(rows.get(i), otherRows.get(i))) {
+                return false;
             }
-        } catch (ClassCastException unused) {
-            return false;
-        } catch (NullPointerException unused) {
-            return false;
         }
         return true;
     }
@@ -504,7 +504,8 @@ enum DatetimeType {
 
 enum SQLServerDriverObjectProperty {
     GSS_CREDENTIAL("gsscredential", null),
-    ACCESS_TOKEN_CALLBACK("accessTokenCallback", null);
+    ACCESS_TOKEN_CALLBACK("accessTokenCallback", null),
+    METRICS("metrics", null);
 
     private final String name;
     private final String defaultValue;
@@ -610,7 +611,8 @@ enum SQLServerDriverStringProperty {
     ENCRYPT("encrypt", EncryptOption.TRUE.toString()),
     SERVER_CERTIFICATE("serverCertificate", ""),
     DATETIME_DATATYPE("datetimeParameterType", DatetimeType.DATETIME2.toString()),
-    ACCESS_TOKEN_CALLBACK_CLASS("accessTokenCallbackClass", "");
+    ACCESS_TOKEN_CALLBACK_CLASS("accessTokenCallbackClass", ""),
+    METRICS_CLASS("metricsClass", "");
 
     private final String name;
     private final String defaultValue;
@@ -642,7 +644,10 @@ enum SQLServerDriverIntProperty {
     STATEMENT_POOLING_CACHE_SIZE("statementPoolingCacheSize", SQLServerConnection.DEFAULT_STATEMENT_POOLING_CACHE_SIZE),
     CANCEL_QUERY_TIMEOUT("cancelQueryTimeout", -1),
     CONNECT_RETRY_COUNT("connectRetryCount", 1, 0, 255),
-    CONNECT_RETRY_INTERVAL("connectRetryInterval", 10, 1, 60);
+    CONNECT_RETRY_INTERVAL("connectRetryInterval", 10, 1, 60),
+    PROCEDURE_METADATA_CACHE_TTL("procedureMetadataCacheTtl", 0),
+    MAX_BATCH_REQUEST_SIZE("maxBatchRequestSize", 0),
+    MAX_BATCH_REQUEST_PARAMETERS("maxBatchRequestParameters", 0);
 
     private final String name;
     private final int defaultValue;
@@ -698,7 +703,14 @@ enum SQLServerDriverBooleanProperty {
     USE_DEFAULT_JAAS_CONFIG("useDefaultJaasConfig", false),
     USE_DEFAULT_GSS_CREDENTIAL("useDefaultGSSCredential", false),
     USE_FLEXIBLE_CALLABLE_STATEMENTS("useFlexibleCallableStatements", true),
-    CALC_BIG_DECIMAL_PRECISION("calcBigDecimalPrecision", false);
+    CALC_BIG_DECIMAL_PRECISION("calcBigDecimalPrecision", false),
+    USE_DIRECT_BUFFERS("useDirectBuffers", false),
+    CACHE_BULK_COPY_METADATA("cacheBulkCopyMetadata", false),
+    USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT("useMultiRowValuesForBatchInsert", false),
+    USE_BULK_COPY_FOR_BATCH_UPDATE("useBulkCopyForBatchUpdate", false),
+    CACHE_SSL_CONTEXT("cacheSSLContext", false),
+    PREPARE_HOT_STATEMENTS("prepareHotStatements", false),
+    ADAPTIVE_PREPARE("adaptivePrepare", false);
 
     private final String name;
     private final boolean defaultValue;
@@ -855,6 +867,11 @@ public final class SQLServerDriver implements java.sql.Driver {
                     SQLServerDriverObjectProperty.ACCESS_TOKEN_CALLBACK.getDefaultValue(), false, null),
             new SQLServerDriverPropertyInfo(SQLServerDriverStringProperty.ACCESS_TOKEN_CALLBACK_CLASS.toString(),
                     SQLServerDriverStringProperty.ACCESS_TOKEN_CALLBACK_CLASS.getDefaultValue(), false, null),
+            // Metrics need to be in list for the same reason as the callback above.
+            new SQLServerDriverPropertyInfo(SQLServerDriverObjectProperty.METRICS.toString(),
+                    SQLServerDriverObjectProperty.METRICS.getDefaultValue(), false, null),
+            new SQLServerDriverPropertyInfo(SQLServerDriverStringProperty.METRICS_CLASS.toString(),
+                    SQLServerDriverStringProperty.METRICS_CLASS.getDefaultValue(), false, null),
             new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.REPLICATION.toString(),
                     Boolean.toString(SQLServerDriverBooleanProperty.REPLICATION.getDefaultValue()), false, TRUE_FALSE),
             new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.SEND_TIME_AS_DATETIME.toString(),
@@ -901,6 +918,15 @@ public final class SQLServerDriver implements java.sql.Driver {
             new SQLServerDriverPropertyInfo(SQLServerDriverIntProperty.STATEMENT_POOLING_CACHE_SIZE.toString(),
                     Integer.toString(SQLServerDriverIntProperty.STATEMENT_POOLING_CACHE_SIZE.getDefaultValue()), false,
                     null),
+            new SQLServerDriverPropertyInfo(SQLServerDriverIntProperty.PROCEDURE_METADATA_CACHE_TTL.toString(),
+                    Integer.toString(SQLServerDriverIntProperty.PROCEDURE_METADATA_CACHE_TTL.getDefaultValue()), false,
+                    null),
+            new SQLServerDriverPropertyInfo(SQLServerDriverIntProperty.MAX_BATCH_REQUEST_SIZE.toString(),
+                    Integer.toString(SQLServerDriverIntProperty.MAX_BATCH_REQUEST_SIZE.getDefaultValue()), false,
+                    null),
+            new SQLServerDriverPropertyInfo(SQLServerDriverIntProperty.MAX_BATCH_REQUEST_PARAMETERS.toString(),
+                    Integer.toString(SQLServerDriverIntProperty.MAX_BATCH_REQUEST_PARAMETERS.getDefaultValue()), false,
+                    null),
             new SQLServerDriverPropertyInfo(SQLServerDriverStringProperty.JAAS_CONFIG_NAME.toString(),
                     SQLServerDriverStringProperty.JAAS_CONFIG_NAME.getDefaultValue(), false, null),
             new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.USE_DEFAULT_JAAS_CONFIG.toString(),
@@ -909,6 +935,29 @@ public final class SQLServerDriver implements java.sql.Driver {
             new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.CALC_BIG_DECIMAL_PRECISION.toString(),
                     Boolean.toString(SQLServerDriverBooleanProperty.CALC_BIG_DECIMAL_PRECISION.getDefaultValue()),
                     false, TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.USE_DIRECT_BUFFERS.toString(),
+                    Boolean.toString(SQLServerDriverBooleanProperty.USE_DIRECT_BUFFERS.getDefaultValue()), false,
+                    TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.CACHE_BULK_COPY_METADATA.toString(),
+                    Boolean.toString(SQLServerDriverBooleanProperty.CACHE_BULK_COPY_METADATA.getDefaultValue()), false,
+                    TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(
+                    SQLServerDriverBooleanProperty.USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT.toString(),
+                    Boolean.toString(
+                            SQLServerDriverBooleanProperty.USE_MULTI_ROW_VALUES_FOR_BATCH_INSERT.getDefaultValue()),
+                    false, TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_UPDATE.toString(),
+                    Boolean.toString(SQLServerDriverBooleanProperty.USE_BULK_COPY_FOR_BATCH_UPDATE.getDefaultValue()),
+                    false, TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.CACHE_SSL_CONTEXT.toString(),
+                    Boolean.toString(SQLServerDriverBooleanProperty.CACHE_SSL_CONTEXT.getDefaultValue()), false,
+                    TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.PREPARE_HOT_STATEMENTS.toString(),
+                    Boolean.toString(SQLServerDriverBooleanProperty.PREPARE_HOT_STATEMENTS.getDefaultValue()), false,
+                    TRUE_FALSE),
+            new SQLServerDriverPropertyInfo(SQLServerDriverBooleanProperty.ADAPTIVE_PREPARE.toString(),
+                    Boolean.toString(SQLServerDriverBooleanProperty.ADAPTIVE_PREPARE.getDefaultValue()), false,
+                    TRUE_FALSE),
             new SQLServerDriverPropertyInfo(SQLServerDriverStringProperty.SSL_PROTOCOL.toString(),
                     SQLServerDriverStringProperty.SSL_PROTOCOL.getDefaultValue(), false,
                     new String[] {SSLProtocol.TLS.toString(), SSLProtocol.TLS_V10.toString(),
@@ -965,7 +1014,9 @@ public final class SQLServerDriver implements java.sql.Driver {
             new SQLServerDriverPropertyInfo(SQLServerDriverStringProperty.ACCESS_TOKEN.toString(),
                     SQLServerDriverStringProperty.ACCESS_TOKEN.getDefaultValue(), false, null),
             new SQLServerDriverPropertyInfo(SQLServerDriverObjectProperty.GSS_CREDENTIAL.toString(),
-                    SQLServerDriverObjectProperty.GSS_CREDENTIAL.getDefaultValue(), false, null),};
+                    SQLServerDriverObjectProperty.GSS_CREDENTIAL.getDefaultValue(), false, null),
+            new SQLServerDriverPropertyInfo(SQLServerDriverObjectProperty.METRICS.toString(),
+                    SQLServerDriverObjectProperty.METRICS.getDefaultValue(), false, null),};
 
     private static final String[][] driverPropertiesSynonyms = {
             {"database", SQLServerDriverStringProperty.DATABASE_NAME.toString()},
@@ -1108,6 +1159,8 @@ public final class SQLServerDriver implements java.sql.Driver {
                 } else if ("accessTokenCallback".equalsIgnoreCase(newname)
                         && (props.get(name) instanceof SQLServerAccessTokenCallback)) {
                     fixedup.put(newname, props.get(name));
+                } else if ("metrics".equalsIgnoreCase(newname) && (props.get(name) instanceof SQLServerMetrics)) {
+                    fixedup.put(newname, props.get(name));
                 } else {
                     MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidpropertyValue"));
                     Object[] msgArgs = {name};
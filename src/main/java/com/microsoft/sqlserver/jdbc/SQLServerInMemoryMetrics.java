@@ -0,0 +1,169 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Keeps metrics in memory, for reading by the application or for logging.
+ *
+ * Counters are kept in {@link LongAdder}s. Each histogram counts its values in 64 buckets of powers of two: bucket 0
+ * holds the values below 1 and bucket i the values from 2^(i-1) to 2^i - 1, so percentiles are reported as the upper
+ * bound of their bucket, within a factor of two of the recorded value.
+ */
+public final class SQLServerInMemoryMetrics implements SQLServerMetrics {
+    private static final int BUCKET_COUNT = 64;
+
+    private final LongAdder[] counters = new LongAdder[Counter.values().length];
+    private final HistogramValues[] histograms = new HistogramValues[Histogram.values().length];
+
+    private static final class HistogramValues {
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        final LongAdder count = new LongAdder();
+        final LongAdder sum = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++)
+                buckets.set(i, 0);
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+
+    /**
+     * Constructs metrics with all values zero.
+     */
+    public SQLServerInMemoryMetrics() {
+        for (int i = 0; i < counters.length; i++)
+            counters[i] = new LongAdder();
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new HistogramValues();
+    }
+
+    @Override
+    public void increment(Counter counter, long delta) {
+        counters[counter.ordinal()].add(delta);
+    }
+
+    @Override
+    public void record(Histogram histogram, long value) {
+        HistogramValues values = histograms[histogram.ordinal()];
+        values.buckets.incrementAndGet(bucketOf(value));
+        values.count.increment();
+        values.sum.add(value);
+        values.max.accumulate(value);
+    }
+
+    /**
+     * Returns the value of a counter.
+     *
+     * @param counter
+     *        the counter
+     * @return the sum of the increments of the counter
+     */
+    public long getCount(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of values recorded in a histogram.
+     *
+     * @param histogram
+     *        the histogram
+     * @return the number of values
+     */
+    public long getCount(Histogram histogram) {
+        return histograms[histogram.ordinal()].count.sum();
+    }
+
+    /**
+     * Returns the sum of the values recorded in a histogram.
+     *
+     * @param histogram
+     *        the histogram
+     * @return the sum of the values
+     */
+    public long getSum(Histogram histogram) {
+        return histograms[histogram.ordinal()].sum.sum();
+    }
+
+    /**
+     * Returns the largest value recorded in a histogram.
+     *
+     * @param histogram
+     *        the histogram
+     * @return the largest value, or 0 if no value was recorded
+     */
+    public long getMax(Histogram histogram) {
+        long max = histograms[histogram.ordinal()].max.get();
+        return Long.MIN_VALUE == max ? 0 : max;
+    }
+
+    /**
+     * Returns an upper bound of a percentile of the values recorded in a histogram.
+     *
+     * @param histogram
+     *        the histogram
+     * @param percentile
+     *        the percentile, from 0 to 100
+     * @return the upper bound of the bucket that holds the percentile, or 0 if no value was recorded
+     */
+    public long getPercentile(Histogram histogram, double percentile) {
+        AtomicLongArray buckets = histograms[histogram.ordinal()].buckets;
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            total += buckets.get(i);
+        if (0 == total)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank)
+                return upperBoundOf(i);
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Sets all counters and histograms back to zero. Values recorded concurrently with a reset may be lost.
+     */
+    public void reset() {
+        for (LongAdder counter : counters)
+            counter.reset();
+        for (HistogramValues values : histograms)
+            values.reset();
+    }
+
+    private static int bucketOf(long value) {
+        return value <= 0 ? 0 : BUCKET_COUNT - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long upperBoundOf(int bucket) {
+        return 0 == bucket ? 0 : (BUCKET_COUNT - 1 == bucket ? Long.MAX_VALUE : (1L << bucket) - 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SQLServerInMemoryMetrics[");
+        for (Counter counter : Counter.values()) {
+            sb.append(counter).append('=').append(getCount(counter)).append(", ");
+        }
+        for (Histogram histogram : Histogram.values()) {
+            sb.append(histogram).append("={count=").append(getCount(histogram)).append(", sum=")
+                    .append(getSum(histogram)).append(", p50=").append(getPercentile(histogram, 50)).append(", p99=")
+                    .append(getPercentile(histogram, 99)).append(", max=").append(getMax(histogram)).append("}, ");
+        }
+        sb.setLength(sb.length() - 2);
+        return sb.append(']').toString();
+    }
+}
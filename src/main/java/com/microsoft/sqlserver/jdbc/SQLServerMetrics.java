@@ -0,0 +1,114 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+/**
+ * Receives counters and latencies of the connection, statement and I/O paths of the driver.
+ *
+ * An implementation is set on a connection with the metrics property or with the class name in the metricsClass
+ * property. The driver calls it on the thread that performs the operation, so implementations must be thread safe and
+ * must not block. {@link SQLServerInMemoryMetrics} is a simple implementation that keeps the values in memory.
+ */
+public interface SQLServerMetrics {
+
+    /**
+     * Counted events.
+     */
+    enum Counter {
+        /** TDS packets written to the server */
+        PACKETS_SENT,
+
+        /** Bytes of the TDS packets written to the server, including packet headers */
+        BYTES_SENT,
+
+        /** TDS packets read from the server */
+        PACKETS_RECEIVED,
+
+        /** Bytes of the TDS packets read from the server, including packet headers */
+        BYTES_RECEIVED,
+
+        /** Packet buffers allocated because none was free in the packet pool of the connection */
+        PACKET_BUFFERS_ALLOCATED,
+
+        /** Packet buffers taken from the packet pool of the connection */
+        PACKET_BUFFERS_REUSED,
+
+        /** Responses buffered in memory so that the connection could execute another command */
+        RESPONSES_BUFFERED,
+
+        /** Prepared statement handles found in the handle cache of the connection */
+        PREPARED_HANDLE_CACHE_HITS,
+
+        /** Prepared statement handles looked up in the handle cache of the connection and not found */
+        PREPARED_HANDLE_CACHE_MISSES,
+
+        /** Prepared statement handles evicted from the handle cache of the connection */
+        PREPARED_HANDLE_CACHE_EVICTIONS,
+
+        /** Attempts to reconnect a broken idle connection */
+        RECONNECT_ATTEMPTS,
+
+        /** Attempts to reconnect a broken idle connection that failed */
+        RECONNECT_FAILURES
+    }
+
+    /**
+     * Recorded distributions.
+     */
+    enum Histogram {
+        /**
+         * Nanoseconds to execute a command, from acquiring the connection to the start of its response, not including
+         * the wait for other commands on the connection
+         */
+        EXECUTE_NANOS,
+
+        /** Number of handles un-prepared by a batch of sp_unprepare calls */
+        UNPREPARE_BATCH_SIZE,
+
+        /** Nanoseconds to open the socket to the server, including name resolution */
+        LOGIN_SOCKET_NANOS,
+
+        /** Nanoseconds of the prelogin exchange */
+        LOGIN_PRELOGIN_NANOS,
+
+        /** Nanoseconds of the TLS handshake */
+        LOGIN_TLS_NANOS,
+
+        /** Nanoseconds of the login exchange, including authentication and the initial settings */
+        LOGIN_LOGIN7_NANOS
+    }
+
+    /**
+     * Metrics that discard all values, used when a connection has no metrics set.
+     */
+    SQLServerMetrics NO_OP = new SQLServerMetrics() {
+        @Override
+        public void increment(Counter counter, long delta) {}
+
+        @Override
+        public void record(Histogram histogram, long value) {}
+    };
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter
+     *        the counter
+     * @param delta
+     *        the amount to add
+     */
+    void increment(Counter counter, long delta);
+
+    /**
+     * Records a value of a distribution.
+     *
+     * @param histogram
+     *        the distribution
+     * @param value
+     *        the value
+     */
+    void record(Histogram histogram, long value);
+}
@@ -0,0 +1,702 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.text.MessageFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import javax.sql.DataSource;
+
+
+/**
+ * Bulk loads a table over several connections at once. The rows of the source are read on the calling thread and
+ * handed out in chunks to a number of streams, each of which copies the rows it receives with its own
+ * {@link SQLServerBulkCopy} over its own connection from the supplied DataSource.
+ *
+ * Concurrent streams speed up loads into heaps and partitioned tables, for which the server can insert the rows of
+ * several bulk loads in parallel. The order of the rows is not preserved across streams. With the TableLock option,
+ * the streams take bulk update locks, which are compatible with each other on a heap but not on a table with a
+ * clustered index, where the streams effectively run one at a time.
+ *
+ * The bulk copy options apply to each stream, so BatchSize is the number of rows per batch of each stream. Since the
+ * streams run on connections that are not owned by a SQLServerBulkCopy, the UseInternalTransaction option is not
+ * supported.
+ *
+ * If a stream fails, no more rows are read from the source and the other streams end their bulk loads with the rows
+ * they received so far, which are committed. The exception thrown by writeToServer has the exceptions of all failed
+ * streams chained to it.
+ */
+public class SQLServerParallelBulkCopy {
+    /** Number of rows handed to a stream at a time */
+    static final int ROWS_PER_CHUNK = 1000;
+
+    /** Interval at which threads waiting for chunks check whether the copy was aborted */
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private static final String loggerClassName = "com.microsoft.sqlserver.jdbc.SQLServerParallelBulkCopy";
+
+    private static final java.util.logging.Logger loggerExternal = java.util.logging.Logger
+            .getLogger(loggerClassName);
+
+    private final DataSource dataSource;
+    private final int streamCount;
+
+    private String destinationTableName;
+    private SQLServerBulkCopyOptions copyOptions = new SQLServerBulkCopyOptions();
+
+    /** Column mappings as source and destination pairs of Integer ordinals or String names */
+    private final List<Object[]> columnMappings = new ArrayList<>();
+
+    /** Rows handed to the streams by the current or last writeToServer */
+    private final AtomicLong rowsCopied = new AtomicLong();
+
+    /**
+     * Constructs a SQLServerParallelBulkCopy that copies over connections from the supplied DataSource.
+     *
+     * @param dataSource
+     *        DataSource for the destination server. Each stream gets its own connection from it.
+     * @param streamCount
+     *        Number of concurrent streams, and so of connections.
+     * @throws SQLServerException
+     *         If the dataSource is null or streamCount is not positive.
+     */
+    public SQLServerParallelBulkCopy(DataSource dataSource, int streamCount) throws SQLServerException {
+        if (null == dataSource) {
+            throwInvalidArgument("dataSource");
+        } else if (0 >= streamCount) {
+            throwInvalidArgument("streamCount");
+        }
+        this.dataSource = dataSource;
+        this.streamCount = streamCount;
+    }
+
+    /**
+     * Returns the number of concurrent streams.
+     *
+     * @return Number of streams.
+     */
+    public int getStreamCount() {
+        return streamCount;
+    }
+
+    /**
+     * Returns the name of the destination table on the server.
+     *
+     * @return Destination table name.
+     */
+    public String getDestinationTableName() {
+        return destinationTableName;
+    }
+
+    /**
+     * Sets the name of the destination table on the server.
+     *
+     * @param tableName
+     *        Destination table name.
+     * @throws SQLServerException
+     *         If the table name is null or empty.
+     */
+    public void setDestinationTableName(String tableName) throws SQLServerException {
+        if (null == tableName || 0 == tableName.trim().length()) {
+            throwInvalidArgument("tableName");
+        }
+        destinationTableName = tableName.trim();
+    }
+
+    /**
+     * Returns the bulk copy options that apply to each stream.
+     *
+     * @return Current SQLServerBulkCopyOptions settings.
+     */
+    public SQLServerBulkCopyOptions getBulkCopyOptions() {
+        return copyOptions;
+    }
+
+    /**
+     * Sets the bulk copy options that apply to each stream, if the supplied options are not null.
+     *
+     * @param copyOptions
+     *        Settings to change how the streams copy their rows.
+     * @throws SQLServerException
+     *         If the UseInternalTransaction option is specified.
+     */
+    public void setBulkCopyOptions(SQLServerBulkCopyOptions copyOptions) throws SQLServerException {
+        if (null != copyOptions) {
+            if (copyOptions.isUseInternalTransaction()) {
+                SQLServerException.makeFromDriverError(null, null,
+                        SQLServerException.getErrString("R_invalidTransactionOption"), null, false);
+            }
+            this.copyOptions = copyOptions;
+        }
+    }
+
+    /**
+     * Adds a new column mapping, using ordinals to specify both the source and destination columns.
+     *
+     * @param sourceColumn
+     *        Source column ordinal.
+     * @param destinationColumn
+     *        Destination column ordinal.
+     * @throws SQLServerException
+     *         If the column mapping is invalid
+     */
+    public void addColumnMapping(int sourceColumn, int destinationColumn) throws SQLServerException {
+        if (0 >= sourceColumn) {
+            throwInvalidArgument("sourceColumn");
+        } else if (0 >= destinationColumn) {
+            throwInvalidArgument("destinationColumn");
+        }
+        columnMappings.add(new Object[] {sourceColumn, destinationColumn});
+    }
+
+    /**
+     * Adds a new column mapping, using an ordinal for the source column and a string for the destination column.
+     *
+     * @param sourceColumn
+     *        Source column ordinal.
+     * @param destinationColumn
+     *        Destination column name.
+     * @throws SQLServerException
+     *         If the column mapping is invalid
+     */
+    public void addColumnMapping(int sourceColumn, String destinationColumn) throws SQLServerException {
+        if (0 >= sourceColumn) {
+            throwInvalidArgument("sourceColumn");
+        } else if (null == destinationColumn || destinationColumn.isEmpty()) {
+            throwInvalidArgument("destinationColumn");
+        }
+        columnMappings.add(new Object[] {sourceColumn, destinationColumn});
+    }
+
+    /**
+     * Adds a new column mapping, using a column name to describe the source column and an ordinal to specify the
+     * destination column.
+     *
+     * @param sourceColumn
+     *        Source column name.
+     * @param destinationColumn
+     *        Destination column ordinal.
+     * @throws SQLServerException
+     *         If the column mapping is invalid
+     */
+    public void addColumnMapping(String sourceColumn, int destinationColumn) throws SQLServerException {
+        if (0 >= destinationColumn) {
+            throwInvalidArgument("destinationColumn");
+        } else if (null == sourceColumn || sourceColumn.isEmpty()) {
+            throwInvalidArgument("sourceColumn");
+        }
+        columnMappings.add(new Object[] {sourceColumn, destinationColumn});
+    }
+
+    /**
+     * Adds a new column mapping, using column names to specify both source and destination columns.
+     *
+     * @param sourceColumn
+     *        Source column name.
+     * @param destinationColumn
+     *        Destination column name.
+     * @throws SQLServerException
+     *         If the column mapping is invalid
+     */
+    public void addColumnMapping(String sourceColumn, String destinationColumn) throws SQLServerException {
+        if (null == sourceColumn || sourceColumn.isEmpty()) {
+            throwInvalidArgument("sourceColumn");
+        } else if (null == destinationColumn || destinationColumn.isEmpty()) {
+            throwInvalidArgument("destinationColumn");
+        }
+        columnMappings.add(new Object[] {sourceColumn, destinationColumn});
+    }
+
+    /**
+     * Clears the contents of the column mappings
+     */
+    public void clearColumnMappings() {
+        columnMappings.clear();
+    }
+
+    /**
+     * Returns the number of rows handed to the streams by the current or last writeToServer. This may be called from
+     * another thread to follow the progress of a copy. Rows handed to a stream that failed may not have been
+     * committed.
+     *
+     * @return Number of rows copied.
+     */
+    public long getRowsCopied() {
+        return rowsCopied.get();
+    }
+
+    /**
+     * Copies all rows in the supplied ResultSet to the destination table, over all streams.
+     *
+     * @param sourceData
+     *        ResultSet to read data rows from.
+     * @throws SQLServerException
+     *         If reading the source fails, or if any of the streams fails. The exceptions of the failed streams are
+     *         chained to the thrown exception.
+     */
+    public void writeToServer(ResultSet sourceData) throws SQLServerException {
+        loggerExternal.entering(loggerClassName, "writeToServer");
+
+        if (null == sourceData) {
+            throwInvalidArgument("sourceData");
+        }
+        copy(new ResultSetSource(sourceData));
+
+        loggerExternal.exiting(loggerClassName, "writeToServer");
+    }
+
+    /**
+     * Copies all rows from the supplied ISQLServerBulkData to the destination table, over all streams.
+     *
+     * @param sourceData
+     *        ISQLServerBulkData to read data rows from.
+     * @throws SQLServerException
+     *         If reading the source fails, or if any of the streams fails. The exceptions of the failed streams are
+     *         chained to the thrown exception.
+     */
+    public void writeToServer(ISQLServerBulkData sourceData) throws SQLServerException {
+        loggerExternal.entering(loggerClassName, "writeToServer");
+
+        if (null == sourceData) {
+            throwInvalidArgument("sourceData");
+        }
+        copy(sourceData);
+
+        loggerExternal.exiting(loggerClassName, "writeToServer");
+    }
+
+    /**
+     * Starts the streams, reads the source into chunks for them, and waits for them to finish.
+     */
+    private void copy(ISQLServerBulkData sourceData) throws SQLServerException {
+        if (null == destinationTableName) {
+            SQLServerException.makeFromDriverError(null, null,
+                    SQLServerException.getErrString("R_invalidDestinationTable"), null, false);
+        }
+
+        rowsCopied.set(0);
+        ChunkQueue chunks = new ChunkQueue(2 * streamCount);
+        SQLException[] streamFailures = new SQLException[streamCount];
+        CountDownLatch streamsDone = new CountDownLatch(streamCount);
+
+        for (int i = 0; i < streamCount; i++) {
+            final int stream = i;
+            StreamData streamData = new StreamData(sourceData, chunks);
+            AsyncExecutor.getDefault().execute(() -> {
+                try {
+                    copyStream(streamData);
+                } catch (SQLException | RuntimeException e) {
+                    if (loggerExternal.isLoggable(Level.FINER)) {
+                        loggerExternal.finer(toString() + " Stream " + stream + " failed: " + e);
+                    }
+                    streamFailures[stream] = (e instanceof SQLException) ? (SQLException) e
+                                                                           : new SQLServerException(e.getMessage(), e);
+                    chunks.abort();
+                } finally {
+                    streamsDone.countDown();
+                }
+            });
+        }
+
+        SQLServerException sourceFailure = null;
+        try {
+            readSource(sourceData, chunks);
+        } catch (SQLException e) {
+            chunks.abort();
+            sourceFailure = new SQLServerException(SQLServerException.getErrString("R_unableRetrieveSourceData"), e);
+        } catch (InterruptedException e) {
+            // re-interrupt the current thread, in order to restore the thread's interrupt status.
+            Thread.currentThread().interrupt();
+            chunks.abort();
+            sourceFailure = new SQLServerException(e.getMessage(), e);
+        } finally {
+            chunks.close();
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                streamsDone.await();
+                break;
+            } catch (InterruptedException e) {
+                // The streams stop at their next chunk, wait for them so that no connection is left in use
+                chunks.abort();
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        throwOnFailures(sourceFailure, streamFailures);
+    }
+
+    /**
+     * Reads the rows of the source into chunks until the source is exhausted or the copy is aborted.
+     */
+    private void readSource(ISQLServerBulkData sourceData,
+            ChunkQueue chunks) throws SQLException, InterruptedException {
+        int rowLength = 0;
+        for (Integer ordinal : sourceData.getColumnOrdinals()) {
+            rowLength = Math.max(rowLength, ordinal);
+        }
+
+        Object[][] chunk = new Object[ROWS_PER_CHUNK][];
+        int rows = 0;
+        while (!chunks.isAborted() && sourceData.next()) {
+            // Sources may reuse their row array, and rows are read by SQLServerBulkCopy by source ordinal
+            Object[] row = new Object[rowLength];
+            Object[] rowData = sourceData.getRowData();
+            System.arraycopy(rowData, 0, row, 0, Math.min(rowLength, rowData.length));
+            chunk[rows++] = row;
+
+            if (ROWS_PER_CHUNK == rows) {
+                if (!chunks.put(chunk))
+                    return;
+                rowsCopied.addAndGet(rows);
+                chunk = new Object[ROWS_PER_CHUNK][];
+                rows = 0;
+            }
+        }
+
+        if (0 < rows) {
+            Object[][] lastChunk = new Object[rows][];
+            System.arraycopy(chunk, 0, lastChunk, 0, rows);
+            if (chunks.put(lastChunk))
+                rowsCopied.addAndGet(rows);
+        }
+    }
+
+    /**
+     * Copies the rows of one stream over its own connection.
+     */
+    private void copyStream(StreamData streamData) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(
+                    connection.isWrapperFor(ISQLServerConnection.class) ? connection
+                            .unwrap(ISQLServerConnection.class) : connection)) {
+                bulkCopy.setDestinationTableName(destinationTableName);
+                bulkCopy.setBulkCopyOptions(copyOptions);
+                for (Object[] mapping : columnMappings) {
+                    addColumnMapping(bulkCopy, mapping[0], mapping[1]);
+                }
+
+                // Streams that start after the source is exhausted have nothing to copy
+                if (streamData.hasRows()) {
+                    bulkCopy.writeToServer(streamData);
+                }
+            }
+        }
+    }
+
+    private static void addColumnMapping(SQLServerBulkCopy bulkCopy, Object source,
+            Object destination) throws SQLServerException {
+        if (source instanceof Integer) {
+            if (destination instanceof Integer) {
+                bulkCopy.addColumnMapping((Integer) source, (Integer) destination);
+            } else {
+                bulkCopy.addColumnMapping((Integer) source, (String) destination);
+            }
+        } else {
+            if (destination instanceof Integer) {
+                bulkCopy.addColumnMapping((String) source, (Integer) destination);
+            } else {
+                bulkCopy.addColumnMapping((String) source, (String) destination);
+            }
+        }
+    }
+
+    private void throwOnFailures(SQLServerException sourceFailure,
+            SQLException[] streamFailures) throws SQLServerException {
+        int failedStreams = 0;
+        SQLException firstFailure = null;
+        for (SQLException streamFailure : streamFailures) {
+            if (null != streamFailure) {
+                failedStreams++;
+                if (null == firstFailure)
+                    firstFailure = streamFailure;
+            }
+        }
+
+        SQLServerException e = sourceFailure;
+        if (null == e && 0 < failedStreams) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_parallelBulkCopyFailed"));
+            Object[] msgArgs = {failedStreams, streamCount};
+            e = new SQLServerException(form.format(msgArgs), firstFailure);
+        }
+        if (null == e)
+            return;
+
+        for (SQLException streamFailure : streamFailures) {
+            if (null != streamFailure)
+                e.setNextException(streamFailure);
+        }
+        throw e;
+    }
+
+    private static void throwInvalidArgument(String argument) throws SQLServerException {
+        MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+        Object[] msgArgs = {argument};
+        SQLServerException.makeFromDriverError(null, null, form.format(msgArgs), null, false);
+    }
+
+    /**
+     * Bounded queue of row chunks, shared by the reading thread and the streams.
+     */
+    private static final class ChunkQueue {
+        private final BlockingQueue<Object[][]> queue;
+
+        /** Set when no more chunks will be added */
+        private volatile boolean closed = false;
+
+        /** Set when the copy failed, after which the streams end and no more chunks are added */
+        private volatile boolean aborted = false;
+
+        ChunkQueue(int capacity) {
+            queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Adds a chunk, waiting for room in the queue. Returns false if the copy was aborted.
+         */
+        boolean put(Object[][] chunk) throws InterruptedException {
+            while (!aborted) {
+                if (queue.offer(chunk, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS))
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Returns the next chunk, waiting for one to be added, or null if there are no more chunks or the copy was
+         * aborted.
+         */
+        Object[][] take() throws InterruptedException {
+            while (!aborted) {
+                Object[][] chunk = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (null != chunk)
+                    return aborted ? null : chunk;
+                if (closed && queue.isEmpty())
+                    return null;
+            }
+            return null;
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        void abort() {
+            aborted = true;
+        }
+
+        boolean isAborted() {
+            return aborted;
+        }
+    }
+
+    /**
+     * The rows of one stream, as taken from the shared queue, with the column metadata of the source.
+     */
+    static final class StreamData implements ISQLServerBulkData {
+        /**
+         * Always update serialVersionUID when prompted.
+         */
+        private static final long serialVersionUID = 5064735623493036414L;
+
+        private final Set<Integer> columnOrdinals;
+        private final String[] columnNames;
+        private final int[] columnTypes;
+        private final int[] precisions;
+        private final int[] scales;
+        private final DateTimeFormatter[] dateTimeFormatters;
+
+        private final transient ChunkQueue chunks;
+        private transient Object[][] chunk;
+        private int rowInChunk;
+
+        StreamData(ISQLServerBulkData source, ChunkQueue chunks) {
+            this.columnOrdinals = new LinkedHashSet<>(source.getColumnOrdinals());
+            int rowLength = 0;
+            for (Integer ordinal : columnOrdinals) {
+                rowLength = Math.max(rowLength, ordinal);
+            }
+
+            columnNames = new String[rowLength + 1];
+            columnTypes = new int[rowLength + 1];
+            precisions = new int[rowLength + 1];
+            scales = new int[rowLength + 1];
+            dateTimeFormatters = new DateTimeFormatter[rowLength + 1];
+            for (Integer ordinal : columnOrdinals) {
+                columnNames[ordinal] = source.getColumnName(ordinal);
+                columnTypes[ordinal] = source.getColumnType(ordinal);
+                precisions[ordinal] = source.getPrecision(ordinal);
+                scales[ordinal] = source.getScale(ordinal);
+                dateTimeFormatters[ordinal] = SQLServerBulkCopy.getColumnDateTimeFormatter(source, ordinal);
+            }
+            this.chunks = chunks;
+        }
+
+        /**
+         * Waits for the first chunk of the stream, and returns whether there is one.
+         */
+        boolean hasRows() throws SQLServerException {
+            if (null == chunk) {
+                chunk = takeChunk();
+                rowInChunk = -1;
+            }
+            return null != chunk;
+        }
+
+        DateTimeFormatter getColumnDateTimeFormatter(int column) {
+            return dateTimeFormatters[column];
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return columnOrdinals;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return columnTypes[column];
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return precisions[column];
+        }
+
+        @Override
+        public int getScale(int column) {
+            return scales[column];
+        }
+
+        @Override
+        public Object[] getRowData() {
+            return chunk[rowInChunk];
+        }
+
+        @Override
+        public boolean next() throws SQLServerException {
+            if (!hasRows())
+                return false;
+            if (++rowInChunk < chunk.length)
+                return true;
+
+            chunk = takeChunk();
+            rowInChunk = 0;
+            return null != chunk;
+        }
+
+        private Object[][] takeChunk() throws SQLServerException {
+            try {
+                return chunks.take();
+            } catch (InterruptedException e) {
+                // re-interrupt the current thread, in order to restore the thread's interrupt status.
+                Thread.currentThread().interrupt();
+                chunks.abort();
+                throw new SQLServerException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Presents a ResultSet as an ISQLServerBulkData, so that its rows can be read into chunks.
+     */
+    private static final class ResultSetSource implements ISQLServerBulkData {
+        /**
+         * Always update serialVersionUID when prompted.
+         */
+        private static final long serialVersionUID = -2254796377622958283L;
+
+        private final transient ResultSet resultSet;
+        private final Set<Integer> columnOrdinals = new LinkedHashSet<>();
+        private final String[] columnNames;
+        private final int[] columnTypes;
+        private final int[] precisions;
+        private final int[] scales;
+
+        ResultSetSource(ResultSet resultSet) throws SQLServerException {
+            this.resultSet = resultSet;
+            try {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                columnNames = new String[columnCount + 1];
+                columnTypes = new int[columnCount + 1];
+                precisions = new int[columnCount + 1];
+                scales = new int[columnCount + 1];
+                for (int i = 1; i <= columnCount; i++) {
+                    columnOrdinals.add(i);
+                    columnNames[i] = metaData.getColumnName(i);
+                    columnTypes[i] = metaData.getColumnType(i);
+                    precisions[i] = metaData.getPrecision(i);
+                    scales[i] = metaData.getScale(i);
+                }
+            } catch (SQLException e) {
+                throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveColMeta"), e);
+            }
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return columnOrdinals;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return columnTypes[column];
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return precisions[column];
+        }
+
+        @Override
+        public int getScale(int column) {
+            return scales[column];
+        }
+
+        @Override
+        public Object[] getRowData() throws SQLException {
+            Object[] row = new Object[columnOrdinals.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            return row;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            return resultSet.next();
+        }
+    }
+}
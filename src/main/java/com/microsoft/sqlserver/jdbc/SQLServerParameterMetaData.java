@@ -75,7 +75,7 @@ public final class SQLServerParameterMetaData implements ParameterMetaData {
     }
 
     /* Used for prepared statement meta data */
-    class QueryMeta {
+    static class QueryMeta {
         String parameterClassName = null;
         int parameterType = 0;
         String parameterTypeName = null;
@@ -294,6 +294,12 @@ public final class SQLServerParameterMetaData implements ParameterMetaData {
             // If the CallableStatement/PreparedStatement is a stored procedure call
             // then we can extract metadata using sp_sproc_columns
             if (null != st.procedureName) {
+                procMetadata = getCachedMetadata(ProcedureMetadataCache.Kind.PROCEDURE_PARAMETERS, st.procedureName);
+                if (null != procMetadata) {
+                    procedureIsFound = true;
+                    return;
+                }
+
                 String sProc = parseProcIdentifier(st.procedureName);
                 try (SQLServerStatement s = (SQLServerStatement) con.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE,
                         ResultSet.CONCUR_READ_ONLY);
@@ -336,6 +342,11 @@ public final class SQLServerParameterMetaData implements ParameterMetaData {
                         procMetadata.add(map);
                     }
                 }
+
+                if (procedureIsFound) {
+                    ProcedureMetadataCache.put(con, ProcedureMetadataCache.Kind.PROCEDURE_PARAMETERS,
+                            st.procedureName, procMetadata);
+                }
             }
 
             // Otherwise we just have a parameterized statement.
@@ -348,10 +359,18 @@ public final class SQLServerParameterMetaData implements ParameterMetaData {
                     String preparedSQL = con.replaceParameterMarkers(stmtParent.userSQL,
                             stmtParent.userSQLParamPositions, stmtParent.inOutParam, stmtParent.bReturnValueSyntax);
 
-                    try (SQLServerCallableStatement cstmt = (SQLServerCallableStatement) con
-                            .prepareCall("exec sp_describe_undeclared_parameters ?")) {
-                        cstmt.setNString(1, preparedSQL);
-                        parseQueryMeta(cstmt.executeQueryInternal());
+                    Map<Integer, QueryMeta> cachedQueryMetaMap = getCachedMetadata(
+                            ProcedureMetadataCache.Kind.QUERY_PARAMETERS, stmtParent.userSQL);
+                    if (null != cachedQueryMetaMap) {
+                        queryMetaMap = cachedQueryMetaMap;
+                    } else {
+                        try (SQLServerCallableStatement cstmt = (SQLServerCallableStatement) con
+                                .prepareCall("exec sp_describe_undeclared_parameters ?")) {
+                            cstmt.setNString(1, preparedSQL);
+                            parseQueryMeta(cstmt.executeQueryInternal());
+                        }
+                        ProcedureMetadataCache.put(con, ProcedureMetadataCache.Kind.QUERY_PARAMETERS,
+                                stmtParent.userSQL, queryMetaMap);
                     }
                 } else {
                     SQLServerFMTQuery f = new SQLServerFMTQuery(sProcString);
@@ -370,6 +389,15 @@ public final class SQLServerParameterMetaData implements ParameterMetaData {
         }
     }
 
+    /**
+     * Returns metadata from the procedure metadata cache, or null if it is not cached. Cached metadata is shared with
+     * other instances and must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getCachedMetadata(ProcedureMetadataCache.Kind kind, String name) {
+        return (T) ProcedureMetadataCache.get(con, kind, name);
+    }
+
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
         return iface.isInstance(this);
@@ -14,6 +14,7 @@ import java.util.ListIterator;
 import java.util.Stack;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.Token;
 
 
@@ -142,6 +143,193 @@ final class SQLServerParser {
         }
     }
 
+    /*
+     * Returns the offsets in sql of the row of an INSERT ... VALUES statement that inserts a single row, from its
+     * opening bracket to after its closing bracket, or null if sql is any other statement. Statements with an OUTPUT
+     * clause, and statements followed by other statements, are not matched.
+     */
+    static int[] getInsertValuesRowRange(String sql) {
+        // Token offsets count code points
+        if (null == sql || sql.length() != sql.codePointCount(0, sql.length())) {
+            return null;
+        }
+
+        List<? extends Token> tokens = getTokens(sql);
+        if (tokens.isEmpty() || tokens.get(0).getType() != SQLServerLexer.INSERT) {
+            return null;
+        }
+
+        int rowStart = -1;
+        for (int i = 1; i < tokens.size() && -1 == rowStart; i++) {
+            switch (tokens.get(i).getType()) {
+                case SQLServerLexer.OUTPUT:
+                case SQLServerLexer.SELECT:
+                case SQLServerLexer.EXECUTE:
+                    return null;
+                case SQLServerLexer.VALUES:
+                    rowStart = i + 1;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (-1 == rowStart || rowStart >= tokens.size()
+                || tokens.get(rowStart).getType() != SQLServerLexer.LR_BRACKET) {
+            return null;
+        }
+
+        int depth = 0;
+        int rowEnd = rowStart;
+        do {
+            int type = tokens.get(rowEnd).getType();
+            if (type == SQLServerLexer.LR_BRACKET) {
+                depth++;
+            } else if (type == SQLServerLexer.RR_BRACKET) {
+                depth--;
+            }
+        } while (0 < depth && ++rowEnd < tokens.size());
+        if (0 < depth) {
+            return null;
+        }
+
+        // Only semicolons may follow the row
+        for (int i = rowEnd + 1; i < tokens.size(); i++) {
+            if (tokens.get(i).getType() != SQLServerLexer.SEMI) {
+                return null;
+            }
+        }
+        return new int[] {tokens.get(rowStart).getStartIndex(), tokens.get(rowEnd).getStopIndex() + 1};
+    }
+
+    /*
+     * An UPDATE or DELETE of a single table, where every parameter is either assigned to a column in SET or compared
+     * to a key column in WHERE.
+     */
+    static final class KeyedUpdate {
+        final boolean isDelete;
+        final String tableName;
+        // the column of each parameter, in the order of the parameters
+        final List<String> columns = new ArrayList<>();
+        // whether the column of each parameter is a key column of the WHERE clause
+        final List<Boolean> isKey = new ArrayList<>();
+
+        private KeyedUpdate(boolean isDelete, String tableName) {
+            this.isDelete = isDelete;
+            this.tableName = tableName;
+        }
+    }
+
+    /*
+     * Returns sql as a KeyedUpdate if it is a statement of the form
+     *
+     * UPDATE table SET column = ? [, column = ?]... WHERE key = ? [AND key = ?]...
+     *
+     * DELETE [FROM] table WHERE key = ? [AND key = ?]...
+     *
+     * or null if it is any other statement, or an UPDATE that assigns to one of its key columns.
+     */
+    static KeyedUpdate getKeyedUpdate(String sql) {
+        if (null == sql) {
+            return null;
+        }
+        List<? extends Token> tokens = getTokens(sql);
+        int end = tokens.size();
+        while (0 < end && tokens.get(end - 1).getType() == SQLServerLexer.SEMI) {
+            end--;
+        }
+        if (0 == end) {
+            return null;
+        }
+
+        int i = 1;
+        boolean isDelete = tokens.get(0).getType() == SQLServerLexer.DELETE;
+        if (isDelete) {
+            if (i < end && tokens.get(i).getType() == SQLServerLexer.FROM) {
+                i++;
+            }
+        } else if (tokens.get(0).getType() != SQLServerLexer.UPDATE) {
+            return null;
+        }
+
+        // the table name has up to four parts
+        StringBuilder tableName = new StringBuilder();
+        for (int parts = 0; parts < 4 && i < end && isIdentifier(tokens.get(i)); parts++) {
+            tableName.append(tokens.get(i++).getText());
+            if (i + 1 < end && tokens.get(i).getType() == SQLServerLexer.DOT) {
+                tableName.append(tokens.get(i++).getText());
+            } else {
+                break;
+            }
+        }
+        if (0 == tableName.length() || tableName.charAt(tableName.length() - 1) == '.') {
+            return null;
+        }
+
+        KeyedUpdate update = new KeyedUpdate(isDelete, tableName.toString());
+        if (!isDelete) {
+            if (i >= end || tokens.get(i++).getType() != SQLServerLexer.SET) {
+                return null;
+            }
+            i = getParameterColumns(tokens, i, end, SQLServerLexer.COMMA, update, false);
+        }
+        if (0 > i || i >= end || tokens.get(i++).getType() != SQLServerLexer.WHERE) {
+            return null;
+        }
+        if (getParameterColumns(tokens, i, end, SQLServerLexer.AND, update, true) != end) {
+            return null;
+        }
+
+        for (int j = 0; j < update.columns.size(); j++) {
+            for (int k = 0; k < update.columns.size(); k++) {
+                if (update.isKey.get(j) && !update.isKey.get(k)
+                        && unquoteIdentifier(update.columns.get(j)).equalsIgnoreCase(
+                                unquoteIdentifier(update.columns.get(k)))) {
+                    return null;
+                }
+            }
+        }
+        return update;
+    }
+
+    /*
+     * Adds the columns of a list of "column = ?" separated by separator that starts at tokens[start], and returns the
+     * index of the token after the list.
+     */
+    private static int getParameterColumns(List<? extends Token> tokens, int start, int end, int separator,
+            KeyedUpdate update, boolean isKey) {
+        int i = start;
+        while (i + 2 < end && isIdentifier(tokens.get(i)) && tokens.get(i + 1).getType() == SQLServerLexer.EQUAL
+                && tokens.get(i + 2).getType() == SQLServerLexer.PARAMETER) {
+            update.columns.add(tokens.get(i).getText());
+            update.isKey.add(isKey);
+            i += 3;
+            if (i + 1 < end && tokens.get(i).getType() == separator) {
+                i++;
+            } else {
+                return i;
+            }
+        }
+        // an empty list, or a list that ends in a separator
+        return -1;
+    }
+
+    private static boolean isIdentifier(Token t) {
+        return t.getType() == SQLServerLexer.ID || t.getType() == SQLServerLexer.SQUARE_LITERAL
+                || t.getType() == SQLServerLexer.DOUBLE_LITERAL;
+    }
+
+    private static String unquoteIdentifier(String identifier) {
+        char first = identifier.charAt(0);
+        return (first == '[' || first == '"') ? identifier.substring(1, identifier.length() - 1) : identifier;
+    }
+
+    private static List<? extends Token> getTokens(String sql) {
+        SQLServerLexer lexer = new SQLServerLexer(CharStreams.fromString(sql));
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(new SQLServerErrorListener());
+        return lexer.getAllTokens();
+    }
+
     static void resetIteratorIndex(SQLServerTokenIterator iter, int index) {
         if (iter.nextIndex() < index) {
             while (iter.nextIndex() != index) {
@@ -45,6 +45,9 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
     /** factory password */
     private String factoryUser, factoryPassword;
 
+    /** login state shared with the connections opened together with this one, while the connection is opened */
+    private transient SharedLoginState sharedLoginState;
+
     /** logger */
     private transient java.util.logging.Logger pcLogger;
 
@@ -61,6 +64,11 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
     private final transient Lock listenersLock = new ReentrantLock();
 
     SQLServerPooledConnection(SQLServerDataSource ds, String user, String password) throws SQLException {
+        this(ds, user, password, null);
+    }
+
+    SQLServerPooledConnection(SQLServerDataSource ds, String user, String password,
+            SharedLoginState sharedLoginState) throws SQLException {
         listeners = new Vector<>();
         traceID = getClass().getSimpleName() + ':' + nextPooledConnectionID();
         // Piggyback SQLServerDataSource logger for now.
@@ -74,7 +82,13 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
         if (pcLogger.isLoggable(Level.FINER))
             pcLogger.finer(toString() + " Start create new connection for pool.");
 
-        physicalConnection = createNewConnection();
+        // Reconnects do not use the shared state
+        this.sharedLoginState = sharedLoginState;
+        try {
+            physicalConnection = createNewConnection();
+        } finally {
+            this.sharedLoginState = null;
+        }
         if (pcLogger.isLoggable(Level.FINE))
             pcLogger.fine(toString() + " created by (" + ds.toString() + ")" + " Physical connection " + safeCID()
                     + ", End create new connection for pool");
@@ -109,6 +123,20 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
      */
     @Override
     public Connection getConnection() throws SQLException {
+        return getConnection(true);
+    }
+
+    /**
+     * Returns an object handle for the physical connection, resetting the session state left by the last handle unless
+     * resetConnection is false. The session reset also releases the prepared statement handles of the connection.
+     *
+     * @param resetConnection
+     *        whether to reset the session state left by the last handle
+     * @throws SQLException
+     *         when an error occurs
+     * @return a Connection object that is a handle to this PooledConnection object
+     */
+    Connection getConnection(boolean resetConnection) throws SQLException {
         if (pcLogger.isLoggable(Level.FINER))
             pcLogger.finer(toString() + " user:(default).");
         lock.lock();
@@ -138,7 +166,9 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
              */
             if (null != lastProxyConnection) {
                 // if there was a last proxy connection send reset
-                physicalConnection.resetPooledConnection();
+                if (resetConnection) {
+                    physicalConnection.resetPooledConnection();
+                }
 
                 if (!lastProxyConnection.isClosed()) {
                     if (pcLogger.isLoggable(Level.FINE)) {
@@ -272,6 +302,10 @@ public class SQLServerPooledConnection implements PooledConnection, Serializable
         throw new UnsupportedOperationException(SQLServerException.getErrString("R_notSupported"));
     }
 
+    SharedLoginState getSharedLoginState() {
+        return sharedLoginState;
+    }
+
     // Returns internal physical connection to caller.
     SQLServerConnection getPhysicalConnection() {
         return physicalConnection;
@@ -0,0 +1,415 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Enumeration;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+import javax.naming.Reference;
+import javax.naming.StringRefAddr;
+
+
+/**
+ * Provides pooled connections to applications that do not use an external connection pool. The first call to
+ * getConnection starts the pool with the pool settings of the data source, later changes of the settings do not apply
+ * to a started pool. Closing a connection returns its physical connection to the pool, and {@link #close()} closes the
+ * pool.
+ *
+ * The pool opens its minimum number of idle connections concurrently when it starts, and {@link #warmUp(int)} opens
+ * more connections ahead of demand.
+ *
+ * A connection is not validated when it is borrowed. By default the session state left by the previous borrower is
+ * reset with the first request sent on the connection, which also releases the prepared statement handles of the
+ * connection. When the reset is turned off with {@link #setResetConnectionOnBorrow(boolean)}, the prepared statement
+ * handles are reused across borrows, and only the auto-commit mode, the transaction isolation level and the database
+ * of the connection are restored when it is returned.
+ */
+public class SQLServerPoolingDataSource extends SQLServerConnectionPoolDataSource implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_POOL_SIZE = 10;
+    private static final long DEFAULT_MAX_LIFETIME = 1800000;
+    private static final long DEFAULT_IDLE_TIMEOUT = 600000;
+    private static final long DEFAULT_BORROW_TIMEOUT = 30000;
+
+    private int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+    private int minIdle = 0;
+    private int maxIdle = -1;
+    private long maxLifetime = DEFAULT_MAX_LIFETIME;
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private long borrowTimeout = DEFAULT_BORROW_TIMEOUT;
+    private boolean resetConnectionOnBorrow = true;
+
+    private transient volatile SQLServerConnectionPool pool;
+
+    /** reentrant lock for starting the pool */
+    private final transient Lock lock = new ReentrantLock();
+
+    /**
+     * default constructor
+     */
+    public SQLServerPoolingDataSource() {
+        // default constructor
+    }
+
+    /**
+     * Borrows a connection from the pool, and starts the pool on the first call.
+     */
+    @Override
+    public Connection getConnection() throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "getConnection");
+        Connection con;
+        try {
+            con = getPool().getConnection();
+        } catch (SQLServerException e) {
+            throw e;
+        } catch (SQLException e) {
+            throw new SQLServerException(e.getMessage(), e);
+        }
+        loggerExternal.exiting(getClassNameLogging(), "getConnection", con);
+        return con;
+    }
+
+    /**
+     * Not supported, the pool only holds connections of the user and password of the data source.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLServerException {
+        SQLServerException.makeFromDriverError(null, null, SQLServerException.getErrString("R_notSupported"), null,
+                true);
+        return null;
+    }
+
+    /**
+     * Opens connections concurrently until the pool holds count idle connections or is full, and starts the pool if it
+     * is not started. The connections share the resolved addresses of the server and the federated authentication
+     * access token, so that the pool reaches its size in about the time of one login.
+     *
+     * @param count
+     *        the number of idle connections
+     * @return the number of connections opened
+     * @throws SQLServerException
+     *         if a connection could not be opened, after the other connections are opened
+     */
+    public int warmUp(int count) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "warmUp", count);
+        int opened;
+        try {
+            opened = getPool().warmUp(count);
+        } catch (SQLServerException e) {
+            throw e;
+        } catch (SQLException e) {
+            throw new SQLServerException(e.getMessage(), e);
+        }
+        loggerExternal.exiting(getClassNameLogging(), "warmUp", opened);
+        return opened;
+    }
+
+    private SQLServerConnectionPool getPool() throws SQLServerException {
+        SQLServerConnectionPool p = pool;
+        if (null == p) {
+            lock.lock();
+            try {
+                p = pool;
+                if (null == p) {
+                    p = new SQLServerConnectionPool(this);
+                    pool = p;
+                    if (dsLogger.isLoggable(Level.FINE))
+                        dsLogger.fine(toString() + " started " + p.toString());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Closes the pool. Idle connections are closed at once and connections in use when they are returned.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (null != pool) {
+                pool.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the maximum number of connections of the pool.
+     *
+     * @param maxPoolSize
+     *        the maximum number of connections, 10 by default
+     */
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * Returns the maximum number of connections of the pool.
+     *
+     * @return the maximum number of connections
+     */
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Sets the minimum number of idle connections, which the pool opens in the background when it starts and after
+     * connections are closed.
+     *
+     * @param minIdle
+     *        the minimum number of idle connections, 0 by default
+     */
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    /**
+     * Returns the minimum number of idle connections.
+     *
+     * @return the minimum number of idle connections
+     */
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * Sets the maximum number of idle connections. A connection that is returned when the pool holds this many idle
+     * connections is closed.
+     *
+     * @param maxIdle
+     *        the maximum number of idle connections, or a negative value for the maximum pool size, which is the
+     *        default
+     */
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns the maximum number of idle connections.
+     *
+     * @return the maximum number of idle connections, or a negative value for the maximum pool size
+     */
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * Sets the time after which a connection is closed instead of being borrowed or returned.
+     *
+     * @param maxLifetime
+     *        the maximum lifetime of a connection in milliseconds, or 0 for no limit. 30 minutes by default.
+     */
+    public void setMaxLifetime(long maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+
+    /**
+     * Returns the maximum lifetime of a connection.
+     *
+     * @return the maximum lifetime of a connection in milliseconds
+     */
+    public long getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    /**
+     * Sets the time after which an idle connection beyond the minimum number of idle connections is closed.
+     *
+     * @param idleTimeout
+     *        the idle timeout in milliseconds, or 0 for no timeout. 10 minutes by default.
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns the idle timeout.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets how long getConnection waits for a connection when all connections of the pool are in use.
+     *
+     * @param borrowTimeout
+     *        the time to wait in milliseconds, 30 seconds by default
+     */
+    public void setBorrowTimeout(long borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    /**
+     * Returns how long getConnection waits for a connection when all connections of the pool are in use.
+     *
+     * @return the time to wait in milliseconds
+     */
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    /**
+     * Sets whether the session state of a connection is reset when it is borrowed again.
+     *
+     * @param resetConnectionOnBorrow
+     *        if true, which is the default, temporary tables, SET options and the prepared statement handles of the
+     *        previous borrower are released with the first request of the next borrower. If false, they are kept, so
+     *        that prepared statements do not need to be prepared again, and the auto-commit mode, the transaction
+     *        isolation level and the database are restored when the connection is returned.
+     */
+    public void setResetConnectionOnBorrow(boolean resetConnectionOnBorrow) {
+        this.resetConnectionOnBorrow = resetConnectionOnBorrow;
+    }
+
+    /**
+     * Returns whether the session state of a connection is reset when it is borrowed again.
+     *
+     * @return resetConnectionOnBorrow boolean value
+     */
+    public boolean getResetConnectionOnBorrow() {
+        return resetConnectionOnBorrow;
+    }
+
+    /**
+     * Returns the number of open connections of the pool, idle or in use.
+     *
+     * @return the number of connections, 0 if the pool is not started
+     */
+    public int getTotalConnections() {
+        SQLServerConnectionPool p = pool;
+        return (null != p) ? p.getTotalConnections() : 0;
+    }
+
+    /**
+     * Returns the number of idle connections of the pool.
+     *
+     * @return the number of idle connections, 0 if the pool is not started
+     */
+    public int getIdleConnections() {
+        SQLServerConnectionPool p = pool;
+        return (null != p) ? p.getIdleConnections() : 0;
+    }
+
+    // Implement javax.naming.Referenceable interface methods.
+
+    @Override
+    public Reference getReference() {
+        if (loggerExternal.isLoggable(Level.FINER))
+            loggerExternal.entering(getClassNameLogging(), "getReference");
+        Reference ref = getReferenceInternal("com.microsoft.sqlserver.jdbc.SQLServerPoolingDataSource");
+        if (loggerExternal.isLoggable(Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getReference", ref);
+        return ref;
+    }
+
+    @Override
+    Reference getReferenceInternal(String dataSourceClassString) {
+        Reference ref = super.getReferenceInternal(dataSourceClassString);
+        ref.add(new StringRefAddr("maxPoolSize", Integer.toString(maxPoolSize)));
+        ref.add(new StringRefAddr("minIdle", Integer.toString(minIdle)));
+        ref.add(new StringRefAddr("maxIdle", Integer.toString(maxIdle)));
+        ref.add(new StringRefAddr("maxLifetime", Long.toString(maxLifetime)));
+        ref.add(new StringRefAddr("idleTimeout", Long.toString(idleTimeout)));
+        ref.add(new StringRefAddr("borrowTimeout", Long.toString(borrowTimeout)));
+        ref.add(new StringRefAddr("resetConnectionOnBorrow", Boolean.toString(resetConnectionOnBorrow)));
+        return ref;
+    }
+
+    /**
+     * Initializes the pool settings from the reference, and the data source from the other properties.
+     */
+    @Override
+    void initializeFromReference(Reference ref) {
+        Reference dataSourceRef = new Reference(ref.getClassName(), ref.getFactoryClassName(), null);
+        Enumeration<?> e = ref.getAll();
+        while (e.hasMoreElements()) {
+            StringRefAddr addr = (StringRefAddr) e.nextElement();
+            String propertyValue = (String) addr.getContent();
+            switch (addr.getType()) {
+                case "maxPoolSize":
+                    maxPoolSize = Integer.parseInt(propertyValue);
+                    break;
+                case "minIdle":
+                    minIdle = Integer.parseInt(propertyValue);
+                    break;
+                case "maxIdle":
+                    maxIdle = Integer.parseInt(propertyValue);
+                    break;
+                case "maxLifetime":
+                    maxLifetime = Long.parseLong(propertyValue);
+                    break;
+                case "idleTimeout":
+                    idleTimeout = Long.parseLong(propertyValue);
+                    break;
+                case "borrowTimeout":
+                    borrowTimeout = Long.parseLong(propertyValue);
+                    break;
+                case "resetConnectionOnBorrow":
+                    resetConnectionOnBorrow = Boolean.parseBoolean(propertyValue);
+                    break;
+                default:
+                    dataSourceRef.add(addr);
+            }
+        }
+        super.initializeFromReference(dataSourceRef);
+    }
+
+    /**
+     * writeReplace
+     *
+     * @return serialization proxy object
+     * @throws java.io.ObjectStreamException
+     *         if error
+     */
+    private Object writeReplace() throws java.io.ObjectStreamException {
+        return new SerializationProxy(this);
+    }
+
+    /**
+     * For added security/robustness, the only way to rehydrate a serialized SQLServerDataSource is to use a
+     * SerializationProxy. Direct use of readObject() is not supported.
+     *
+     * @param stream
+     *        input stream
+     * @throws java.io.InvalidObjectException
+     *         if error
+     */
+    private void readObject(java.io.ObjectInputStream stream) throws java.io.InvalidObjectException {
+        throw new java.io.InvalidObjectException("");
+    }
+
+    /**
+     * Implements java.io.Serializable the same way as {@link SQLServerDataSource}. A deserialized data source has the
+     * pool settings, but not the connections, of the serialized one.
+     */
+    private static class SerializationProxy implements java.io.Serializable {
+        private final Reference ref;
+        private static final long serialVersionUID = 3176527358112394720L;
+
+        SerializationProxy(SQLServerPoolingDataSource ds) {
+            // We do not need the class name so pass null, serialization mechanism
+            // stores the class info.
+            ref = ds.getReferenceInternal(null);
+        }
+
+        private Object readResolve() {
+            SQLServerPoolingDataSource ds = new SQLServerPoolingDataSource();
+            ds.initializeFromReference(ref);
+            return ds;
+        }
+    }
+}
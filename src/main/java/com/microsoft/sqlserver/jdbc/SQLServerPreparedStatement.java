@@ -23,11 +23,15 @@ import java.sql.SQLXML;
 import java.sql.Statement;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.UUID;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.regex.Pattern;
 
@@ -65,6 +69,12 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
     /** batch statement delimiter */
     static final int NBATCH_STATEMENT_DELIMITER = BATCH_STATEMENT_DELIMITER_TDS_72;
 
+    /** Maximum number of rows of a VALUES clause */
+    private static final int MAX_ROWS_PER_INSERT = 1000;
+
+    /** Maximum number of user parameters of a statement, the 2100 of a request less those of sp_prepexec */
+    private static final int MAX_PARAMETERS_PER_INSERT = 2097;
+
     /** The prepared type definitions */
     private String preparedTypeDefinitions;
 
@@ -95,6 +105,10 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
     /** Reference to cache item for statement handle pooling. Only used to decrement ref count on statement close. */
     private transient PreparedStatementHandle cachedPreparedStatementHandle;
 
+    /** Execution statistics of preparedSQL with adaptivePrepare, and the type definitions they were looked up for */
+    private transient PrepareStatistics prepareStatistics;
+    private transient String prepareStatisticsTypeDefinitions;
+
     /** Hash of user supplied SQL statement used for various cache lookups */
     private CityHash128Key sqlTextCacheKey;
 
@@ -138,6 +152,29 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
      */
     private boolean useBulkCopyForBatchInsert;
 
+    /**
+     * boolean value for deciding if the driver should send batched single row inserts as multi-row inserts
+     */
+    private boolean useMultiRowValuesForBatchInsert;
+
+    /** offsets of the VALUES row in userSQL, null if userSQL cannot be sent as a multi-row insert */
+    private int[] insertValuesRowRange;
+
+    /** flag indicating whether insertValuesRowRange has been parsed */
+    private boolean isInsertValuesRowRangeParsed;
+
+    /**
+     * boolean value for deciding if the driver should execute batched updates and deletes by key through a temporary
+     * table
+     */
+    private boolean useBulkCopyForBatchUpdate;
+
+    /** userSQL as an UPDATE or DELETE by key, null if it is any other statement */
+    private SQLServerParser.KeyedUpdate keyedUpdate;
+
+    /** flag indicating whether keyedUpdate has been parsed */
+    private boolean isKeyedUpdateParsed;
+
     /**
      * Regex for JDBC 'call' escape syntax
      */
@@ -294,6 +331,8 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         userSQLParamPositions = parsedSQL.parameterPositions;
         initParams(userSQLParamPositions.length);
         useBulkCopyForBatchInsert = conn.getUseBulkCopyForBatchInsert();
+        useMultiRowValuesForBatchInsert = conn.getUseMultiRowValuesForBatchInsert();
+        useBulkCopyForBatchUpdate = conn.getUseBulkCopyForBatchUpdate();
     }
 
     /**
@@ -582,6 +621,34 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         return updateCount;
     }
 
+    @Override
+    public CompletableFuture<java.sql.ResultSet> executeQueryAsync() throws SQLServerException {
+        return executeQueryAsync(AsyncExecutor.getDefault());
+    }
+
+    @Override
+    public CompletableFuture<java.sql.ResultSet> executeQueryAsync(Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeQueryAsync");
+        checkClosed();
+        CompletableFuture<java.sql.ResultSet> future = executeAsync(() -> executeQuery(), executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeQueryAsync", future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync() throws SQLServerException {
+        return executeUpdateAsync(AsyncExecutor.getDefault());
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync(Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeUpdateAsync");
+        checkClosed();
+        CompletableFuture<Integer> future = executeAsync(() -> executeUpdate(), executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeUpdateAsync", future);
+        return future;
+    }
+
     @Override
     public boolean execute() throws SQLServerException, SQLTimeoutException {
         loggerExternal.entering(getClassNameLogging(), "execute");
@@ -688,14 +755,20 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
                 // Start the request and detach the response reader so that we can
                 // continue using it after we return.
                 TDSWriter tdsWriter = command.startRequest(TDS.PKT_RPC);
+                long startNanos = System.nanoTime();
 
                 needsPrepare = doPrepExec(tdsWriter, inOutParam, hasNewTypeDefinitions, hasExistingTypeDefinitions,
-                        command);
+                        command, 1 < attempt);
 
                 ensureExecuteResultsReader(command.startResponse(getIsResponseBufferingAdaptive()));
                 startResults();
                 getNextResult(true);
+
+                if (null != prepareStatistics) {
+                    prepareStatistics.onLatency(System.nanoTime() - startNanos);
+                }
             } catch (SQLException e) {
+                ProcedureMetadataCache.invalidateOnError(connection, procedureName, userSQL, e.getErrorCode());
                 if (retryBasedOnFailedReuseOfCachedHandle(e, attempt, needsPrepare, false)) {
                     continue;
                 } else if (!inRetry && connection.doesServerSupportEnclaveRetry()) {
@@ -737,6 +810,115 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
                 && connection.isStatementPoolingEnabled();
     }
 
+    /**
+     * Prepared statement exec command for pipelined execution through SQLServerConnection.executePipelined. Executing
+     * the command only sends its request; the response is read through readPipelinedResponse once the requests of the
+     * rest of the pipeline have been sent.
+     *
+     * The command has no query timeout and is not exposed to Statement.cancel(), since an attention signal sent while
+     * later requests are queued on the server could be acknowledged in the response to any of them.
+     */
+    final class PrepStmtPipelineCmd extends TDSCommand {
+        /**
+         * Always update serialVersionUID when prompted.
+         */
+        private static final long serialVersionUID = -2716549354726389462L;
+
+        /** The command whose request was sent just before this one, if any */
+        private final PrepStmtPipelineCmd previous;
+
+        /** Whether the request prepared the statement rather than reusing a prepared handle */
+        private boolean needsPrepare = true;
+
+        PrepStmtPipelineCmd(PrepStmtPipelineCmd previous) {
+            super(SQLServerPreparedStatement.this.toString() + " executePipelined", 0, 0);
+            this.previous = previous;
+            executeMethod = EXECUTE;
+        }
+
+        final boolean doExecute() throws SQLServerException {
+            try {
+                needsPrepare = sendPipelinedRequest(this);
+            } catch (SQLServerException e) {
+                // The responses to the requests already sent precede any response to this one on the wire, so buffer
+                // them before this command is closed out.
+                if (null != previous) {
+                    try {
+                        previous.detachPipeline();
+                    } catch (SQLServerException detachException) {
+                        if (getStatementLogger().isLoggable(Level.FINE))
+                            getStatementLogger().fine(toString() + " Failed to detach pipelined commands: "
+                                    + detachException.getMessage());
+                    }
+                }
+                throw e;
+            }
+            return false;
+        }
+
+        /**
+         * Buffers the responses to this command and to every command sent before it in the pipeline, in the order in
+         * which the server returns them.
+         */
+        private void detachPipeline() throws SQLServerException {
+            if (null != previous)
+                previous.detachPipeline();
+            detach();
+        }
+
+        @Override
+        final void processResponse(TDSReader tdsReader) throws SQLServerException {
+            ensureExecuteResultsReader(tdsReader);
+            processExecuteResults();
+        }
+    }
+
+    /**
+     * Sends the request of a pipelined execution without reading the response.
+     *
+     * @return whether the request prepared the statement
+     */
+    private boolean sendPipelinedRequest(PrepStmtPipelineCmd command) throws SQLServerException {
+        resetForReexecute();
+
+        if (loggerExternal.isLoggable(Level.FINER) && Util.isActivityTraceOn()) {
+            loggerExternal.finer(toString() + ACTIVITY_ID + ActivityCorrelator.getCurrent().toString());
+        }
+
+        boolean hasExistingTypeDefinitions = preparedTypeDefinitions != null;
+        boolean hasNewTypeDefinitions = buildPreparedStrings(inOutParam, false);
+        if (reuseCachedHandle(hasNewTypeDefinitions, false)) {
+            hasNewTypeDefinitions = false;
+        }
+
+        TDSWriter tdsWriter = command.startRequest(TDS.PKT_RPC);
+        boolean needsPrepare = doPrepExec(tdsWriter, inOutParam, hasNewTypeDefinitions, hasExistingTypeDefinitions,
+                command, false);
+        command.endRequest();
+        return needsPrepare;
+    }
+
+    /**
+     * Reads the response of a pipelined execution up to the first result.
+     *
+     * @return true if the first result is a ResultSet
+     */
+    final boolean readPipelinedResponse(PrepStmtPipelineCmd command) throws SQLServerException {
+        try {
+            ensureExecuteResultsReader(command.startResponse(getIsResponseBufferingAdaptive()));
+            startResults();
+            getNextResult(true);
+        } catch (SQLServerException e) {
+            // Unlike doExecutePreparedStatement, a request that failed to re-use a cached handle cannot be retried in
+            // place. Just discard the handle so that the next execution prepares the statement again.
+            if (retryBasedOnFailedReuseOfCachedHandle(e, 1, command.needsPrepare, false)) {
+                reuseCachedHandle(false, true);
+            }
+            throw e;
+        }
+        return null != resultSet;
+    }
+
     /**
      * Consumes the OUT parameter for the statement object itself.
      *
@@ -770,9 +952,10 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
 
                 // Cache the reference to the newly created handle, NOT for cursorable handles.
                 if (null == cachedPreparedStatementHandle && !isCursorable(executeMethod)) {
-                    cachedPreparedStatementHandle = connection.registerCachedPreparedStatementHandle(
-                            new CityHash128Key(preparedSQL, preparedTypeDefinitions), prepStmtHandle,
-                            executedSqlDirectly);
+                    CityHash128Key key = new CityHash128Key(preparedSQL, preparedTypeDefinitions);
+                    cachedPreparedStatementHandle = connection.registerCachedPreparedStatementHandle(key,
+                            prepStmtHandle, executedSqlDirectly);
+                    connection.recordPreparedStatement(key, preparedSQL, preparedTypeDefinitions);
                 }
 
                 param.skipValue(tdsReader, true);
@@ -1189,8 +1372,13 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
      */
     private ArrayList<byte[]> enclaveCEKs;
 
+    /**
+     * Writes the RPC that executes the statement, preparing it if needed, and returns whether it prepares it. isRetry
+     * is set when the execution is sent again because its cached handle could not be reused, so that it is not
+     * recorded twice in the execution statistics of the statement.
+     */
     private boolean doPrepExec(TDSWriter tdsWriter, Parameter[] params, boolean hasNewTypeDefinitions,
-            boolean hasExistingTypeDefinitions, TDSCommand command) throws SQLServerException {
+            boolean hasExistingTypeDefinitions, TDSCommand command, boolean isRetry) throws SQLServerException {
 
         boolean needsPrepare = (hasNewTypeDefinitions && hasExistingTypeDefinitions) || !hasPreparedStatementHandle();
         boolean isPrepareMethodSpPrepExec = connection.getPrepareMethod().equals(PrepareMethod.PREPEXEC.toString());
@@ -1203,14 +1391,21 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
             else
                 buildServerCursorExecParams(tdsWriter);
         } else {
+            PrepareStatistics statistics = callRpcDirectly ? null : getPrepareStatistics();
+            boolean executeDirectly = needsPrepare && !callRpcDirectly && !shouldPrepare(statistics);
+            if (null != statistics && isRetry) {
+                statistics.onRetry(needsPrepare && !executeDirectly, !executeDirectly);
+            } else if (null != statistics) {
+                statistics.onExecution(needsPrepare && !executeDirectly, !executeDirectly);
+            }
+
             // if it is a parameterized stored procedure call and is not TVP, use sp_execute directly.
             if (needsPrepare && callRpcDirectly) {
                 buildRPCExecParams(tdsWriter);
             }
             // Move overhead of needing to do prepare & unprepare to only use cases that need more than one execution.
             // First execution, use sp_executesql, optimizing for assumption we will not re-use statement.
-            else if (needsPrepare && !connection.getEnablePrepareOnFirstPreparedStatementCall()
-                    && !isExecutedAtLeastOnce) {
+            else if (executeDirectly) {
                 buildExecSQLParams(tdsWriter);
                 isExecutedAtLeastOnce = true;
             } else if (needsPrepare) { // Second execution, use prepared statements since we seem to be re-using it.
@@ -1241,6 +1436,34 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         return needsPrepare;
     }
 
+    /**
+     * Returns the execution statistics of preparedSQL with the current type definitions, or null if adaptivePrepare is
+     * off.
+     */
+    private PrepareStatistics getPrepareStatistics() {
+        // preparedSQL is only rebuilt along with the type definitions
+        if (null == prepareStatistics || prepareStatisticsTypeDefinitions != preparedTypeDefinitions) {
+            if (!connection.getAdaptivePrepare() || !connection.isStatementPoolingEnabled())
+                return null;
+
+            prepareStatistics = connection
+                    .getPrepareStatistics(new CityHash128Key(preparedSQL, preparedTypeDefinitions));
+            prepareStatisticsTypeDefinitions = preparedTypeDefinitions;
+        }
+        return prepareStatistics;
+    }
+
+    /**
+     * Returns whether an execution of the statement without a prepared handle prepares it, rather than executing it
+     * with sp_executesql. With adaptivePrepare the statistics of the statement decide, except for batches.
+     */
+    private boolean shouldPrepare(PrepareStatistics statistics) {
+        if (null != statistics && EXECUTE_BATCH != executeMethod)
+            return statistics.shouldPrepare();
+
+        return connection.getEnablePrepareOnFirstPreparedStatementCall() || isExecutedAtLeastOnce;
+    }
+
     /**
      * Checks if we should call RPC directly for stored procedures
      *
@@ -2421,7 +2644,9 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
 
                 PrepStmtBatchExecCmd batchCommand = new PrepStmtBatchExecCmd(this);
 
-                executeStatement(batchCommand);
+                if (!executeBatchAsMultiRowInserts(batchCommand) && !executeBatchWithStagingTable(batchCommand)) {
+                    executeStatement(batchCommand);
+                }
 
                 updateCounts = new int[batchCommand.updateCounts.length];
                 for (int i = 0; i < batchCommand.updateCounts.length; ++i)
@@ -2585,7 +2810,9 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
 
                 PrepStmtBatchExecCmd batchCommand = new PrepStmtBatchExecCmd(this);
 
-                executeStatement(batchCommand);
+                if (!executeBatchAsMultiRowInserts(batchCommand) && !executeBatchWithStagingTable(batchCommand)) {
+                    executeStatement(batchCommand);
+                }
 
                 updateCounts = new long[batchCommand.updateCounts.length];
 
@@ -2657,6 +2884,326 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         }
     }
 
+    /**
+     * Executes the batch as INSERT statements of up to MAX_ROWS_PER_INSERT rows each, if
+     * useMultiRowValuesForBatchInsert is set, the statement inserts a single row of VALUES and the rows of each INSERT
+     * have the same parameter type definitions. The update count of every row of an INSERT is 1 if the INSERT inserted
+     * all its rows, EXECUTE_FAILED if it failed and SUCCESS_NO_INFO otherwise.
+     *
+     * @param batchCommand
+     *        the command that receives the update counts and the first error, it is not executed itself
+     * @return false if the batch must be executed one parameter set at a time
+     */
+    private boolean executeBatchAsMultiRowInserts(
+            PrepStmtBatchExecCmd batchCommand) throws SQLServerException, SQLTimeoutException {
+        final int numBatches = batchParamValues.size();
+        if (!useMultiRowValuesForBatchInsert || 2 > numBatches
+                || Util.shouldHonorAEForParameters(stmtColumnEncriptionSetting, connection)) {
+            return false;
+        }
+
+        if (!isInsertValuesRowRangeParsed) {
+            insertValuesRowRange = SQLServerParser.getInsertValuesRowRange(userSQL);
+            // Every parameter must be in the row
+            for (int i = 0; null != insertValuesRowRange && i < userSQLParamPositions.length; i++) {
+                if (userSQLParamPositions[i] < insertValuesRowRange[0]
+                        || userSQLParamPositions[i] >= insertValuesRowRange[1]) {
+                    insertValuesRowRange = null;
+                }
+            }
+            isInsertValuesRowRangeParsed = true;
+        }
+        if (null == insertValuesRowRange) {
+            return false;
+        }
+
+        final int numParams = inOutParam.length;
+        int rowsPerInsert = (0 == numParams) ? MAX_ROWS_PER_INSERT
+                                             : Math.min(MAX_ROWS_PER_INSERT, MAX_PARAMETERS_PER_INSERT / numParams);
+        if (2 > rowsPerInsert || !haveSameTypeDefinitions(rowsPerInsert)) {
+            return false;
+        }
+
+        batchCommand.batchException = null;
+        batchCommand.updateCounts = new long[numBatches];
+        int numFullInserts = numBatches / rowsPerInsert;
+        int numRemainingRows = numBatches % rowsPerInsert;
+        executeMultiRowInserts(batchCommand, 0, numFullInserts, rowsPerInsert);
+        executeMultiRowInserts(batchCommand, numFullInserts * rowsPerInsert, (0 < numRemainingRows) ? 1 : 0,
+                numRemainingRows);
+        return true;
+    }
+
+    /**
+     * Checks that every parameter set of each INSERT of rowsPerInsert rows has the type definitions of the first one.
+     * SQL Server gives every column of a multi-row VALUES list a single type, by type precedence across its rows, so
+     * rows of different types could be converted differently than if they were inserted one at a time, e.g. decimals
+     * of different scales could lose digits.
+     *
+     * @return false if the batch must be executed one parameter set at a time
+     */
+    private boolean haveSameTypeDefinitions(int rowsPerInsert) throws SQLServerException {
+        final int numBatches = batchParamValues.size();
+        final int numParams = inOutParam.length;
+        String[] typeDefinitions = new String[numParams];
+        for (int row = 0; row < numBatches; row++) {
+            Parameter[] paramValues = batchParamValues.get(row);
+            boolean isFirstRow = (0 == row % rowsPerInsert);
+            for (int i = 0; i < numParams; i++) {
+                paramValues[i].renewDefinition = false;
+                String typeDefinition = paramValues[i].getTypeDefinition(connection, resultsReader());
+                if (null == typeDefinition) {
+                    return false;
+                }
+                if (isFirstRow) {
+                    typeDefinitions[i] = typeDefinition;
+                } else if (!typeDefinition.equals(typeDefinitions[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes numInserts INSERT statements of rowsPerInsert rows each, for the parameter sets from firstRow on, as the
+     * batch of an internal prepared statement.
+     */
+    private void executeMultiRowInserts(PrepStmtBatchExecCmd batchCommand, int firstRow, int numInserts,
+            int rowsPerInsert) throws SQLServerException, SQLTimeoutException {
+        if (0 == numInserts) {
+            return;
+        }
+
+        String row = userSQL.substring(insertValuesRowRange[0], insertValuesRowRange[1]);
+        StringBuilder sql = new StringBuilder(userSQL.length() + (row.length() + 1) * (rowsPerInsert - 1));
+        sql.append(userSQL, 0, insertValuesRowRange[1]);
+        for (int i = 1; i < rowsPerInsert; i++) {
+            sql.append(',').append(row);
+        }
+        sql.append(userSQL, insertValuesRowRange[1], userSQL.length());
+
+        final int numParams = inOutParam.length;
+        try (SQLServerPreparedStatement insert = (SQLServerPreparedStatement) connection
+                .prepareStatement(sql.toString())) {
+            insert.setQueryTimeout(queryTimeout);
+            insert.batchParamValues = new ArrayList<>(numInserts);
+            for (int i = 0; i < numInserts; i++) {
+                Parameter[] paramValues = new Parameter[rowsPerInsert * numParams];
+                for (int j = 0; j < rowsPerInsert; j++) {
+                    System.arraycopy(batchParamValues.get(firstRow + i * rowsPerInsert + j), 0, paramValues,
+                            j * numParams, numParams);
+                }
+                insert.batchParamValues.add(paramValues);
+            }
+
+            PrepStmtBatchExecCmd insertCommand = insert.new PrepStmtBatchExecCmd(insert);
+            insert.executeStatement(insertCommand);
+
+            for (int i = 0; i < numInserts; i++) {
+                long updateCount = insertCommand.updateCounts[i];
+                if (rowsPerInsert == updateCount) {
+                    updateCount = 1;
+                } else if (Statement.EXECUTE_FAILED != updateCount) {
+                    updateCount = Statement.SUCCESS_NO_INFO;
+                }
+                int rowStart = firstRow + i * rowsPerInsert;
+                Arrays.fill(batchCommand.updateCounts, rowStart, rowStart + rowsPerInsert, updateCount);
+            }
+            if (null == batchCommand.batchException) {
+                batchCommand.batchException = insertCommand.batchException;
+            }
+        }
+    }
+
+    /**
+     * Executes the batch as a single UPDATE or DELETE joined on its key columns to a temporary table that the parameter
+     * sets are bulk copied into, if useBulkCopyForBatchUpdate is set and the statement is an UPDATE or DELETE by key.
+     * The update count of every parameter set is the number of rows it would have updated or deleted if it had been
+     * executed on its own, in the order of the batch. If the statement fails, the update count of every parameter set
+     * is EXECUTE_FAILED.
+     *
+     * @param batchCommand
+     *        the command that receives the update counts and the error, it is not executed itself
+     * @return false if the batch must be executed one parameter set at a time
+     */
+    private boolean executeBatchWithStagingTable(
+            PrepStmtBatchExecCmd batchCommand) throws SQLServerException, SQLTimeoutException {
+        final int numBatches = batchParamValues.size();
+        if (!useBulkCopyForBatchUpdate || 2 > numBatches
+                || Util.shouldHonorAEForParameters(stmtColumnEncriptionSetting, connection)) {
+            return false;
+        }
+
+        if (!isKeyedUpdateParsed) {
+            keyedUpdate = SQLServerParser.getKeyedUpdate(userSQL);
+            if (null != keyedUpdate && keyedUpdate.columns.size() != inOutParam.length) {
+                keyedUpdate = null;
+            }
+            isKeyedUpdateParsed = true;
+        }
+        if (null == keyedUpdate) {
+            return false;
+        }
+
+        final int numParams = inOutParam.length;
+        String suffix = UUID.randomUUID().toString().replace("-", "");
+        String stagingTable = "#BatchUpdate" + suffix;
+        String outputTable = "#BatchUpdateOutput" + suffix;
+
+        // The left join copies the types of the columns without their IDENTITY and NOT NULL
+        StringBuilder sql = new StringBuilder("SELECT TOP 0 ");
+        for (int i = 0; i < numParams; i++) {
+            sql.append("t.").append(keyedUpdate.columns.get(i)).append(" AS [p").append(i + 1).append("], ");
+        }
+        sql.append("CAST(0 AS int) AS [row] INTO ").append(stagingTable)
+                .append(" FROM (SELECT 1 AS [n]) AS d LEFT JOIN ").append(keyedUpdate.tableName)
+                .append(" AS t ON 1 = 0; CREATE TABLE ").append(outputTable).append(" ([row] int)");
+
+        try (SQLServerStatement stmt = (SQLServerStatement) connection.createStatement()) {
+            stmt.setQueryTimeout(queryTimeout);
+            try {
+                stmt.execute(sql.toString());
+                try (SQLServerResultSet rs = stmt.executeQueryInternal(
+                        "sp_executesql N'SET FMTONLY ON SELECT * FROM " + stagingTable + " '")) {
+                    SQLServerBulkBatchUpdateRecord batchRecord = new SQLServerBulkBatchUpdateRecord(batchParamValues,
+                            numParams);
+                    for (int i = 1; i <= rs.getColumnCount(); i++) {
+                        TypeInfo ti = rs.getColumn(i).getTypeInfo();
+                        checkValidColumns(ti);
+                        batchRecord.addColumnMetadata(i, rs.getColumn(i).getColumnName(),
+                                ti.getSSType().getJDBCType().getIntValue(), ti.getPrecision(), ti.getScale());
+                    }
+
+                    SQLServerBulkCopy bcOperation = new SQLServerBulkCopy(connection);
+                    SQLServerBulkCopyOptions option = new SQLServerBulkCopyOptions();
+                    option.setBulkCopyTimeout(queryTimeout);
+                    bcOperation.setBulkCopyOptions(option);
+                    bcOperation.setDestinationTableName(stagingTable);
+                    bcOperation.setDestinationTableMetadata(rs);
+                    try {
+                        bcOperation.writeToServer(batchRecord);
+                    } finally {
+                        // The staging table is never reused
+                        bcOperation.invalidateDestinationMetadata();
+                        bcOperation.close();
+                    }
+                }
+
+                batchCommand.batchException = null;
+                batchCommand.updateCounts = new long[numBatches];
+                try {
+                    stmt.execute(getStagedUpdateSQL(stagingTable, outputTable));
+                    try (SQLServerResultSet rs = stmt
+                            .executeQueryInternal(getStagedUpdateCountsSQL(stagingTable, outputTable))) {
+                        while (rs.next()) {
+                            batchCommand.updateCounts[rs.getInt(1) - 1] = rs.getLong(2);
+                        }
+                    }
+                } catch (SQLServerException e) {
+                    // If the failure was severe enough to close the connection or roll back a manual transaction,
+                    // then propagate the error up as a SQLServerException, as the batch executed one parameter set
+                    // at a time does.
+                    if (connection.isSessionUnAvailable() || connection.rolledBackTransaction())
+                        throw e;
+
+                    Arrays.fill(batchCommand.updateCounts, Statement.EXECUTE_FAILED);
+                    batchCommand.batchException = e;
+                }
+            } catch (IllegalArgumentException e) {
+                // A column type that the batch record does not convert, execute the batch one parameter set at a time
+                if (getStatementLogger().isLoggable(java.util.logging.Level.FINE)) {
+                    getStatementLogger().fine("Staging batch update parameters failed: " + e.getMessage());
+                }
+                return false;
+            } finally {
+                dropStagingTables(stmt, stagingTable, outputTable);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the temporary tables of a staged batch update that exist, they do not if creating them failed or a
+     * rollback dropped them. A failure to drop them is only logged, so that it does not hide the error of the batch.
+     */
+    private void dropStagingTables(SQLServerStatement stmt, String... tables) {
+        if (connection.isSessionUnAvailable()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder();
+        for (String table : tables) {
+            sql.append("IF OBJECT_ID('tempdb..").append(table).append("') IS NOT NULL DROP TABLE ").append(table)
+                    .append("; ");
+        }
+        try {
+            stmt.execute(sql.toString());
+        } catch (SQLException e) {
+            if (getStatementLogger().isLoggable(java.util.logging.Level.FINE)) {
+                getStatementLogger().fine("Dropping batch update staging tables failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the UPDATE or DELETE of keyedUpdate joined to the staging table. Like the parameter sets executed one
+     * after the other, an UPDATE takes its values from the last parameter set of each key, and a DELETE deletes the
+     * rows of each key for its first parameter set.
+     */
+    private String getStagedUpdateSQL(String stagingTable, String outputTable) {
+        StringBuilder sql = new StringBuilder();
+        if (keyedUpdate.isDelete) {
+            sql.append("DELETE t");
+        } else {
+            sql.append("UPDATE t SET ");
+            String separator = "";
+            for (int i = 0; i < keyedUpdate.columns.size(); i++) {
+                if (!keyedUpdate.isKey.get(i)) {
+                    sql.append(separator).append(keyedUpdate.columns.get(i)).append(" = s.[p").append(i + 1)
+                            .append(']');
+                    separator = ", ";
+                }
+            }
+        }
+        sql.append(" OUTPUT s.[row] INTO ").append(outputTable).append(" FROM ").append(keyedUpdate.tableName)
+                .append(" AS t INNER JOIN ").append(stagingTable).append(" AS s ON ");
+        appendKeyCondition(sql, "t", "s", true);
+        sql.append(" WHERE NOT EXISTS (SELECT 1 FROM ").append(stagingTable).append(" AS l WHERE ");
+        appendKeyCondition(sql, "l", "s", false);
+        sql.append(" AND l.[row] ").append(keyedUpdate.isDelete ? '<' : '>').append(" s.[row])");
+        return sql.toString();
+    }
+
+    /**
+     * Returns the query of the update count of every parameter set. Every parameter set of a key updates the rows
+     * that the last one of the key updated, while only the first parameter set of a key deletes rows.
+     */
+    private String getStagedUpdateCountsSQL(String stagingTable, String outputTable) {
+        StringBuilder sql = new StringBuilder("SELECT s.[row], COUNT(o.[row]) FROM ").append(stagingTable)
+                .append(" AS s LEFT JOIN ");
+        if (keyedUpdate.isDelete) {
+            sql.append(outputTable).append(" AS o ON o.[row] = s.[row]");
+        } else {
+            sql.append(stagingTable).append(" AS l ON ");
+            appendKeyCondition(sql, "l", "s", false);
+            sql.append(" LEFT JOIN ").append(outputTable).append(" AS o ON o.[row] = l.[row]");
+        }
+        return sql.append(" GROUP BY s.[row]").toString();
+    }
+
+    private void appendKeyCondition(StringBuilder sql, String left, String right, boolean isLeftTarget) {
+        String separator = "";
+        for (int i = 0; i < keyedUpdate.columns.size(); i++) {
+            if (keyedUpdate.isKey.get(i)) {
+                String column = "[p" + (i + 1) + "]";
+                sql.append(separator).append(left).append('.')
+                        .append(isLeftTarget ? keyedUpdate.columns.get(i) : column).append(" = ").append(right)
+                        .append('.').append(column);
+                separator = " AND ";
+            }
+        }
+    }
+
     private void checkAdditionalQuery() {
         while (checkAndRemoveCommentsAndSpace(true)) {}
 
@@ -3047,6 +3594,8 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
 
         int numBatchesPrepared = 0;
         int numBatchesExecuted = 0;
+        // Parameter sets sent again after a failed reuse of a handle are not recorded again
+        int numBatchesRecorded = 0;
 
         if (isSelect(userSQL)) {
             SQLServerException.makeFromDriverError(connection, this,
@@ -3162,8 +3711,10 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
                     // that repreparation is necessary.
                     ++numBatchesPrepared;
                     needsPrepare = doPrepExec(tdsWriter, batchParam, hasNewTypeDefinitions, hasExistingTypeDefinitions,
-                            batchCommand);
-                    if (needsPrepare || numBatchesPrepared == numBatches) {
+                            batchCommand, numBatchesPrepared <= numBatchesRecorded);
+                    numBatchesRecorded = Math.max(numBatchesRecorded, numBatchesPrepared);
+                    if (needsPrepare || numBatchesPrepared == numBatches || isBatchRequestFull(tdsWriter,
+                            numBatchesPrepared - numBatchesExecuted, batchParam.length)) {
                         ensureExecuteResultsReader(batchCommand.startResponse(getIsResponseBufferingAdaptive()));
 
                         boolean retry = false;
@@ -3208,6 +3759,9 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
                                             false);
                                 }
                             } catch (SQLServerException e) {
+                                ProcedureMetadataCache.invalidateOnError(connection, procedureName, userSQL,
+                                        e.getErrorCode());
+
                                 // If the failure was severe enough to close the connection or roll back a
                                 // manual transaction, then propagate the error up as a SQLServerException
                                 // now, rather than continue with the batch.
@@ -3252,6 +3806,7 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
                         assert numBatchesExecuted == numBatchesPrepared;
                     }
                 } catch (SQLException e) {
+                    ProcedureMetadataCache.invalidateOnError(connection, procedureName, userSQL, e.getErrorCode());
                     if (retryBasedOnFailedReuseOfCachedHandle(e, attempt, needsPrepare, true)
                             && connection.isStatementPoolingEnabled()) {
                         // Reset number of batches prepared.
@@ -3271,6 +3826,35 @@ public class SQLServerPreparedStatement extends SQLServerStatement implements IS
         }
     }
 
+    /**
+     * Returns whether the request being written holds as many parameter sets of a batch as the maxBatchRequestSize and
+     * maxBatchRequestParameters connection properties allow, so that it has to be sent before the next one is added.
+     * The parameter sets that follow go in a new request once the responses to this one have been read. The server
+     * only accepts one request at a time, so this trades the single round trip of an unsplit batch for requests and
+     * responses of a bounded size.
+     *
+     * @param tdsWriter
+     *        the writer of the request
+     * @param numBatchesInRequest
+     *        the number of parameter sets in the request
+     * @param numParams
+     *        the number of parameters of each parameter set
+     */
+    private boolean isBatchRequestFull(TDSWriter tdsWriter, int numBatchesInRequest, int numParams) {
+        int maxParameters = connection.getMaxBatchRequestParameters();
+        if (0 < maxParameters && (long) (numBatchesInRequest + 1) * numParams > maxParameters) {
+            return true;
+        }
+
+        // The next parameter set is assumed to be as large as the average one so far
+        int maxSize = connection.getMaxBatchRequestSize();
+        if (0 < maxSize) {
+            long messageLength = tdsWriter.getMessageLength();
+            return messageLength + messageLength / numBatchesInRequest > maxSize;
+        }
+        return false;
+    }
+
     @Override
     public final void setUseFmtOnly(boolean useFmtOnly) throws SQLServerException {
         checkClosed();
@@ -144,6 +144,9 @@ public final class SQLServerResource extends ListResourceBundle {
         {"R_stringNotInHex", "The string is not in a valid hex format."},
         {"R_unknownType", "The Java type {0} is not a supported type."},
         {"R_physicalConnectionIsClosed", "The physical connection is closed for this pooled connection."},
+        {"R_connectionPoolClosed", "The connection pool is closed."},
+        {"R_connectionPoolTimeout", "No connection of the pool became available within {0} milliseconds."},
+        {"R_invalidPoolPropertyValue", "The connection pool setting {0} value {1} is not valid."},
         {"R_noNamedAndIndexedParameters", "Cannot specify both named and indexed parameters when 'useFlexibleCallableStatements=false'"},
         {"R_unknownOutputParameter", "Cannot acquire output parameter value by name. No parameter index was associated with the output parameter name. If acquiring output parameter by name, verify that the output parameter was initially registered by name."},
         {"R_invalidDataSourceReference", "Invalid DataSource reference."},
@@ -234,6 +237,9 @@ public final class SQLServerResource extends ListResourceBundle {
         {"R_socketTimeoutPropertyDescription", "The number of milliseconds to wait before the java.net.SocketTimeoutException is raised."},
         {"R_serverPreparedStatementDiscardThresholdPropertyDescription", "The threshold for when to close discarded prepare statements on the server (calling a batch of sp_unprepares). A value of 1 or less will cause sp_unprepare to be called immediately on PreparedStatment close."},
         {"R_enablePrepareOnFirstPreparedStatementCallPropertyDescription", "This setting specifies whether a prepared statement is prepared (sp_prepexec) on first use (property=true) or on second after first calling sp_executesql (property=false)."},
+        {"R_procedureMetadataCacheTtlPropertyDescription", "The number of seconds that parameter metadata of stored procedures and parameterized SQL is cached for, shared by all connections to the same server and database. A value of 0 disables the cache."},
+        {"R_maxBatchRequestSizePropertyDescription", "The maximum number of bytes of parameter sets that PreparedStatement.executeBatch sends to the server in one request. Larger batches are split into several requests. A value of 0 means no limit."},
+        {"R_maxBatchRequestParametersPropertyDescription", "The maximum number of parameter values that PreparedStatement.executeBatch sends to the server in one request. Larger batches are split into several requests. A value of 0 means no limit."},
         {"R_statementPoolingCacheSizePropertyDescription", "This setting specifies the size of the prepared statement cache for a connection. A value less than 1 means no cache."},
         {"R_gsscredentialPropertyDescription", "Impersonated GSS Credential to access SQL Server."},
         {"R_msiClientIdPropertyDescription", "Client Id of User Assigned Managed Identity to be used for generating access token for Azure AD MSI Authentication"},
@@ -246,6 +252,8 @@ public final class SQLServerResource extends ListResourceBundle {
         {"R_AADSecurePrincipalSecretPropertyDescription", "A Secret defined for a registered application which has been granted permission to the database connected."},
         {"R_accessTokenCallbackClassPropertyDescription", "The class to instantiate as the SQLServerAccessTokenCallback for acquiring tokens."},
         {"R_accessTokenCallbackPropertyDescription", "A SQLServerAccessTokenCallback object which is used to call a callback method to return an access token."},
+        {"R_metricsClassPropertyDescription", "The class to instantiate as the SQLServerMetrics that receives the counters and latencies of the connection."},
+        {"R_metricsPropertyDescription", "A SQLServerMetrics object that receives the counters and latencies of the connection."},
         {"R_noParserSupport", "An error occurred while instantiating the required parser. Error: \"{0}\""},
         {"R_writeOnlyXML", "Cannot read from this SQLXML instance. This instance is for writing data only."},
         {"R_dataHasBeenReadXML", "Cannot read from this SQLXML instance. The data has already been read."},
@@ -275,6 +283,7 @@ public final class SQLServerResource extends ListResourceBundle {
         {"R_unableRetrieveColMeta", "Unable to retrieve column metadata."},
         {"R_invalidDestConnection", "Destination connection must be a connection from the Microsoft JDBC Driver for SQL Server."},
         {"R_unableRetrieveSourceData", "Unable to retrieve data from the source."},
+        {"R_parallelBulkCopyFailed", "The bulk copy failed in {0} of {1} streams."},
         {"R_ParsingError", "Failed to parse data for the {0} type."},
         {"R_ParsingDataError", "Failed to parse data {0} for the {1} type."},
         {"R_BulkTypeNotSupported", "Data type {0} is not supported in bulk copy."},
@@ -424,6 +433,8 @@ public final class SQLServerResource extends ListResourceBundle {
         {"R_AECertNotFound", "Certificate with thumbprint {2} not found in certificate store {1} in certificate location {0}. Verify the certificate path in the column master key definition in the database is correct, and the certificate has been imported correctly into the certificate location/store."},
         {"R_AEMaloc", "Memory allocation failure."},
         {"R_InvalidAccessTokenCallbackClass", "Invalid accessTokenCallbackClass: {0}"},
+        {"R_InvalidMetricsClass", "Invalid metricsClass: {0}"},
+        {"R_invalidMetrics", "The metrics property must be an implementation of com.microsoft.sqlserver.jdbc.SQLServerMetrics, not {0}."},
         {"R_AEKeypathLong", "Internal error. Specified certificate path has {0} bytes, which exceeds maximum length of {1} bytes."},
         {"R_AEECEKLenBad", "The specified encrypted column encryption key''s ciphertext length: {0} does not match the ciphertext length: {1} when using column master key (certificate) in \"{2}\". The encrypted column encryption key may be corrupt, or the specified certificate path may be incorrect."},
         {"R_AEECEKSigLenBad", "The specified encrypted column encryption key''s signature length {0} does not match the length {1} when using the column master key (certificate) in \"{2}\". The encrypted column encryption key may be corrupt, or the specified certificate path may be incorrect."},
@@ -452,6 +463,9 @@ public final class SQLServerResource extends ListResourceBundle {
         {"R_invalidFipsConfig", "Unable to verify FIPS mode settings."},
         {"R_serverPreparedStatementDiscardThreshold", "The serverPreparedStatementDiscardThreshold {0} is not valid."},
         {"R_statementPoolingCacheSize", "The statementPoolingCacheSize {0} is not valid."},
+        {"R_procedureMetadataCacheTtl", "The procedureMetadataCacheTtl {0} is not valid."},
+        {"R_maxBatchRequestSize", "The maxBatchRequestSize {0} is not valid."},
+        {"R_maxBatchRequestParameters", "The maxBatchRequestParameters {0} is not valid."},
         {"R_kerberosLoginFailedForUsername", "Cannot login with Kerberos principal {0}, check your credentials. {1}"},
         {"R_kerberosLoginFailed", "Kerberos Login failed: {0} due to {1} ({2})"},
         {"R_StoredProcedureNotFound", "Could not find stored procedure ''{0}''."},
@@ -519,6 +533,13 @@ public final class SQLServerResource extends ListResourceBundle {
         {"R_InvalidCSVQuotes", "Failed to parse the CSV file, verify that the fields are correctly enclosed in double quotes."},
         {"R_TokenRequireUrl", "Token credentials require a URL using the HTTPS protocol scheme."},
         {"R_calcBigDecimalPrecisionPropertyDescription", "Indicates whether the driver should calculate precision for big decimal values."},
+        {"R_useDirectBuffersPropertyDescription", "Determines whether the driver reads and writes TDS packets through a socket channel using direct (off-heap) buffers. Reads only use direct buffers while no socket timeout applies, e.g. with socketTimeout=0 after login."},
+        {"R_cacheSSLContextPropertyDescription", "Determines whether connections with the same encryption settings share an SSL context, so that they load the trust store once and can resume TLS sessions with the same server."},
+        {"R_prepareHotStatementsPropertyDescription", "Determines whether the statements that connections prepare are recorded for the driver, so that the statements prepared by several connections to the same database are prepared on the idle connections of SQLServerPoolingDataSource before they are borrowed."},
+        {"R_adaptivePreparePropertyDescription", "Determines whether the connection tracks the executions of each prepared statement SQL to decide when to prepare it, instead of preparing it on its second execution, and prepares less eagerly the statements whose handles are evicted from the statement pool without being reused."},
+        {"R_useBulkCopyForBatchUpdatePropertyDescription", "Determines whether PreparedStatement.executeBatch bulk copies the parameters of a batched UPDATE or DELETE by key into a temporary table and executes it as a single statement."},
+        {"R_useMultiRowValuesForBatchInsertPropertyDescription", "Determines whether PreparedStatement.executeBatch rewrites a batched INSERT of a single row of VALUES into INSERT statements of up to 1000 rows each."},
+        {"R_cacheBulkCopyMetadataPropertyDescription", "Determines whether bulk copy caches the metadata of destination tables on the connection, so that repeated bulk copies to the same table do not query it again."},
         {"R_maxResultBufferPropertyDescription", "Determines maximum amount of bytes that can be read during retrieval of result set"},
         {"R_maxResultBufferInvalidSyntax", "Invalid syntax: {0} in maxResultBuffer parameter."},
         {"R_maxResultBufferNegativeParameterValue", "MaxResultBuffer must have positive value: {0}."},
@@ -547,6 +568,11 @@ public final class SQLServerResource extends ListResourceBundle {
         {"R_InvalidSqlQuery", "Invalid SQL Query: {0}"},
         {"R_InvalidScale", "Scale of input value is larger than the maximum allowed by SQL Server."},
         {"R_colCountNotMatchColTypeCount", "Number of provided columns {0} does not match the column data types definition {1}."},
+        {"R_pipelineRequiresAutoCommit", "Pipelined execution requires the connection to be in auto-commit mode."},
+        {"R_pipelineNotSupportedWithPrepare", "Pipelined execution is not supported with prepareMethod=prepare."},
+        {"R_pipelineUnsupportedStatement", "The statement at index {0} cannot be pipelined. Only prepared statements of this connection that are not callable statements and do not use Always Encrypted can be pipelined."},
+        {"R_pipelineDuplicateStatement", "The statement at index {0} appears more than once in the pipeline."},
+        {"R_pipelineLimitsMismatch", "The statement at index {0} does not have the same maxRows and maxFieldSize as the first statement of the pipeline."},
     };
 }
 // @formatter:on
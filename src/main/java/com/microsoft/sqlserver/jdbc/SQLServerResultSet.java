@@ -138,6 +138,15 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
      */
     private boolean areNullCompressedColumnsInitialized = false;
 
+    /** NBCROW null bitmap of the current row, valid once areNullCompressedColumnsInitialized is true */
+    private byte[] nullCompressedColumns;
+
+    /**
+     * Positions in the response of the current row's values that were skipped without being read, reused from row to
+     * row. Only the positions of the columns before lastColumnIndex that are not initialized are valid.
+     */
+    private transient TDSReaderMark[] columnMarks;
+
     /** Indicates the type of the current row in the result set */
     private RowType resultSetCurrentRowType = RowType.UNKNOWN;
 
@@ -229,16 +238,29 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
     /**
      * Skips columns between the last marked column and the target column, inclusive, optionally discarding their values
      * as they are skipped.
+     *
+     * Values that have not been read are skipped without materializing them. If they are not discarded, only their
+     * position in the response is recorded (see loadColumn), so skipping to a column costs little per earlier column.
      */
     private void skipColumns(int columnsToSkip, boolean discardValues) throws SQLServerException {
         assert lastColumnIndex >= 1;
         assert 0 <= columnsToSkip && columnsToSkip <= columns.length;
 
         for (int columnsSkipped = 0; columnsSkipped < columnsToSkip; ++columnsSkipped) {
-            Column column = getColumn(lastColumnIndex++);
-            column.skipValue(tdsReader, discardValues && isForwardOnly());
-            if (discardValues)
-                column.clear();
+            int columnIndex = lastColumnIndex++;
+            Column column = getColumn(columnIndex);
+            if (column.isInitialized()) {
+                column.skipValue(tdsReader, discardValues && isForwardOnly());
+                if (discardValues)
+                    column.clear();
+            } else if (!isNullCompressed(columnIndex)) {
+                if (!discardValues) {
+                    if (null == columnMarks)
+                        columnMarks = new TDSReaderMark[columns.length];
+                    columnMarks[columnIndex - 1] = tdsReader.mark(columnMarks[columnIndex - 1]);
+                }
+                column.skipUnreadValue(tdsReader, discardValues && isForwardOnly());
+            }
         }
     }
 
@@ -783,41 +805,46 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
      */
     private void initializeNullCompressedColumns() throws SQLServerException {
         if (resultSetCurrentRowType.equals(RowType.NBCROW) && (!areNullCompressedColumnsInitialized)) {
-            int columnNo = 0;
             // no of bytes to be read from the stream
             int noOfBytes = ((this.columns.length - 1) >> 3) + 1;// equivalent of
                                                                  // (int)Math.ceil(this.columns.length/8.0) and gives
                                                                  // better perf
-            for (int byteNo = 0; byteNo < noOfBytes; byteNo++) {
+            if (null == nullCompressedColumns)
+                nullCompressedColumns = new byte[noOfBytes];
 
-                int byteValue = tdsReader.readUnsignedByte();
-
-                // if this byte is 0, skip to the next byte
-                // and increment the column number by 8(no of bits)
-                if (byteValue == 0) {
-                    columnNo = columnNo + 8;
-                    continue;
-                }
-
-                for (int bitNo = 0; bitNo < 8 && columnNo < this.columns.length; bitNo++, columnNo++) {
-                    if ((byteValue & (1 << bitNo)) != 0) {
-                        this.columns[columnNo].initFromCompressedNull();
-                    }
-                }
-            }
+            // The null columns are initialized when they are loaded or skipped
+            tdsReader.readBytes(nullCompressedColumns, 0, noOfBytes);
             areNullCompressedColumnsInitialized = true;
         }
     }
 
+    /**
+     * Returns whether the value of a column in the current row is null according to NBCROW. Null compressed columns
+     * must have been initialized.
+     */
+    private boolean isNullCompressed(int columnIndex) {
+        return resultSetCurrentRowType.equals(RowType.NBCROW)
+                && 0 != (nullCompressedColumns[(columnIndex - 1) >> 3] & (1 << ((columnIndex - 1) & 7)));
+    }
+
     private Column loadColumn(int index) throws SQLServerException {
         assert 1 <= index && index <= columns.length;
 
         initializeNullCompressedColumns();
 
-        // Skip any columns between the last indexed column and the target column,
-        // retaining their values so they can be retrieved later.
-        if (index > lastColumnIndex && (!this.columns[index - 1].isInitialized()))
-            skipColumns(index - lastColumnIndex, false);
+        Column column = this.columns[index - 1];
+        if (!column.isInitialized()) {
+            if (isNullCompressed(index)) {
+                column.initFromCompressedNull();
+            } else if (index > lastColumnIndex) {
+                // Skip any columns between the last indexed column and the target column,
+                // retaining their positions so they can be retrieved later.
+                skipColumns(index - lastColumnIndex, false);
+            } else if (index < lastColumnIndex) {
+                // The target column was skipped without being read, so go back to it
+                tdsReader.reset(columnMarks[index - 1]);
+            }
+        }
 
         // Then return the target column
         return getColumn(index);
@@ -1814,6 +1841,11 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
         // We do have a fetch buffer. So discard the current row in the fetch buffer and ...
         discardCurrentRow();
 
+        // ... since a forward-only result set never goes back to a discarded row, nothing
+        // needs the response data read so far any more ...
+        if (isForwardOnly() && null == activeStream && null == activeLOB)
+            tdsReader.releaseMarks();
+
         // ... scan for the next row.
         // If we didn't find one, then we're done.
         RowType fetchBufferCurrentRowType = RowType.UNKNOWN;
@@ -2102,11 +2134,141 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
 
     private Object getValue(int columnIndex, JDBCType jdbcType, InputStreamGetterArgs getterArgs,
             Calendar cal) throws SQLServerException {
-        Object o = getterGetColumn(columnIndex).getValue(jdbcType, getterArgs, cal, tdsReader, stmt);
+        return getValue(getterGetColumn(columnIndex), jdbcType, getterArgs, cal);
+    }
+
+    private Object getValue(Column column, JDBCType jdbcType, InputStreamGetterArgs getterArgs,
+            Calendar cal) throws SQLServerException {
+        Object o = column.getValue(jdbcType, getterArgs, cal, tdsReader, stmt);
         lastValueWasNull = (null == o);
         return o;
     }
 
+    /*
+     * Primitive getters. Values of fixed-length numeric columns are decoded without boxing them (see
+     * Column.hasPrimitiveValue), and other values are read with getValue.
+     */
+
+    private boolean getBooleanValue(int columnIndex) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            boolean value = column.getBoolean(tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Boolean value = (Boolean) getValue(column, JDBCType.BIT, null, null);
+        return null != value ? value : false;
+    }
+
+    private byte getByteValue(int columnIndex) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            byte value = (byte) column.getShort(tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Short value = (Short) getValue(column, JDBCType.TINYINT, null, null);
+        return null != value ? value.byteValue() : 0;
+    }
+
+    private short getShortValue(int columnIndex) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            short value = column.getShort(tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Short value = (Short) getValue(column, JDBCType.SMALLINT, null, null);
+        return null != value ? value : 0;
+    }
+
+    private int getIntValue(int columnIndex) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            int value = column.getInt(tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Integer value = (Integer) getValue(column, JDBCType.INTEGER, null, null);
+        return null != value ? value : 0;
+    }
+
+    private long getLongValue(int columnIndex) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            long value = column.getLong(tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Long value = (Long) getValue(column, JDBCType.BIGINT, null, null);
+        return null != value ? value : 0;
+    }
+
+    private float getFloatValue(int columnIndex) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            float value = column.getFloat(tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Float value = (Float) getValue(column, JDBCType.REAL, null, null);
+        return null != value ? value : 0;
+    }
+
+    private double getDoubleValue(int columnIndex) throws SQLServerException {
+        Column column = getterGetColumn(columnIndex);
+        if (column.hasPrimitiveValue()) {
+            double value = column.getDouble(tdsReader);
+            lastValueWasNull = column.isNull();
+            return value;
+        }
+
+        Double value = (Double) getValue(column, JDBCType.DOUBLE, null, null);
+        return null != value ? value : 0;
+    }
+
+    @Override
+    public int fetchColumns(SQLServerColumnBatch batch) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "fetchColumns");
+        checkClosed();
+
+        int[] boundColumns = batch.startFetch();
+        for (int columnIndex : boundColumns)
+            verifyValidColumnIndex(columnIndex);
+
+        int row = 0;
+        while (row < batch.getCapacity() && next()) {
+            for (int columnIndex : boundColumns) {
+                Object values = batch.getValues(columnIndex);
+                if (values instanceof int[]) {
+                    ((int[]) values)[row] = getIntValue(columnIndex);
+                } else if (values instanceof long[]) {
+                    ((long[]) values)[row] = getLongValue(columnIndex);
+                } else if (values instanceof double[]) {
+                    ((double[]) values)[row] = getDoubleValue(columnIndex);
+                } else if (values instanceof byte[][]) {
+                    ((byte[][]) values)[row] = (byte[]) getValue(columnIndex, JDBCType.BINARY);
+                } else {
+                    Object value = getValue(columnIndex, JDBCType.CHAR);
+                    ((String[]) values)[row] = null != value ? value.toString() : null;
+                }
+
+                if (lastValueWasNull)
+                    batch.setNull(columnIndex, row);
+            }
+            batch.setRowCount(++row);
+        }
+
+        loggerExternal.exiting(getClassNameLogging(), "fetchColumns", row);
+        return row;
+    }
+
     void setInternalVariantType(int columnIndex, SqlVariant type) throws SQLServerException {
         getterGetColumn(columnIndex).setInternalVariant(type);
     }
@@ -2214,38 +2376,44 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
 
     @Override
     public boolean getBoolean(int columnIndex) throws SQLServerException {
-        loggerExternal.entering(getClassNameLogging(), "getBoolean", columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.entering(getClassNameLogging(), "getBoolean", columnIndex);
         checkClosed();
-        Boolean value = (Boolean) getValue(columnIndex, JDBCType.BIT);
-        loggerExternal.exiting(getClassNameLogging(), "getBoolean", value);
-        return null != value ? value : false;
+        boolean value = getBooleanValue(columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getBoolean", value);
+        return value;
     }
 
     @Override
     public boolean getBoolean(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getBoolean", columnName);
         checkClosed();
-        Boolean value = (Boolean) getValue(findColumn(columnName), JDBCType.BIT);
-        loggerExternal.exiting(getClassNameLogging(), "getBoolean", value);
-        return null != value ? value : false;
+        boolean value = getBooleanValue(findColumn(columnName));
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getBoolean", value);
+        return value;
     }
 
     @Override
     public byte getByte(int columnIndex) throws SQLServerException {
-        loggerExternal.entering(getClassNameLogging(), "getByte", columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.entering(getClassNameLogging(), "getByte", columnIndex);
         checkClosed();
-        Short value = (Short) getValue(columnIndex, JDBCType.TINYINT);
-        loggerExternal.exiting(getClassNameLogging(), "getByte", value);
-        return null != value ? value.byteValue() : 0;
+        byte value = getByteValue(columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getByte", value);
+        return value;
     }
 
     @Override
     public byte getByte(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getByte", columnName);
         checkClosed();
-        Short value = (Short) getValue(findColumn(columnName), JDBCType.TINYINT);
-        loggerExternal.exiting(getClassNameLogging(), "getByte", value);
-        return null != value ? value.byteValue() : 0;
+        byte value = getByteValue(findColumn(columnName));
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getByte", value);
+        return value;
     }
 
     @Override
@@ -2306,38 +2474,44 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
 
     @Override
     public double getDouble(int columnIndex) throws SQLServerException {
-        loggerExternal.entering(getClassNameLogging(), "getDouble", columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.entering(getClassNameLogging(), "getDouble", columnIndex);
         checkClosed();
-        Double value = (Double) getValue(columnIndex, JDBCType.DOUBLE);
-        loggerExternal.exiting(getClassNameLogging(), "getDouble", value);
-        return null != value ? value : 0;
+        double value = getDoubleValue(columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getDouble", value);
+        return value;
     }
 
     @Override
     public double getDouble(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getDouble", columnName);
         checkClosed();
-        Double value = (Double) getValue(findColumn(columnName), JDBCType.DOUBLE);
-        loggerExternal.exiting(getClassNameLogging(), "getDouble", value);
-        return null != value ? value : 0;
+        double value = getDoubleValue(findColumn(columnName));
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getDouble", value);
+        return value;
     }
 
     @Override
     public float getFloat(int columnIndex) throws SQLServerException {
-        loggerExternal.entering(getClassNameLogging(), "getFloat", columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.entering(getClassNameLogging(), "getFloat", columnIndex);
         checkClosed();
-        Float value = (Float) getValue(columnIndex, JDBCType.REAL);
-        loggerExternal.exiting(getClassNameLogging(), "getFloat", value);
-        return null != value ? value : 0;
+        float value = getFloatValue(columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getFloat", value);
+        return value;
     }
 
     @Override
     public float getFloat(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getFloat", columnName);
         checkClosed();
-        Float value = (Float) getValue(findColumn(columnName), JDBCType.REAL);
-        loggerExternal.exiting(getClassNameLogging(), "getFloat", value);
-        return null != value ? value : 0;
+        float value = getFloatValue(findColumn(columnName));
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getFloat", value);
+        return value;
     }
 
     @Override
@@ -2378,38 +2552,44 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
 
     @Override
     public int getInt(int columnIndex) throws SQLServerException {
-        loggerExternal.entering(getClassNameLogging(), "getInt", columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.entering(getClassNameLogging(), "getInt", columnIndex);
         checkClosed();
-        Integer value = (Integer) getValue(columnIndex, JDBCType.INTEGER);
-        loggerExternal.exiting(getClassNameLogging(), "getInt", value);
-        return null != value ? value : 0;
+        int value = getIntValue(columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getInt", value);
+        return value;
     }
 
     @Override
     public int getInt(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getInt", columnName);
         checkClosed();
-        Integer value = (Integer) getValue(findColumn(columnName), JDBCType.INTEGER);
-        loggerExternal.exiting(getClassNameLogging(), "getInt", value);
-        return null != value ? value : 0;
+        int value = getIntValue(findColumn(columnName));
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getInt", value);
+        return value;
     }
 
     @Override
     public long getLong(int columnIndex) throws SQLServerException {
-        loggerExternal.entering(getClassNameLogging(), "getLong", columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.entering(getClassNameLogging(), "getLong", columnIndex);
         checkClosed();
-        Long value = (Long) getValue(columnIndex, JDBCType.BIGINT);
-        loggerExternal.exiting(getClassNameLogging(), "getLong", value);
-        return null != value ? value : 0;
+        long value = getLongValue(columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getLong", value);
+        return value;
     }
 
     @Override
     public long getLong(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getLong", columnName);
         checkClosed();
-        Long value = (Long) getValue(findColumn(columnName), JDBCType.BIGINT);
-        loggerExternal.exiting(getClassNameLogging(), "getLong", value);
-        return null != value ? value : 0;
+        long value = getLongValue(findColumn(columnName));
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getLong", value);
+        return value;
     }
 
     @Override
@@ -2543,20 +2723,23 @@ public class SQLServerResultSet implements ISQLServerResultSet, java.io.Serializ
 
     @Override
     public short getShort(int columnIndex) throws SQLServerException {
-        loggerExternal.entering(getClassNameLogging(), "getShort", columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.entering(getClassNameLogging(), "getShort", columnIndex);
         checkClosed();
-        Short value = (Short) getValue(columnIndex, JDBCType.SMALLINT);
-        loggerExternal.exiting(getClassNameLogging(), "getShort", value);
-        return null != value ? value : 0;
+        short value = getShortValue(columnIndex);
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getShort", value);
+        return value;
     }
 
     @Override
     public short getShort(String columnName) throws SQLServerException {
         loggerExternal.entering(getClassNameLogging(), "getShort", columnName);
         checkClosed();
-        Short value = (Short) getValue(findColumn(columnName), JDBCType.SMALLINT);
-        loggerExternal.exiting(getClassNameLogging(), "getShort", value);
-        return null != value ? value : 0;
+        short value = getShortValue(findColumn(columnName));
+        if (loggerExternal.isLoggable(java.util.logging.Level.FINER))
+            loggerExternal.exiting(getClassNameLogging(), "getShort", value);
+        return value;
     }
 
     @Override
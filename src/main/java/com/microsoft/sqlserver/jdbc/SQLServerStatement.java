@@ -21,6 +21,8 @@ import java.util.Map;
 import java.util.Stack;
 import java.util.StringTokenizer;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -276,6 +278,26 @@ public class SQLServerStatement implements ISQLServerStatement {
         }
     }
 
+    /**
+     * Readies this Statement for pipelined execution through SQLServerConnection.executePipelined, which sends the
+     * request of the statement execution command without going through executeStatement.
+     */
+    final void startPipelinedExecution() throws SQLServerException {
+        // As in executeStatement, process any response left over from a previous execution
+        discardLastExecutionResults();
+        checkClosed();
+
+        execProps = new ExecuteProperties(this);
+    }
+
+    /**
+     * Completes the pipelined execution of this Statement by the command newStmtCmd.
+     */
+    final void endPipelinedExecution(TDSCommand newStmtCmd) {
+        if (newStmtCmd.wasExecuted())
+            lastStmtExecCmd = newStmtCmd;
+    }
+
     /**
      * Executes TDSCommand newCommand through this Statement object, allowing it to be cancelled through
      * Statement.cancel().
@@ -803,6 +825,111 @@ public class SQLServerStatement implements ISQLServerStatement {
         return updateCount;
     }
 
+    @Override
+    public CompletableFuture<java.sql.ResultSet> executeQueryAsync(String sql) throws SQLServerException {
+        return executeQueryAsync(sql, AsyncExecutor.getDefault());
+    }
+
+    @Override
+    public CompletableFuture<java.sql.ResultSet> executeQueryAsync(String sql,
+            Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeQueryAsync", sql);
+        checkClosed();
+        CompletableFuture<java.sql.ResultSet> future = executeAsync(() -> executeQuery(sql), executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeQueryAsync", future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync(String sql) throws SQLServerException {
+        return executeUpdateAsync(sql, AsyncExecutor.getDefault());
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync(String sql, Executor executor) throws SQLServerException {
+        loggerExternal.entering(getClassNameLogging(), "executeUpdateAsync", sql);
+        checkClosed();
+        CompletableFuture<Integer> future = executeAsync(() -> executeUpdate(sql), executor);
+        loggerExternal.exiting(getClassNameLogging(), "executeUpdateAsync", future);
+        return future;
+    }
+
+    /**
+     * Runs an execution of this Statement asynchronously on executor, after any asynchronous executions already
+     * submitted on the connection. Cancelling the returned future cancels the execution through Statement.cancel().
+     */
+    final <T> CompletableFuture<T> executeAsync(AsyncExecutor.Task<T> task,
+            Executor executor) throws SQLServerException {
+        if (null == executor) {
+            MessageFormat form = new MessageFormat(SQLServerException.getErrString("R_invalidArgument"));
+            Object[] msgArgs = {"executor"};
+            SQLServerException.makeFromDriverError(connection, this, form.format(msgArgs), null, false);
+        }
+
+        AsyncExecution<T> execution = new AsyncExecution<>(task);
+        CompletableFuture<T> future = connection.executeAsync(execution, executor);
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled())
+                execution.cancel();
+        });
+        return future;
+    }
+
+    /**
+     * An asynchronous execution of this Statement. Statement.cancel() cancels whatever the statement is executing, which
+     * before the task starts or after it returns may be another execution, so the execution is only cancelled while
+     * the task runs.
+     */
+    private final class AsyncExecution<T> implements AsyncExecutor.Task<T> {
+        private final AsyncExecutor.Task<T> task;
+        private final Lock lock = new ReentrantLock();
+        private boolean isRunning;
+        private boolean isCancelled;
+
+        AsyncExecution(AsyncExecutor.Task<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public T call() throws SQLException {
+            lock.lock();
+            try {
+                // The future was cancelled after the connection checked it, its result is ignored
+                if (isCancelled)
+                    return null;
+                isRunning = true;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                return task.call();
+            } finally {
+                lock.lock();
+                try {
+                    isRunning = false;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        void cancel() {
+            lock.lock();
+            try {
+                isCancelled = true;
+                if (isRunning)
+                    SQLServerStatement.this.cancel();
+            } catch (SQLServerException e) {
+                if (stmtlogger.isLoggable(Level.FINE))
+                    stmtlogger.fine(SQLServerStatement.this.toString()
+                            + " Ignoring error cancelling asynchronous execution: " + e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
     @Override
     public boolean execute(String sql) throws SQLServerException, SQLTimeoutException {
         loggerExternal.entering(getClassNameLogging(), "execute", sql);
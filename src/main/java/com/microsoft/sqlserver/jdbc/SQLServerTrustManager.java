@@ -21,9 +21,9 @@ final class PermissiveX509TrustManager implements X509TrustManager {
     private final Logger logger;
     private final String logContext;
 
-    PermissiveX509TrustManager(TDSChannel tdsChannel) {
+    PermissiveX509TrustManager(TDSChannel tdsChannel, boolean isShared) {
         this.logger = tdsChannel.getLogger();
-        this.logContext = tdsChannel.toString() + " (PermissiveX509TrustManager):";
+        this.logContext = (isShared ? "" : tdsChannel.toString() + " ") + "(PermissiveX509TrustManager):";
     }
 
     @Override
@@ -56,9 +56,9 @@ final class HostNameOverrideX509TrustManager implements X509TrustManager {
     private final X509TrustManager defaultTrustManager;
     private String hostName;
 
-    HostNameOverrideX509TrustManager(TDSChannel tdsChannel, X509TrustManager tm, String hostName) {
+    HostNameOverrideX509TrustManager(TDSChannel tdsChannel, boolean isShared, X509TrustManager tm, String hostName) {
         this.logger = tdsChannel.getLogger();
-        this.logContext = tdsChannel.toString() + " (HostNameOverrideX509TrustManager):";
+        this.logContext = (isShared ? "" : tdsChannel.toString() + " ") + "(HostNameOverrideX509TrustManager):";
         defaultTrustManager = tm;
 
         // canonical name is in lower case so convert this to lowercase too.
@@ -116,9 +116,9 @@ final class ServerCertificateX509TrustManager implements X509TrustManager {
     private String hostName;
     private String serverCert;
 
-    ServerCertificateX509TrustManager(TDSChannel tdsChannel, String cert, String hostName) {
+    ServerCertificateX509TrustManager(TDSChannel tdsChannel, boolean isShared, String cert, String hostName) {
         this.logger = tdsChannel.getLogger();
-        this.logContext = tdsChannel.toString() + " (ServerCertificateX509TrustManager):";
+        this.logContext = (isShared ? "" : tdsChannel.toString() + " ") + "(ServerCertificateX509TrustManager):";
         // canonical name is in lower case so convert this to lowercase too.
         this.hostName = hostName.toLowerCase(Locale.ENGLISH);
         this.serverCert = cert;
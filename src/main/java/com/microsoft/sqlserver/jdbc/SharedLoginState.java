@@ -0,0 +1,78 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.microsoft.sqlserver.jdbc.SQLServerConnection.SqlFedAuthInfo;
+
+
+/**
+ * Holds the results of the login steps that connections opened together with the same settings can share: the
+ * addresses of the server host names and the federated authentication access token. The first connection resolves or
+ * acquires them, and the connections that need them meanwhile wait for it instead of doing the same work.
+ */
+final class SharedLoginState {
+
+    // A pooled connection is reconnected when its token expires within 45 minutes, see Util.checkIfNeedNewAccessToken
+    private static final long MIN_TOKEN_LIFETIME = 45 * 60 * 1000;
+
+    /**
+     * Acquires a federated authentication access token.
+     */
+    interface FedAuthTokenSupplier {
+        SqlAuthenticationToken getFedAuthToken(SqlFedAuthInfo fedAuthInfo) throws SQLServerException;
+    }
+
+    private final Map<String, InetAddress[]> addresses = new ConcurrentHashMap<>();
+
+    private final Lock fedAuthTokenLock = new ReentrantLock();
+    private SqlAuthenticationToken fedAuthToken;
+    private String fedAuthTokenKey;
+
+    /**
+     * Returns the addresses of the host name, resolving it once.
+     */
+    InetAddress[] getAllByName(String hostName) throws UnknownHostException {
+        try {
+            return addresses.computeIfAbsent(hostName, h -> {
+                try {
+                    return InetAddress.getAllByName(h);
+                } catch (UnknownHostException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw (UnknownHostException) e.getCause();
+        }
+    }
+
+    /**
+     * Returns the access token for the resource and authority of fedAuthInfo, and acquires it if there is none, or if
+     * it expires too soon for a pooled connection.
+     */
+    SqlAuthenticationToken getFedAuthToken(SqlFedAuthInfo fedAuthInfo,
+            FedAuthTokenSupplier supplier) throws SQLServerException {
+        String key = fedAuthInfo.spn + "|" + fedAuthInfo.stsurl;
+        fedAuthTokenLock.lock();
+        try {
+            if (null == fedAuthToken || !key.equals(fedAuthTokenKey) || fedAuthToken.getExpiresOn().getTime()
+                    - System.currentTimeMillis() < MIN_TOKEN_LIFETIME) {
+                fedAuthToken = supplier.getFedAuthToken(fedAuthInfo);
+                fedAuthTokenKey = key;
+            }
+            return fedAuthToken;
+        } finally {
+            fedAuthTokenLock.unlock();
+        }
+    }
+}
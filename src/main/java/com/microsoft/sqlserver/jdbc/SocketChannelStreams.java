@@ -0,0 +1,162 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+
+package com.microsoft.sqlserver.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+
+/**
+ * SocketChannelStreams moves TDS traffic through a SocketChannel using direct (off-heap) ByteBuffers.
+ *
+ * Socket streams copy every read and write through a temporary native buffer. Reading from and writing to the channel
+ * with direct buffers avoids that copy, and lets TDSWriter hand its own direct packet buffers to the channel without
+ * copying them at all. The streams returned by this class allow the channel to be used wherever TDSChannel expects
+ * socket streams, e.g. underneath the SSL socket.
+ *
+ * The channel is used in blocking mode. Blocking SocketChannel reads ignore the socket's SO_TIMEOUT, which the driver
+ * relies on for socketTimeout and connection liveness checks, so while a timeout is set, reads go through the channel's
+ * socket adaptor stream instead, which honours it. Both kinds of blocking read park a virtual thread rather than its
+ * carrier thread, so a connection used from a virtual thread does not pin a carrier while it waits for the server.
+ * Waiting on selectors would hold the carrier for the duration of the wait.
+ *
+ * As with sockets used from virtual threads, interrupting a thread blocked on the channel closes the channel.
+ */
+final class SocketChannelStreams {
+    /** Size of the direct buffers used for reads and for writes from heap arrays */
+    static final int BUFFER_SIZE = 32 * 1024;
+
+    private final SocketChannel channel;
+
+    // Socket adaptor stream of the channel, used for reads while SO_TIMEOUT is set
+    private final InputStream timedInputStream;
+
+    // Bytes read from the channel but not yet consumed. Kept in read mode (flipped) between calls.
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    // Staging buffer for writes of heap byte arrays
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private final InputStream inputStream = new ChannelInputStream();
+    private final OutputStream outputStream = new ChannelOutputStream();
+
+    SocketChannelStreams(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        channel.configureBlocking(true);
+        timedInputStream = channel.socket().getInputStream();
+
+        ((Buffer) readBuffer).flip();
+    }
+
+    InputStream getInputStream() {
+        return inputStream;
+    }
+
+    OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Writes all remaining bytes of the buffer to the channel, advancing its position to its limit.
+     *
+     * @param buffer
+     *        the data to write
+     * @throws IOException
+     *         if the write fails
+     */
+    void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    private int read(byte[] b, int offset, int length) throws IOException {
+        if (0 == length)
+            return 0;
+
+        if (!readBuffer.hasRemaining()) {
+            // The adaptor stream waits at most SO_TIMEOUT milliseconds for the data. Nothing is buffered at this
+            // point, so reading straight into the caller's array keeps the bytes in order.
+            if (channel.socket().getSoTimeout() > 0)
+                return timedInputStream.read(b, offset, length);
+
+            ((Buffer) readBuffer).clear();
+            int bytesRead;
+            try {
+                // A blocking read returns at least one byte, or -1 at end of stream
+                bytesRead = channel.read(readBuffer);
+            } finally {
+                ((Buffer) readBuffer).flip();
+            }
+
+            if (bytesRead < 0)
+                return -1;
+        }
+
+        int bytesToCopy = Math.min(length, readBuffer.remaining());
+        readBuffer.get(b, offset, bytesToCopy);
+        return bytesToCopy;
+    }
+
+    private void close() throws IOException {
+        channel.close();
+    }
+
+    private final class ChannelInputStream extends InputStream {
+        private final byte[] oneByte = new byte[1];
+
+        @Override
+        public int read() throws IOException {
+            int bytesRead;
+
+            while (0 == (bytesRead = SocketChannelStreams.this.read(oneByte, 0, 1)));
+
+            return 1 == bytesRead ? oneByte[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int offset, int length) throws IOException {
+            return SocketChannelStreams.this.read(b, offset, length);
+        }
+
+        @Override
+        public int available() {
+            return readBuffer.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            SocketChannelStreams.this.close();
+        }
+    }
+
+    private final class ChannelOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            for (int bytesWritten = 0; bytesWritten < length;) {
+                int bytesToWrite = Math.min(length - bytesWritten, writeBuffer.capacity());
+                ((Buffer) writeBuffer).clear();
+                writeBuffer.put(b, offset + bytesWritten, bytesToWrite);
+                ((Buffer) writeBuffer).flip();
+                SocketChannelStreams.this.write(writeBuffer);
+                bytesWritten += bytesToWrite;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            SocketChannelStreams.this.close();
+        }
+    }
+}
@@ -10,7 +10,6 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.text.MessageFormat;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -50,7 +49,12 @@ class TVP {
     ResultSet sourceResultSet = null;
     SQLServerDataTable sourceDataTable = null;
     Map<Integer, SQLServerMetaData> columnMetadata = null;
-    Iterator<Entry<Integer, Object[]>> sourceDataTableRowIterator = null;
+    // index of the next row of sourceDataTable
+    int sourceDataTableRowIndex = 0;
+    // buffer for the current row of sourceResultSet, reused for every row
+    Object[] sourceResultSetRow = null;
+    // columns of sourceResultSet that are read with getTimestamp
+    boolean[] sourceResultSetTimeColumns = null;
     ISQLServerDataRecord sourceRecord = null;
     TVPType tvpType = null;
     Set<String> columnNames = null;
@@ -82,7 +86,6 @@ class TVP {
         }
         initTVP(TVPType.SQLSERVERDATATABLE, tvpPartName);
         sourceDataTable = tvpDataTable;
-        sourceDataTableRowIterator = sourceDataTable.getIterator();
         populateMetadataFromDataTable();
     }
 
@@ -111,15 +114,14 @@ class TVP {
 
     Object[] getRowData() throws SQLServerException {
         if (TVPType.RESULTSET == tvpType) {
-            int colCount = columnMetadata.size();
-            Object[] rowData = new Object[colCount];
-            for (int i = 0; i < colCount; i++) {
+            Object[] rowData = sourceResultSetRow;
+            for (int i = 0; i < rowData.length; i++) {
                 try {
                     /*
                      * for Time types, getting TimeStamp instead of Time, because this value will be converted to String
                      * later on. If the value is a time object, the millisecond would be removed.
                      */
-                    if (java.sql.Types.TIME == sourceResultSet.getMetaData().getColumnType(i + 1)) {
+                    if (sourceResultSetTimeColumns[i]) {
                         rowData[i] = sourceResultSet.getTimestamp(i + 1);
                     } else {
                         rowData[i] = sourceResultSet.getObject(i + 1);
@@ -130,8 +132,7 @@ class TVP {
             }
             return rowData;
         } else if (TVPType.SQLSERVERDATATABLE == tvpType) {
-            Map.Entry<Integer, Object[]> rowPair = sourceDataTableRowIterator.next();
-            return rowPair.getValue();
+            return sourceDataTable.rows.get(sourceDataTableRowIndex++);
         } else
             return sourceRecord.getRowData();
     }
@@ -144,7 +145,7 @@ class TVP {
                 throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveSourceData"), e);
             }
         } else if (TVPType.SQLSERVERDATATABLE == tvpType) {
-            return sourceDataTableRowIterator.hasNext();
+            return sourceDataTableRowIndex < sourceDataTable.rows.size();
         } else if (null != sourceRecord) {
             return sourceRecord.next();
         }
@@ -167,10 +168,14 @@ class TVP {
         if (null != sourceResultSet) {
             try {
                 ResultSetMetaData rsmd = sourceResultSet.getMetaData();
-                for (int i = 0; i < rsmd.getColumnCount(); i++) {
+                int columnCount = rsmd.getColumnCount();
+                sourceResultSetRow = new Object[columnCount];
+                sourceResultSetTimeColumns = new boolean[columnCount];
+                for (int i = 0; i < columnCount; i++) {
                     SQLServerMetaData columnMetaData = new SQLServerMetaData(rsmd.getColumnName(i + 1),
                             rsmd.getColumnType(i + 1), rsmd.getPrecision(i + 1), rsmd.getScale(i + 1));
                     columnMetadata.put(i, columnMetaData);
+                    sourceResultSetTimeColumns[i] = (java.sql.Types.TIME == columnMetaData.javaSqlType);
                 }
             } catch (SQLException e) {
                 throw new SQLServerException(SQLServerException.getErrString("R_unableRetrieveColMeta"), e);
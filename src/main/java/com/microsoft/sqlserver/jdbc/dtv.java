@@ -129,6 +129,12 @@ final class DTV {
     /** The source (app or server) providing the data for this value. */
     private DTVImpl impl;
 
+    /**
+     * Server value of a primitive type, reused from row to row. Such values are never handed to streams, so nothing
+     * refers to the instance once the value is cleared.
+     */
+    private ServerDTVImpl primitiveImpl;
+
     CryptoMetadata cryptoMeta = null;
     JDBCType jdbcTypeSetByUser = null;
     int valueLength = 0;
@@ -161,18 +167,30 @@ final class DTV {
 
     final void skipValue(TypeInfo type, TDSReader tdsReader, boolean isDiscard) throws SQLServerException {
         if (null == impl)
-            impl = new ServerDTVImpl();
+            impl = newServerDTVImpl(type);
 
         impl.skipValue(type, tdsReader, isDiscard);
     }
 
-    final void initFromCompressedNull() {
+    final void initFromCompressedNull(TypeInfo type) {
         if (null == impl)
-            impl = new ServerDTVImpl();
+            impl = newServerDTVImpl(type);
 
         impl.initFromCompressedNull();
     }
 
+    private ServerDTVImpl newServerDTVImpl(TypeInfo type) {
+        if (!ServerDTVImpl.isPrimitive(type.getSSType()))
+            return new ServerDTVImpl();
+
+        if (null == primitiveImpl)
+            primitiveImpl = new ServerDTVImpl();
+        else
+            primitiveImpl.reuse();
+
+        return primitiveImpl;
+    }
+
     final void setStreamSetterArgs(StreamSetterArgs streamSetterArgs) {
         impl.setStreamSetterArgs(streamSetterArgs);
     }
@@ -248,11 +266,48 @@ final class DTV {
             TypeInfo typeInfo, CryptoMetadata cryptoMetadata, TDSReader tdsReader,
             SQLServerStatement statement) throws SQLServerException {
         if (null == impl)
-            impl = new ServerDTVImpl();
+            impl = newServerDTVImpl(typeInfo);
         return impl.getValue(this, jdbcType, scale, streamGetterArgs, cal, typeInfo, cryptoMetadata, tdsReader,
                 statement);
     }
 
+    /*
+     * Primitive getters for server values of primitive types (see ServerDTVImpl.isPrimitive). They return the same
+     * values as getValue, without boxing them.
+     */
+
+    final boolean getBoolean(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        return getServerDTVImpl(typeInfo).getBoolean(typeInfo, tdsReader);
+    }
+
+    final short getShort(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        return getServerDTVImpl(typeInfo).getShort(typeInfo, tdsReader);
+    }
+
+    final int getInt(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        return getServerDTVImpl(typeInfo).getInt(typeInfo, tdsReader);
+    }
+
+    final long getLong(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        return getServerDTVImpl(typeInfo).getLong(typeInfo, tdsReader);
+    }
+
+    final float getFloat(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        return getServerDTVImpl(typeInfo).getFloat(typeInfo, tdsReader);
+    }
+
+    final double getDouble(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        return getServerDTVImpl(typeInfo).getDouble(typeInfo, tdsReader);
+    }
+
+    private ServerDTVImpl getServerDTVImpl(TypeInfo typeInfo) {
+        if (null == impl)
+            impl = newServerDTVImpl(typeInfo);
+
+        assert impl instanceof ServerDTVImpl;
+        return (ServerDTVImpl) impl;
+    }
+
     Object getSetterValue() {
         return impl.getSetterValue();
     }
@@ -3278,6 +3333,30 @@ final class ServerDTVImpl extends DTVImpl {
     private boolean isNull;
     private SqlVariant internalVariant;
 
+    // Mark of the previous value, moved to the next value when the instance is reused
+    private TDSReaderMark reusableMark;
+
+    // MONEY and SMALLMONEY values are sent as integers in ten-thousandths
+    private static final long MONEY_UNITS = 10000;
+
+    // Money values below these magnitudes (in ten-thousandths) are exact as a float or double, so that a single
+    // division rounds them exactly like BigDecimal.floatValue() and BigDecimal.doubleValue() do.
+    private static final long MONEY_EXACT_FLOAT_LIMIT = 1L << 24;
+    private static final long MONEY_EXACT_DOUBLE_LIMIT = 1L << 53;
+
+    /**
+     * Clears the value so that the instance can hold the value of the next row.
+     */
+    void reuse() {
+        if (null != valueMark)
+            reusableMark = valueMark;
+
+        valueMark = null;
+        valueLength = 0;
+        isNull = false;
+        internalVariant = null;
+    }
+
     /**
      * Sets the value of the DTV to an app-specified Java type.
      *
@@ -3407,6 +3486,56 @@ final class ServerDTVImpl extends DTVImpl {
     static final private java.util.logging.Logger aeLogger = java.util.logging.Logger
             .getLogger("com.microsoft.sqlserver.jdbc.DTV");
 
+    /**
+     * Skips a value that has not been read, without materializing it. The value is located at the current position in
+     * the response. Values that are null according to NBCROW are not in the response and must not be skipped.
+     */
+    static void skipUnreadValue(TypeInfo typeInfo, TDSReader tdsReader, boolean isDiscard) throws SQLServerException {
+        int length = 0;
+        switch (typeInfo.getSSLenType()) {
+            case PARTLENTYPE:
+                PLPInputStream tempPLP = PLPInputStream.makeTempStream(tdsReader, isDiscard, null);
+                try {
+                    if (null != tempPLP)
+                        tempPLP.close();
+                } catch (IOException e) {
+                    tdsReader.getConnection().terminate(SQLServerException.DRIVER_ERROR_IO_FAILED, e.getMessage());
+                }
+                return;
+
+            case FIXEDLENTYPE:
+                length = typeInfo.getMaxLength();
+                break;
+
+            case BYTELENTYPE:
+                length = tdsReader.readUnsignedByte();
+                break;
+
+            case USHORTLENTYPE:
+                length = tdsReader.readUnsignedShort();
+                if (65535 == length)
+                    length = 0;
+                break;
+
+            case LONGLENTYPE:
+                if (SSType.TEXT == typeInfo.getSSType() || SSType.IMAGE == typeInfo.getSSType()
+                        || SSType.NTEXT == typeInfo.getSSType()) {
+                    if (0 != tdsReader.readUnsignedByte()) {
+                        tdsReader.skip(24);
+                        length = tdsReader.readInt();
+                    }
+                } else if (SSType.SQL_VARIANT == typeInfo.getSSType()) {
+                    length = tdsReader.readInt();
+                }
+                break;
+        }
+
+        if (length > typeInfo.getMaxLength())
+            tdsReader.throwInvalidTDS();
+
+        tdsReader.skip(length);
+    }
+
     private void getValuePrep(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
         // If we've already seen this value before, then we shouldn't be here.
         assert null == valueMark;
@@ -3459,7 +3588,177 @@ final class ServerDTVImpl extends DTVImpl {
         if (valueLength > typeInfo.getMaxLength())
             tdsReader.throwInvalidTDS();
 
-        valueMark = tdsReader.mark();
+        valueMark = tdsReader.mark(reusableMark);
+        reusableMark = null;
+    }
+
+    /**
+     * Returns whether values of the type can be read with the primitive getters, which decode fixed-length numeric
+     * values straight from the response without boxing them.
+     */
+    static boolean isPrimitive(SSType ssType) {
+        switch (ssType) {
+            case BIT:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case REAL:
+            case FLOAT:
+            case MONEY:
+            case SMALLMONEY:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reads a value of a primitive type as it is sent: integer and money values as a long, and REAL and FLOAT values as
+     * their IEEE 754 bits. A NULL value reads as 0.
+     */
+    private long readPrimitive(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        if (null == valueMark && !isNull)
+            getValuePrep(typeInfo, tdsReader);
+
+        if (isNull)
+            return 0;
+
+        tdsReader.reset(valueMark);
+        switch (typeInfo.getSSType()) {
+            case MONEY:
+            case SMALLMONEY:
+                if (8 == valueLength) {
+                    int intBitsHi = tdsReader.readInt();
+                    int intBitsLo = tdsReader.readInt();
+                    return ((long) intBitsHi << 32) | (intBitsLo & 0xFFFFFFFFL);
+                }
+                if (4 != valueLength)
+                    tdsReader.throwInvalidTDS();
+                return tdsReader.readInt();
+
+            case REAL:
+                if (4 != valueLength)
+                    tdsReader.throwInvalidTDS();
+                return tdsReader.readInt();
+
+            case FLOAT:
+                if (8 != valueLength)
+                    tdsReader.throwInvalidTDS();
+                return tdsReader.readLong();
+
+            default:
+                switch (valueLength) {
+                    case 8:
+                        return tdsReader.readLong();
+                    case 4:
+                        return tdsReader.readInt();
+                    case 2:
+                        return tdsReader.readShort();
+                    case 1:
+                        return tdsReader.readUnsignedByte();
+                    default:
+                        tdsReader.throwInvalidTDS();
+                        return 0;
+                }
+        }
+    }
+
+    /*
+     * The primitive getters below convert values like DDC.convertIntegerToObject, convertLongToObject,
+     * convertFloatToObject, convertDoubleToObject and convertBigDecimalToObject do.
+     */
+
+    boolean getBoolean(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        long value = readPrimitive(typeInfo, tdsReader);
+        switch (typeInfo.getSSType()) {
+            case REAL:
+                return 0 != Float.compare(0.0f, Float.intBitsToFloat((int) value));
+            case FLOAT:
+                return 0 != Double.compare(0.0d, Double.longBitsToDouble(value));
+            default:
+                return 0 != value;
+        }
+    }
+
+    short getShort(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        long value = readPrimitive(typeInfo, tdsReader);
+        switch (typeInfo.getSSType()) {
+            case REAL:
+                return (short) Float.intBitsToFloat((int) value);
+            case FLOAT:
+                return (short) Double.longBitsToDouble(value);
+            case MONEY:
+            case SMALLMONEY:
+                return (short) (value / MONEY_UNITS);
+            default:
+                return (short) value;
+        }
+    }
+
+    int getInt(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        long value = readPrimitive(typeInfo, tdsReader);
+        switch (typeInfo.getSSType()) {
+            case REAL:
+                return (int) Float.intBitsToFloat((int) value);
+            case FLOAT:
+                return (int) Double.longBitsToDouble(value);
+            case MONEY:
+            case SMALLMONEY:
+                return (int) (value / MONEY_UNITS);
+            default:
+                return (int) value;
+        }
+    }
+
+    long getLong(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        long value = readPrimitive(typeInfo, tdsReader);
+        switch (typeInfo.getSSType()) {
+            case REAL:
+                return (long) Float.intBitsToFloat((int) value);
+            case FLOAT:
+                return (long) Double.longBitsToDouble(value);
+            case MONEY:
+            case SMALLMONEY:
+                return value / MONEY_UNITS;
+            default:
+                return value;
+        }
+    }
+
+    float getFloat(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        long value = readPrimitive(typeInfo, tdsReader);
+        switch (typeInfo.getSSType()) {
+            case REAL:
+                return Float.intBitsToFloat((int) value);
+            case FLOAT:
+                return (float) Double.longBitsToDouble(value);
+            case MONEY:
+            case SMALLMONEY:
+                if (-MONEY_EXACT_FLOAT_LIMIT < value && value < MONEY_EXACT_FLOAT_LIMIT)
+                    return (float) value / MONEY_UNITS;
+                return BigDecimal.valueOf(value, 4).floatValue();
+            default:
+                return (float) value;
+        }
+    }
+
+    double getDouble(TypeInfo typeInfo, TDSReader tdsReader) throws SQLServerException {
+        long value = readPrimitive(typeInfo, tdsReader);
+        switch (typeInfo.getSSType()) {
+            case REAL:
+                return Float.intBitsToFloat((int) value);
+            case FLOAT:
+                return Double.longBitsToDouble(value);
+            case MONEY:
+            case SMALLMONEY:
+                if (-MONEY_EXACT_DOUBLE_LIMIT < value && value < MONEY_EXACT_DOUBLE_LIMIT)
+                    return (double) value / MONEY_UNITS;
+                return BigDecimal.valueOf(value, 4).doubleValue();
+            default:
+                return value;
+        }
     }
 
     Object denormalizedValue(byte[] decryptedValue, JDBCType jdbcType, TypeInfo baseTypeInfo, SQLServerConnection con,
@@ -0,0 +1,98 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Tests the PrepareStatistics class
+ */
+@RunWith(JUnitPlatform.class)
+public class PrepareStatisticsTest {
+
+    @Test
+    public void testPrepareOnSecondExecution() {
+        PrepareStatistics statistics = new PrepareStatistics();
+        assertFalse(statistics.shouldPrepare());
+        statistics.onExecution(false, false);
+        assertTrue(statistics.shouldPrepare());
+    }
+
+    @Test
+    public void testDemoteHandleNotReused() {
+        PrepareStatistics statistics = new PrepareStatistics();
+        statistics.onExecution(false, false);
+        statistics.onExecution(true, true);
+        statistics.onHandleEvicted();
+        assertEquals(2 * PrepareStatistics.MIN_PREPARE_THRESHOLD, statistics.getPrepareThreshold());
+
+        for (int i = 1; i < statistics.getPrepareThreshold(); i++) {
+            assertFalse(statistics.shouldPrepare());
+            statistics.onExecution(false, false);
+        }
+        assertTrue(statistics.shouldPrepare());
+
+        for (int i = 0; i < 10; i++) {
+            statistics.onExecution(true, true);
+            statistics.onHandleEvicted();
+        }
+        assertEquals(PrepareStatistics.MAX_PREPARE_THRESHOLD, statistics.getPrepareThreshold());
+    }
+
+    @Test
+    public void testPromoteHandleReused() {
+        PrepareStatistics statistics = new PrepareStatistics();
+        statistics.onExecution(true, true);
+        statistics.onHandleEvicted();
+        statistics.onExecution(true, true);
+        statistics.onHandleEvicted();
+        assertEquals(4 * PrepareStatistics.MIN_PREPARE_THRESHOLD, statistics.getPrepareThreshold());
+
+        statistics.onExecution(true, true);
+        statistics.onExecution(false, true);
+        statistics.onHandleEvicted();
+        assertEquals(2 * PrepareStatistics.MIN_PREPARE_THRESHOLD, statistics.getPrepareThreshold());
+    }
+
+    @Test
+    public void testRetryNotCounted() {
+        PrepareStatistics statistics = new PrepareStatistics();
+        statistics.onExecution(false, false);
+        statistics.onExecution(true, true);
+
+        // the cached handle could not be reused, the execution prepares the statement again
+        statistics.onExecution(false, true);
+        statistics.onRetry(true, true);
+        statistics.onHandleEvicted();
+        assertEquals(2 * PrepareStatistics.MIN_PREPARE_THRESHOLD, statistics.getPrepareThreshold());
+
+        for (int i = 1; i < statistics.getPrepareThreshold(); i++) {
+            assertFalse(statistics.shouldPrepare());
+            statistics.onExecution(false, false);
+            statistics.onRetry(false, false);
+        }
+        assertTrue(statistics.shouldPrepare());
+    }
+
+    @Test
+    public void testLongRunningStatement() {
+        PrepareStatistics statistics = new PrepareStatistics();
+        statistics.onExecution(false, false);
+        statistics.onLatency(2 * PrepareStatistics.LONG_RUNNING_NANOS);
+        assertFalse(statistics.shouldPrepare());
+
+        for (int i = 2; i < PrepareStatistics.LONG_RUNNING_PREPARE_THRESHOLD; i++) {
+            statistics.onExecution(false, false);
+        }
+        assertTrue(statistics.shouldPrepare());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Types;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Tests the SQLServerBulkCSVStreamRecord class over an already decoded reader
+ */
+@RunWith(JUnitPlatform.class)
+public class SQLServerBulkCSVStreamRecordTest {
+
+    @Test
+    public void testParseFromReader() throws SQLServerException, IOException {
+        StringReader reader = new StringReader("id;name\r\n1;\"a;\"\"b\"\"\r\nc\"\n2;d");
+        try (SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(reader, ';', true, true)) {
+            record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+            record.addColumnMetadata(2, null, Types.VARCHAR, 10, 0);
+            assertEquals("id", record.getColumnName(1));
+            assertEquals("name", record.getColumnName(2));
+
+            assertTrue(record.next());
+            Object[] row = record.getRowData();
+            assertEquals(1, row[0]);
+            assertEquals("a;\"b\"\r\nc", row[1]);
+
+            assertTrue(record.next());
+            row = record.getRowData();
+            assertEquals(2, row[0]);
+            assertEquals("d", row[1]);
+
+            assertFalse(record.next());
+        }
+
+        // The reader is closed with the record
+        assertThrows(IOException.class, reader::ready);
+    }
+
+    @Test
+    public void testParseFromReaderWithoutEscapes() throws SQLServerException, IOException {
+        try (SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(new StringReader("\"a\",b\r\n"),
+                ',', false, false)) {
+            record.addColumnMetadata(1, "c1", Types.VARCHAR, 10, 0);
+            record.addColumnMetadata(2, "c2", Types.VARCHAR, 10, 0);
+
+            assertTrue(record.next());
+            Object[] row = record.getRowData();
+            assertEquals("\"a\"", row[0]);
+            assertEquals("b", row[1]);
+            assertFalse(record.next());
+        }
+    }
+}
@@ -125,6 +125,16 @@ public class SQLServerConnectionTest extends AbstractTest {
         ds.setStatementPoolingCacheSize(intPropValue);
         assertEquals(intPropValue, ds.getStatementPoolingCacheSize(), TestResource.getResource("R_valuesAreDifferent"));
 
+        ds.setProcedureMetadataCacheTtl(intPropValue);
+        assertEquals(intPropValue, ds.getProcedureMetadataCacheTtl(), TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setMaxBatchRequestSize(intPropValue);
+        assertEquals(intPropValue, ds.getMaxBatchRequestSize(), TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setMaxBatchRequestParameters(intPropValue);
+        assertEquals(intPropValue, ds.getMaxBatchRequestParameters(),
+                TestResource.getResource("R_valuesAreDifferent"));
+
         ds.setDisableStatementPooling(booleanPropValue);
         assertEquals(booleanPropValue, ds.getDisableStatementPooling(),
                 TestResource.getResource("R_valuesAreDifferent"));
@@ -212,6 +222,36 @@ public class SQLServerConnectionTest extends AbstractTest {
         ds.setCalcBigDecimalPrecision(booleanPropValue);
         assertEquals(booleanPropValue, ds.getCalcBigDecimalPrecision(),
                 TestResource.getResource("R_valuesAreDifferent"));
+        ds.setUseDirectBuffers(booleanPropValue);
+        assertEquals(booleanPropValue, ds.getUseDirectBuffers(), TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setCacheBulkCopyMetadata(booleanPropValue);
+        assertEquals(booleanPropValue, ds.getCacheBulkCopyMetadata(), TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setUseMultiRowValuesForBatchInsert(booleanPropValue);
+        assertEquals(booleanPropValue, ds.getUseMultiRowValuesForBatchInsert(),
+                TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setUseBulkCopyForBatchUpdate(booleanPropValue);
+        assertEquals(booleanPropValue, ds.getUseBulkCopyForBatchUpdate(),
+                TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setCacheSSLContext(booleanPropValue);
+        assertEquals(booleanPropValue, ds.getCacheSSLContext(), TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setPrepareHotStatements(booleanPropValue);
+        assertEquals(booleanPropValue, ds.getPrepareHotStatements(),
+                TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setAdaptivePrepare(booleanPropValue);
+        assertEquals(booleanPropValue, ds.getAdaptivePrepare(), TestResource.getResource("R_valuesAreDifferent"));
+
+        SQLServerMetrics metrics = new SQLServerInMemoryMetrics();
+        ds.setMetrics(metrics);
+        assertEquals(metrics, ds.getMetrics(), TestResource.getResource("R_valuesAreDifferent"));
+
+        ds.setMetricsClass(stringPropValue);
+        assertEquals(stringPropValue, ds.getMetricsClass(), TestResource.getResource("R_valuesAreDifferent"));
 
         ds.setServerCertificate(stringPropValue);
         assertEquals(stringPropValue, ds.getServerCertificate(), TestResource.getResource("R_valuesAreDifferent"));
@@ -0,0 +1,77 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Tests the SocketChannelStreams class over a loopback connection
+ */
+@RunWith(JUnitPlatform.class)
+public class SocketChannelStreamsTest {
+
+    @Test
+    public void testReadsTimeOutThroughSocketStream() throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel
+                .open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+                SocketChannel client = SocketChannel.open(server.getLocalAddress());
+                SocketChannel peer = server.accept()) {
+            SocketChannelStreams streams = new SocketChannelStreams(client);
+            InputStream in = streams.getInputStream();
+            byte[] b = new byte[10];
+
+            // Without a timeout, reads go through the direct read buffer
+            peer.write(ByteBuffer.wrap(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+            assertEquals(4, readFully(in, b, 0, 4));
+
+            // With a timeout, the bytes still buffered are read first, then reads time out through the socket stream
+            client.socket().setSoTimeout(100);
+            assertEquals(6, readFully(in, b, 4, 6));
+            for (int i = 0; i < b.length; i++) {
+                assertEquals(i, b[i]);
+            }
+            assertThrows(SocketTimeoutException.class, () -> in.read(b, 0, 1));
+
+            peer.write(ByteBuffer.wrap(new byte[] {10, 11}));
+            assertEquals(2, readFully(in, b, 0, 2));
+            assertEquals(0, in.available());
+            assertEquals(10, b[0]);
+            assertEquals(11, b[1]);
+
+            // Without a timeout again, reads go through the direct read buffer
+            client.socket().setSoTimeout(0);
+            peer.write(ByteBuffer.wrap(new byte[] {12, 13, 14}));
+            assertEquals(3, readFully(in, b, 0, 3));
+            assertEquals(12, b[0]);
+            assertEquals(14, b[2]);
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] b, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int bytesRead = in.read(b, offset + total, length - total);
+            if (bytesRead < 0)
+                break;
+            total += bytesRead;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Tests the TDSPacketPool class
+ */
+@RunWith(JUnitPlatform.class)
+public class TDSPacketPoolTest {
+
+    private static final int PACKET_SIZE = 8000;
+
+    @Test
+    public void testReuseReleasedPacket() {
+        TDSPacketPool pool = new TDSPacketPool(2);
+        TDSPacket packet = pool.acquire(PACKET_SIZE);
+        packet.payloadLength = 100;
+        packet.next = new TDSPacket(PACKET_SIZE);
+        int generation = packet.generation;
+
+        pool.release(packet);
+        assertEquals(1, pool.getIdlePacketCount());
+
+        TDSPacket reused = pool.acquire(PACKET_SIZE);
+        assertSame(packet, reused);
+        assertEquals(0, reused.payloadLength);
+        assertNull(reused.next);
+        assertEquals(generation + 1, reused.generation);
+
+        assertEquals(1, pool.getAllocatedPacketCount());
+        assertEquals(1, pool.getReusedPacketCount());
+        assertEquals(1, pool.getRecycledPacketCount());
+        assertEquals(0, pool.getIdlePacketCount());
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        TDSPacketPool pool = new TDSPacketPool(2);
+        for (int i = 0; i < 3; i++) {
+            pool.release(new TDSPacket(PACKET_SIZE));
+        }
+
+        assertEquals(2, pool.getIdlePacketCount());
+        assertEquals(2, pool.getRecycledPacketCount());
+        assertEquals(1, pool.getDiscardedPacketCount());
+    }
+
+    @Test
+    public void testPacketSizeChangeDiscardsIdlePackets() {
+        TDSPacketPool pool = new TDSPacketPool(2);
+        TDSPacket small = pool.acquire(4096);
+        pool.release(small);
+
+        TDSPacket large = pool.acquire(PACKET_SIZE);
+        assertNotSame(small, large);
+        assertEquals(PACKET_SIZE, large.payload.length);
+        assertEquals(0, pool.getIdlePacketCount());
+        assertEquals(1, pool.getDiscardedPacketCount());
+        assertEquals(2, pool.getAllocatedPacketCount());
+    }
+
+    @Test
+    public void testMarkDetectsRecycledPacket() {
+        TDSPacketPool pool = new TDSPacketPool(1);
+        TDSPacket packet = pool.acquire(PACKET_SIZE);
+        TDSReaderMark mark = new TDSReaderMark(packet, 0);
+        assertEquals(packet.generation, mark.packetGeneration);
+
+        pool.release(packet);
+        pool.acquire(PACKET_SIZE);
+        assertEquals(packet.generation, mark.packetGeneration + 1);
+    }
+}
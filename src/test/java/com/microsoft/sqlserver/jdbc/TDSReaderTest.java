@@ -0,0 +1,143 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Field;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+
+/**
+ * Tests the recycling of response packets by TDSReader, with response packets linked to the reader directly
+ */
+@RunWith(JUnitPlatform.class)
+public class TDSReaderTest {
+
+    private static final int PACKET_SIZE = 4;
+
+    private TDSPacketPool pool;
+    private TDSReader reader;
+    private TDSPacket lastPacket;
+    private int nextValue;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        SQLServerConnection con = new SQLServerConnection("TDSReaderTest");
+        con.columnEncryptionSetting = ColumnEncryptionSetting.DISABLED.toString();
+        TDSChannel channel = new TDSChannel(con);
+        pool = channel.getPacketPool();
+        reader = channel.getReader(null);
+
+        // The reader starts on an empty packet, the response packets are linked after it
+        Field currentPacket = TDSReader.class.getDeclaredField("currentPacket");
+        currentPacket.setAccessible(true);
+        lastPacket = (TDSPacket) currentPacket.get(reader);
+        nextValue = 0;
+    }
+
+    /**
+     * Appends a packet from the pool to the response, filled with the next values.
+     */
+    private TDSPacket appendPacket() {
+        TDSPacket packet = pool.acquire(PACKET_SIZE);
+        for (int i = 0; i < PACKET_SIZE; i++) {
+            packet.payload[i] = (byte) nextValue++;
+        }
+        packet.payloadLength = PACKET_SIZE;
+        lastPacket.next = packet;
+        lastPacket = packet;
+        return packet;
+    }
+
+    private void readValues(int from, int to) throws SQLServerException {
+        for (int value = from; value < to; value++) {
+            assertEquals(value, reader.readUnsignedByte());
+        }
+    }
+
+    @Test
+    public void testStreamingRecyclesConsumedPackets() throws SQLServerException {
+        appendPacket();
+        appendPacket();
+        TDSPacket third = appendPacket();
+
+        readValues(0, 2 * PACKET_SIZE + 1);
+        assertEquals(2, pool.getRecycledPacketCount());
+
+        // The packet being read is not recycled
+        for (int i = 0; i < 2; i++) {
+            assertNotSame(third, pool.acquire(PACKET_SIZE));
+        }
+    }
+
+    @Test
+    public void testReleaseMarksAcrossRecycledPackets() throws SQLServerException {
+        TDSPacket[] packets = {appendPacket(), appendPacket(), appendPacket(), appendPacket()};
+
+        readValues(0, 1);
+        TDSReaderMark mark = reader.mark();
+
+        // The packets reachable from the mark are kept while reading past them and after a reset
+        readValues(1, 2 * PACKET_SIZE + 2);
+        assertEquals(0, pool.getRecycledPacketCount());
+        reader.reset(mark);
+        readValues(1, 2 * PACKET_SIZE + 2);
+        assertEquals(0, pool.getRecycledPacketCount());
+
+        // Releasing the mark recycles the packets before the current one
+        reader.releaseMarks();
+        assertEquals(2, pool.getRecycledPacketCount());
+
+        // The recycled packets are handed out again for the rest of the response, behind a new mark
+        mark = reader.mark(mark);
+        assertSame(packets[2], mark.packet);
+        TDSPacket reused1 = appendPacket();
+        TDSPacket reused2 = appendPacket();
+        assertSame(packets[1], reused1);
+        assertSame(packets[0], reused2);
+        assertEquals(mark.packetGeneration, mark.packet.generation);
+
+        readValues(2 * PACKET_SIZE + 2, 5 * PACKET_SIZE + 1);
+        reader.reset(mark);
+        readValues(2 * PACKET_SIZE + 2, 5 * PACKET_SIZE + 1);
+        assertEquals(2, pool.getRecycledPacketCount());
+
+        reader.releaseMarks();
+        assertEquals(5, pool.getRecycledPacketCount());
+
+        // None of the recycled packets is the packet being read
+        assertEquals(3, pool.getIdlePacketCount());
+        for (int i = 0; i < 3; i++) {
+            assertNotSame(reused2, pool.acquire(PACKET_SIZE));
+        }
+        readValues(5 * PACKET_SIZE + 1, 6 * PACKET_SIZE);
+    }
+
+    @Test
+    public void testResetToRecycledPacketFails() throws SQLServerException {
+        appendPacket();
+        appendPacket();
+
+        readValues(0, 1);
+        TDSReaderMark mark = reader.mark();
+        readValues(1, PACKET_SIZE + 1);
+        reader.releaseMarks();
+        assertEquals(1, pool.getRecycledPacketCount());
+
+        // The marked packet was recycled, whether or not it has been handed out again
+        assertThrows(IllegalStateException.class, () -> reader.reset(mark));
+        appendPacket();
+        assertThrows(IllegalStateException.class, () -> reader.reset(mark));
+        readValues(PACKET_SIZE + 1, 3 * PACKET_SIZE);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.bulkCopy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCSVParallelRecord;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCSVStreamRecord;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests SQLServerBulkCSVParallelRecord.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class BulkCopyCSVParallelRecordTest extends AbstractTest {
+    static String encoding = "UTF-8";
+
+    // large enough for several ranges
+    static final int ROW_COUNT = 300000;
+
+    static File inputFile;
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+
+        inputFile = File.createTempFile("BulkCopyCSVParallelRecordTest", ".csv");
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(inputFile.toPath()), StandardCharsets.UTF_8))) {
+            writer.write("id,name,amount\r\n");
+            for (int i = 1; i <= ROW_COUNT; i++) {
+                writer.write(i + ",\"name, é " + i + "\r\n\"\"quoted\"\"\"," + i + ".5\n");
+            }
+        }
+    }
+
+    /**
+     * Rows are returned in the order of the file, with the values SQLServerBulkCSVStreamRecord returns.
+     */
+    @Test
+    public void testOrderedMatchesStreamRecord() throws SQLException {
+        try (SQLServerBulkCSVParallelRecord parallelRecord = new SQLServerBulkCSVParallelRecord(inputFile.getPath(),
+                encoding, ",", true, 4);
+                SQLServerBulkCSVStreamRecord streamRecord = new SQLServerBulkCSVStreamRecord(inputFile.getPath(),
+                        encoding, ",", true)) {
+            assertTrue(parallelRecord.isOrdered());
+            addColumns(parallelRecord);
+            addColumns(streamRecord);
+            assertEquals("amount", parallelRecord.getColumnName(3));
+
+            int rows = 0;
+            while (streamRecord.next()) {
+                assertTrue(parallelRecord.next());
+                assertArrayEquals(streamRecord.getRowData(), parallelRecord.getRowData());
+                rows++;
+            }
+            assertFalse(parallelRecord.next());
+            assertEquals(ROW_COUNT, rows);
+        }
+    }
+
+    @Test
+    public void testUnordered() throws SQLException {
+        try (SQLServerBulkCSVParallelRecord record = new SQLServerBulkCSVParallelRecord(inputFile.getPath(), encoding,
+                ",", true, 3)) {
+            record.setOrdered(false);
+            addColumns(record);
+
+            boolean[] seen = new boolean[ROW_COUNT + 1];
+            int rows = 0;
+            while (record.next()) {
+                Object[] row = record.getRowData();
+                int id = (Integer) row[0];
+                assertFalse(seen[id]);
+                seen[id] = true;
+                assertEquals("name, é " + id + "\r\n\"quoted\"", row[1]);
+                rows++;
+            }
+            assertEquals(ROW_COUNT, rows);
+        }
+    }
+
+    @Test
+    public void testBulkCopy() throws SQLException {
+        String tableName = AbstractSQLGenerator.escapeIdentifier(RandomUtil.getIdentifier("BulkCSVParallel"));
+        try (Connection con = getConnection(); Statement stmt = con.createStatement();
+                SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con);
+                SQLServerBulkCSVParallelRecord record = new SQLServerBulkCSVParallelRecord(inputFile.getPath(),
+                        encoding, ",", true)) {
+            try {
+                stmt.execute("CREATE TABLE " + tableName + " (id int, name nvarchar(50), amount decimal(10,1))");
+                addColumns(record);
+                bulkCopy.setDestinationTableName(tableName);
+                bulkCopy.writeToServer(record);
+
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*), SUM(CAST(id AS bigint)) FROM " + tableName)) {
+                    rs.next();
+                    assertEquals(ROW_COUNT, rs.getInt(1));
+                    assertEquals((long) ROW_COUNT * (ROW_COUNT + 1) / 2, rs.getLong(2));
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT name, amount FROM " + tableName + " WHERE id = 12345")) {
+                    rs.next();
+                    assertEquals("name, é 12345\r\n\"quoted\"", rs.getString(1));
+                    assertEquals("12345.5", rs.getBigDecimal(2).toPlainString());
+                }
+            } finally {
+                TestUtils.dropTableIfExists(tableName, stmt);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() throws SQLException, IOException {
+        assertThrows(SQLServerException.class,
+                () -> new SQLServerBulkCSVParallelRecord(inputFile.getPath(), encoding, ",", true, 0));
+        assertThrows(SQLServerException.class,
+                () -> new SQLServerBulkCSVParallelRecord(inputFile.getPath(), "UTF-16", ",", true, 2));
+
+        File unbalanced = File.createTempFile("BulkCopyCSVParallelRecordTest", ".csv");
+        try {
+            Files.write(unbalanced.toPath(), "1,\"a\nb\n".getBytes(StandardCharsets.UTF_8));
+            try (SQLServerBulkCSVParallelRecord record = new SQLServerBulkCSVParallelRecord(unbalanced.getPath(),
+                    encoding, ",", false, 2)) {
+                record.setEscapeColumnDelimitersCSV(true);
+                record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+                SQLServerException e = assertThrows(SQLServerException.class, record::next);
+                assertTrue(e.getMessage().matches(TestUtils.formatErrorMsg("R_InvalidCSVQuotes")), e.getMessage());
+            }
+        } finally {
+            unbalanced.delete();
+        }
+    }
+
+    private static void addColumns(SQLServerBulkCSVParallelRecord record) throws SQLServerException {
+        record.setEscapeColumnDelimitersCSV(true);
+        record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+        record.addColumnMetadata(2, null, Types.NVARCHAR, 50, 0);
+        record.addColumnMetadata(3, null, Types.DECIMAL, 10, 1);
+    }
+
+    private static void addColumns(SQLServerBulkCSVStreamRecord record) throws SQLServerException {
+        record.setEscapeColumnDelimitersCSV(true);
+        record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+        record.addColumnMetadata(2, null, Types.NVARCHAR, 50, 0);
+        record.addColumnMetadata(3, null, Types.DECIMAL, 10, 1);
+    }
+
+    @AfterAll
+    public static void cleanup() {
+        inputFile.delete();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.bulkCopy;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCSVFileRecord;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCSVStreamRecord;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests SQLServerBulkCSVStreamRecord.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class BulkCopyCSVStreamRecordTest extends AbstractTest {
+    static String inputFileDelimiterEscape = "BulkCopyCSVTestInputDelimiterEscape.csv";
+    static String encoding = "UTF-8";
+
+    static String filePath = null;
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+        filePath = TestUtils.getCurrentClassPath();
+    }
+
+    /**
+     * The stream record parses the escaped test file like SQLServerBulkCSVFileRecord.
+     */
+    @Test
+    public void testMatchesFileRecord() throws SQLException {
+        String fileName = filePath + inputFileDelimiterEscape;
+        try (SQLServerBulkCSVFileRecord fileRecord = new SQLServerBulkCSVFileRecord(fileName, encoding, "@", false);
+                SQLServerBulkCSVStreamRecord streamRecord = new SQLServerBulkCSVStreamRecord(fileName, encoding, "@",
+                        false)) {
+            fileRecord.setEscapeColumnDelimitersCSV(true);
+            streamRecord.setEscapeColumnDelimitersCSV(true);
+            for (int i = 1; i <= 5; i++) {
+                fileRecord.addColumnMetadata(i, null, Types.VARCHAR, 50, 0);
+                streamRecord.addColumnMetadata(i, null, Types.VARCHAR, 50, 0);
+            }
+
+            int rows = 0;
+            while (fileRecord.next()) {
+                assertTrue(streamRecord.next());
+                assertArrayEquals(fileRecord.getRowData(), streamRecord.getRowData());
+                rows++;
+            }
+            assertFalse(streamRecord.next());
+            assertEquals(12, rows);
+        }
+    }
+
+    @Test
+    public void testTypedColumns() throws SQLException {
+        String csv = "c1,c2,c3,c4,c5\r\n 7 ,1.9,12.345,1,0x0A0B\n-3,,2,true,\n9223372036854775807,1e2,-0.005,0,FF";
+        try (SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(toStream(csv), encoding, ",",
+                true)) {
+            record.addColumnMetadata(1, null, Types.BIGINT, 0, 0);
+            record.addColumnMetadata(2, null, Types.INTEGER, 0, 0);
+            record.addColumnMetadata(3, null, Types.DECIMAL, 10, 2);
+            record.addColumnMetadata(4, null, Types.BOOLEAN, 0, 0);
+            record.addColumnMetadata(5, null, Types.VARBINARY, 10, 0);
+            assertEquals("c3", record.getColumnName(3));
+            assertEquals(Types.BIT, record.getColumnType(4));
+
+            assertTrue(record.next());
+            assertArrayEquals(new Object[] {7L, 1, new BigDecimal("12.35"), true, "0A0B"}, record.getRowData());
+            assertTrue(record.next());
+            assertArrayEquals(new Object[] {-3L, null, new BigDecimal("2.00"), true, null}, record.getRowData());
+            // the last record is read without a trailing newline
+            assertTrue(record.next());
+            assertArrayEquals(new Object[] {Long.MAX_VALUE, 100, new BigDecimal("-0.01"), false, "FF"},
+                    record.getRowData());
+            assertFalse(record.next());
+        }
+    }
+
+    @Test
+    public void testInvalidData() throws SQLException {
+        try (SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(toStream("1,a\"b\n"), encoding,
+                ",", false)) {
+            record.setEscapeColumnDelimitersCSV(true);
+            SQLServerException e = assertThrows(SQLServerException.class, record::next);
+            assertTrue(e.getMessage().matches(TestUtils.formatErrorMsg("R_InvalidCSVQuotes")), e.getMessage());
+        }
+
+        try (SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(toStream("x\n"), encoding, ",",
+                false)) {
+            record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+            assertTrue(record.next());
+            SQLServerException e = assertThrows(SQLServerException.class, record::getRowData);
+            assertTrue(e.getMessage().matches(TestUtils.formatErrorMsg("R_errorConvertingValue")), e.getMessage());
+        }
+
+        assertThrows(SQLServerException.class,
+                () -> new SQLServerBulkCSVStreamRecord(toStream("a"), encoding, "ab", false));
+    }
+
+    @Test
+    public void testBulkCopy() throws SQLException {
+        String tableName = AbstractSQLGenerator.escapeIdentifier(RandomUtil.getIdentifier("BulkCSVStream"));
+        int rowCount = 10000;
+        StringBuilder csv = new StringBuilder("id,name,amount\r\n");
+        for (int i = 1; i <= rowCount; i++) {
+            csv.append(i).append(",\"name ").append(i).append(", \"\"quoted\"\"\r\nline\",").append(i).append(".5\r\n");
+        }
+
+        try (Connection con = getConnection(); Statement stmt = con.createStatement();
+                SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con);
+                SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(toStream(csv.toString()),
+                        encoding, ",", true)) {
+            try {
+                stmt.execute("CREATE TABLE " + tableName + " (id int, name nvarchar(50), amount decimal(10,1))");
+                record.setEscapeColumnDelimitersCSV(true);
+                record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+                record.addColumnMetadata(2, null, Types.NVARCHAR, 50, 0);
+                record.addColumnMetadata(3, null, Types.DECIMAL, 10, 1);
+                bulkCopy.setDestinationTableName(tableName);
+                bulkCopy.writeToServer(record);
+
+                try (ResultSet rs = stmt
+                        .executeQuery("SELECT COUNT(*), SUM(amount), MAX(name) FROM " + tableName + " WHERE id = 1")) {
+                    rs.next();
+                    assertEquals(1, rs.getInt(1));
+                    assertEquals(new BigDecimal("1.5"), rs.getBigDecimal(2));
+                    assertEquals("name 1, \"quoted\"\r\nline", rs.getString(3));
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*), SUM(CAST(id AS bigint)) FROM " + tableName)) {
+                    rs.next();
+                    assertEquals(rowCount, rs.getInt(1));
+                    assertEquals((long) rowCount * (rowCount + 1) / 2, rs.getLong(2));
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tableName + " WHERE name IS NULL")) {
+                    rs.next();
+                    assertEquals(0, rs.getInt(1));
+                }
+            } finally {
+                TestUtils.dropTableIfExists(tableName, stmt);
+            }
+        }
+    }
+
+    /**
+     * Bulk copy parses the values of a column with the formatter set on the stream record.
+     */
+    @Test
+    public void testColumnDateTimeFormatter() throws SQLException {
+        String tableName = AbstractSQLGenerator.escapeIdentifier(RandomUtil.getIdentifier("BulkCSVStreamFormat"));
+        try (Connection con = getConnection(); Statement stmt = con.createStatement();
+                SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con);
+                SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(
+                        toStream("id,created\r\n1,02.01.2024 03:04:05 +01:00\r\n"), encoding, ",", true)) {
+            try {
+                stmt.execute("CREATE TABLE " + tableName + " (id int, created datetimeoffset(0))");
+                record.addColumnMetadata(1, null, Types.INTEGER, 0, 0);
+                record.addColumnMetadata(2, null, Types.TIMESTAMP_WITH_TIMEZONE, 0, 0,
+                        DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm:ss XXX"));
+                bulkCopy.setDestinationTableName(tableName);
+                bulkCopy.writeToServer(record);
+
+                try (ResultSet rs = stmt.executeQuery("SELECT created FROM " + tableName)) {
+                    rs.next();
+                    assertEquals(OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.ofHours(1)),
+                            rs.getObject(1, OffsetDateTime.class));
+                }
+            } finally {
+                TestUtils.dropTableIfExists(tableName, stmt);
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyStream() throws SQLException {
+        try (SQLServerBulkCSVStreamRecord record = new SQLServerBulkCSVStreamRecord(toStream(""), encoding, ",",
+                true)) {
+            assertFalse(record.next());
+            assertNull(record.getRowData());
+        }
+    }
+
+    private static InputStream toStream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.bulkCopy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkColumnarData;
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests SQLServerBulkCopy with an ISQLServerBulkColumnarData source.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class BulkCopyColumnarDataTest extends AbstractTest {
+    private static String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("BulkCopyColumnarDataTest"));
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            stmt.execute("CREATE TABLE " + tableName + " (c1 int, c2 bigint, c3 float, c4 real, c5 bit, c6 tinyint,"
+                    + " c7 smallint, c8 nvarchar(50))");
+        }
+    }
+
+    @Test
+    public void testColumnarCopy() throws SQLException {
+        int rowCount = 10000;
+        try (Connection con = getConnection(); SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con)) {
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            // batches of the bulk copy do not line up with batches of the source
+            options.setBatchSize(3000);
+            bulkCopy.setBulkCopyOptions(options);
+            bulkCopy.setDestinationTableName(tableName);
+            bulkCopy.writeToServer(new ColumnarData(rowCount, 1024));
+        }
+
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt
+                .executeQuery("SELECT COUNT(*), COUNT(c1), SUM(CAST(c1 AS bigint)), SUM(c2), SUM(c3),"
+                        + " SUM(CAST(c5 AS int)), MAX(c6), MIN(c7), COUNT(c8) FROM " + tableName)) {
+            rs.next();
+            assertEquals(rowCount, rs.getInt(1));
+            // every tenth row is NULL
+            assertEquals(rowCount - rowCount / 10, rs.getInt(2));
+            long sum = 0;
+            for (int i = 0; i < rowCount; i++) {
+                sum += (0 == i % 10) ? 0 : i;
+            }
+            assertEquals(sum, rs.getLong(3));
+            assertEquals(sum * 1000000L, rs.getLong(4));
+            assertEquals(sum * 0.5, rs.getDouble(5), 0.001);
+            assertEquals(rowCount / 2, rs.getInt(6));
+            assertEquals(255, rs.getInt(7));
+            assertEquals(-(rowCount - 1), rs.getInt(8));
+            assertEquals(rowCount - rowCount / 10, rs.getInt(9));
+        }
+
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT c4, c8 FROM " + tableName + " WHERE c1 = 4321")) {
+            rs.next();
+            assertEquals(4321 * 0.25f, rs.getFloat(1));
+            assertEquals("row 4321", rs.getString(2));
+        }
+    }
+
+    @Test
+    public void testShortVector() throws SQLException {
+        try (Connection con = getConnection(); SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con)) {
+            bulkCopy.setDestinationTableName(tableName);
+            ColumnarData data = new ColumnarData(100, 100) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public int[] getIntColumn(int column) {
+                    return Arrays.copyOf(super.getIntColumn(column), 10);
+                }
+            };
+            SQLServerException e = assertThrows(SQLServerException.class, () -> bulkCopy.writeToServer(data));
+            assertTrue(e.getMessage().matches(TestUtils.formatErrorMsg("R_unableRetrieveSourceData")),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Generates rows where every tenth row is NULL, in batches of the given size.
+     */
+    static class ColumnarData implements ISQLServerBulkColumnarData {
+        private static final long serialVersionUID = 1L;
+
+        private final int rowCount;
+        private int batchStart;
+        private int batchRows;
+
+        private final int[] ints;
+        private final long[] longs;
+        private final double[] doubles;
+        private final double[] reals;
+        private final byte[] bits;
+        private final byte[] tinyints;
+        private final int[] smallints;
+        private final Object[] strings;
+        private final boolean[] nulls;
+
+        ColumnarData(int rowCount, int batchSize) {
+            this.rowCount = rowCount;
+            ints = new int[batchSize];
+            longs = new long[batchSize];
+            doubles = new double[batchSize];
+            reals = new double[batchSize];
+            bits = new byte[batchSize];
+            tinyints = new byte[batchSize];
+            smallints = new int[batchSize];
+            strings = new Object[batchSize];
+            nulls = new boolean[batchSize];
+        }
+
+        @Override
+        public int nextBatch() {
+            batchStart += batchRows;
+            batchRows = Math.min(ints.length, rowCount - batchStart);
+            for (int i = 0; i < batchRows; i++) {
+                int value = batchStart + i;
+                ints[i] = value;
+                longs[i] = value * 1000000L;
+                doubles[i] = value * 0.5;
+                reals[i] = value * 0.25f;
+                bits[i] = (byte) (value % 2);
+                tinyints[i] = (byte) (value % 256);
+                smallints[i] = -value;
+                nulls[i] = (0 == value % 10);
+                strings[i] = nulls[i] ? null : "row " + value;
+            }
+            return batchRows;
+        }
+
+        @Override
+        public byte[] getByteColumn(int column) {
+            return (5 == column) ? bits : tinyints;
+        }
+
+        @Override
+        public int[] getIntColumn(int column) {
+            return (1 == column) ? ints : smallints;
+        }
+
+        @Override
+        public long[] getLongColumn(int column) {
+            return longs;
+        }
+
+        @Override
+        public double[] getDoubleColumn(int column) {
+            return (3 == column) ? doubles : reals;
+        }
+
+        @Override
+        public Object[] getObjectColumn(int column) {
+            return strings;
+        }
+
+        @Override
+        public boolean[] getNulls(int column) {
+            // the columns of bits, tinyints and smallints have no NULL values
+            return (5 <= column && column <= 7) ? null : nulls;
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return "c" + column;
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            int[] types = {Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.REAL, Types.BIT, Types.TINYINT,
+                    Types.SMALLINT, Types.NVARCHAR};
+            return types[column - 1];
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return (8 == column) ? 50 : 0;
+        }
+
+        @Override
+        public int getScale(int column) {
+            return 0;
+        }
+
+        @Override
+        public Object[] getRowData() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean next() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+        }
+    }
+}
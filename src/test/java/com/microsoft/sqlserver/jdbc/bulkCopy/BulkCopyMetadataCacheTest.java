@@ -0,0 +1,155 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.bulkCopy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests the cacheBulkCopyMetadata connection property.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class BulkCopyMetadataCacheTest extends AbstractTest {
+    private static String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("BulkCopyMetadataCacheTest"));
+
+    private static String cachingConnectionString;
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+        cachingConnectionString = TestUtils.addOrOverrideProperty(connectionString, "cacheBulkCopyMetadata", "true");
+    }
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            stmt.execute("CREATE TABLE " + tableName + " (c1 int, c2 int)");
+        }
+    }
+
+    @Test
+    public void testMetadataSharedAcrossBulkCopies() throws SQLException {
+        try (Connection con = DriverManager.getConnection(cachingConnectionString)) {
+            for (int i = 0; i < 3; i++) {
+                try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con)) {
+                    bulkCopy.setDestinationTableName(tableName);
+                    bulkCopy.writeToServer(createRowSet(2, i));
+                }
+            }
+        }
+        assertEquals(3, getRowCount());
+    }
+
+    @Test
+    public void testExplicitInvalidation() throws SQLException {
+        try (Connection con = DriverManager.getConnection(cachingConnectionString);
+                Statement stmt = con.createStatement()) {
+            try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con)) {
+                bulkCopy.setDestinationTableName(tableName);
+                bulkCopy.writeToServer(createRowSet(2, 1));
+            }
+
+            stmt.execute("ALTER TABLE " + tableName + " ADD c3 int");
+
+            // The cached metadata does not have c3 until it is invalidated
+            try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con)) {
+                bulkCopy.setDestinationTableName(tableName);
+                bulkCopy.addColumnMapping(1, "c3");
+                bulkCopy.invalidateDestinationMetadata();
+                bulkCopy.writeToServer(createRowSet(1, 2));
+            }
+        }
+        assertEquals(2, getRowCount());
+    }
+
+    @Test
+    public void testInvalidationOnSchemaMismatch() throws SQLException {
+        try (Connection con = DriverManager.getConnection(cachingConnectionString);
+                Statement stmt = con.createStatement()) {
+            try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con)) {
+                bulkCopy.setDestinationTableName(tableName);
+                bulkCopy.writeToServer(createRowSet(2, 1));
+            }
+
+            stmt.execute("ALTER TABLE " + tableName + " ADD c3 int");
+
+            // Copying three columns fails against the cached two-column metadata, which removes it from the cache
+            try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con)) {
+                bulkCopy.setDestinationTableName(tableName);
+                assertThrows(SQLServerException.class, () -> bulkCopy.writeToServer(createRowSet(3, 2)));
+            }
+
+            try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(con)) {
+                bulkCopy.setDestinationTableName(tableName);
+                bulkCopy.writeToServer(createRowSet(3, 3));
+            }
+        }
+        assertEquals(2, getRowCount());
+    }
+
+    private static CachedRowSet createRowSet(int columnCount, int value) throws SQLException {
+        CachedRowSet crs = RowSetProvider.newFactory().createCachedRowSet();
+        RowSetMetaData rsmd = new RowSetMetaDataImpl();
+        rsmd.setColumnCount(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            rsmd.setColumnName(i, "c" + i);
+            rsmd.setColumnType(i, java.sql.Types.INTEGER);
+        }
+        crs.setMetaData(rsmd);
+        crs.moveToInsertRow();
+        for (int i = 1; i <= columnCount; i++) {
+            crs.updateInt(i, value);
+        }
+        crs.insertRow();
+        crs.moveToCurrentRow();
+        return crs;
+    }
+
+    private static int getRowCount() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.bulkCopy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerDataSource;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.SQLServerParallelBulkCopy;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests SQLServerParallelBulkCopy.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class BulkCopyParallelTest extends AbstractTest {
+    private static String srcTable = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("BulkCopyParallelTest_Src"));
+    private static String destTable = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("BulkCopyParallelTest_Dest"));
+
+    private static final int ROW_COUNT = 25000;
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(srcTable, stmt);
+            stmt.execute("CREATE TABLE " + srcTable + " (c1 int, c2 nvarchar(50))");
+            stmt.execute("INSERT INTO " + srcTable + " SELECT TOP " + ROW_COUNT
+                    + " ROW_NUMBER() OVER (ORDER BY (SELECT NULL)), N'row'"
+                    + " FROM sys.all_columns a CROSS JOIN sys.all_columns b");
+        }
+    }
+
+    @BeforeEach
+    public void createDestinationTable() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(destTable, stmt);
+            stmt.execute("CREATE TABLE " + destTable + " (c1 int, c2 nvarchar(50))");
+        }
+    }
+
+    @Test
+    public void testParallelCopyFromResultSet() throws SQLException {
+        SQLServerParallelBulkCopy bulkCopy = new SQLServerParallelBulkCopy((SQLServerDataSource) ds, 4);
+        bulkCopy.setDestinationTableName(destTable);
+        SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+        options.setTableLock(true);
+        options.setBatchSize(5000);
+        bulkCopy.setBulkCopyOptions(options);
+
+        try (Connection con = getConnection(); Statement stmt = con.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT c1, c2 FROM " + srcTable)) {
+            bulkCopy.writeToServer(rs);
+        }
+
+        assertEquals(ROW_COUNT, bulkCopy.getRowsCopied());
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt
+                .executeQuery("SELECT COUNT(*), COUNT(DISTINCT c1), SUM(CAST(c1 AS bigint)) FROM " + destTable)) {
+            rs.next();
+            assertEquals(ROW_COUNT, rs.getInt(1));
+            assertEquals(ROW_COUNT, rs.getInt(2));
+            assertEquals((long) ROW_COUNT * (ROW_COUNT + 1) / 2, rs.getLong(3));
+        }
+    }
+
+    @Test
+    public void testParallelCopyWithColumnMappings() throws SQLException {
+        SQLServerParallelBulkCopy bulkCopy = new SQLServerParallelBulkCopy((SQLServerDataSource) ds, 2);
+        bulkCopy.setDestinationTableName(destTable);
+        bulkCopy.addColumnMapping("c1", "c1");
+        bulkCopy.addColumnMapping(2, "c2");
+
+        try (Connection con = getConnection(); Statement stmt = con.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT c1, c2 FROM " + srcTable + " WHERE c1 <= 10")) {
+            bulkCopy.writeToServer(rs);
+        }
+
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + destTable + " WHERE c2 = N'row'")) {
+            rs.next();
+            assertEquals(10, rs.getInt(1));
+        }
+    }
+
+    @Test
+    public void testStreamFailuresAreChained() throws SQLException {
+        SQLServerParallelBulkCopy bulkCopy = new SQLServerParallelBulkCopy((SQLServerDataSource) ds, 3);
+        bulkCopy.setDestinationTableName(destTable);
+        bulkCopy.addColumnMapping(1, "noSuchColumn");
+
+        try (Connection con = getConnection(); Statement stmt = con.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT c1, c2 FROM " + srcTable)) {
+            SQLServerException e = assertThrows(SQLServerException.class, () -> bulkCopy.writeToServer(rs));
+            assertTrue(e.getMessage().matches(TestUtils.formatErrorMsg("R_parallelBulkCopyFailed")), e.getMessage());
+            assertNotNull(e.getNextException());
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() throws SQLException {
+        assertThrows(SQLServerException.class, () -> new SQLServerParallelBulkCopy(null, 2));
+        assertThrows(SQLServerException.class, () -> new SQLServerParallelBulkCopy((SQLServerDataSource) ds, 0));
+
+        SQLServerParallelBulkCopy bulkCopy = new SQLServerParallelBulkCopy((SQLServerDataSource) ds, 2);
+        SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+        options.setUseInternalTransaction(true);
+        assertThrows(SQLServerException.class, () -> bulkCopy.setBulkCopyOptions(options));
+    }
+
+    @AfterAll
+    public static void cleanup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(srcTable, stmt);
+            TestUtils.dropTableIfExists(destTable, stmt);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.callablestatement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.BatchUpdateException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests the procedureMetadataCacheTtl connection property.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class ProcedureMetadataCacheTest extends AbstractTest {
+    private static String procedureName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("ProcedureMetadataCacheTest_SP"));
+    private static String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("ProcedureMetadataCacheTest_Table"));
+
+    private static String cachingConnectionString;
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+        cachingConnectionString = TestUtils.addOrOverrideProperty(connectionString, "procedureMetadataCacheTtl",
+                "600");
+
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropProcedureIfExists(procedureName, stmt);
+            TestUtils.dropTableIfExists(tableName, stmt);
+            stmt.execute("CREATE PROCEDURE " + procedureName
+                    + " (@p1 nvarchar(30), @p2 nvarchar(30) output) AS BEGIN SELECT @p2 = @p1 END;");
+            stmt.execute("CREATE TABLE " + tableName + " (c1 int, c2 nvarchar(30))");
+        }
+    }
+
+    @Test
+    public void testParameterNamesSharedAcrossConnections() throws SQLException {
+        for (int i = 0; i < 2; i++) {
+            try (Connection conn = DriverManager.getConnection(cachingConnectionString);
+                    CallableStatement cstmt = conn.prepareCall("{CALL " + procedureName + " (?,?)}")) {
+                cstmt.setString("p1", "foobar" + i);
+                cstmt.registerOutParameter("p2", Types.NVARCHAR);
+                cstmt.execute();
+                assertEquals("foobar" + i, cstmt.getString("p2"));
+
+                ParameterMetaData pmd = cstmt.getParameterMetaData();
+                assertEquals(2, pmd.getParameterCount());
+                assertEquals(ParameterMetaData.parameterModeOut, pmd.getParameterMode(2));
+            }
+        }
+    }
+
+    @Test
+    public void testQueryParametersSharedAcrossConnections() throws SQLException {
+        String sql = "INSERT INTO " + tableName + " (c1, c2) VALUES (?, ?)";
+        for (int i = 0; i < 2; i++) {
+            try (Connection conn = DriverManager.getConnection(cachingConnectionString);
+                    PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                ParameterMetaData pmd = pstmt.getParameterMetaData();
+                assertEquals(2, pmd.getParameterCount());
+                assertEquals(Types.INTEGER, pmd.getParameterType(1));
+                assertEquals(Types.NVARCHAR, pmd.getParameterType(2));
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidationOnSchemaChange() throws SQLException {
+        String alteredProcedureName = AbstractSQLGenerator
+                .escapeIdentifier(RandomUtil.getIdentifier("ProcedureMetadataCacheTest_Altered_SP"));
+        try (Connection conn = DriverManager.getConnection(cachingConnectionString);
+                Statement stmt = conn.createStatement()) {
+            TestUtils.dropProcedureIfExists(alteredProcedureName, stmt);
+            stmt.execute("CREATE PROCEDURE " + alteredProcedureName
+                    + " (@p1 nvarchar(30), @p2 nvarchar(30) output) AS BEGIN SELECT @p2 = @p1 END;");
+
+            try (CallableStatement cstmt = conn.prepareCall("{CALL " + alteredProcedureName + " (?,?)}")) {
+                cstmt.setString("p1", "foobar");
+                cstmt.registerOutParameter("p2", Types.NVARCHAR);
+                cstmt.execute();
+            }
+
+            stmt.execute("ALTER PROCEDURE " + alteredProcedureName
+                    + " (@p1 nvarchar(30), @p2 nvarchar(30) output, @p3 nvarchar(30)) AS BEGIN SELECT @p2 = @p1 + @p3 END;");
+
+            // The parameter names are still cached, so the call fails on the server, which removes them from the cache
+            try (CallableStatement cstmt = conn.prepareCall("{CALL " + alteredProcedureName + " (?,?)}")) {
+                cstmt.setString("p1", "foo");
+                cstmt.registerOutParameter("p2", Types.NVARCHAR);
+                assertThrows(SQLException.class, cstmt::execute);
+            }
+
+            try (CallableStatement cstmt = conn.prepareCall("{CALL " + alteredProcedureName + " (?,?,?)}")) {
+                cstmt.setString("p1", "foo");
+                cstmt.registerOutParameter("p2", Types.NVARCHAR);
+                cstmt.setString("p3", "bar");
+                cstmt.execute();
+                assertEquals("foobar", cstmt.getString("p2"));
+            } finally {
+                TestUtils.dropProcedureIfExists(alteredProcedureName, stmt);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidationOnSchemaChangeInBatch() throws SQLException {
+        String alteredProcedureName = AbstractSQLGenerator
+                .escapeIdentifier(RandomUtil.getIdentifier("ProcedureMetadataCacheTest_Batch_SP"));
+        try (Connection conn = DriverManager.getConnection(cachingConnectionString);
+                Statement stmt = conn.createStatement()) {
+            TestUtils.dropProcedureIfExists(alteredProcedureName, stmt);
+            stmt.execute(
+                    "CREATE PROCEDURE " + alteredProcedureName + " (@p1 int, @p2 int) AS BEGIN SET NOCOUNT ON END;");
+
+            try (CallableStatement cstmt = conn.prepareCall("{CALL " + alteredProcedureName + " (?,?)}")) {
+                cstmt.setInt("p1", 1);
+                cstmt.setInt("p2", 2);
+                cstmt.execute();
+            }
+
+            stmt.execute("ALTER PROCEDURE " + alteredProcedureName
+                    + " (@p1 int, @p3 int, @p2 int) AS BEGIN SET NOCOUNT ON END;");
+
+            // The failed batch removes the parameter names from the cache, so they are read again by the next call
+            try (CallableStatement cstmt = conn.prepareCall("{CALL " + alteredProcedureName + " (?,?)}")) {
+                cstmt.setInt("p1", 1);
+                cstmt.setInt("p2", 2);
+                cstmt.addBatch();
+                assertThrows(BatchUpdateException.class, cstmt::executeBatch);
+            }
+
+            try (CallableStatement cstmt = conn.prepareCall("{CALL " + alteredProcedureName + " (?,?,?)}")) {
+                cstmt.setInt("p1", 1);
+                cstmt.setInt("p2", 2);
+                cstmt.setInt("p3", 3);
+                cstmt.execute();
+            } finally {
+                TestUtils.dropProcedureIfExists(alteredProcedureName, stmt);
+            }
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropProcedureIfExists(procedureName, stmt);
+            TestUtils.dropTableIfExists(tableName, stmt);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.SQLServerInMemoryMetrics;
+import com.microsoft.sqlserver.jdbc.SQLServerMetrics;
+import com.microsoft.sqlserver.jdbc.SQLServerMetrics.Counter;
+import com.microsoft.sqlserver.jdbc.SQLServerMetrics.Histogram;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests the metrics and metricsClass connection properties.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class MetricsTest extends AbstractTest {
+
+    @Test
+    public void testConnectionAndStatementMetrics() throws Exception {
+        SQLServerInMemoryMetrics metrics = new SQLServerInMemoryMetrics();
+        Properties info = new Properties();
+        info.put("metrics", metrics);
+
+        try (Connection conn = DriverManager.getConnection(connectionString, info)) {
+            assertEquals(1, metrics.getCount(Histogram.LOGIN_SOCKET_NANOS));
+            assertEquals(1, metrics.getCount(Histogram.LOGIN_PRELOGIN_NANOS));
+            assertEquals(1, metrics.getCount(Histogram.LOGIN_LOGIN7_NANOS));
+            assertTrue(metrics.getSum(Histogram.LOGIN_LOGIN7_NANOS) > 0);
+
+            long executions = metrics.getCount(Histogram.EXECUTE_NANOS);
+            long packetsSent = metrics.getCount(Counter.PACKETS_SENT);
+            long packetsReceived = metrics.getCount(Counter.PACKETS_RECEIVED);
+
+            // Leave the response of the first query on the wire, so that the second query has to buffer it
+            try (Statement stmt1 = conn.createStatement();
+                    ResultSet rs1 = stmt1.executeQuery("SELECT * FROM sys.all_columns CROSS JOIN sys.databases")) {
+                assertTrue(rs1.next());
+                try (Statement stmt2 = conn.createStatement(); ResultSet rs2 = stmt2.executeQuery("SELECT 1")) {
+                    assertTrue(rs2.next());
+                }
+                assertEquals(1, metrics.getCount(Counter.RESPONSES_BUFFERED));
+            }
+
+            assertTrue(metrics.getCount(Histogram.EXECUTE_NANOS) >= executions + 2);
+            assertTrue(metrics.getCount(Counter.PACKETS_SENT) >= packetsSent + 2);
+            assertTrue(metrics.getCount(Counter.PACKETS_RECEIVED) > packetsReceived + 2);
+            assertTrue(metrics.getCount(Counter.BYTES_RECEIVED) >= 8 * metrics.getCount(Counter.PACKETS_RECEIVED));
+            assertEquals(metrics.getCount(Counter.PACKETS_RECEIVED),
+                    metrics.getCount(Counter.PACKET_BUFFERS_ALLOCATED)
+                            + metrics.getCount(Counter.PACKET_BUFFERS_REUSED));
+        }
+    }
+
+    @Test
+    public void testPreparedHandleCacheMetrics() throws Exception {
+        SQLServerInMemoryMetrics metrics = new SQLServerInMemoryMetrics();
+        Properties info = new Properties();
+        info.put("metrics", metrics);
+        String url = TestUtils.addOrOverrideProperty(connectionString, "statementPoolingCacheSize", "1");
+        url = TestUtils.addOrOverrideProperty(url, "disableStatementPooling", "false");
+        url = TestUtils.addOrOverrideProperty(url, "serverPreparedStatementDiscardThreshold", "2");
+
+        try (Connection conn = DriverManager.getConnection(url, info)) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT ?")) {
+                    pstmt.setInt(1, i);
+                    pstmt.execute();
+                }
+            }
+            assertTrue(metrics.getCount(Counter.PREPARED_HANDLE_CACHE_HITS) > 0);
+            assertTrue(metrics.getCount(Counter.PREPARED_HANDLE_CACHE_MISSES) > 0);
+
+            // Statements with other SQL evict the handle from the cache of size 1, and their handles are un-prepared
+            for (int i = 0; i < 6; i++) {
+                String sql = "SELECT ? + " + i;
+                for (int j = 0; j < 2; j++) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        pstmt.setInt(1, j);
+                        pstmt.execute();
+                    }
+                }
+            }
+            assertTrue(metrics.getCount(Counter.PREPARED_HANDLE_CACHE_EVICTIONS) > 0);
+            assertTrue(metrics.getCount(Histogram.UNPREPARE_BATCH_SIZE) > 0);
+            assertTrue(metrics.getMax(Histogram.UNPREPARE_BATCH_SIZE) >= 2);
+        }
+    }
+
+    @Test
+    public void testMetricsClass() throws Exception {
+        String url = TestUtils.addOrOverrideProperty(connectionString, "metricsClass",
+                SQLServerInMemoryMetrics.class.getName());
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT 1")) {
+            assertTrue(rs.next());
+        }
+
+        SQLServerException e = assertThrows(SQLServerException.class, () -> DriverManager
+                .getConnection(TestUtils.addOrOverrideProperty(connectionString, "metricsClass", "Invalid")));
+        assertTrue(e.getMessage().matches(TestUtils.formatErrorMsg("R_InvalidMetricsClass")));
+    }
+
+    /**
+     * A metrics implementation outside of the driver.
+     */
+    public static class CountingMetrics implements SQLServerMetrics {
+        static final AtomicLong executions = new AtomicLong();
+
+        @Override
+        public void increment(Counter counter, long delta) {}
+
+        @Override
+        public void record(Histogram histogram, long value) {
+            if (Histogram.EXECUTE_NANOS == histogram)
+                executions.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void testCustomMetricsClass() throws Exception {
+        String url = TestUtils.addOrOverrideProperty(connectionString, "metricsClass",
+                CountingMetrics.class.getName());
+        long executions = CountingMetrics.executions.get();
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT 1")) {
+            assertTrue(rs.next());
+        }
+        assertTrue(CountingMetrics.executions.get() > executions);
+
+        Properties info = new Properties();
+        info.put("metrics", "not metrics");
+        SQLServerException e = assertThrows(SQLServerException.class,
+                () -> DriverManager.getConnection(connectionString, info));
+        assertTrue(e.getMessage().matches(TestUtils.formatErrorMsg("R_invalidMetrics")));
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        SQLServerInMemoryMetrics metrics = new SQLServerInMemoryMetrics();
+        assertEquals(0, metrics.getPercentile(Histogram.EXECUTE_NANOS, 50));
+        assertEquals(0, metrics.getMax(Histogram.EXECUTE_NANOS));
+
+        for (int i = 1; i <= 100; i++)
+            metrics.record(Histogram.EXECUTE_NANOS, i);
+
+        assertEquals(100, metrics.getCount(Histogram.EXECUTE_NANOS));
+        assertEquals(5050, metrics.getSum(Histogram.EXECUTE_NANOS));
+        assertEquals(100, metrics.getMax(Histogram.EXECUTE_NANOS));
+        // 50 falls in the bucket of 32 to 63, 99 and 100 in the bucket of 64 to 127
+        assertEquals(63, metrics.getPercentile(Histogram.EXECUTE_NANOS, 50));
+        assertEquals(127, metrics.getPercentile(Histogram.EXECUTE_NANOS, 99));
+        assertEquals(1, metrics.getPercentile(Histogram.EXECUTE_NANOS, 0));
+
+        metrics.increment(Counter.PACKETS_SENT, 3);
+        assertEquals(3, metrics.getCount(Counter.PACKETS_SENT));
+        metrics.reset();
+        assertEquals(0, metrics.getCount(Counter.PACKETS_SENT));
+        assertEquals(0, metrics.getCount(Histogram.EXECUTE_NANOS));
+    }
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerPreparedStatement;
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerPoolingDataSource;
+import com.microsoft.sqlserver.jdbc.TestResource;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests SQLServerPoolingDataSource
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class PoolingDataSourceTest extends AbstractTest {
+    private static final String tempTableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("#poolingDataSource"));
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+
+    private static SQLServerPoolingDataSource createDataSource(boolean resetConnectionOnBorrow) {
+        SQLServerPoolingDataSource ds = new SQLServerPoolingDataSource();
+        ds.setURL(connectionString + ";disableStatementPooling=false;statementPoolingCacheSize=10");
+        ds.setMaxPoolSize(2);
+        ds.setBorrowTimeout(1000);
+        ds.setResetConnectionOnBorrow(resetConnectionOnBorrow);
+        return ds;
+    }
+
+    @Test
+    public void testReuseAndMaxPoolSize() throws SQLException {
+        try (SQLServerPoolingDataSource ds = createDataSource(true)) {
+            int spid;
+            try (Connection con = ds.getConnection()) {
+                spid = getSpid(con);
+            }
+            // the thread gets the connection it returned
+            for (int i = 0; i < 5; i++) {
+                try (Connection con = ds.getConnection()) {
+                    assertEquals(spid, getSpid(con));
+                }
+            }
+            assertEquals(1, ds.getTotalConnections());
+
+            try (Connection con1 = ds.getConnection(); Connection con2 = ds.getConnection()) {
+                assertEquals(2, ds.getTotalConnections());
+                assertThrows(SQLException.class, ds::getConnection);
+            }
+            assertEquals(2, ds.getIdleConnections());
+        }
+    }
+
+    @Test
+    public void testResetConnectionOnBorrow() throws SQLException {
+        try (SQLServerPoolingDataSource ds = createDataSource(true)) {
+            try (Connection con = ds.getConnection(); Statement stmt = con.createStatement()) {
+                stmt.execute("CREATE TABLE " + tempTableName + " (id int)");
+                con.setAutoCommit(false);
+            }
+            try (Connection con = ds.getConnection(); Statement stmt = con.createStatement()) {
+                assertTrue(con.getAutoCommit());
+                SQLException e = assertThrows(SQLException.class,
+                        () -> stmt.executeQuery("SELECT * FROM " + tempTableName));
+                assertTrue(e.getMessage().startsWith(TestResource.getResource("R_invalidObjectName")));
+            }
+        }
+    }
+
+    @Test
+    public void testPreparedHandleRetainedWithoutReset() throws SQLException {
+        try (SQLServerPoolingDataSource ds = createDataSource(false)) {
+            String sql = "SELECT @@SPID WHERE 1 = ?";
+            int handle;
+            try (Connection con = ds.getConnection(); Statement stmt = con.createStatement()) {
+                stmt.execute("CREATE TABLE " + tempTableName + " (id int)");
+                handle = executePrepared(con, sql, 2);
+                con.setAutoCommit(false);
+                con.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            }
+            try (Connection con = ds.getConnection(); Statement stmt = con.createStatement();
+                    ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tempTableName)) {
+                // the session and its prepared handles are kept, and the JDBC state is restored
+                assertEquals(handle, executePrepared(con, sql, 2));
+                assertTrue(con.getAutoCommit());
+                assertEquals(Connection.TRANSACTION_READ_COMMITTED, con.getTransactionIsolation());
+            }
+        }
+    }
+
+    @Test
+    public void testWarmUp() throws SQLException {
+        try (SQLServerPoolingDataSource ds = createDataSource(true)) {
+            ds.setMaxPoolSize(8);
+            assertEquals(5, ds.warmUp(5));
+            assertEquals(5, ds.getIdleConnections());
+
+            // up to the maximum pool size
+            assertEquals(3, ds.warmUp(10));
+            assertEquals(8, ds.getTotalConnections());
+            try (Connection con = ds.getConnection()) {
+                assertEquals(7, ds.getIdleConnections());
+            }
+        }
+    }
+
+    @Test
+    public void testPrepareHotStatements() throws SQLException {
+        try (SQLServerPoolingDataSource ds = createDataSource(true)) {
+            ds.setMaxPoolSize(3);
+            ds.setPrepareHotStatements(true);
+            String sql = "SELECT @@SPID AS " + AbstractSQLGenerator.escapeIdentifier(RandomUtil.getIdentifier("hot"))
+                    + " WHERE 1 = ?";
+            // prepared by two connections
+            try (Connection con1 = ds.getConnection(); Connection con2 = ds.getConnection()) {
+                executePrepared(con1, sql, 2);
+                executePrepared(con2, sql, 2);
+
+                // the new connection has a handle for the first execution
+                assertEquals(1, ds.warmUp(1));
+                try (Connection con3 = ds.getConnection()) {
+                    assertTrue(0 != executePrepared(con3, sql, 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHotStatementsOfOtherDatabaseNotRecorded() throws SQLException {
+        try (SQLServerPoolingDataSource ds = createDataSource(true)) {
+            ds.setMaxPoolSize(3);
+            ds.setPrepareHotStatements(true);
+            String sql = "SELECT @@SPID AS " + AbstractSQLGenerator.escapeIdentifier(RandomUtil.getIdentifier("hot"))
+                    + " WHERE 1 = ?";
+            // prepared by two connections in another database than the one they connected to
+            try (Connection con1 = ds.getConnection(); Connection con2 = ds.getConnection()) {
+                String catalog = con1.getCatalog();
+                for (Connection con : new Connection[] {con1, con2}) {
+                    con.setCatalog("tempdb");
+                    executePrepared(con, sql, 2);
+                    con.setCatalog(catalog);
+                }
+
+                assertEquals(1, ds.warmUp(1));
+                try (Connection con3 = ds.getConnection()) {
+                    assertEquals(0, executePrepared(con3, sql, 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testClose() throws SQLException {
+        SQLServerPoolingDataSource ds = createDataSource(true);
+        Connection con = ds.getConnection();
+        ds.close();
+        assertThrows(SQLException.class, ds::getConnection);
+        con.close();
+        assertEquals(0, ds.getTotalConnections());
+    }
+
+    private static int getSpid(Connection con) throws SQLException {
+        try (Statement stmt = con.createStatement(); ResultSet rs = stmt.executeQuery("SELECT @@SPID")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Executes the statement the given number of times, twice to prepare it, and returns its prepared statement handle.
+     */
+    private static int executePrepared(Connection con, String sql, int executions) throws SQLException {
+        try (ISQLServerPreparedStatement pstmt = (ISQLServerPreparedStatement) con.prepareStatement(sql)) {
+            for (int i = 0; i < executions; i++) {
+                pstmt.setInt(1, 1);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                }
+            }
+            return pstmt.getPreparedStatementHandle();
+        }
+    }
+}
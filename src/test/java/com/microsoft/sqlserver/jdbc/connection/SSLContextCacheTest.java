@@ -0,0 +1,61 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+import com.microsoft.sqlserver.testframework.PrepUtil;
+
+
+/**
+ * Tests connection property cacheSSLContext
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class SSLContextCacheTest extends AbstractTest {
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+
+    @Test
+    public void testCachedContext() throws SQLException {
+        String url = connectionString + ";encrypt=true;trustServerCertificate=true;cacheSSLContext=true";
+        for (int i = 0; i < 10; i++) {
+            try (Connection con = PrepUtil.getConnection(url); Statement stmt = con.createStatement();
+                    ResultSet rs = stmt.executeQuery(
+                            "SELECT encrypt_option FROM sys.dm_exec_connections WHERE session_id = @@SPID")) {
+                rs.next();
+                assertEquals("TRUE", rs.getString(1));
+            }
+        }
+    }
+
+    /**
+     * A connection that validates the server certificate does not use the context of a connection that trusts it.
+     */
+    @Test
+    public void testDifferentTrustSettings() throws SQLException {
+        String url = connectionString + ";encrypt=true;cacheSSLContext=true";
+        try (Connection con = PrepUtil.getConnection(url + ";trustServerCertificate=true")) {}
+        assertThrows(SQLException.class, () -> PrepUtil
+                .getConnection(url + ";trustServerCertificate=false;hostNameInCertificate=invalid.host.name").close());
+    }
+}
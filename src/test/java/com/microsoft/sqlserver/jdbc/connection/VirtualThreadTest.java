@@ -0,0 +1,162 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+import jdk.jfr.consumer.RecordingStream;
+
+
+/**
+ * Runs many concurrent connections on virtual threads and verifies that waiting for the server does not pin or
+ * otherwise hold carrier threads.
+ *
+ * A pinned virtual thread is reported with a jdk.VirtualThreadPinned event, the condition also traced by
+ * -Djdk.tracePinnedThreads. Blocking a carrier without pinning, e.g. in Selector.select, makes the scheduler add
+ * carrier threads instead, so the number of carrier threads is checked as well.
+ *
+ * Requires Java 21, so this test is excluded from the jre8, jre11 and jre17 builds.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+@Tag(Constants.xAzureSQLDB)
+public class VirtualThreadTest extends AbstractTest {
+
+    // Enough connections waiting on the server at once that holding a carrier thread each would exceed the
+    // parallelism of the scheduler by far, and few enough for the regular test run
+    private static final int CONNECTION_COUNT = 256;
+
+    // Carrier threads the scheduler may add while virtual threads block outside of the driver, e.g. loading classes
+    private static final int SPARE_CARRIER_COUNT = 4;
+
+    private static final String CARRIER_THREAD_CLASS = "jdk.internal.misc.CarrierThread";
+
+    @Test
+    public void testSocketStreams() throws Exception {
+        runConnections(TestUtils.addOrOverrideProperty(connectionString, "useDirectBuffers", "false"));
+    }
+
+    @Test
+    public void testDirectBuffers() throws Exception {
+        runConnections(TestUtils.addOrOverrideProperty(connectionString, "useDirectBuffers", "true"));
+    }
+
+    @Test
+    public void testDirectBuffersWithSocketTimeout() throws Exception {
+        String url = TestUtils.addOrOverrideProperty(connectionString, "useDirectBuffers", "true");
+        runConnections(TestUtils.addOrOverrideProperty(url, "socketTimeout", "120000"));
+    }
+
+    private static void runConnections(String url) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Initialize the driver classes before recording
+            executor.submit(() -> execute(url, new CountDownLatch(0))).get();
+
+            AtomicInteger pinnedCount = new AtomicInteger();
+            AtomicReference<String> firstPinned = new AtomicReference<>();
+            AtomicInteger maxCarrierCount = new AtomicInteger();
+            AtomicBoolean done = new AtomicBoolean();
+
+            Thread carrierCounter = new Thread(() -> {
+                while (!done.get()) {
+                    int carrierCount = 0;
+                    for (Thread t : Thread.getAllStackTraces().keySet()) {
+                        if (CARRIER_THREAD_CLASS.equals(t.getClass().getName()))
+                            carrierCount++;
+                    }
+                    maxCarrierCount.accumulateAndGet(carrierCount, Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+
+            try (RecordingStream recording = new RecordingStream()) {
+                recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+                recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                    pinnedCount.incrementAndGet();
+                    firstPinned.compareAndSet(null, event.toString());
+                });
+                recording.startAsync();
+                carrierCounter.start();
+
+                // Every connection waits until all are open, so that their reads wait on the server at the same time
+                CountDownLatch allOpen = new CountDownLatch(CONNECTION_COUNT);
+                List<Future<Integer>> results = new ArrayList<>();
+                try {
+                    for (int i = 0; i < CONNECTION_COUNT; i++)
+                        results.add(executor.submit(() -> execute(url, allOpen)));
+                    for (Future<Integer> result : results)
+                        assertEquals(1, result.get().intValue());
+                } finally {
+                    done.set(true);
+                    carrierCounter.join();
+                    recording.stop();
+                }
+            }
+
+            assertEquals(0, pinnedCount.get(), "Virtual threads were pinned: " + firstPinned.get());
+
+            int parallelism = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                    Runtime.getRuntime().availableProcessors());
+            assertTrue(maxCarrierCount.get() <= parallelism + SPARE_CARRIER_COUNT,
+                    "Carrier threads: " + maxCarrierCount.get() + ", parallelism: " + parallelism);
+        }
+    }
+
+    private static int execute(String url, CountDownLatch allOpen) throws Exception {
+        Connection conn;
+        try {
+            conn = DriverManager.getConnection(url);
+        } finally {
+            // Release the other connections even if this one fails to open
+            allOpen.countDown();
+        }
+
+        try (conn; Statement stmt = conn.createStatement()) {
+            assertTrue(allOpen.await(5, TimeUnit.MINUTES));
+
+            stmt.execute("WAITFOR DELAY '00:00:01'");
+            try (ResultSet rs = stmt.executeQuery("SELECT 1")) {
+                assertTrue(rs.next());
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.preparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+import com.microsoft.sqlserver.testframework.PrepUtil;
+
+
+/**
+ * Tests PreparedStatement.executeBatch of single row inserts with useMultiRowValuesForBatchInsert.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class BatchMultiRowInsertTest extends AbstractTest {
+    private static final String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("batchMultiRowInsert"));
+    private static final String logTableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("batchMultiRowInsertLog"));
+    private static final String triggerName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("batchMultiRowInsertTrigger"));
+    private static final String decimalTableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("batchMultiRowInsertDecimal"));
+
+    // 2 full inserts of 1000 rows and one of 500 rows
+    private static final int ROW_COUNT = 2500;
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+
+    @BeforeEach
+    public void createTables() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            TestUtils.dropTableIfExists(logTableName, stmt);
+            TestUtils.dropTableIfExists(decimalTableName, stmt);
+            stmt.execute("CREATE TABLE " + tableName + " (id int PRIMARY KEY, name nvarchar(100))");
+            stmt.execute("CREATE TABLE " + logTableName + " (id int IDENTITY)");
+            // counts the statements that insert into the table
+            stmt.execute("CREATE TRIGGER " + triggerName + " ON " + tableName + " AFTER INSERT AS INSERT INTO "
+                    + logTableName + " DEFAULT VALUES");
+        }
+    }
+
+    @Test
+    public void testMultiRowInserts() throws SQLException {
+        int[] updateCounts = executeBatch("INSERT INTO " + tableName + " (id, name) VALUES (?, ?)", -1);
+        assertEquals(ROW_COUNT, updateCounts.length);
+        for (int updateCount : updateCounts) {
+            assertEquals(1, updateCount);
+        }
+        assertCount(tableName, ROW_COUNT);
+        assertCount(logTableName, 3);
+
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT name FROM " + tableName + " WHERE id = 2345")) {
+            rs.next();
+            assertEquals("row 2345", rs.getString(1));
+        }
+    }
+
+    @Test
+    public void testUpdateCountsOfFailedInsert() throws SQLException {
+        int duplicate = 1500;
+        BatchUpdateException e = assertThrows(BatchUpdateException.class,
+                () -> executeBatch("INSERT INTO " + tableName + " VALUES (?, ?)", duplicate));
+
+        // the insert of rows 1000 to 1999 fails as a whole, and the batch goes on after it
+        int[] updateCounts = e.getUpdateCounts();
+        assertEquals(ROW_COUNT, updateCounts.length);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals((1000 <= i && i < 2000) ? Statement.EXECUTE_FAILED : 1, updateCounts[i]);
+        }
+        assertCount(tableName, ROW_COUNT - 1000);
+    }
+
+    @Test
+    public void testStatementNotRewritten() throws SQLException {
+        // a parameter outside the VALUES row
+        int[] updateCounts = executeBatch("INSERT INTO " + tableName + " SELECT ?, ?", -1);
+        assertEquals(ROW_COUNT, updateCounts.length);
+        assertCount(tableName, ROW_COUNT);
+        assertCount(logTableName, ROW_COUNT);
+    }
+
+    @Test
+    public void testDecimalsOfDifferentScales() throws SQLException {
+        BigDecimal[] values = {new BigDecimal("1.25"), new BigDecimal("0.0000000001"), new BigDecimal("123456.5")};
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE " + decimalTableName + " (id int PRIMARY KEY, value decimal(38, 10))");
+        }
+        try (Connection con = PrepUtil.getConnection(connectionString + ";useMultiRowValuesForBatchInsert=true");
+                PreparedStatement pstmt = con
+                        .prepareStatement("INSERT INTO " + decimalTableName + " (id, value) VALUES (?, ?)")) {
+            for (int i = 0; i < values.length; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setBigDecimal(2, values[i]);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+
+        // the values keep all their digits, as if they were inserted one at a time
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt
+                .executeQuery("SELECT value FROM " + decimalTableName + " ORDER BY id")) {
+            for (BigDecimal value : values) {
+                rs.next();
+                assertEquals(0, value.compareTo(rs.getBigDecimal(1)), rs.getBigDecimal(1).toPlainString());
+            }
+        }
+    }
+
+    /**
+     * Executes a batch of ROW_COUNT rows, where the row after the one at index duplicate repeats its key.
+     */
+    private int[] executeBatch(String sql, int duplicate) throws SQLException {
+        try (Connection con = PrepUtil.getConnection(connectionString + ";useMultiRowValuesForBatchInsert=true");
+                PreparedStatement pstmt = con.prepareStatement(sql)) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                pstmt.setInt(1, (duplicate + 1 == i) ? duplicate : i);
+                pstmt.setString(2, "row " + i);
+                pstmt.addBatch();
+            }
+            return pstmt.executeBatch();
+        }
+    }
+
+    private void assertCount(String table, int rowCount) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            assertEquals(rowCount, rs.getInt(1));
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            TestUtils.dropTableIfExists(logTableName, stmt);
+            TestUtils.dropTableIfExists(decimalTableName, stmt);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.preparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+import com.microsoft.sqlserver.testframework.PrepUtil;
+
+
+/**
+ * Tests PreparedStatement.executeBatch split into several requests by maxBatchRequestSize and
+ * maxBatchRequestParameters.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class BatchRequestSplittingTest extends AbstractTest {
+    private static final String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("batchRequestSplitting"));
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            stmt.execute("CREATE TABLE " + tableName + " (id int PRIMARY KEY, name nvarchar(100))");
+        }
+    }
+
+    @Test
+    public void testSplitByParameters() throws SQLException {
+        // 3 parameter sets of 2 parameters per request
+        testBatch(";maxBatchRequestParameters=7", 10000);
+    }
+
+    @Test
+    public void testSplitBySize() throws SQLException {
+        testBatch(";maxBatchRequestSize=65536", 10000);
+    }
+
+    @Test
+    public void testOneParameterSetPerRequest() throws SQLException {
+        testBatch(";maxBatchRequestSize=1", 100);
+    }
+
+    @Test
+    public void testUpdateCountsOfFailedBatch() throws SQLException {
+        int rowCount = 1000;
+        int duplicate = 777;
+        try (Connection con = PrepUtil.getConnection(connectionString + ";maxBatchRequestParameters=20");
+                PreparedStatement pstmt = con.prepareStatement("INSERT INTO " + tableName + " VALUES (?, ?)")) {
+            for (int i = 0; i < rowCount; i++) {
+                // the row at index duplicate + 1 repeats the key of the row before it
+                pstmt.setInt(1, (duplicate + 1 == i) ? duplicate : i);
+                pstmt.setString(2, "row " + i);
+                pstmt.addBatch();
+            }
+            BatchUpdateException e = assertThrows(BatchUpdateException.class, pstmt::executeBatch);
+
+            // the batch goes on after the failure, and the counts are in the order of the batch
+            int[] updateCounts = e.getUpdateCounts();
+            assertEquals(rowCount, updateCounts.length);
+            for (int i = 0; i < rowCount; i++) {
+                assertEquals((duplicate + 1 == i) ? Statement.EXECUTE_FAILED : 1, updateCounts[i]);
+            }
+        }
+        assertRowCount(rowCount - 1);
+    }
+
+    @Test
+    public void testInvalidProperties() {
+        assertThrows(SQLException.class,
+                () -> PrepUtil.getConnection(connectionString + ";maxBatchRequestSize=-1").close());
+        assertThrows(SQLException.class,
+                () -> PrepUtil.getConnection(connectionString + ";maxBatchRequestParameters=x").close());
+    }
+
+    private void testBatch(String properties, int rowCount) throws SQLException {
+        try (Connection con = PrepUtil.getConnection(connectionString + properties);
+                PreparedStatement pstmt = con.prepareStatement("INSERT INTO " + tableName + " VALUES (?, ?)")) {
+            for (int i = 0; i < rowCount; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setString(2, "row " + i);
+                pstmt.addBatch();
+            }
+            int[] updateCounts = pstmt.executeBatch();
+            assertEquals(rowCount, updateCounts.length);
+            for (int updateCount : updateCounts) {
+                assertEquals(1, updateCount);
+            }
+        }
+        assertRowCount(rowCount);
+
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT name FROM " + tableName + " WHERE id = " + (rowCount - 1))) {
+            rs.next();
+            assertEquals("row " + (rowCount - 1), rs.getString(1));
+        }
+    }
+
+    private void assertRowCount(int rowCount) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tableName)) {
+            rs.next();
+            assertEquals(rowCount, rs.getInt(1));
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+        }
+    }
+}
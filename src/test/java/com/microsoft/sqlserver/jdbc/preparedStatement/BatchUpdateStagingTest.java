@@ -0,0 +1,251 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.preparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+import com.microsoft.sqlserver.testframework.PrepUtil;
+
+
+/**
+ * Tests PreparedStatement.executeBatch of UPDATE and DELETE statements by key with useBulkCopyForBatchUpdate.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class BatchUpdateStagingTest extends AbstractTest {
+    private static final String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("batchUpdateStaging"));
+    private static final String logTableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("batchUpdateStagingLog"));
+    private static final String triggerName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("batchUpdateStagingTrigger"));
+
+    private static final int ROW_COUNT = 5000;
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+
+    /**
+     * Creates ROW_COUNT rows with ids from 0, in groups of 10 rows.
+     */
+    @BeforeEach
+    public void createTables() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            TestUtils.dropTableIfExists(logTableName, stmt);
+            stmt.execute("CREATE TABLE " + tableName + " (id int IDENTITY(0, 1) PRIMARY KEY, grp int NOT NULL,"
+                    + " name nvarchar(100), amount decimal(10, 2))");
+            stmt.execute("CREATE TABLE " + logTableName + " (id int IDENTITY)");
+            stmt.execute("INSERT INTO " + tableName + " (grp, name) SELECT TOP " + ROW_COUNT
+                    + " (ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) - 1) / 10, 'row' FROM sys.all_columns a"
+                    + " CROSS JOIN sys.all_columns b");
+            // counts the statements that update the table
+            stmt.execute("CREATE TRIGGER " + triggerName + " ON " + tableName + " AFTER UPDATE, DELETE AS INSERT INTO "
+                    + logTableName + " DEFAULT VALUES");
+        }
+    }
+
+    @Test
+    public void testUpdate() throws SQLException {
+        try (Connection con = PrepUtil.getConnection(connectionString + ";useBulkCopyForBatchUpdate=true");
+                PreparedStatement pstmt = con
+                        .prepareStatement("UPDATE " + tableName + " SET name = ?, amount = ? WHERE id = ?")) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                pstmt.setString(1, "row " + i);
+                pstmt.setBigDecimal(2, new BigDecimal(i + ".25"));
+                pstmt.setInt(3, i);
+                pstmt.addBatch();
+            }
+            // a missing key, and a key that is updated twice
+            pstmt.setString(1, "missing");
+            pstmt.setNull(2, Types.DECIMAL);
+            pstmt.setInt(3, -1);
+            pstmt.addBatch();
+            pstmt.setString(1, "last");
+            pstmt.setNull(2, Types.DECIMAL);
+            pstmt.setInt(3, 1234);
+            pstmt.addBatch();
+
+            int[] updateCounts = pstmt.executeBatch();
+            assertEquals(ROW_COUNT + 2, updateCounts.length);
+            for (int i = 0; i < ROW_COUNT; i++) {
+                assertEquals(1, updateCounts[i]);
+            }
+            assertEquals(0, updateCounts[ROW_COUNT]);
+            assertEquals(1, updateCounts[ROW_COUNT + 1]);
+        }
+
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(
+                "SELECT name, amount FROM " + tableName + " WHERE id IN (1234, 4321) ORDER BY id")) {
+            rs.next();
+            assertEquals("last", rs.getString(1));
+            assertEquals(null, rs.getBigDecimal(2));
+            rs.next();
+            assertEquals("row 4321", rs.getString(1));
+            assertEquals("4321.25", rs.getBigDecimal(2).toPlainString());
+        }
+        assertCount(logTableName, 1);
+    }
+
+    @Test
+    public void testUpdateCountsOfNonUniqueKey() throws SQLException {
+        try (Connection con = PrepUtil.getConnection(connectionString + ";useBulkCopyForBatchUpdate=true");
+                PreparedStatement pstmt = con
+                        .prepareStatement("UPDATE " + tableName + " SET name = ? WHERE grp = ? AND name = ?")) {
+            for (int grp = 0; grp < 3; grp++) {
+                pstmt.setString(1, "group " + grp);
+                pstmt.setInt(2, grp);
+                pstmt.setString(3, "row");
+                pstmt.addBatch();
+            }
+            pstmt.setString(1, "none");
+            pstmt.setInt(2, 0);
+            pstmt.setString(3, "no row");
+            pstmt.addBatch();
+            assertArrayEquals(new int[] {10, 10, 10, 0}, pstmt.executeBatch());
+        }
+        assertCount(tableName + " WHERE name LIKE 'group %'", 30);
+    }
+
+    @Test
+    public void testDelete() throws SQLException {
+        try (Connection con = PrepUtil.getConnection(connectionString + ";useBulkCopyForBatchUpdate=true");
+                PreparedStatement pstmt = con.prepareStatement("DELETE FROM " + tableName + " WHERE grp = ?")) {
+            // every group twice, only the first of them deletes its rows
+            for (int i = 0; i < ROW_COUNT / 5; i++) {
+                pstmt.setInt(1, i % (ROW_COUNT / 10));
+                pstmt.addBatch();
+            }
+            int[] updateCounts = pstmt.executeBatch();
+            assertEquals(ROW_COUNT / 5, updateCounts.length);
+            for (int i = 0; i < updateCounts.length; i++) {
+                assertEquals((i < ROW_COUNT / 10) ? 10 : 0, updateCounts[i]);
+            }
+        }
+        assertCount(tableName, 0);
+        assertCount(logTableName, 1);
+    }
+
+    @Test
+    public void testFailedUpdate() throws SQLException {
+        try (Connection con = PrepUtil.getConnection(connectionString + ";useBulkCopyForBatchUpdate=true");
+                PreparedStatement pstmt = con
+                        .prepareStatement("UPDATE " + tableName + " SET grp = ? WHERE id = ?")) {
+            for (int i = 0; i < 100; i++) {
+                // grp is NOT NULL
+                if (50 == i) {
+                    pstmt.setNull(1, Types.INTEGER);
+                } else {
+                    pstmt.setInt(1, -i);
+                }
+                pstmt.setInt(2, i);
+                pstmt.addBatch();
+            }
+            BatchUpdateException e = assertThrows(BatchUpdateException.class, pstmt::executeBatch);
+
+            // the statement fails as a whole
+            int[] updateCounts = e.getUpdateCounts();
+            assertEquals(100, updateCounts.length);
+            for (int updateCount : updateCounts) {
+                assertEquals(Statement.EXECUTE_FAILED, updateCount);
+            }
+        }
+        assertCount(tableName + " WHERE grp < 0", 0);
+    }
+
+    @Test
+    public void testFailedUpdateRollsBackTransaction() throws SQLException {
+        try (Connection con = PrepUtil.getConnection(connectionString + ";useBulkCopyForBatchUpdate=true");
+                Statement stmt = con.createStatement();
+                PreparedStatement pstmt = con
+                        .prepareStatement("UPDATE " + tableName + " SET grp = ? WHERE id = ?")) {
+            stmt.execute("SET XACT_ABORT ON");
+            con.setAutoCommit(false);
+            for (int i = 0; i < 10; i++) {
+                // grp is NOT NULL
+                if (5 == i) {
+                    pstmt.setNull(1, Types.INTEGER);
+                } else {
+                    pstmt.setInt(1, -i);
+                }
+                pstmt.setInt(2, i);
+                pstmt.addBatch();
+            }
+
+            // the error rolled back the transaction, so it is thrown as is, like by a batch executed row by row
+            SQLException e = assertThrows(SQLException.class, pstmt::executeBatch);
+            assertFalse(e instanceof BatchUpdateException);
+            con.rollback();
+
+            // the connection is still usable for staged batches
+            for (int i = 0; i < 10; i++) {
+                pstmt.setInt(1, -i);
+                pstmt.setInt(2, i);
+                pstmt.addBatch();
+            }
+            assertArrayEquals(new int[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1}, pstmt.executeBatch());
+            con.commit();
+        }
+        assertCount(tableName + " WHERE grp < 0", 9);
+    }
+
+    @Test
+    public void testStatementNotRewritten() throws SQLException {
+        try (Connection con = PrepUtil.getConnection(connectionString + ";useBulkCopyForBatchUpdate=true");
+                PreparedStatement pstmt = con
+                        .prepareStatement("UPDATE " + tableName + " SET name = ? WHERE id >= ?")) {
+            for (int i = 0; i < 10; i++) {
+                pstmt.setString(1, "row " + i);
+                pstmt.setInt(2, ROW_COUNT - 10 + i);
+                pstmt.addBatch();
+            }
+            assertArrayEquals(new int[] {10, 9, 8, 7, 6, 5, 4, 3, 2, 1}, pstmt.executeBatch());
+        }
+        assertCount(logTableName, 10);
+    }
+
+    private void assertCount(String table, int rowCount) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            assertEquals(rowCount, rs.getInt(1));
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            TestUtils.dropTableIfExists(logTableName, stmt);
+        }
+    }
+}
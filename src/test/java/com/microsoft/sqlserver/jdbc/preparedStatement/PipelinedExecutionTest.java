@@ -0,0 +1,164 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.preparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class PipelinedExecutionTest extends AbstractTest {
+
+    private static final String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("pipelinedExecution"));
+
+    @Test
+    public void testPipelinedUpdatesAndQueries() throws SQLException {
+        try (SQLServerConnection conn = getConnection();
+                PreparedStatement insert1 = conn.prepareStatement("insert into " + tableName + " values (?, ?)");
+                PreparedStatement insert2 = conn.prepareStatement("insert into " + tableName + " values (?, ?)");
+                PreparedStatement select = conn
+                        .prepareStatement("select id, name from " + tableName + " where id >= ? order by id")) {
+            // Execute several times so that the statements go through sp_executesql, sp_prepexec and sp_execute
+            for (int i = 0; i < 3; i++) {
+                insert1.setInt(1, 2 * i);
+                insert1.setString(2, "even" + i);
+                insert2.setInt(1, 2 * i + 1);
+                insert2.setString(2, "odd" + i);
+                select.setInt(1, 2 * i);
+
+                assertArrayEquals(new boolean[] {false, false, true}, conn.executePipelined(insert1, insert2, select));
+                assertEquals(1, insert1.getUpdateCount());
+                assertEquals(1, insert2.getUpdateCount());
+                try (ResultSet rs = select.getResultSet()) {
+                    assertTrue(rs.next());
+                    assertEquals(2 * i, rs.getInt(1));
+                    assertEquals("even" + i, rs.getString(2));
+                    assertTrue(rs.next());
+                    assertEquals(2 * i + 1, rs.getInt(1));
+                    assertFalse(rs.next());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPipelinedResultsReadOutOfOrder() throws SQLException {
+        try (SQLServerConnection conn = getConnection();
+                PreparedStatement select1 = conn.prepareStatement("select count(*) from sys.objects where ? = 1");
+                PreparedStatement select2 = conn.prepareStatement("select ?")) {
+            select1.setInt(1, 1);
+            select2.setString(1, "second");
+
+            assertArrayEquals(new boolean[] {true, true}, conn.executePipelined(select1, select2));
+            try (ResultSet rs = select2.getResultSet()) {
+                assertTrue(rs.next());
+                assertEquals("second", rs.getString(1));
+            }
+            try (ResultSet rs = select1.getResultSet()) {
+                assertTrue(rs.next());
+                assertTrue(0 < rs.getInt(1));
+            }
+
+            // The connection is usable for regular statements afterwards
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("select 1")) {
+                assertTrue(rs.next());
+            }
+        }
+    }
+
+    @Test
+    public void testPipelinedErrorsAreChained() throws SQLException {
+        try (SQLServerConnection conn = getConnection();
+                PreparedStatement insert = conn.prepareStatement("insert into " + tableName + " values (?, ?)");
+                PreparedStatement failing1 = conn.prepareStatement("insert into " + tableName + " values (?, ?)");
+                PreparedStatement failing2 = conn.prepareStatement("insert into " + tableName + " values (?, ?)");
+                PreparedStatement select = conn.prepareStatement("select count(*) from " + tableName)) {
+            // Both later inserts violate the primary key
+            for (PreparedStatement pstmt : new PreparedStatement[] {insert, failing1, failing2}) {
+                pstmt.setInt(1, 100);
+                pstmt.setString(2, "pipelined");
+            }
+
+            SQLServerException e = assertThrows(SQLServerException.class,
+                    () -> conn.executePipelined(insert, failing1, failing2, select));
+            assertTrue(null != e.getNextException());
+
+            // The statements around the failures still executed
+            assertEquals(1, insert.getUpdateCount());
+            try (ResultSet rs = select.getResultSet()) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedPipelines() throws SQLException {
+        try (SQLServerConnection conn = getConnection();
+                PreparedStatement select1 = conn.prepareStatement("select 1");
+                PreparedStatement select2 = conn.prepareStatement("select 2");
+                CallableStatement call = conn.prepareCall("{call sp_who}")) {
+            assertThrows(SQLServerException.class, () -> conn.executePipelined(select1, select1));
+            assertThrows(SQLServerException.class, () -> conn.executePipelined(select1, call));
+
+            select2.setMaxRows(1);
+            assertThrows(SQLServerException.class, () -> conn.executePipelined(select1, select2));
+            select2.setMaxRows(0);
+
+            conn.setAutoCommit(false);
+            assertThrows(SQLServerException.class, () -> conn.executePipelined(select1, select2));
+            conn.setAutoCommit(true);
+
+            assertEquals(0, conn.executePipelined().length);
+        }
+    }
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+    }
+
+    @BeforeEach
+    public void testSetup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            stmt.execute("create table " + tableName + " (id int primary key, name varchar(50))");
+        }
+    }
+
+    @AfterAll
+    public static void terminateVariation() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+        }
+    }
+}
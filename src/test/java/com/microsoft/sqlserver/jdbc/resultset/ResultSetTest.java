@@ -44,6 +44,7 @@ import org.junit.runner.RunWith;
 
 import com.microsoft.sqlserver.jdbc.ISQLServerResultSet;
 import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerColumnBatch;
 import com.microsoft.sqlserver.jdbc.TestUtils;
 import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
 import com.microsoft.sqlserver.testframework.AbstractTest;
@@ -709,6 +710,194 @@ public class ResultSetTest extends AbstractTest {
         }
     }
 
+    /**
+     * Tests the primitive getters on fixed-length numeric columns, including conversions, NULL values and repeated and
+     * out of order reads, for forward-only and scrollable result sets.
+     */
+    @Test
+    public void testPrimitiveGetters() throws SQLException {
+        String sql = "SELECT CAST(c1 AS bit), CAST(c2 AS tinyint), CAST(c3 AS smallint), CAST(c4 AS int),"
+                + " CAST(c5 AS bigint), CAST(c6 AS real), CAST(c7 AS float), CAST(c8 AS money),"
+                + " CAST(c9 AS smallmoney) FROM (VALUES"
+                + " (1, 255, -32768, -2147483648, -9223372036854775808, -1.5, 2.5E100, -922337203685477.5808, 214748.3647),"
+                + " (0, 0, 32767, 2147483647, 9223372036854775807, 0.0, 0.5, 1.2345, -1.0001),"
+                + " (NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL))"
+                + " AS t (c1, c2, c3, c4, c5, c6, c7, c8, c9) ORDER BY c4 DESC";
+
+        for (int type : new int[] {ResultSet.TYPE_FORWARD_ONLY, ResultSet.TYPE_SCROLL_INSENSITIVE}) {
+            try (Connection con = getConnection(); Statement stmt = con.createStatement(type,
+                    ResultSet.CONCUR_READ_ONLY); ResultSet rs = stmt.executeQuery(sql)) {
+                assertTrue(rs.next());
+                assertEquals(2147483647, rs.getInt(4));
+                assertFalse(rs.wasNull());
+                assertFalse(rs.getBoolean(1));
+                assertEquals(0, rs.getByte(2));
+                assertEquals(32767, rs.getShort(3));
+                assertEquals(-1, rs.getByte(3));
+                assertEquals(9223372036854775807L, rs.getLong(5));
+                assertEquals(-1, rs.getInt(5));
+                assertEquals(0.0f, rs.getFloat(6));
+                assertFalse(rs.getBoolean(6));
+                assertEquals(0.5, rs.getDouble(7));
+                assertEquals(0, rs.getInt(7));
+                assertTrue(rs.getBoolean(7));
+                assertEquals(1.2345, rs.getDouble(8));
+                assertEquals(1, rs.getInt(8));
+                assertEquals(-1.0001f, rs.getFloat(9));
+                assertEquals(-1, rs.getLong(9));
+                assertEquals(new BigDecimal("1.2345"), rs.getBigDecimal(8));
+                assertEquals(2147483647L, rs.getLong(4));
+
+                assertTrue(rs.next());
+                assertEquals(-9223372036854775808L, rs.getLong(5));
+                assertEquals(-2147483648, rs.getInt(4));
+                assertEquals("-2147483648", rs.getString(4));
+                assertEquals(-2147483648, rs.getInt(4));
+                assertTrue(rs.getBoolean(1));
+                assertEquals(1, rs.getInt(1));
+                assertEquals(-1, rs.getByte(2));
+                assertEquals(255, rs.getShort(2));
+                assertEquals(-32768, rs.getShort(3));
+                assertEquals(-1.5f, rs.getFloat(6));
+                assertEquals(-1, rs.getInt(6));
+                assertEquals(2.5E100, rs.getDouble(7));
+                assertEquals(Float.POSITIVE_INFINITY, rs.getFloat(7));
+                assertEquals(-922337203685477.5808, rs.getDouble(8));
+                assertEquals(-922337203685477L, rs.getLong(8));
+                assertEquals(214748.3647f, rs.getFloat(9));
+                assertEquals(214748.3647, rs.getDouble(9));
+
+                assertTrue(rs.next());
+                for (int i = 1; i <= 9; i++) {
+                    assertEquals(0L, rs.getLong(i));
+                    assertTrue(rs.wasNull());
+                    assertEquals(0.0, rs.getDouble(i));
+                    assertFalse(rs.getBoolean(i));
+                    assertNull(rs.getObject(i));
+                }
+                assertFalse(rs.next());
+            }
+        }
+    }
+
+    /**
+     * Tests reading a result set into column batches, for forward-only and scrollable result sets.
+     */
+    @Test
+    public void testFetchColumns() throws SQLException {
+        String sql = "SELECT c1, CAST(c2 AS bigint), CAST(c3 AS float), CAST(c4 AS varbinary(10)), c5, c6 FROM (VALUES"
+                + " (1, 10, 1.5, 0x01, 'a', 'skipped'), (2, NULL, 2.5, NULL, 'b', 'skipped'),"
+                + " (3, 30, NULL, 0x0303, NULL, 'skipped'), (4, 40, 4.5, 0x04, 'd', 'skipped'),"
+                + " (5, 50, 5.5, 0x05, 'e', 'skipped')) AS t (c1, c2, c3, c4, c5, c6) ORDER BY c1";
+
+        for (int type : new int[] {ResultSet.TYPE_FORWARD_ONLY, ResultSet.TYPE_SCROLL_INSENSITIVE}) {
+            try (Connection con = getConnection(); Statement stmt = con.createStatement(type,
+                    ResultSet.CONCUR_READ_ONLY);
+                    ISQLServerResultSet rs = (ISQLServerResultSet) stmt.executeQuery(sql)) {
+                SQLServerColumnBatch batch = new SQLServerColumnBatch(2);
+                int[] c1 = new int[2];
+                long[] c2 = new long[2];
+                double[] c3 = new double[2];
+                byte[][] c4 = new byte[2][];
+                String[] c5 = new String[2];
+                batch.bindInts(1, c1);
+                batch.bindLongs(2, c2);
+                batch.bindDoubles(3, c3);
+                batch.bindBytes(4, c4);
+                batch.bindStrings(5, c5);
+
+                assertEquals(2, rs.fetchColumns(batch));
+                assertArrayEquals(new int[] {1, 2}, c1);
+                assertArrayEquals(new long[] {10, 0}, c2);
+                assertFalse(batch.isNull(2, 0));
+                assertTrue(batch.isNull(2, 1));
+                assertArrayEquals(new byte[] {0x01}, c4[0]);
+                assertNull(c4[1]);
+                assertEquals(2L, batch.getNulls(4)[0]);
+                assertArrayEquals(new String[] {"a", "b"}, c5);
+
+                // The cursor is on the last row read into the batch
+                assertEquals(2, rs.getInt(1));
+                assertEquals("skipped", rs.getString(6));
+
+                assertEquals(2, rs.fetchColumns(batch));
+                assertArrayEquals(new int[] {3, 4}, c1);
+                assertEquals(0.0, c3[0]);
+                assertTrue(batch.isNull(3, 0));
+                assertEquals(4.5, c3[1]);
+                assertNull(c5[0]);
+                assertTrue(batch.isNull(5, 0));
+                assertFalse(batch.isNull(5, 1));
+
+                batch.unbind(5);
+                assertEquals(1, rs.fetchColumns(batch));
+                assertEquals(1, batch.getRowCount());
+                assertEquals(5, c1[0]);
+                assertEquals(50L, c2[0]);
+                assertEquals("d", c5[1]);
+
+                assertEquals(0, rs.fetchColumns(batch));
+                assertTrue(rs.isAfterLast());
+            }
+        }
+    }
+
+    /**
+     * Tests reading a few columns of wide rows in any order, skipping the other columns. Most values are NULL, so that
+     * the server sends NBCROW rows.
+     */
+    @Test
+    public void testReadFewColumnsOfWideRows() throws SQLException {
+        int columnCount = 200;
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1)
+                sql.append(", ");
+            switch (i % 4) {
+                case 1:
+                    sql.append("CASE WHEN r % 2 = 0 THEN NULL ELSE r * 1000 + ").append(i).append(" END");
+                    break;
+                case 2:
+                    sql.append("CAST(NULL AS varchar(10))");
+                    break;
+                case 3:
+                    sql.append("CAST(REPLICATE('x', r) + '").append(i).append("' AS varchar(max))");
+                    break;
+                default:
+                    sql.append("CAST(NULL AS float)");
+                    break;
+            }
+        }
+        sql.append(" FROM (VALUES (1), (2), (3), (4)) AS t (r) ORDER BY r");
+
+        int[][] readOrders = {{1}, {199, 3, 197}, {2, 101, 4, 103, 200}, {}};
+        for (int type : new int[] {ResultSet.TYPE_FORWARD_ONLY, ResultSet.TYPE_SCROLL_INSENSITIVE}) {
+            try (Connection con = getConnection(); Statement stmt = con.createStatement(type,
+                    ResultSet.CONCUR_READ_ONLY); ResultSet rs = stmt.executeQuery(sql.toString())) {
+                for (int r = 1; r <= readOrders.length; r++) {
+                    assertTrue(rs.next());
+                    for (int i : readOrders[r - 1]) {
+                        for (int repeat = 0; repeat < 2; repeat++) {
+                            switch (i % 4) {
+                                case 1:
+                                    assertEquals(0 == r % 2 ? null : r * 1000 + i, rs.getObject(i));
+                                    break;
+                                case 3:
+                                    assertEquals(new String(new char[r]).replace('\0', 'x') + i, rs.getString(i));
+                                    break;
+                                default:
+                                    assertNull(rs.getObject(i));
+                                    assertTrue(rs.wasNull());
+                                    break;
+                            }
+                        }
+                    }
+                }
+                assertFalse(rs.next());
+            }
+        }
+    }
+
     private void ambiguousUpdateRowTestSetup(Connection conn) throws SQLException {
         try (Statement stmt = conn.createStatement()) {
             stmt.execute("CREATE TABLE " + tableName1 + " (i INT, data VARCHAR(30))");
@@ -6,9 +6,17 @@
 package com.microsoft.sqlserver.jdbc.tvp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
 import java.sql.Types;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
@@ -91,6 +99,31 @@ public class SQLServerDataTableTest {
         assert (!table.equals(tableClone));
     }
 
+    @Test
+    public void testIterator() throws SQLServerException {
+        SQLServerDataTable table = new SQLServerDataTable();
+        table.addColumnMetadata("c1", Types.INTEGER);
+        table.addColumnMetadata("c2", Types.VARCHAR);
+        int rowCount = 1000;
+        for (int i = 0; i < rowCount; i++) {
+            table.addRow(i, "row " + i);
+        }
+
+        // rows are returned in the order they were added, keyed by their index
+        Iterator<Map.Entry<Integer, Object[]>> iterator = table.getIterator();
+        for (int i = 0; i < rowCount; i++) {
+            assertTrue(iterator.hasNext());
+            Map.Entry<Integer, Object[]> row = iterator.next();
+            assertEquals(i, (int) row.getKey());
+            assertArrayEquals(new Object[] {i, "row " + i}, row.getValue());
+        }
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+
+        table.clear();
+        assertFalse(table.getIterator().hasNext());
+    }
+
     private SQLServerDataTable createTable(SQLServerDataColumn a, SQLServerDataColumn b) throws SQLServerException {
         SQLServerDataTable table = new SQLServerDataTable();
         table.addColumnMetadata(a);
@@ -0,0 +1,150 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.tvp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerDataTable;
+import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+/**
+ * Tests TVPs with many rows of numeric columns, from a SQLServerDataTable and from a ResultSet.
+ */
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class TVPStreamingTest extends AbstractTest {
+    private static final int ROW_COUNT = 50000;
+    private static final String COLUMNS = "(c1 int, c2 bigint, c3 smallint, c4 tinyint, c5 bit, c6 float, c7 real,"
+            + " c8 nvarchar(50))";
+    private static final String AGGREGATES = "SELECT COUNT(*), COUNT(c1), SUM(CAST(c1 AS bigint)), SUM(c2),"
+            + " MIN(c3), MAX(c4), SUM(CAST(c5 AS int)), SUM(c6), COUNT(c8) FROM ";
+
+    private static String tvpName = RandomUtil.getIdentifier("TVPStreamingType");
+    private static String tableName = AbstractSQLGenerator.escapeIdentifier(RandomUtil.getIdentifier("TVPStreaming"));
+    private static String copyTableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("TVPStreamingCopy"));
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            TestUtils.dropTableIfExists(copyTableName, stmt);
+            TestUtils.dropTypeIfExists(tvpName, stmt);
+            stmt.execute("CREATE TYPE " + AbstractSQLGenerator.escapeIdentifier(tvpName) + " AS TABLE " + COLUMNS);
+            stmt.execute("CREATE TABLE " + tableName + " " + COLUMNS);
+            stmt.execute("CREATE TABLE " + copyTableName + " " + COLUMNS);
+        }
+    }
+
+    @BeforeEach
+    public void clearTables() throws SQLException {
+        TestUtils.clearTable(connection, tableName);
+        TestUtils.clearTable(connection, copyTableName);
+    }
+
+    @Test
+    public void testDataTable() throws SQLException {
+        insertDataTable();
+        validate(tableName);
+
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT c7, c8 FROM " + tableName + " WHERE c1 = 4321")) {
+            rs.next();
+            assertEquals(4321 * 0.25f, rs.getFloat(1));
+            assertEquals("row 4321", rs.getString(2));
+        }
+    }
+
+    @Test
+    public void testResultSet() throws SQLException {
+        insertDataTable();
+
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT * FROM " + tableName);
+                SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) connection
+                        .prepareStatement("INSERT INTO " + copyTableName + " SELECT * FROM ?")) {
+            pstmt.setStructured(1, tvpName, rs);
+            pstmt.execute();
+        }
+        validate(copyTableName);
+    }
+
+    /**
+     * Inserts rows where every tenth row is NULL.
+     */
+    private static void insertDataTable() throws SQLException {
+        SQLServerDataTable tvp = new SQLServerDataTable();
+        tvp.addColumnMetadata("c1", Types.INTEGER);
+        tvp.addColumnMetadata("c2", Types.BIGINT);
+        tvp.addColumnMetadata("c3", Types.SMALLINT);
+        tvp.addColumnMetadata("c4", Types.TINYINT);
+        tvp.addColumnMetadata("c5", Types.BIT);
+        tvp.addColumnMetadata("c6", Types.DOUBLE);
+        tvp.addColumnMetadata("c7", Types.REAL);
+        tvp.addColumnMetadata("c8", Types.NVARCHAR);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            if (0 == i % 10) {
+                tvp.addRow(null, null, (short) -i, (short) (i % 256), i % 2 == 1, null, null, null);
+            } else {
+                tvp.addRow(i, i * 1000000L, (short) -i, (short) (i % 256), i % 2 == 1, i * 0.5, i * 0.25f,
+                        "row " + i);
+            }
+        }
+
+        try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) connection
+                .prepareStatement("INSERT INTO " + tableName + " SELECT * FROM ?")) {
+            pstmt.setStructured(1, tvpName, tvp);
+            pstmt.execute();
+        }
+    }
+
+    private static void validate(String table) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(AGGREGATES + table)) {
+            rs.next();
+            assertEquals(ROW_COUNT, rs.getInt(1));
+            assertEquals(ROW_COUNT - ROW_COUNT / 10, rs.getInt(2));
+            long sum = 0;
+            for (int i = 0; i < ROW_COUNT; i++) {
+                sum += (0 == i % 10) ? 0 : i;
+            }
+            assertEquals(sum, rs.getLong(3));
+            assertEquals(sum * 1000000L, rs.getLong(4));
+            assertEquals(-(ROW_COUNT - 1), rs.getInt(5));
+            assertEquals(255, rs.getInt(6));
+            assertEquals(ROW_COUNT / 2, rs.getInt(7));
+            assertEquals(sum * 0.5, rs.getDouble(8), 0.001);
+            assertEquals(ROW_COUNT - ROW_COUNT / 10, rs.getInt(9));
+        }
+    }
+
+    @AfterAll
+    public static void cleanup() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            TestUtils.dropTableIfExists(copyTableName, stmt);
+            TestUtils.dropTypeIfExists(tvpName, stmt);
+        }
+    }
+}
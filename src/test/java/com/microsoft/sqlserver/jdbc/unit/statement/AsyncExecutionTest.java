@@ -0,0 +1,179 @@
+/*
+ * Microsoft JDBC Driver for SQL Server Copyright(c) Microsoft Corporation All rights reserved. This program is made
+ * available under the terms of the MIT License. See the LICENSE file in the project root for more information.
+ */
+package com.microsoft.sqlserver.jdbc.unit.statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import com.microsoft.sqlserver.jdbc.RandomUtil;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.microsoft.sqlserver.jdbc.SQLServerException;
+import com.microsoft.sqlserver.jdbc.SQLServerPreparedStatement;
+import com.microsoft.sqlserver.jdbc.SQLServerStatement;
+import com.microsoft.sqlserver.jdbc.TestUtils;
+import com.microsoft.sqlserver.testframework.AbstractSQLGenerator;
+import com.microsoft.sqlserver.testframework.AbstractTest;
+import com.microsoft.sqlserver.testframework.Constants;
+
+
+@RunWith(JUnitPlatform.class)
+@Tag(Constants.xAzureSQLDW)
+public class AsyncExecutionTest extends AbstractTest {
+
+    private static final String tableName = AbstractSQLGenerator
+            .escapeIdentifier(RandomUtil.getIdentifier("asyncExecution"));
+
+    @Test
+    public void testExecutionsRunInSubmissionOrder() throws Exception {
+        try (SQLServerConnection conn = getConnection()) {
+            List<SQLServerPreparedStatement> statements = new ArrayList<>();
+            List<CompletableFuture<Integer>> updates = new ArrayList<>();
+            try {
+                for (int i = 0; i < 20; i++) {
+                    SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) conn
+                            .prepareStatement("insert into " + tableName + " values (?)");
+                    pstmt.setInt(1, i);
+                    statements.add(pstmt);
+                    updates.add(pstmt.executeUpdateAsync());
+                }
+                for (CompletableFuture<Integer> update : updates) {
+                    assertEquals(1, update.get(30, TimeUnit.SECONDS).intValue());
+                }
+            } finally {
+                for (SQLServerPreparedStatement pstmt : statements)
+                    pstmt.close();
+            }
+
+            try (SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+                CompletableFuture<ResultSet> query = stmt
+                        .executeQueryAsync("select id from " + tableName + " order by id");
+                try (ResultSet rs = query.get(30, TimeUnit.SECONDS)) {
+                    for (int i = 0; i < 20; i++) {
+                        assertTrue(rs.next());
+                        assertEquals(i, rs.getInt(1));
+                    }
+                    assertFalse(rs.next());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExecutionErrorCompletesFuture() throws Exception {
+        try (SQLServerConnection conn = getConnection();
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            String missingTable = AbstractSQLGenerator.escapeIdentifier(RandomUtil.getIdentifier("missing"));
+            CompletableFuture<Integer> update = stmt.executeUpdateAsync("insert into " + missingTable + " values (1)");
+            ExecutionException e = assertThrows(ExecutionException.class, () -> update.get(30, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof SQLServerException);
+
+            // The connection keeps executing asynchronously after a failure
+            CompletableFuture<Integer> delete = stmt.executeUpdateAsync("delete from " + tableName + " where 1 = 0");
+            assertEquals(0, delete.get(30, TimeUnit.SECONDS).intValue());
+        }
+    }
+
+    @Test
+    public void testCancelBeforeStart() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        try (SQLServerConnection conn = getConnection();
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            // Occupy the only thread of the executor so that the execution cannot start before it is cancelled
+            executor.execute(() -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            CompletableFuture<Integer> update = stmt.executeUpdateAsync("insert into " + tableName + " values (-1)",
+                    executor);
+            assertTrue(update.cancel(true));
+            blocked.countDown();
+
+            CompletableFuture<ResultSet> query = stmt
+                    .executeQueryAsync("select count(*) from " + tableName + " where id = -1", executor);
+            try (ResultSet rs = query.get(30, TimeUnit.SECONDS)) {
+                assertTrue(rs.next());
+                assertEquals(0, rs.getInt(1));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancelBeforeStartDoesNotCancelRunningExecution() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch blocked = new CountDownLatch(1);
+        try (SQLServerConnection conn = getConnection();
+                SQLServerStatement stmt = (SQLServerStatement) conn.createStatement()) {
+            executor.execute(() -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            // A synchronous execution of the statement runs while an asynchronous one that never started is cancelled
+            CompletableFuture<Integer> running = CompletableFuture.supplyAsync(() -> {
+                try (ResultSet rs = stmt.executeQuery("waitfor delay '00:00:02'; select 1")) {
+                    rs.next();
+                    return rs.getInt(1);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            Thread.sleep(500);
+            CompletableFuture<Integer> update = stmt.executeUpdateAsync("insert into " + tableName + " values (-2)",
+                    executor);
+            assertTrue(update.cancel(true));
+            blocked.countDown();
+
+            assertEquals(1, running.get(30, TimeUnit.SECONDS).intValue());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @BeforeAll
+    public static void setupTests() throws Exception {
+        setConnection();
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+            stmt.execute("create table " + tableName + " (id int)");
+        }
+    }
+
+    @AfterAll
+    public static void terminateVariation() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            TestUtils.dropTableIfExists(tableName, stmt);
+        }
+    }
+}
@@ -480,6 +480,43 @@ public class PreparedStatementTest extends AbstractTest {
         }
     }
 
+    /**
+     * Tests that adaptivePrepare prepares a statement later after its handle was evicted without being reused.
+     */
+    @Test
+    public void testAdaptivePrepare() throws SQLException {
+        try (SQLServerConnection con = (SQLServerConnection) PrepUtil.getConnection(connectionString
+                + ";adaptivePrepare=true;disableStatementPooling=false;statementPoolingCacheSize=1")) {
+            String lookupUniqueifier = UUID.randomUUID().toString();
+            String query1 = String.format("/*adaptivepreparetest_%s*/SELECT 1;", lookupUniqueifier);
+            String query2 = String.format("/*adaptivepreparetest_%s*/SELECT 2;", lookupUniqueifier);
+
+            // Prepared on the second execution
+            assertSame(0, executeAndGetHandle(con, query1));
+            assertTrue(0 != executeAndGetHandle(con, query1));
+
+            // Evicts the handle of the first statement, which was not reused
+            assertSame(0, executeAndGetHandle(con, query2));
+            assertTrue(0 != executeAndGetHandle(con, query2));
+
+            // Prepared on the fourth execution
+            for (int i = 0; i < 3; i++) {
+                assertSame(0, executeAndGetHandle(con, query1));
+            }
+            int handle = executeAndGetHandle(con, query1);
+            assertTrue(0 != handle);
+            assertEquals(handle, executeAndGetHandle(con, query1));
+        }
+    }
+
+    private int executeAndGetHandle(SQLServerConnection con, String query) throws SQLException {
+        try (SQLServerPreparedStatement pstmt = (SQLServerPreparedStatement) con.prepareStatement(query)) {
+            pstmt.execute();
+            pstmt.getMoreResults(); // Make sure handle is updated.
+            return pstmt.getPreparedStatementHandle();
+        }
+    }
+
     /**
      * Test handling of the two configuration knobs related to prepared statement handling.
      * 